@@ -19,16 +19,17 @@ package org.apache.ignite.ci;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.apache.ignite.ci.analysis.FullChainRunCtx;
 import org.apache.ignite.ci.analysis.MultBuildRunCtx;
 import org.apache.ignite.ci.analysis.RunStat;
@@ -38,6 +39,7 @@ import org.apache.ignite.ci.analysis.mode.LatestRebuildMode;
 import org.apache.ignite.ci.analysis.mode.ProcessLogsMode;
 import org.apache.ignite.ci.tcmodel.hist.BuildRef;
 import org.apache.ignite.ci.tcmodel.result.Build;
+import org.apache.ignite.ci.util.FutureUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -84,54 +86,33 @@ public class BuildChainProcessor {
         if (entryPoints.isEmpty())
             return new FullChainRunCtx(Build.createFakeStub());
 
+        ITeamcityAsync tcAsync = teamcity.async();
+
         BuildRef next = entryPoints.iterator().next();
-        Build results = teamcity.getBuild(next.href);
-        FullChainRunCtx fullChainRunCtx = new FullChainRunCtx(results);
+        CompletableFuture<Build> chainBuildFut = tcAsync.getBuild(next.href);
 
         Map<Integer, BuildRef> unique = new ConcurrentHashMap<>();
         Map<String, MultBuildRunCtx> buildsCtxMap = new ConcurrentHashMap<>();
 
-        entryPoints.stream()
-            .parallel()
-            .unordered()
-            .flatMap(ref -> dependencies(teamcity, ref)).filter(Objects::nonNull)
-            .flatMap(ref -> dependencies(teamcity, ref)).filter(Objects::nonNull)
-            .filter(ref -> ensureUnique(unique, ref))
-            .flatMap((BuildRef buildRef) -> {
-                    if (includeLatestRebuild == LatestRebuildMode.NONE)
-                        return Stream.of(buildRef);
-
-                    final String branch = getBranchOrDefault(buildRef.branchName);
-
-                    final List<BuildRef> builds = teamcity.getFinishedBuilds(buildRef.buildTypeId, branch);
-
-                    if (includeLatestRebuild == LatestRebuildMode.LATEST) {
-                        BuildRef recentRef = builds.stream().max(Comparator.comparing(BuildRef::getId)).orElse(buildRef);
-
-                        return Stream.of(recentRef.isFakeStub() ? buildRef : recentRef);
-                    }
-
-                    if (includeLatestRebuild == LatestRebuildMode.ALL) {
-                        return builds.stream()
-                            .filter(ref -> !ref.isFakeStub())
-                            .filter(ref -> ensureUnique(unique, ref))
-                            .sorted(Comparator.comparing(BuildRef::getId).reversed())
-                            .limit(entryPoints.size()); // applying same limit
-                    }
-
-                    throw new UnsupportedOperationException("invalid mode " + includeLatestRebuild);
-                }
-            )
-            .forEach((BuildRef buildRef) -> {
-                Build build = teamcity.getBuild(buildRef.href);
-                if (build == null || build.isFakeStub())
-                    return;
-
-                String buildTypeId = build.buildTypeId;
-                MultBuildRunCtx ctx = buildsCtxMap.computeIfAbsent(buildTypeId, k -> new MultBuildRunCtx(build));
-
-                collectBuildContext(ctx, teamcity, procLog, contactPersonProps, includeScheduledInfo, build);
-            });
+        // Each stage requests all builds of previous stage concurrently, requests are executed by server I/O pool.
+        CompletableFuture<List<Void>> chainFut = dependencies(tcAsync, entryPoints)
+            .thenCompose(refs -> dependencies(tcAsync, refs))
+            .thenApply(refs -> refs.stream().filter(ref -> ensureUnique(unique, ref)).collect(Collectors.toList()))
+            .thenCompose(refs -> FutureUtil.allOf(refs.stream()
+                .map(ref -> withLatestRebuilds(tcAsync, ref, includeLatestRebuild, unique, entryPoints.size()))
+                .collect(Collectors.toList())))
+            .thenCompose(refsLists -> tcAsync.getBuilds(refsLists.stream()
+                .flatMap(List::stream)
+                .map(ref -> ref.href)
+                .collect(Collectors.toList())))
+            .thenCompose(builds -> FutureUtil.allOf(builds.values().stream()
+                .map(build -> collectBuildContext(buildsCtxMap, tcAsync, procLog, contactPersonProps,
+                    includeScheduledInfo, build))
+                .collect(Collectors.toList())));
+
+        FullChainRunCtx fullChainRunCtx = new FullChainRunCtx(FutureUtil.getResult(chainBuildFut));
+
+        FutureUtil.getResult(chainFut);
 
         Collection<MultBuildRunCtx> values = buildsCtxMap.values();
         ArrayList<MultBuildRunCtx> contexts = new ArrayList<>(values);
@@ -173,30 +154,72 @@ public class BuildChainProcessor {
         return prevVal == null;
     }
 
-    private static void collectBuildContext(
-        MultBuildRunCtx outCtx, ITeamcity teamcity, ProcessLogsMode procLog,
+    /**
+     * @param teamcity Teamcity.
+     * @param buildRef Build from chain.
+     * @param includeLatestRebuild Mode.
+     * @param unique Already processed builds.
+     * @param limit Limit of builds from history for {@link LatestRebuildMode#ALL}.
+     * @return Future for builds to be processed instead of provided build.
+     */
+    private static CompletableFuture<List<BuildRef>> withLatestRebuilds(ITeamcityAsync teamcity, BuildRef buildRef,
+        LatestRebuildMode includeLatestRebuild, Map<Integer, BuildRef> unique, int limit) {
+        if (includeLatestRebuild == LatestRebuildMode.NONE)
+            return CompletableFuture.completedFuture(Collections.singletonList(buildRef));
+
+        final String branch = getBranchOrDefault(buildRef.branchName);
+
+        return teamcity.getFinishedBuilds(buildRef.buildTypeId, branch).thenApply(builds -> {
+            if (includeLatestRebuild == LatestRebuildMode.LATEST) {
+                BuildRef recentRef = builds.stream().max(Comparator.comparing(BuildRef::getId)).orElse(buildRef);
+
+                return Collections.singletonList(recentRef.isFakeStub() ? buildRef : recentRef);
+            }
+
+            if (includeLatestRebuild == LatestRebuildMode.ALL) {
+                return builds.stream()
+                    .filter(ref -> !ref.isFakeStub())
+                    .filter(ref -> ensureUnique(unique, ref))
+                    .sorted(Comparator.comparing(BuildRef::getId).reversed())
+                    .limit(limit) // applying same limit
+                    .collect(Collectors.toList());
+            }
+
+            throw new UnsupportedOperationException("invalid mode " + includeLatestRebuild);
+        });
+    }
+
+    private static CompletableFuture<Void> collectBuildContext(
+        Map<String, MultBuildRunCtx> buildsCtxMap, ITeamcityAsync tcAsync, ProcessLogsMode procLog,
         @Nullable Properties contactPersonProps, boolean includeScheduledInfo, Build build) {
+        if (build == null || build.isFakeStub())
+            return CompletableFuture.completedFuture(null);
 
-        SingleBuildRunCtx ctx = teamcity.loadTestsAndProblems(build, outCtx);
-        outCtx.addBuild(ctx);
+        ITeamcity teamcity = tcAsync.sync();
 
-        if ((procLog == ProcessLogsMode.SUITE_NOT_COMPLETE && ctx.hasSuiteIncompleteFailure())
-            || procLog == ProcessLogsMode.ALL)
-            ctx.setLogCheckResultsFut(teamcity.analyzeBuildLog(ctx.buildId(), ctx));
+        MultBuildRunCtx outCtx = buildsCtxMap.computeIfAbsent(build.buildTypeId, k -> new MultBuildRunCtx(build));
 
-        if (includeScheduledInfo && !outCtx.hasScheduledBuildsInfo()) {
-            Function<List<BuildRef>, Long> countRelatedToThisBuildType = list ->
-                list.stream()
-                    .filter(ref -> Objects.equals(ref.buildTypeId, build.buildTypeId))
-                    .filter(ref -> Objects.equals(normalizeBranch(build), normalizeBranch(ref)))
-                    .count();
+        return tcAsync.loadTestsAndProblems(build, outCtx).thenAccept(ctx -> {
+            outCtx.addBuild(ctx);
 
-            outCtx.setRunningBuildCount(teamcity.getRunningBuilds("").thenApply(countRelatedToThisBuildType));
-            outCtx.setQueuedBuildCount(teamcity.getQueuedBuilds("").thenApply(countRelatedToThisBuildType));
-        }
+            if ((procLog == ProcessLogsMode.SUITE_NOT_COMPLETE && ctx.hasSuiteIncompleteFailure())
+                || procLog == ProcessLogsMode.ALL)
+                ctx.setLogCheckResultsFut(teamcity.analyzeBuildLog(ctx.buildId(), ctx));
 
-        if (contactPersonProps != null && outCtx.getContactPerson() == null)
-            outCtx.setContactPerson(contactPersonProps.getProperty(outCtx.suiteId()));
+            if (includeScheduledInfo && !outCtx.hasScheduledBuildsInfo()) {
+                Function<List<BuildRef>, Long> countRelatedToThisBuildType = list ->
+                    list.stream()
+                        .filter(ref -> Objects.equals(ref.buildTypeId, build.buildTypeId))
+                        .filter(ref -> Objects.equals(normalizeBranch(build), normalizeBranch(ref)))
+                        .count();
+
+                outCtx.setRunningBuildCount(teamcity.getRunningBuilds("").thenApply(countRelatedToThisBuildType));
+                outCtx.setQueuedBuildCount(teamcity.getQueuedBuilds("").thenApply(countRelatedToThisBuildType));
+            }
+
+            if (contactPersonProps != null && outCtx.getContactPerson() == null)
+                outCtx.setContactPerson(contactPersonProps.getProperty(outCtx.suiteId()));
+        });
     }
 
     @NotNull protected static String normalizeBranch(@NotNull final BuildRef build) {
@@ -212,14 +235,35 @@ public class BuildChainProcessor {
         return branch;
     }
 
-    @Nullable private static Stream<? extends BuildRef> dependencies(ITeamcity teamcity, BuildRef ref) {
-        Build results = teamcity.getBuild(ref.href);
-        if (results == null)
-            return Stream.of(ref);
+    /**
+     * @param teamcity Teamcity.
+     * @param refs Builds.
+     * @return Future for builds with their snapshot dependencies.
+     */
+    private static CompletableFuture<List<BuildRef>> dependencies(ITeamcityAsync teamcity,
+        Collection<BuildRef> refs) {
+        List<BuildRef> nonNullRefs = refs.stream().filter(Objects::nonNull).collect(Collectors.toList());
+
+        List<String> hrefs = nonNullRefs.stream().map(ref -> ref.href).collect(Collectors.toList());
+
+        return teamcity.getBuilds(hrefs).thenApply(builds -> nonNullRefs.stream()
+            .flatMap(ref -> dependencies(ref, builds.get(ref.href)).stream())
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * @param ref Build reference.
+     * @param build Loaded build.
+     * @return Snapshot dependencies of build followed by build itself.
+     */
+    private static List<BuildRef> dependencies(BuildRef ref, @Nullable Build build) {
+        if (build == null)
+            return Collections.singletonList(ref);
 
-        List<BuildRef> aNull = results.getSnapshotDependenciesNonNull();
-        if(aNull.isEmpty())
-            return Stream.of(ref);
+        List<BuildRef> aNull = build.getSnapshotDependenciesNonNull();
+        if (aNull.isEmpty())
+            return Collections.singletonList(ref);
 
         logger.info("Snapshot deps found: " +
             ref.suiteId() + "->" + aNull.stream().map(BuildRef::suiteId).collect(Collectors.toList()));
@@ -228,6 +272,6 @@ public class BuildChainProcessor {
 
         cp.add(ref);
 
-        return cp.stream();
+        return cp;
     }
 }
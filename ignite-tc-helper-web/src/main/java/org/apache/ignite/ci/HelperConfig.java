@@ -29,6 +29,7 @@ import javax.ws.rs.QueryParam;
 import jersey.repackaged.com.google.common.base.Throwables;
 import org.apache.ignite.ci.conf.BranchesTracked;
 import org.apache.ignite.ci.conf.PasswordEncoder;
+import org.apache.ignite.ci.db.DbLayout;
 import org.apache.ignite.ci.util.Base64Util;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -43,6 +44,8 @@ public class HelperConfig {
     public static final String CONFIG_FILE_NAME = "auth.properties";
     public static final String RESP_FILE_NAME = "resp.properties";
     public static final String MAIL_PROPS = "mail.auth.properties";
+    /** Storage layout: data regions, cache groups, WAL and checkpoint settings, see {@link DbLayout}. */
+    public static final String DB_PROPS = "db.properties";
     public static final String HOST = "host";
     public static final String USERNAME = "username";
     @Deprecated
@@ -51,6 +54,32 @@ public class HelperConfig {
     public static final String SLACK_AUTH_TOKEN = "slack.auth_token";
     public static final String SLACK_CHANNEL = "slack.channel";
     public static final String LOGS = "logs";
+    /** HTTP transport type: pooled (default) or urlconnection. */
+    public static final String HTTP_TRANSPORT = "http.transport";
+    /** Max connections in pool for TeamCity host. */
+    public static final String HTTP_MAX_CONNECTIONS = "http.maxConnections";
+    /** Max requests executed concurrently for TeamCity host. */
+    public static final String HTTP_MAX_IN_FLIGHT = "http.maxInFlight";
+    /** Max inactivity (ms) while reading TeamCity response, stalled request fails after it. */
+    public static final String HTTP_SOCKET_TIMEOUT_MS = "http.socketTimeoutMs";
+    /** Max wait (ms) of connection from pool for TeamCity host. */
+    public static final String HTTP_CONN_REQUEST_TIMEOUT_MS = "http.connectionRequestTimeoutMs";
+    /** Max requests per second to TeamCity server, actual rate is adapted to server responses; 0 disables limit. */
+    public static final String HTTP_RATE_LIMIT = "http.rateLimit";
+    /** Responses slower than this (ms until headers) decrease requests rate. */
+    public static final String HTTP_LATENCY_TARGET_MS = "http.latencyTargetMs";
+    /** Max retries of failed GET request: IO errors, 429 and 5xx responses. */
+    public static final String HTTP_RETRIES = "http.retries";
+    /** Request only fields bound to model for big REST responses (builds, tests), true by default. */
+    public static final String REST_FIELDS_PROJECTION = "rest.fieldsProjection";
+    /** Send ETag/Last-Modified validators for build lists, reuse cached list if not modified, true by default. */
+    public static final String REST_CONDITIONAL_REQUESTS = "rest.conditionalRequests";
+    /** Update persisted build history by requesting only builds after latest known, true by default. */
+    public static final String HISTORY_INCREMENTAL_SYNC = "history.incrementalSync";
+    /** Analyze build log while it is downloaded instead of analysis of saved file, true by default. */
+    public static final String LOGS_STREAM_ANALYSIS = "logs.streamAnalysis";
+    /** Save downloaded build log zip into logs directory during stream analysis, true by default. */
+    public static final String LOGS_KEEP_ZIP = "logs.keepZip";
     public static final String ENDL = String.format("%n");
 
     public static Properties loadAuthProperties(File workDir, String configFileName) {
@@ -169,6 +198,23 @@ public class HelperConfig {
         }
     }
 
+    /**
+     * @return Storage layout properties, empty if file is absent.
+     */
+    public static Properties loadDbSettings() {
+        File file = new File(resolveWorkDir(), DB_PROPS);
+
+        if (!file.exists())
+            return new Properties();
+
+        try {
+            return loadProps(file);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public static Properties loadEmailSettings() {
         try {
             String respConf = prefixedWithServerName(null, MAIL_PROPS);
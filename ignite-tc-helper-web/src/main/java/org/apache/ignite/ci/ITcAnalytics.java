@@ -18,29 +18,57 @@
 package org.apache.ignite.ci;
 
 import java.util.List;
-import java.util.function.Function;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
 import org.apache.ignite.ci.analysis.RunStat;
 import org.apache.ignite.ci.analysis.SuiteInBranch;
 import org.apache.ignite.ci.analysis.TestInBranch;
 
-public interface ITcAnalytics extends AutoCloseable {
+public interface ITcAnalytics extends IRunStatProviders, AutoCloseable {
     List<RunStat> topTestFailing(int cnt);
 
+    /**
+     * @param cnt Max tests to return.
+     * @param branch Normalized branch, null for all branches.
+     * @param minUpdatedMs Min timestamp of last statistics update, 0 for all tests.
+     * @return Tests with highest fail rate.
+     */
+    List<RunStat> topTestFailing(int cnt, @Nullable String branch, long minUpdatedMs);
+
     List<RunStat> topTestsLongRunning(int cnt);
 
     /**
-     * Return build statistics for default branch provider
-     * @return map from suite ID to its run statistics
+     * @param cnt Max tests to return.
+     * @param branch Normalized branch, null for all branches.
+     * @param minUpdatedMs Min timestamp of last statistics update, 0 for all tests.
+     * @param byP90 Rank tests by 90th percentile of duration instead of average duration.
+     * @return Tests with highest duration.
      */
-    Function<SuiteInBranch, RunStat> getBuildFailureRunStatProvider();
+    List<RunStat> topTestsLongRunning(int cnt, @Nullable String branch, long minUpdatedMs, boolean byP90);
 
     /**
-     * @return map from test full name (suite: suite.test) and its branch to its run statistics
+     * @param keys Keys.
+     * @return Statistics of suites found, by key.
      */
-    Function<TestInBranch, RunStat> getTestRunStatProvider();
+    Map<SuiteInBranch, RunStat> getBuildFailureRunStats(Set<SuiteInBranch> keys);
+
+    /**
+     * @param keys Keys.
+     * @return Statistics of tests found, by key.
+     */
+    Map<TestInBranch, RunStat> getTestRunStats(Set<TestInBranch> keys);
 
     List<RunStat> topFailingSuite(int cnt);
 
+    /**
+     * @param cnt Max suites to return.
+     * @param branch Normalized branch, null for all branches.
+     * @param minUpdatedMs Min timestamp of last statistics update, 0 for all suites.
+     * @return Suites with highest fail rate.
+     */
+    List<RunStat> topFailingSuite(int cnt, @Nullable String branch, long minUpdatedMs);
+
     String getThreadDumpCached(Integer buildId);
 
     @Override void close();
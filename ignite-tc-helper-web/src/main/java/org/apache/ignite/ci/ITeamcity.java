@@ -18,7 +18,9 @@
 package org.apache.ignite.ci;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import javax.annotation.Nonnull;
@@ -28,23 +30,19 @@ import org.apache.ignite.ci.analysis.MultBuildRunCtx;
 import org.apache.ignite.ci.analysis.SingleBuildRunCtx;
 import org.apache.ignite.ci.tcmodel.agent.Agent;
 import org.apache.ignite.ci.tcmodel.changes.Change;
-import org.apache.ignite.ci.tcmodel.changes.ChangeRef;
 import org.apache.ignite.ci.tcmodel.changes.ChangesList;
 import org.apache.ignite.ci.tcmodel.conf.BuildType;
 import org.apache.ignite.ci.tcmodel.hist.BuildRef;
 import org.apache.ignite.ci.tcmodel.result.Build;
-import org.apache.ignite.ci.tcmodel.result.problems.ProblemOccurrence;
 import org.apache.ignite.ci.tcmodel.result.problems.ProblemOccurrences;
 import org.apache.ignite.ci.tcmodel.result.stat.Statistics;
 import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
 import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrenceFull;
 import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
 import org.apache.ignite.ci.util.Base64Util;
+import org.apache.ignite.ci.util.FutureUtil;
 import org.jetbrains.annotations.NotNull;
 
-import static com.google.common.base.Strings.isNullOrEmpty;
-import static org.apache.ignite.ci.db.DbMigrations.TESTS_COUNT_7700;
-
 /**
  * API for calling methods from REST service:
  * https://confluence.jetbrains.com/display/TCD10/REST+API
@@ -85,6 +83,16 @@ public interface ITeamcity extends AutoCloseable {
 
     Build getBuild(String href);
 
+    /**
+     * Bulk variant of {@link #getBuild(String)}, builds are requested concurrently.
+     *
+     * @param hrefs Builds hrefs.
+     * @return Future for builds by href.
+     */
+    default CompletableFuture<Map<String, Build>> getBuilds(Collection<String> hrefs) {
+        return FutureUtil.allOf(hrefs, async()::getBuild);
+    }
+
     default Build getBuild(int id) {
         return getBuild(getBuildHrefById(id));
     }
@@ -110,10 +118,30 @@ public interface ITeamcity extends AutoCloseable {
 
     CompletableFuture<TestOccurrenceFull> getTestFull(String href);
 
+    /**
+     * Loads details of failed tests of one build by single request. Occurrences absent in result (e.g. not failed
+     * from server point of view) should be loaded by {@link #getTestFull(String)}.
+     *
+     * @param buildId Build ID.
+     * @param tests Failed test occurrences of build.
+     * @return Future for full occurrences by test occurrence ID.
+     */
+    CompletableFuture<Map<String, TestOccurrenceFull>> getTestsFull(int buildId, Collection<TestOccurrence> tests);
+
     Change getChange(String href);
 
     ChangesList getChangesList(String href);
 
+    /**
+     * Bulk variant of {@link #getChange(String)}, changes are requested concurrently.
+     *
+     * @param hrefs Changes hrefs.
+     * @return Future for changes by href.
+     */
+    default CompletableFuture<Map<String, Change>> getChanges(Collection<String> hrefs) {
+        return FutureUtil.allOf(hrefs, async()::getChange);
+    }
+
     /**
      * Runs deep collection of all related statistics for particular build
      *
@@ -122,64 +150,19 @@ public interface ITeamcity extends AutoCloseable {
      */
     @Nonnull default MultBuildRunCtx loadTestsAndProblems(@Nonnull Build build) {
         MultBuildRunCtx ctx = new MultBuildRunCtx(build);
-        loadTestsAndProblems(build, ctx);
+        ctx.addBuild(loadTestsAndProblems(build, ctx));
         return ctx;
     }
 
-    default SingleBuildRunCtx loadTestsAndProblems(@Nonnull Build build, @Deprecated MultBuildRunCtx mCtx) {
-        SingleBuildRunCtx ctx = new SingleBuildRunCtx(build);
-        if (build.problemOccurrences != null) {
-            List<ProblemOccurrence> problems = getProblems(build).getProblemsNonNull();
-
-            mCtx.addProblems(problems);
-            ctx.setProblems(problems);
-        }
-
-        if (build.lastChanges != null) {
-            for (ChangeRef next : build.lastChanges.changes) {
-                if(!isNullOrEmpty(next.href)) {
-                    // just to cache this change
-                    getChange(next.href);
-                }
-            }
-        }
-
-        if (build.changesRef != null) {
-            ChangesList changeList = getChangesList(build.changesRef.href);
-            // System.err.println("changes: " + changeList);
-            if (changeList.changes != null) {
-                for (ChangeRef next : changeList.changes) {
-                    if (!isNullOrEmpty(next.href)) {
-                        // just to cache this change
-                        ctx.addChange(getChange(next.href));
-                    }
-                }
-            }
-        }
-
-        if (build.testOccurrences != null && !build.isComposite()) {
-            String normalizedBranch = BuildChainProcessor.normalizeBranch(build);
-
-            List<TestOccurrence> tests
-                = getTests(build.testOccurrences.href + TESTS_COUNT_7700, normalizedBranch).getTests();
-
-            mCtx.addTests(tests);
-
-            for (TestOccurrence next : tests) {
-                if (next.href != null && next.isFailedTest()) {
-                    CompletableFuture<TestOccurrenceFull> testFullFut = getTestFull(next.href);
-
-                    String testInBuildId = next.getId();
-
-                    mCtx.addTestInBuildToTestFull(testInBuildId, testFullFut);
-                }
-            }
-        }
-
-        if (build.statisticsRef != null)
-            mCtx.setStat(getBuildStat(build.statisticsRef.href));
-
-        return ctx;
+    /**
+     * Blocking variant of {@link ITeamcityAsync#loadTestsAndProblems(Build, MultBuildRunCtx)}.
+     *
+     * @param build Build from history with references to tests.
+     * @param mCtx Suite context to add tests and statistics to.
+     * @return Single build context.
+     */
+    default SingleBuildRunCtx loadTestsAndProblems(@Nonnull Build build, MultBuildRunCtx mCtx) {
+        return async().loadTestsAndProblems(build, mCtx).join();
     }
 
     @Override void close();
@@ -198,6 +181,11 @@ public interface ITeamcity extends AutoCloseable {
 
     void setExecutor(ExecutorService pool);
 
+    /**
+     * @return Non blocking API for this server, calls are executed by executor set for this instance.
+     */
+    ITeamcityAsync async();
+
     /**
      * Trigger build.
      *
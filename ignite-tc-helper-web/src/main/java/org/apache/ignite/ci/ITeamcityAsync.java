@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import org.apache.ignite.ci.analysis.MultBuildRunCtx;
+import org.apache.ignite.ci.analysis.SingleBuildRunCtx;
+import org.apache.ignite.ci.tcmodel.changes.Change;
+import org.apache.ignite.ci.tcmodel.changes.ChangesList;
+import org.apache.ignite.ci.tcmodel.hist.BuildRef;
+import org.apache.ignite.ci.tcmodel.result.Build;
+import org.apache.ignite.ci.tcmodel.result.problems.ProblemOccurrences;
+import org.apache.ignite.ci.tcmodel.result.stat.Statistics;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
+
+/**
+ * Non blocking twin of {@link ITeamcity}: same calls, but results are returned as futures completed by bounded I/O
+ * executor of the server. Callers should not join returned futures from executor threads.
+ */
+public interface ITeamcityAsync {
+    /**
+     * @return Synchronous API this instance delegates to.
+     */
+    ITeamcity sync();
+
+    /**
+     * @param href Build href.
+     * @see ITeamcity#getBuild(String)
+     */
+    CompletableFuture<Build> getBuild(String href);
+
+    /**
+     * @param hrefs Builds hrefs.
+     * @see ITeamcity#getBuilds(Collection)
+     */
+    CompletableFuture<Map<String, Build>> getBuilds(Collection<String> hrefs);
+
+    /**
+     * @param build Build.
+     * @see ITeamcity#getProblems(Build)
+     */
+    CompletableFuture<ProblemOccurrences> getProblems(Build build);
+
+    /**
+     * @param href Tests href.
+     * @param normalizedBranch Normalized branch.
+     * @see ITeamcity#getTests(String, String)
+     */
+    CompletableFuture<TestOccurrences> getTests(String href, String normalizedBranch);
+
+    /**
+     * @param href Statistics href.
+     * @see ITeamcity#getBuildStat(String)
+     */
+    CompletableFuture<Statistics> getBuildStat(String href);
+
+    /**
+     * @param href Change href.
+     * @see ITeamcity#getChange(String)
+     */
+    CompletableFuture<Change> getChange(String href);
+
+    /**
+     * @param hrefs Changes hrefs.
+     * @see ITeamcity#getChanges(Collection)
+     */
+    CompletableFuture<Map<String, Change>> getChanges(Collection<String> hrefs);
+
+    /**
+     * @param href Changes list href.
+     * @see ITeamcity#getChangesList(String)
+     */
+    CompletableFuture<ChangesList> getChangesList(String href);
+
+    /**
+     * @param projectId Suite ID.
+     * @param branch Branch.
+     * @see ITeamcity#getFinishedBuilds(String, String)
+     */
+    CompletableFuture<List<BuildRef>> getFinishedBuilds(String projectId, String branch);
+
+    /**
+     * Runs deep collection of all related statistics for particular build: problems, changes, tests and statistics
+     * are requested concurrently. Tests and statistics are added to suite context, problems and changes are kept in
+     * returned single build context, which caller should add to suite context.
+     *
+     * @param build Build.
+     * @param mCtx Multiple builds context to add results.
+     * @return Future for single build context.
+     */
+    CompletableFuture<SingleBuildRunCtx> loadTestsAndProblems(@Nonnull Build build, MultBuildRunCtx mCtx);
+}
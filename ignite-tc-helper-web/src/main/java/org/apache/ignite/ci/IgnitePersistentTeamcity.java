@@ -22,9 +22,15 @@ import com.google.common.base.Throwables;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
@@ -35,20 +41,27 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.cache.Cache;
+import javax.cache.processor.EntryProcessorResult;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.CacheEntryProcessor;
+import org.apache.ignite.cache.affinity.Affinity;
+import org.apache.ignite.ci.analysis.AddTestRunsProcessor;
+import org.apache.ignite.ci.analysis.BuildHistorySync;
 import org.apache.ignite.ci.analysis.Expirable;
 import org.apache.ignite.ci.analysis.IVersionedEntity;
 import org.apache.ignite.ci.analysis.LogCheckResult;
 import org.apache.ignite.ci.analysis.RunStat;
+import org.apache.ignite.ci.analysis.RunStatIndex;
 import org.apache.ignite.ci.analysis.SingleBuildRunCtx;
 import org.apache.ignite.ci.analysis.SuiteInBranch;
 import org.apache.ignite.ci.analysis.TestInBranch;
 import org.apache.ignite.ci.db.DbMigrations;
+import org.apache.ignite.ci.db.DbRetention;
+import org.apache.ignite.ci.db.NearCache;
 import org.apache.ignite.ci.db.TcHelperDb;
 import org.apache.ignite.ci.tcmodel.agent.Agent;
 import org.apache.ignite.ci.tcmodel.changes.Change;
@@ -61,9 +74,12 @@ import org.apache.ignite.ci.tcmodel.result.stat.Statistics;
 import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
 import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrenceFull;
 import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrencesCompacted;
 import org.apache.ignite.ci.util.CacheUpdateUtil;
-import org.apache.ignite.ci.util.CollectionUtil;
+import org.apache.ignite.ci.util.FutureUtil;
 import org.apache.ignite.ci.util.ObjectInterner;
+import org.apache.ignite.ci.util.SingleFlight;
+import org.apache.ignite.internal.util.typedef.T2;
 import org.jetbrains.annotations.NotNull;
 import org.xml.sax.SAXParseException;
 
@@ -78,10 +94,14 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
     public static final String STAT = "stat";
     public static final String TEST_OCCURRENCE_FULL = "testOccurrenceFull";
     public static final String FINISHED_BUILDS = "finishedBuilds";
+    public static final String FINISHED_BUILDS_INCLUDE_FAILED = "finishedBuildsIncludeFailed";
     public static final String PROBLEMS = "problems";
 
     //V2 caches, 32 parts
+    /** Legacy cache of tests lists saved as JAXB objects, migrated to {@link #TESTS_OCCURRENCES_COMPACTED}. */
+    @Deprecated
     public static final String TESTS_OCCURRENCES = "testOccurrences";
+    public static final String TESTS_OCCURRENCES_COMPACTED = "testOccurrencesCompacted";
     public static final String TESTS_RUN_STAT = "testsRunStat";
     public static final String LOG_CHECK_RESULT = "logCheckResult";
     public static final String CHANGE_INFO_FULL = "changeInfoFull";
@@ -94,10 +114,82 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
     public static final String BUILD_QUEUE = "buildQueue";
     public static final String RUNNING_BUILDS = "runningBuilds";
 
+    /** Connected agents with details. */
+    public static final String AGENTS = "agents";
+
+    /** Agents are reloaded if cached list is older. */
+    private static final int AGENTS_CACHE_SECS = 60;
+
+    /** Build lists responses with validators, for conditional requests. */
+    public static final String CONDITIONAL_RESPONSES = "conditionalResponses";
+
+    /** Builds registered in run statistics, key is build ID, value is bit mask of statistics kinds. */
+    public static final String STAT_REGISTERED = "statRegistered";
+
+    /** Marker kind: tests of build added to tests statistics. */
+    private static final int STAT_KIND_TESTS = 1;
+
+    /** Marker kind: build added to suites statistics. */
+    private static final int STAT_KIND_BUILD = 1 << 1;
+
+    /** Max tests statistics entries updated by one bulk update. */
+    private static final int STAT_BATCH_SIZE = 512;
+
+    /** Suffix of build history cache name for cache of its sync state. */
+    public static final String SYNC_STATE = "SyncState";
+
+    /** Full reload interval for build history synchronized incrementally. */
+    private static final long HISTORY_FULL_SYNC_MS = TimeUnit.HOURS.toMillis(1);
+
+    /** Recent known builds requested again by incremental history synchronization. */
+    private static final int HISTORY_SYNC_OVERLAP = 10;
+
+    /** Min number of not cached full tests of build to be requested by one batch instead of separate requests. */
+    private static final int TESTS_FULL_BATCH_MIN = 2;
+
+    /** Max builds kept on heap. */
+    private static final int NEAR_BUILDS_MAX = 20_000;
+
+    /** Max test occurrences kept on heap, for all builds. */
+    private static final int NEAR_TEST_OCCURRENCES_MAX = 2_000_000;
+
+    /** Max problem occurrences kept on heap, for all builds. */
+    private static final int NEAR_PROBLEMS_MAX = 100_000;
+
+    /** Max run statistics entries kept on heap, for each statistics cache. */
+    private static final int NEAR_RUN_STAT_MAX = 200_000;
+
     private final Ignite ignite;
     private final IgniteTeamcityHelper teamcity;
     private final String serverId;
 
+    /** On-heap tier for finished builds. */
+    private final NearCache<String, Build> buildsNear;
+
+    /** On-heap tier for tests of builds. */
+    private final NearCache<String, TestOccurrences> testOccurrencesNear;
+
+    /** On-heap tier for problems of builds. */
+    private final NearCache<String, ProblemOccurrences> problemsNear;
+
+    /** On-heap tier for tests run statistics. */
+    private final NearCache<TestInBranch, RunStat> testRunStatNear;
+
+    /** On-heap tier for suites run statistics. */
+    private final NearCache<SuiteInBranch, RunStat> buildsFailureRunStatNear;
+
+    /** Top queries index of tests run statistics. */
+    private final RunStatIndex<TestInBranch> testRunStatIdx;
+
+    /** Top queries index of suites run statistics. */
+    private final RunStatIndex<SuiteInBranch> buildsFailureRunStatIdx;
+
+    /**
+     * Synchronous loads of entries from TeamCity in progress, by cache name and key. Shared by instances created for
+     * different users, so concurrent requests of the same entry are executed once.
+     */
+    private static final SingleFlight loads = new SingleFlight();
+
     /** cached loads of full test occurrence. */
     private ConcurrentMap<String, CompletableFuture<TestOccurrenceFull>> testOccFullFutures = new ConcurrentHashMap<>();
 
@@ -119,27 +211,52 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
         this.teamcity = teamcity;
         this.serverId = teamcity.serverId();
 
-        DbMigrations migrations = new DbMigrations(ignite, teamcity.serverId());
-
-        migrations.dataMigration(
+        buildsNear = NearCache.forCache(ignCacheNme(BUILDS), NEAR_BUILDS_MAX, b -> 1);
+        testOccurrencesNear = NearCache.forCache(ignCacheNme(TESTS_OCCURRENCES_COMPACTED),
+            NEAR_TEST_OCCURRENCES_MAX, tests -> 1 + tests.getTests().size());
+        problemsNear = NearCache.forCache(ignCacheNme(PROBLEMS), NEAR_PROBLEMS_MAX,
+            problems -> 1 + problems.getProblemsNonNull().size());
+        testRunStatNear = NearCache.forCache(ignCacheNme(TESTS_RUN_STAT), NEAR_RUN_STAT_MAX, stat -> 1);
+        buildsFailureRunStatNear = NearCache.forCache(ignCacheNme(BUILDS_FAILURE_RUN_STAT), NEAR_RUN_STAT_MAX,
+            stat -> 1);
+        testRunStatIdx = RunStatIndex.forCache(ignCacheNme(TESTS_RUN_STAT), TestInBranch.class,
+            TestInBranch::getBranch);
+        buildsFailureRunStatIdx = RunStatIndex.forCache(ignCacheNme(BUILDS_FAILURE_RUN_STAT),
+            SuiteInBranch.class, SuiteInBranch::getBranch);
+
+        teamcity.responsesCache(getOrCreateCacheV2(ignCacheNme(CONDITIONAL_RESPONSES)));
+
+        // Migrations are run in background, tests lists not migrated yet are read from legacy cache, other data not
+        // migrated yet is reloaded from server on demand.
+        DbMigrations.startOnce(ignite, teamcity.serverId(), migrations -> migrations.dataMigration(
             testOccurrencesCache(), this::addTestOccurrencesToStat,
             this::migrateOccurrencesToLatest,
             buildsCache(), this::addBuildOccurrenceToFailuresStat,
-            buildsFailureRunStatCache(), testRunStatCache());
+            buildsFailureRunStatCache(),
+            (key, stat) -> mergeLegacyStat(buildsFailureRunStatCache(), buildsFailureRunStatNear,
+                buildsFailureRunStatIdx, key, stat),
+            testRunStatCache(),
+            (key, stat) -> mergeLegacyStat(testRunStatCache(), testRunStatNear, testRunStatIdx, key, stat)));
+
+        DbRetention.scheduleOnce(ignite, teamcity.serverId());
     }
 
     private IgniteCache<String, Build> buildsCache() {
         return getOrCreateCacheV2(ignCacheNme(BUILDS));
     }
 
-    private IgniteCache<String, TestOccurrences> testOccurrencesCache() {
-        return getOrCreateCacheV2(ignCacheNme(TESTS_OCCURRENCES));
+    private IgniteCache<String, TestOccurrencesCompacted> testOccurrencesCache() {
+        return getOrCreateCacheV2(ignCacheNme(TESTS_OCCURRENCES_COMPACTED));
     }
 
     private <K, V> IgniteCache<K, V> getOrCreateCacheV2(String name) {
         return ignite.getOrCreateCache(TcHelperDb.getCacheV2Config(name));
     }
 
+    private <K, V> IgniteCache<K, V> getOrCreateCacheV1(String name) {
+        return ignite.getOrCreateCache(TcHelperDb.getCacheV1Config(name));
+    }
+
     /** {@inheritDoc} */
     @Override public CompletableFuture<List<BuildType>> getProjectSuites(String projectId) {
         return teamcity.getProjectSuites(projectId);
@@ -159,7 +276,7 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
     }
 
     private <K, V> V loadIfAbsent(String cacheName, K key, Function<K, V> loadFunction, Predicate<V> saveValueFilter) {
-        final IgniteCache<K, V> cache = ignite.getOrCreateCache(ignCacheNme(cacheName));
+        final IgniteCache<K, V> cache = getOrCreateCacheV1(ignCacheNme(cacheName));
 
         return loadIfAbsent(cache, key, loadFunction, saveValueFilter);
     }
@@ -168,6 +285,94 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
         return loadIfAbsent(cache, key, loadFunction, null);
     }
 
+    /**
+     * @param cache Persistent cache.
+     * @param near On-heap tier of persistent cache.
+     * @param key Key.
+     * @param loadFunction Load function.
+     */
+    private <K, V> V loadIfAbsent(IgniteCache<K, V> cache, NearCache<K, V> near, K key,
+        Function<K, V> loadFunction) {
+        @Nullable final V persisted = near.get(cache, key, null);
+
+        if (persisted != null)
+            return persisted;
+
+        return loads.load(new T2<>(cache.getName(), key), () -> {
+            // Value may be saved by load completed after check above.
+            @Nullable final V saved = near.get(cache, key, null);
+
+            if (saved != null)
+                return saved;
+
+            final V loaded = loadFunction.apply(key);
+
+            near.put(cache, key, loaded);
+
+            return loaded;
+        });
+    }
+
+    /**
+     * @param cache Persistent cache keeping values in storage format.
+     * @param near On-heap tier of persistent cache.
+     * @param key Key.
+     * @param loadFunction Load function.
+     * @param encoder Converts loaded value to storage format.
+     * @param decoder Converts persisted value back.
+     */
+    private <K, V, P> V loadIfAbsent(IgniteCache<K, P> cache, NearCache<K, V> near, K key,
+        Function<K, V> loadFunction, Function<V, P> encoder, Function<P, V> decoder) {
+        @Nullable final V persisted = near.get(cache, key, decoder, null);
+
+        if (persisted != null)
+            return persisted;
+
+        return loads.load(new T2<>(cache.getName(), key), () -> {
+            @Nullable final V saved = near.get(cache, key, decoder, null);
+
+            if (saved != null)
+                return saved;
+
+            final V loaded = loadFunction.apply(key);
+
+            near.put(cache, key, encoder.apply(loaded));
+
+            return loaded;
+        });
+    }
+
+    /**
+     * Bulk variant of {@link #loadIfAbsent(IgniteCache, Object, Function)}: persisted values are read by one
+     * operation, missing values are loaded concurrently by server executor and saved by one operation.
+     *
+     * @param cache Persistent cache.
+     * @param keys Keys.
+     * @param loadFunction Blocking load of missing value, should not return null.
+     * @return Future for values by key.
+     */
+    private <V> CompletableFuture<Map<String, V>> loadAllIfAbsent(IgniteCache<String, V> cache,
+        Collection<String> keys, Function<String, V> loadFunction) {
+        Map<String, V> res = new HashMap<>(cache.getAll(new HashSet<>(keys)));
+
+        res.values().forEach(ObjectInterner::internFields);
+
+        List<String> misses = keys.stream().filter(k -> !res.containsKey(k)).collect(Collectors.toList());
+
+        if (misses.isEmpty())
+            return CompletableFuture.completedFuture(res);
+
+        return FutureUtil.allOf(misses, k -> CompletableFuture.supplyAsync(
+            () -> loads.load(new T2<>(cache.getName(), k), () -> loadFunction.apply(k)),
+            teamcity.executor())).thenApply(loaded -> {
+            cache.putAll(new TreeMap<>(loaded));
+
+            res.putAll(loaded);
+
+            return res;
+        });
+    }
+
     private <K, V> V loadIfAbsent(IgniteCache<K, V> cache, K key, Function<K, V> loadFunction,
         Predicate<V> saveValueFilter) {
         @Nullable final V persistedBuilds = cache.get(key);
@@ -178,16 +383,26 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
             return persistedBuilds;
         }
 
-        final V loaded = loadFunction.apply(key);
+        return loads.load(new T2<>(cache.getName(), key), () -> {
+            @Nullable final V saved = cache.get(key);
 
-        if (saveValueFilter == null || saveValueFilter.test(loaded))
-            cache.put(key, loaded);
+            if (saved != null) {
+                ObjectInterner.internFields(saved);
 
-        return loaded;
+                return saved;
+            }
+
+            final V loaded = loadFunction.apply(key);
+
+            if (saveValueFilter == null || saveValueFilter.test(loaded))
+                cache.put(key, loaded);
+
+            return loaded;
+        });
     }
 
     private <K, V> V timedLoadIfAbsentOrMerge(String cacheName, int seconds, K key, BiFunction<K, V, V> loadWithMerge) {
-        final IgniteCache<K, Expirable<V>> hist = ignite.getOrCreateCache(ignCacheNme(cacheName));
+        final IgniteCache<K, Expirable<V>> hist = getOrCreateCacheV1(ignCacheNme(cacheName));
         @Nullable final Expirable<V> persistedBuilds = hist.get(key);
 
         int fields = ObjectInterner.internFields(persistedBuilds);
@@ -211,21 +426,65 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
         final SuiteInBranch suiteInBranch = new SuiteInBranch(projectId, branch);
 
         return timedLoadIfAbsentOrMerge(FINISHED_BUILDS, 60, suiteInBranch,
-            (key, persistedValue) -> {
-                List<BuildRef> builds;
+            (key, persistedValue) -> syncBuildHistory(FINISHED_BUILDS, key, persistedValue, sinceBuildId -> {
                 try {
-                    builds = teamcity.getFinishedBuilds(projectId, branch);
+                    return teamcity.getFinishedBuildsSince(projectId, branch, sinceBuildId);
                 }
                 catch (Exception e) {
                     if (Throwables.getRootCause(e) instanceof FileNotFoundException) {
                         System.err.println("Build history not found for build : " + projectId + " in " + branch);
-                        builds = Collections.emptyList();
+                        return Collections.emptyList();
                     }
                     else
                         throw e;
                 }
-                return mergeByIdToHistoricalOrder(persistedValue, builds);
-            });
+            }));
+    }
+
+    /**
+     * Merges builds loaded from TeamCity into persisted history. If history was persisted before, only builds started
+     * after latest known are requested. Builds may finish out of ID order, so a few recent known builds are requested
+     * again, and full history is reloaded every {@link #HISTORY_FULL_SYNC_MS}.
+     *
+     * @param cacheName History cache name.
+     * @param key Suite in branch.
+     * @param persistedVal Persisted history, in historical order.
+     * @param loadSince Loads builds started after provided build ID, or all builds if ID is null.
+     * @return Merged history.
+     */
+    private List<BuildRef> syncBuildHistory(String cacheName, SuiteInBranch key, @Nullable List<BuildRef> persistedVal,
+        Function<Integer, List<BuildRef>> loadSince) {
+        IgniteCache<SuiteInBranch, BuildHistorySync> syncCache
+            = getOrCreateCacheV2(ignCacheNme(cacheName + SYNC_STATE));
+
+        BuildHistorySync sync = persistedVal == null || persistedVal.isEmpty() || !teamcity.incrementalHistorySync()
+            ? null
+            : syncCache.get(key);
+
+        boolean incremental = sync != null && sync.isFullSyncAgeLessThanMs(HISTORY_FULL_SYNC_MS);
+
+        List<BuildRef> loaded = loadSince.apply(incremental ? sinceBuildId(persistedVal, sync) : null);
+
+        List<BuildRef> merged = mergeByIdToHistoricalOrder(persistedVal, loaded);
+
+        int highWaterMark = merged.isEmpty() ? 0 : merged.get(merged.size() - 1).getId();
+
+        syncCache.put(key, incremental
+            ? new BuildHistorySync(highWaterMark, sync.getLastFullSyncTs(), sync.getIncrementalSyncs() + 1)
+            : new BuildHistorySync(highWaterMark, System.currentTimeMillis(), 0));
+
+        return merged;
+    }
+
+    /**
+     * @param persistedVal Persisted history, in historical order, not empty.
+     * @param sync Sync state.
+     * @return Build ID to request builds after.
+     */
+    private static int sinceBuildId(List<BuildRef> persistedVal, BuildHistorySync sync) {
+        BuildRef overlapStart = persistedVal.get(Math.max(0, persistedVal.size() - 1 - HISTORY_SYNC_OVERLAP));
+
+        return Math.min(sync.getHighWaterMark(), overlapStart.getId());
     }
 
     @NotNull
@@ -245,13 +504,9 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
     @Override public List<BuildRef> getFinishedBuildsIncludeSnDepFailed(String projectId, String branch) {
         final SuiteInBranch suiteInBranch = new SuiteInBranch(projectId, branch);
 
-        return timedLoadIfAbsentOrMerge("finishedBuildsIncludeFailed", 60, suiteInBranch,
-            (key, persistedValue) -> {
-                List<BuildRef> failed = teamcity.getFinishedBuildsIncludeSnDepFailed(projectId, branch);
-
-                return mergeByIdToHistoricalOrder(persistedValue,
-                    failed);
-            });
+        return timedLoadIfAbsentOrMerge(FINISHED_BUILDS_INCLUDE_FAILED, 60, suiteInBranch,
+            (key, persistedValue) -> syncBuildHistory(FINISHED_BUILDS_INCLUDE_FAILED, key, persistedValue,
+                sinceBuildId -> teamcity.getFinishedBuildsIncludeSnDepFailedSince(projectId, branch, sinceBuildId)));
     }
 
     /** {@inheritDoc} */
@@ -293,33 +548,122 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
     @Override public Build getBuild(String href) {
         final IgniteCache<String, Build> cache = buildsCache();
 
-        @Nullable final Build persistedBuild = cache.get(href);
-
-        int fields = ObjectInterner.internFields(persistedBuild);
+        // Finished builds are immutable, outdated versions are reloaded below.
+        @Nullable final Build persistedBuild = buildsNear.get(cache, href, b -> !b.isOutdatedEntityVersion());
 
         if (persistedBuild != null) {
             if (!persistedBuild.isOutdatedEntityVersion())
                 return persistedBuild;
         }
 
+        return loads.load(new T2<>(cache.getName(), href), () -> loadBuild(cache, href));
+    }
+
+    /**
+     * Loads build, executed once for concurrent requests of the same build.
+     *
+     * @param cache Builds cache.
+     * @param href Build href.
+     */
+    private Build loadBuild(IgniteCache<String, Build> cache, String href) {
+        @Nullable final Build persistedBuild = buildsNear.get(cache, href, b -> !b.isOutdatedEntityVersion());
+
+        if (persistedBuild != null && !persistedBuild.isOutdatedEntityVersion())
+            return persistedBuild;
+
         final Build loaded = realLoadBuild(href);
+
+        Map<String, Build> toSave = new HashMap<>();
+        List<Build> newBuilds = new ArrayList<>();
+
+        Build res = mergeLoadedBuild(href, persistedBuild, loaded, toSave, newBuilds);
+
+        saveBuilds(cache, toSave, newBuilds);
+
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Map<String, Build>> getBuilds(Collection<String> hrefs) {
+        final IgniteCache<String, Build> cache = buildsCache();
+
+        Map<String, Build> persisted = buildsNear.getAll(cache, new HashSet<>(hrefs),
+            b -> !b.isOutdatedEntityVersion());
+
+        Map<String, Build> res = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+
+        for (String href : hrefs) {
+            Build build = persisted.get(href);
+
+            if (build != null && !build.isOutdatedEntityVersion())
+                res.put(href, build);
+            else
+                misses.add(href);
+        }
+
+        if (misses.isEmpty())
+            return CompletableFuture.completedFuture(res);
+
+        return FutureUtil.allOf(misses, href -> CompletableFuture.supplyAsync(
+            () -> loads.load(new T2<>(cache.getName(), href), () -> realLoadBuild(href)),
+            teamcity.executor())).thenApply(loaded -> {
+            Map<String, Build> toSave = new HashMap<>();
+            List<Build> newBuilds = new ArrayList<>();
+
+            loaded.forEach((href, build) ->
+                res.put(href, mergeLoadedBuild(href, persisted.get(href), build, toSave, newBuilds)));
+
+            saveBuilds(cache, toSave, newBuilds);
+
+            return res;
+        });
+    }
+
+    /**
+     * @param href Build href.
+     * @param persisted Persisted build of outdated version, if any.
+     * @param loaded Build loaded from TeamCity.
+     * @param toSave Builds to be saved, loaded build is added if it is finished.
+     * @param newBuilds Loaded builds to be saved and registered in statistics.
+     * @return Build to be returned to caller.
+     */
+    private Build mergeLoadedBuild(String href, @Nullable Build persisted, Build loaded, Map<String, Build> toSave,
+        List<Build> newBuilds) {
         //can't reload, but cached has value
-        if (loaded.isFakeStub() && persistedBuild != null && persistedBuild.isOutdatedEntityVersion()) {
-            persistedBuild._version = persistedBuild.latestVersion();
-            cache.put(href, persistedBuild);
+        if (loaded.isFakeStub() && persisted != null && persisted.isOutdatedEntityVersion()) {
+            persisted._version = persisted.latestVersion();
 
-            return persistedBuild;
+            toSave.put(href, persisted);
+
+            return persisted;
         }
 
         if (loaded.isFakeStub() || loaded.hasFinishDate()) {
-            cache.put(href, loaded);
+            toSave.put(href, loaded);
 
-            addBuildOccurrenceToFailuresStat(loaded);
+            newBuilds.add(loaded);
         }
 
         return loaded;
     }
 
+    /**
+     * Saves builds by one operation and registers newly loaded builds in failures statistics.
+     *
+     * @param cache Builds cache.
+     * @param toSave Builds by href.
+     * @param newBuilds Newly loaded builds.
+     */
+    private void saveBuilds(IgniteCache<String, Build> cache, Map<String, Build> toSave, List<Build> newBuilds) {
+        if (toSave.isEmpty())
+            return;
+
+        buildsNear.putAll(cache, new TreeMap<>(toSave));
+
+        newBuilds.forEach(this::addBuildOccurrenceToFailuresStat);
+    }
+
     private void addBuildOccurrenceToFailuresStat(Build loaded) {
         if (loaded.isFakeStub())
             return;
@@ -328,24 +672,41 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
         if (Strings.isNullOrEmpty(suiteId))
             return;
 
+        if (!markStatRegistered(STAT_KIND_BUILD, loaded.getId()))
+            return;
+
         SuiteInBranch key = keyForBuild(loaded);
 
-        buildsFailureRunStatCache().invoke(key, (entry, arguments) -> {
-            SuiteInBranch suiteInBranch = entry.getKey();
+        IgniteCache<SuiteInBranch, RunStat> stat = buildsFailureRunStatCache();
 
-            Build build = (Build)arguments[0];
+        RunStatIndex.Summary summary;
 
-            RunStat val = entry.getValue();
+        try {
+            summary = buildsFailureRunStatNear.invoke(stat, key, (entry, arguments) -> {
+                SuiteInBranch suiteInBranch = entry.getKey();
 
-            if (val == null)
-                val = new RunStat(suiteInBranch.getSuiteId());
+                Build build = (Build)arguments[0];
 
-            val.addBuildRun(build);
+                RunStat val = entry.getValue();
 
-            entry.setValue(val);
+                if (val == null)
+                    val = new RunStat(suiteInBranch.getSuiteId());
 
-            return null;
-        }, loaded);
+                val.addBuildRun(build);
+
+                entry.setValue(val);
+
+                return new RunStatIndex.Summary(val);
+            }, loaded);
+        }
+        catch (RuntimeException e) {
+            // Build is registered again on reload, update was not applied.
+            unmarkStatRegistered(STAT_KIND_BUILD, loaded.getId());
+
+            throw e;
+        }
+
+        buildsFailureRunStatIdx.update(key, summary);
     }
 
     @NotNull private SuiteInBranch keyForBuild(Build loaded) {
@@ -383,7 +744,8 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
     @Override public ProblemOccurrences getProblems(Build build) {
         String href = build.problemOccurrences.href;
         
-        return loadIfAbsent(PROBLEMS,
+        return loadIfAbsent(getOrCreateCacheV1(ignCacheNme(PROBLEMS)),
+            problemsNear,
             href,
             k -> {
                 ProblemOccurrences problems = teamcity.getProblems(build);
@@ -408,7 +770,9 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
         if (buildId != null && !Strings.isNullOrEmpty(suiteId)) {
             SuiteInBranch key = new SuiteInBranch(suiteId, normalizeBranch(build));
 
-            buildsFailureRunStatCache().invoke(key, (entry, arguments) -> {
+            IgniteCache<SuiteInBranch, RunStat> stat = buildsFailureRunStatCache();
+
+            RunStatIndex.Summary summary = buildsFailureRunStatNear.invoke(stat, key, (entry, arguments) -> {
                 SuiteInBranch suiteInBranch = entry.getKey();
 
                 Integer bId = (Integer)arguments[0];
@@ -422,8 +786,10 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
 
                 entry.setValue(val);
 
-                return null;
+                return new RunStatIndex.Summary(val);
             }, buildId);
+
+            buildsFailureRunStatIdx.update(key, summary);
         }
     }
 
@@ -432,8 +798,15 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
         String hrefForDb = DbMigrations.removeCountFromRef(href);
 
         return loadIfAbsent(testOccurrencesCache(),
+            testOccurrencesNear,
             hrefForDb,  //hack to avoid test reloading from store in case of href filter replaced
             hrefIgnored -> {
+                TestOccurrences legacyTests = legacyTestOccurrences(hrefForDb);
+
+                // Tests list was added to statistics when it was saved to legacy cache.
+                if (legacyTests != null)
+                    return legacyTests;
+
                 TestOccurrences loadedTests = teamcity.getTests(href, normalizedBranch);
 
 
@@ -441,7 +814,34 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
                 addTestOccurrencesToStat(loadedTests, normalizedBranch);
 
                 return loadedTests;
-            });
+            },
+            TestOccurrencesCompacted::new,
+            TestOccurrencesCompacted::toTestOccurrences);
+    }
+
+    /**
+     * Reads tests list from legacy cache, which exists until migration to compacted cache is completed. Lists saved
+     * before registration markers were introduced have no markers, so such list loaded from server again would be
+     * counted in statistics twice.
+     *
+     * @param key Tests href without count.
+     * @return Tests list not migrated yet, null if it is absent in legacy cache.
+     */
+    @Nullable private TestOccurrences legacyTestOccurrences(String key) {
+        String legacyNme = ignCacheNme(TESTS_OCCURRENCES);
+
+        if (!ignite.cacheNames().contains(legacyNme))
+            return null;
+
+        try {
+            return ignite.<String, TestOccurrences>cache(legacyNme).get(key);
+        }
+        catch (IllegalStateException e) {
+            // Legacy cache is destroyed concurrently after migration, so all its lists are in compacted cache.
+            TestOccurrencesCompacted compacted = testOccurrencesCache().get(key);
+
+            return compacted == null ? null : compacted.toTestOccurrences();
+        }
     }
 
     private void addTestOccurrencesToStat(TestOccurrences val) {
@@ -449,8 +849,64 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
     }
 
     private void addTestOccurrencesToStat(TestOccurrences val, String normalizedBranch) {
-        for (TestOccurrence next : val.getTests()) {
-            addTestOccurrenceToStat(next, normalizedBranch);
+        List<TestOccurrence> tests = val.getTests();
+
+        if (tests.isEmpty())
+            return;
+
+        Integer buildId = RunStat.extractIdPrefixed(tests.get(0).getId(), "build:(id:", ")");
+
+        if (!markStatRegistered(STAT_KIND_TESTS, buildId))
+            return;
+
+        try {
+            addTestRunsToStat(tests, normalizedBranch);
+        }
+        catch (RuntimeException e) {
+            // Build is ingested again on reload. Runs of batches applied before failure are found in latest runs
+            // window and are not counted again, only runs which have already left the window are counted twice.
+            unmarkStatRegistered(STAT_KIND_TESTS, buildId);
+
+            throw e;
+        }
+    }
+
+    /**
+     * Applies runs to tests statistics by bulk updates, one update per test. Keys of batch are ordered by partition,
+     * so each batch touches few partitions and concurrent batches lock entries in the same order.
+     *
+     * @param tests Test occurrences of build.
+     * @param normalizedBranch Normalized branch.
+     */
+    private void addTestRunsToStat(List<TestOccurrence> tests, String normalizedBranch) {
+        Map<TestInBranch, AddTestRunsProcessor> procs = new HashMap<>();
+
+        for (TestOccurrence next : tests) {
+            String name = next.getName();
+
+            if (Strings.isNullOrEmpty(name) || next.isMutedTest() || next.isIgnoredTest())
+                continue;
+
+            procs.computeIfAbsent(new TestInBranch(name, normalizedBranch), k -> new AddTestRunsProcessor()).add(next);
+        }
+
+        IgniteCache<TestInBranch, RunStat> stat = testRunStatCache();
+
+        Affinity<TestInBranch> aff = ignite.affinity(stat.getName());
+
+        List<TestInBranch> keys = new ArrayList<>(procs.keySet());
+
+        keys.sort(Comparator.comparingInt(aff::partition).thenComparing(Comparator.naturalOrder()));
+
+        for (int from = 0; from < keys.size(); from += STAT_BATCH_SIZE) {
+            Map<TestInBranch, AddTestRunsProcessor> batch = new LinkedHashMap<>();
+
+            for (TestInBranch key : keys.subList(from, Math.min(from + STAT_BATCH_SIZE, keys.size())))
+                batch.put(key, procs.get(key));
+
+            Map<TestInBranch, EntryProcessorResult<RunStatIndex.Summary>> res = testRunStatNear.invokeAll(stat, batch);
+
+            res.forEach((key, summary) -> testRunStatIdx.update(key, summary.get()));
         }
     }
 
@@ -476,35 +932,106 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
     /** {@inheritDoc} */
     @Override public CompletableFuture<TestOccurrenceFull> getTestFull(String href) {
         return CacheUpdateUtil.loadAsyncIfAbsent(
-            ignite.getOrCreateCache(ignCacheNme(TEST_OCCURRENCE_FULL)),
+            getOrCreateCacheV1(ignCacheNme(TEST_OCCURRENCE_FULL)),
             href,
             testOccFullFutures,
             teamcity::getTestFull);
     }
 
     /** {@inheritDoc} */
-    @Override public Change getChange(String href) {
-        return loadIfAbsentV2(CHANGE_INFO_FULL, href, href1 -> {
-            try {
-                return teamcity.getChange(href1);
-            }
-            catch (Exception e) {
-                if (Throwables.getRootCause(e) instanceof FileNotFoundException) {
-                    System.err.println("Change history not found for href : " + href);
+    @Override public CompletableFuture<Map<String, TestOccurrenceFull>> getTestsFull(int buildId,
+        Collection<TestOccurrence> tests) {
+        IgniteCache<String, TestOccurrenceFull> cache = getOrCreateCacheV1(ignCacheNme(TEST_OCCURRENCE_FULL));
 
-                    return new Change();
-                }
-                if (Throwables.getRootCause(e) instanceof SAXParseException) {
-                    System.err.println("Change data seems to be invalid: " + href);
+        Map<String, TestOccurrenceFull> cached = cache.getAll(
+            tests.stream().map(t -> t.href).collect(Collectors.toSet()));
+
+        Map<String, TestOccurrenceFull> res = new HashMap<>();
+        List<TestOccurrence> missing = new ArrayList<>();
+
+        for (TestOccurrence test : tests) {
+            TestOccurrenceFull full = cached.get(test.href);
+
+            if (full != null)
+                res.put(test.getId(), full);
+            else
+                missing.add(test);
+        }
 
-                    return new Change();
+        if (missing.isEmpty())
+            return CompletableFuture.completedFuture(res);
+
+        // Batch contains all failed tests of build, so it is requested for all tests, not only missing.
+        CompletableFuture<Map<String, TestOccurrenceFull>> batchFut = missing.size() < TESTS_FULL_BATCH_MIN
+            ? CompletableFuture.completedFuture(Collections.emptyMap())
+            : teamcity.getTestsFull(buildId, tests).exceptionally(e -> {
+                System.err.println("Batch load of failed tests failed for build " + buildId + ": " + e.getMessage());
+
+                return Collections.emptyMap();
+            });
+
+        return batchFut.thenCompose(loaded -> {
+            Map<String, TestOccurrenceFull> toSave = new HashMap<>();
+            Map<String, CompletableFuture<TestOccurrenceFull>> singleFuts = new HashMap<>();
+
+            for (TestOccurrence test : missing) {
+                TestOccurrenceFull full = loaded.get(test.getId());
+
+                if (full != null) {
+                    toSave.put(test.href, full);
+                    res.put(test.getId(), full);
                 }
                 else
-                    throw e;
+                    singleFuts.put(test.getId(), getTestFull(test.href));
             }
+
+            if (!toSave.isEmpty())
+                cache.putAll(toSave);
+
+            return CompletableFuture.allOf(singleFuts.values().toArray(new CompletableFuture<?>[0]))
+                .handle((v, e) -> {
+                    singleFuts.forEach((id, fut) -> {
+                        TestOccurrenceFull full = FutureUtil.getResultSilent(fut);
+
+                        if (full != null)
+                            res.put(id, full);
+                    });
+
+                    return res;
+                });
         });
     }
 
+    /** {@inheritDoc} */
+    @Override public Change getChange(String href) {
+        return loadIfAbsentV2(CHANGE_INFO_FULL, href, this::realLoadChange);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Map<String, Change>> getChanges(Collection<String> hrefs) {
+        return loadAllIfAbsent(getOrCreateCacheV2(ignCacheNme(CHANGE_INFO_FULL)), hrefs, this::realLoadChange);
+    }
+
+    private Change realLoadChange(String href) {
+        try {
+            return teamcity.getChange(href);
+        }
+        catch (Exception e) {
+            if (Throwables.getRootCause(e) instanceof FileNotFoundException) {
+                System.err.println("Change history not found for href : " + href);
+
+                return new Change();
+            }
+            if (Throwables.getRootCause(e) instanceof SAXParseException) {
+                System.err.println("Change data seems to be invalid: " + href);
+
+                return new Change();
+            }
+            else
+                throw e;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public ChangesList getChangesList(String href) {
         return loadIfAbsentV2(CHANGES_LIST, href, href1 -> {
@@ -525,23 +1052,96 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
 
     /** {@inheritDoc} */
     @Override public List<RunStat> topTestFailing(int cnt) {
-        return CollectionUtil.top(allTestAnalysis(), cnt, Comparator.comparing(RunStat::getFailRate));
+        return topTestFailing(cnt, null, 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override public List<RunStat> topTestFailing(int cnt, @Nullable String branch, long minUpdatedMs) {
+        return top(testRunStatCache(), testRunStatNear, testRunStatIdx, RunStatIndex.Metric.FAIL_RATE, branch,
+            minUpdatedMs, cnt);
     }
 
     /** {@inheritDoc} */
     @Override public List<RunStat> topTestsLongRunning(int cnt) {
-        return CollectionUtil.top(allTestAnalysis(), cnt, Comparator.comparing(RunStat::getAverageDurationMs));
+        return topTestsLongRunning(cnt, null, 0, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public List<RunStat> topTestsLongRunning(int cnt, @Nullable String branch, long minUpdatedMs,
+        boolean byP90) {
+        RunStatIndex.Metric metric = byP90 ? RunStatIndex.Metric.P90_DURATION : RunStatIndex.Metric.AVG_DURATION;
+
+        return top(testRunStatCache(), testRunStatNear, testRunStatIdx, metric, branch, minUpdatedMs, cnt);
+    }
+
+    /**
+     * @param cache Statistics cache.
+     * @param near On-heap tier of statistics cache.
+     * @param idx Index of statistics cache.
+     * @param metric Sort order.
+     * @param branch Branch, null for all branches.
+     * @param minUpdatedMs Min timestamp of last update, 0 for all entries.
+     * @param cnt Max entries to return.
+     * @return Statistics with highest metric value, in descending order.
+     */
+    private <K> List<RunStat> top(IgniteCache<K, RunStat> cache, NearCache<K, RunStat> near, RunStatIndex<K> idx,
+        RunStatIndex.Metric metric, @Nullable String branch, long minUpdatedMs, int cnt) {
+        while (true) {
+            List<K> keys = idx.top(cache, metric, branch, minUpdatedMs, cnt);
+
+            Map<K, RunStat> stats = near.getAll(cache, new HashSet<>(keys), null);
+
+            if (stats.size() == keys.size())
+                return keys.stream().map(stats::get).collect(Collectors.toList());
+
+            // Keys removed from cache are pruned, so next entries of index fill the top.
+            keys.stream().filter(k -> !stats.containsKey(k)).forEach(idx::remove);
+        }
+    }
+
+    /**
+     * Merges statistics saved with key of previous format to statistics saved with new key.
+     *
+     * @param cache Statistics cache.
+     * @param near On-heap tier of statistics cache.
+     * @param idx Index of statistics cache.
+     * @param key New key.
+     * @param older Statistics saved with legacy key.
+     */
+    private <K> void mergeLegacyStat(IgniteCache<K, RunStat> cache, NearCache<K, RunStat> near, RunStatIndex<K> idx,
+        K key, RunStat older) {
+        RunStatIndex.Summary summary = near.invoke(cache, key, (entry, arguments) -> {
+            RunStat legacy = (RunStat)arguments[0];
+
+            RunStat val = entry.getValue();
+
+            if (val == null)
+                val = legacy;
+            else
+                val.merge(legacy);
+
+            entry.setValue(val);
+
+            return new RunStatIndex.Summary(val);
+        }, older);
+
+        idx.update(key, summary);
     }
 
     /** {@inheritDoc} */
     @Override public Function<TestInBranch, RunStat> getTestRunStatProvider() {
-        return key -> key == null ? null : testRunStatCache().get(key);
+        return key -> key == null ? null : testRunStatNear.get(testRunStatCache(), key, null);
     }
 
 
-    private Stream<RunStat> allTestAnalysis() {
-        return StreamSupport.stream(testRunStatCache().spliterator(), false)
-            .map(Cache.Entry::getValue);
+    /** {@inheritDoc} */
+    @Override public Map<TestInBranch, RunStat> getTestRunStats(Set<TestInBranch> keys) {
+        return testRunStatNear.getAll(testRunStatCache(), keys, null);
+    }
+
+    /** {@inheritDoc} */
+    @Override public Map<SuiteInBranch, RunStat> getBuildFailureRunStats(Set<SuiteInBranch> keys) {
+        return buildsFailureRunStatNear.getAll(buildsFailureRunStatCache(), keys, null);
     }
 
     private IgniteCache<TestInBranch, RunStat> testRunStatCache() {
@@ -550,12 +1150,7 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
 
     /** {@inheritDoc} */
     @Override public Function<SuiteInBranch, RunStat> getBuildFailureRunStatProvider() {
-        return key -> key == null ? null : buildsFailureRunStatCache().get(key);
-    }
-
-    private Stream<RunStat> buildsFailureAnalysis() {
-        return StreamSupport.stream(buildsFailureRunStatCache().spliterator(), false)
-            .map(Cache.Entry::getValue);
+        return key -> key == null ? null : buildsFailureRunStatNear.get(buildsFailureRunStatCache(), key, null);
     }
 
     /**
@@ -565,34 +1160,62 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
         return getOrCreateCacheV2(ignCacheNme(BUILDS_FAILURE_RUN_STAT));
     }
 
-    private IgniteCache<Integer, LogCheckResult> logCheckResultCache() {
-        return getOrCreateCacheV2(ignCacheNme(LOG_CHECK_RESULT));
-    }
+    /**
+     * Marks build as registered in statistics, so statistics is not updated twice if build is loaded again, e.g.
+     * concurrently or after eviction from persistent cache.
+     *
+     * @param kind Kind of statistics.
+     * @param buildId Build ID, null if unknown.
+     * @return {@code False} if build was already registered, statistics should not be updated.
+     */
+    private boolean markStatRegistered(int kind, @Nullable Integer buildId) {
+        if (buildId == null)
+            return true;
 
-    private void addTestOccurrenceToStat(TestOccurrence next, String normalizedBranch) {
-        String name = next.getName();
-        if (Strings.isNullOrEmpty(name))
-            return;
+        return statRegisteredCache().invoke(buildId, (CacheEntryProcessor<Integer, Integer, Boolean>)(entry, args) -> {
+            int kinds = entry.getValue() == null ? 0 : entry.getValue();
+            int k = (Integer)args[0];
 
-        if (next.isMutedTest() || next.isIgnoredTest())
-            return;
+            if ((kinds & k) != 0)
+                return false;
 
-        TestInBranch k = new TestInBranch(name, normalizedBranch);
+            entry.setValue(kinds | k);
 
-        testRunStatCache().invoke(k, (entry, arguments) -> {
-            TestInBranch key = entry.getKey();
-            TestOccurrence testOccurrence = (TestOccurrence)arguments[0];
+            return true;
+        }, kind);
+    }
 
-            RunStat val = entry.getValue();
-            if (val == null)
-                val = new RunStat(key.getName());
+    /**
+     * Removes mark of build, so statistics is updated when build is loaded next time.
+     *
+     * @param kind Kind of statistics.
+     * @param buildId Build ID, null if unknown.
+     */
+    private void unmarkStatRegistered(int kind, @Nullable Integer buildId) {
+        if (buildId == null)
+            return;
 
-            val.addTestRun(testOccurrence);
+        statRegisteredCache().invoke(buildId, (CacheEntryProcessor<Integer, Integer, Void>)(entry, args) -> {
+            int kinds = (entry.getValue() == null ? 0 : entry.getValue()) & ~(Integer)args[0];
 
-            entry.setValue(val);
+            if (kinds == 0)
+                entry.remove();
+            else
+                entry.setValue(kinds);
 
             return null;
-        }, next);
+        }, kind);
+    }
+
+    /**
+     * @return Cache of builds registered in statistics.
+     */
+    private IgniteCache<Integer, Integer> statRegisteredCache() {
+        return getOrCreateCacheV2(ignCacheNme(STAT_REGISTERED));
+    }
+
+    private IgniteCache<Integer, LogCheckResult> logCheckResultCache() {
+        return getOrCreateCacheV2(ignCacheNme(LOG_CHECK_RESULT));
     }
 
     private void migrateOccurrencesToLatest(TestOccurrences val) {
@@ -611,7 +1234,9 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
 
         TestInBranch k = new TestInBranch(name, ITeamcity.DEFAULT);
 
-        testRunStatCache().invoke(k, (entry, arguments) -> {
+        IgniteCache<TestInBranch, RunStat> stat = testRunStatCache();
+
+        RunStatIndex.Summary summary = testRunStatNear.invoke(stat, k, (entry, arguments) -> {
             TestInBranch key = entry.getKey();
             TestOccurrence testOccurrence = (TestOccurrence)arguments[0];
 
@@ -623,13 +1248,21 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
 
             entry.setValue(val);
 
-            return null;
+            return new RunStatIndex.Summary(val);
         }, next);
+
+        testRunStatIdx.update(k, summary);
     }
 
     /** {@inheritDoc} */
     public List<RunStat> topFailingSuite(int cnt) {
-        return CollectionUtil.top(buildsFailureAnalysis(), cnt, Comparator.comparing(RunStat::getFailRate));
+        return topFailingSuite(cnt, null, 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override public List<RunStat> topFailingSuite(int cnt, @Nullable String branch, long minUpdatedMs) {
+        return top(buildsFailureRunStatCache(), buildsFailureRunStatNear, buildsFailureRunStatIdx,
+            RunStatIndex.Metric.FAIL_RATE, branch, minUpdatedMs, cnt);
     }
 
     /** {@inheritDoc} */
@@ -700,6 +1333,11 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
         this.teamcity.setExecutor(executor);
     }
 
+    /** {@inheritDoc} */
+    @Override public ITeamcityAsync async() {
+        return new TeamcityAsync(this, teamcity.executor());
+    }
+
     /** {@inheritDoc} */
     @Override public void triggerBuild(String id, String name, boolean cleanRebuild, boolean queueAtTop) {
         lastTriggerMs = System.currentTimeMillis();
@@ -714,6 +1352,9 @@ public class IgnitePersistentTeamcity implements IAnalyticsEnabledTeamcity, ITea
 
     /** {@inheritDoc} */
     @Override public List<Agent> agents(boolean connected, boolean authorized) {
-        return teamcity.agents(connected, authorized);
+        String key = "connected:" + connected + ",authorized:" + authorized;
+
+        return timedLoadIfAbsentOrMerge(AGENTS, AGENTS_CACHE_SECS, key,
+            (k, persisted) -> teamcity.agents(connected, authorized));
     }
 }
@@ -20,39 +20,59 @@ package org.apache.ignite.ci;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Throwables;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
 import com.google.common.util.concurrent.MoreExecutors;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
 import java.util.zip.ZipInputStream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.xml.bind.JAXBException;
+import org.apache.ignite.IgniteCache;
 import org.apache.ignite.ci.analysis.ISuiteResults;
 import org.apache.ignite.ci.analysis.LogCheckResult;
 import org.apache.ignite.ci.analysis.LogCheckTask;
 import org.apache.ignite.ci.analysis.MultBuildRunCtx;
 import org.apache.ignite.ci.analysis.SingleBuildRunCtx;
+import org.apache.ignite.ci.http.CachedResponse;
+import org.apache.ignite.ci.http.ConditionalResponse;
+import org.apache.ignite.ci.http.ConditionalStats;
+import org.apache.ignite.ci.http.EndpointStats;
+import org.apache.ignite.ci.http.HttpTransports;
+import org.apache.ignite.ci.http.IHttpTransport;
 import org.apache.ignite.ci.logs.BuildLogStreamChecker;
 import org.apache.ignite.ci.logs.LogsAnalyzer;
 import org.apache.ignite.ci.logs.handlers.TestLogHandler;
 import org.apache.ignite.ci.logs.handlers.ThreadDumpCopyHandler;
 import org.apache.ignite.ci.tcmodel.agent.Agent;
-import org.apache.ignite.ci.tcmodel.agent.AgentsRef;
+import org.apache.ignite.ci.tcmodel.agent.Agents;
 import org.apache.ignite.ci.tcmodel.changes.Change;
 import org.apache.ignite.ci.tcmodel.changes.ChangesList;
 import org.apache.ignite.ci.tcmodel.conf.BuildType;
@@ -63,11 +83,14 @@ import org.apache.ignite.ci.tcmodel.hist.Builds;
 import org.apache.ignite.ci.tcmodel.result.Build;
 import org.apache.ignite.ci.tcmodel.result.problems.ProblemOccurrences;
 import org.apache.ignite.ci.tcmodel.result.stat.Statistics;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
 import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrenceFull;
 import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrencesFull;
 import org.apache.ignite.ci.tcmodel.user.User;
 import org.apache.ignite.ci.tcmodel.user.Users;
-import org.apache.ignite.ci.util.HttpUtil;
+import org.apache.ignite.ci.util.FieldsProjection;
+import org.apache.ignite.ci.util.TeeInputStream;
 import org.apache.ignite.ci.util.UrlUtil;
 import org.apache.ignite.ci.util.XmlUtil;
 import org.apache.ignite.ci.util.ZipUtil;
@@ -99,6 +122,27 @@ public class IgniteTeamcityHelper implements ITeamcity {
     private final String configName; //main properties file name
     private final String tcName;
 
+    /** Transport shared for all helpers connected to the same server. */
+    private final IHttpTransport transport;
+
+    /** Request only fields bound to model for builds and tests. */
+    private final boolean fieldsProjection;
+
+    /** Request only new builds for persisted build history. */
+    private final boolean incrementalHistorySync;
+
+    /** Analyze build logs while they are downloaded. */
+    private final boolean streamLogAnalysis;
+
+    /** Save build log zip during stream analysis. */
+    private final boolean keepLogZip;
+
+    /** Send validators of cached build lists. */
+    private final boolean conditionalRequests;
+
+    /** Parsed responses with validators by URL, null until set by persistence layer. */
+    @Nullable private volatile IgniteCache<String, CachedResponse<?>> responsesCache;
+
     private ConcurrentHashMap<Integer, CompletableFuture<LogCheckTask>> buildLogProcessingRunning = new ConcurrentHashMap<>();
 
     public IgniteTeamcityHelper(@Nullable String tcName) {
@@ -111,6 +155,16 @@ public class IgniteTeamcityHelper implements ITeamcity {
         final String hostConf = props.getProperty(HelperConfig.HOST, "https://ci.ignite.apache.org/");
 
         this.host = hostConf.trim() + (hostConf.endsWith("/") ? "" : "/");
+        this.transport = HttpTransports.forServer(String.valueOf(tcName), host, props);
+        this.fieldsProjection = Boolean.parseBoolean(
+            props.getProperty(HelperConfig.REST_FIELDS_PROJECTION, "true").trim());
+        this.incrementalHistorySync = Boolean.parseBoolean(
+            props.getProperty(HelperConfig.HISTORY_INCREMENTAL_SYNC, "true").trim());
+        this.streamLogAnalysis = Boolean.parseBoolean(
+            props.getProperty(HelperConfig.LOGS_STREAM_ANALYSIS, "true").trim());
+        this.keepLogZip = Boolean.parseBoolean(props.getProperty(HelperConfig.LOGS_KEEP_ZIP, "true").trim());
+        this.conditionalRequests = Boolean.parseBoolean(
+            props.getProperty(HelperConfig.REST_CONDITIONAL_REQUESTS, "true").trim());
         try {
             if (props.getProperty(HelperConfig.USERNAME) != null
                     && props.getProperty(HelperConfig.ENCODED_PASSWORD) != null)
@@ -130,34 +184,35 @@ public class IgniteTeamcityHelper implements ITeamcity {
         basicAuthTok = token;
     }
 
+    /**
+     * Enables conditional requests for build lists, if they are not disabled in config.
+     *
+     * @param cache Cache for parsed responses and their validators.
+     */
+    void responsesCache(IgniteCache<String, CachedResponse<?>> cache) {
+        if (conditionalRequests)
+            responsesCache = cache;
+    }
+
     /** {@inheritDoc} */
     @Override public List<Agent> agents(boolean connected, boolean authorized) {
-        String url = "app/rest/agents?locator=connected:" + connected + ",authorized:" + authorized;
+        String url = host + "app/rest/agents?locator=connected:" + connected + ",authorized:" + authorized;
 
-        return getJaxbUsingHref(url, AgentsRef.class)
-            .getAgent()
-            .stream()
-            .parallel()
-            .map(v -> getJaxbUsingHref(v.getHref(), Agent.class))
-            .collect(Collectors.toList());
+        // Agent details are expanded in list response, so all agents are loaded by one request.
+        return sendGetXmlParseJaxb(FieldsProjection.appendTo(url, Agents.class), Agents.class).getAgents();
     }
 
     public CompletableFuture<File> downloadBuildLogZip(int buildId) {
-        boolean archive = true;
         Supplier<File> supplier = () -> {
-            String buildIdStr = Integer.toString(buildId);
-            final File buildDirectory = ensureDirExist(new File(logsDir, "buildId" + buildIdStr));
-            final File file = new File(buildDirectory,
-                "build.log" + (archive ? ".zip" : ""));
-            if (file.exists() && file.canRead() && file.length() > 0) {
+            final File file = buildLogZipFile(buildId);
+            if (isCachedLocally(file)) {
                 logger.info("Nothing to do, file is cached locally: [" + file + "]");
 
                 return file;
             }
-            String url = host + "downloadBuildLog.html" + "?buildId=" + buildIdStr + "&archived=true";
 
             try {
-                HttpUtil.sendGetCopyToFile(basicAuthTok, url, file);
+                transport.sendGetCopyToFile(basicAuthTok, buildLogZipUrl(buildId), file);
             }
             catch (IOException e) {
                 throw new UncheckedIOException(e);
@@ -176,11 +231,7 @@ public class IgniteTeamcityHelper implements ITeamcity {
         );
 
         return future
-            .thenApply(task -> {
-                buildLogProcessingRunning.remove(buildId, future);
-
-                return task;
-            })
+            .whenComplete((task, e) -> buildLogProcessingRunning.remove(buildId, future))
             .thenApply(task -> {
                 logger.info(Thread.currentThread().getName()
                     + ": processBuildLog required: " + started.elapsed(TimeUnit.MILLISECONDS)
@@ -240,7 +291,7 @@ public class IgniteTeamcityHelper implements ITeamcity {
             logger.info("Triggering build: buildTypeId={}, branchName={}, cleanRebuild={}, queueAtTop={}",
                 buildTypeId, branchName, cleanRebuild, queueAtTop);
 
-            HttpUtil.sendPostAsString(basicAuthTok, url, parameter);
+            transport.sendPost(basicAuthTok, url, parameter);
         }
         catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -333,12 +384,131 @@ public class IgniteTeamcityHelper implements ITeamcity {
     }
 
     private <T> T sendGetXmlParseJaxb(String url, Class<T> rootElem) {
+        return sendGetXmlParseJaxb(url, rootElem, null);
+    }
+
+    /**
+     * Requests only fields bound to model (if projection is not disabled), response size is registered in endpoint
+     * stats of host.
+     *
+     * @param url Url.
+     * @param rootElem Root element class, also used as endpoint name.
+     */
+    private <T> T sendGetXmlParseJaxbProjected(String url, Class<T> rootElem) {
+        EndpointStats endpoint = transport.stats().endpoint(rootElem.getSimpleName());
+
+        boolean projected = fieldsProjection;
+
+        String reqUrl = projected ? FieldsProjection.appendTo(url, rootElem) : url;
+
+        AtomicLong bytes = new AtomicLong();
+
+        T res = sendGetXmlParseJaxb(reqUrl, rootElem, bytes::set);
+
+        onEndpointResponse(endpoint, url, projected, bytes.get());
+
+        return res;
+    }
+
+    /**
+     * Registers response size in endpoint stats, sampled projected response is compared with full response for the
+     * same URL.
+     *
+     * @param endpoint Endpoint stats.
+     * @param url Url without projection.
+     * @param projected Projection was requested.
+     * @param bytes Response bytes read.
+     */
+    private void onEndpointResponse(EndpointStats endpoint, String url, boolean projected, long bytes) {
+        endpoint.onResponse(projected, bytes);
+
+        if (!projected || !endpoint.sampleFull())
+            return;
+
+        try (InputStream is = transport.sendGet(basicAuthTok, url)) {
+            endpoint.onSample(bytes, ByteStreams.exhaust(is));
+        }
+        catch (IOException e) {
+            logger.warn("Failed to sample full response: " + url, e);
+        }
+    }
+
+    /**
+     * @param url Url.
+     * @param rootElem Root element class.
+     * @param bytesLsnr Listener of response bytes read by parser.
+     */
+    private <T> T sendGetXmlParseJaxb(String url, Class<T> rootElem, @Nullable LongConsumer bytesLsnr) {
         try {
-            try (InputStream inputStream = HttpUtil.sendGetWithBasicAuth(basicAuthTok, url)) {
-                final InputStreamReader reader = new InputStreamReader(inputStream);
+            return parseJaxb(transport.sendGet(basicAuthTok, url), rootElem, bytesLsnr);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        catch (JAXBException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * Sends request with validators of response cached for the same URL. If server answers 'Not Modified', cached
+     * result is returned without parsing. Falls back to {@link #sendGetXmlParseJaxbProjected(String, Class)} if
+     * responses cache is not set.
+     *
+     * @param url Url.
+     * @param cacheKey Key of cached response: URL without parts changed by each request, so cache keeps only last
+     * response of the same list.
+     * @param rootElem Root element class, also used as endpoint name.
+     */
+    private <T> T sendGetXmlParseJaxbConditional(String url, String cacheKey, Class<T> rootElem) {
+        IgniteCache<String, CachedResponse<?>> cache = responsesCache;
+
+        if (cache == null)
+            return sendGetXmlParseJaxbProjected(url, rootElem);
+
+        EndpointStats endpoint = transport.stats().endpoint(rootElem.getSimpleName());
+        ConditionalStats condStats = transport.stats().conditional();
+
+        boolean projected = fieldsProjection;
+
+        String reqUrl = projected ? FieldsProjection.appendTo(url, rootElem) : url;
 
-                return XmlUtil.load(rootElem, reader);
+        @Nullable CachedResponse<?> stored = cache.get(cacheKey);
+
+        // Response for another URL, e.g. with previous since build, can't be validated.
+        @Nullable CachedResponse<?> cached = stored != null && reqUrl.equals(stored.url()) ? stored : null;
+
+        try {
+            ConditionalResponse res = transport.sendConditionalGet(basicAuthTok, reqUrl,
+                cached == null ? null : cached.etag(),
+                cached == null ? null : cached.lastModified());
+
+            if (res.isNotModified()) {
+                assert cached != null : reqUrl;
+
+                condStats.onHit(cached.bytes());
+
+                return rootElem.cast(cached.data());
             }
+
+            if (cached != null)
+                condStats.onMiss();
+
+            if (!res.hasValidators())
+                condStats.onNoValidators();
+
+            AtomicLong bytes = new AtomicLong();
+
+            T parsed = parseJaxb(res.body(), rootElem, bytes::set);
+
+            onEndpointResponse(endpoint, url, projected, bytes.get());
+
+            if (res.hasValidators())
+                cache.put(cacheKey, new CachedResponse<>(reqUrl, res.etag(), res.lastModified(), bytes.get(), parsed));
+            else if (stored != null)
+                cache.remove(cacheKey);
+
+            return parsed;
         }
         catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -348,21 +518,52 @@ public class IgniteTeamcityHelper implements ITeamcity {
         }
     }
 
+    /**
+     * @param is Response body, closed by this method.
+     * @param rootElem Root element class.
+     * @param bytesLsnr Listener of response bytes read by parser.
+     */
+    private static <T> T parseJaxb(InputStream is, Class<T> rootElem,
+        @Nullable LongConsumer bytesLsnr) throws IOException, JAXBException {
+        try (CountingInputStream inputStream = new CountingInputStream(is)) {
+            final InputStreamReader reader = new InputStreamReader(inputStream);
+
+            T res = XmlUtil.load(rootElem, reader);
+
+            if (bytesLsnr != null)
+                bytesLsnr.accept(inputStream.getCount());
+
+            return res;
+        }
+    }
+
+    /**
+     * @param buildTypeId Build type ID.
+     * @param branchName Branch name.
+     * @param dfltFilter Default filter.
+     * @param state State.
+     * @param sinceBuildId If specified, only builds started after this build are requested.
+     */
     private List<BuildRef> getBuildHistory(@Nullable String buildTypeId,
         @Nullable String branchName,
         boolean dfltFilter,
-        @Nullable String state) {
+        @Nullable String state,
+        @Nullable Integer sinceBuildId) {
         String btFilter = isNullOrEmpty(buildTypeId) ? "" : ",buildType:" + buildTypeId + "";
         String stateFilter = isNullOrEmpty(state) ? "" : (",state:" + state);
         String brachFilter = isNullOrEmpty(branchName) ? "" :",branch:" + branchName;
+        String sinceFilter = sinceBuildId == null ? "" : ",sinceBuild:(id:" + sinceBuildId + ")";
 
-        return sendGetXmlParseJaxb(host + "app/rest/latest/builds"
-            + "?locator="
-            + "defaultFilter:" + dfltFilter
+        String locator = "defaultFilter:" + dfltFilter
             + btFilter
             + stateFilter
-            + brachFilter
-            + ",count:1000", Builds.class).getBuildsNonNull();
+            + brachFilter;
+
+        String url = host + "app/rest/latest/builds?locator=" + locator + sinceFilter + ",count:1000";
+
+        // Since build is changed after each new build, one response is cached for all incremental requests.
+        return sendGetXmlParseJaxbConditional(url, host + "app/rest/latest/builds?locator=" + locator,
+            Builds.class).getBuildsNonNull();
     }
 
     public BuildTypeFull getBuildType(String buildTypeId) {
@@ -371,7 +572,7 @@ public class IgniteTeamcityHelper implements ITeamcity {
     }
 
     public Build getBuild(String href) {
-        return getJaxbUsingHref(href, Build.class);
+        return sendGetXmlParseJaxbProjected(urlForHref(href), Build.class);
     }
 
     public ProblemOccurrences getProblems(Build build) {
@@ -379,7 +580,7 @@ public class IgniteTeamcityHelper implements ITeamcity {
     }
 
     public TestOccurrences getTests(String href, String normalizedBranch) {
-        return getJaxbUsingHref(href, TestOccurrences.class);
+        return sendGetXmlParseJaxbProjected(urlForHref(href), TestOccurrences.class);
     }
 
     public Statistics getBuildStat(String href) {
@@ -390,6 +591,36 @@ public class IgniteTeamcityHelper implements ITeamcity {
         return supplyAsync(() -> getJaxbUsingHref(href, TestOccurrenceFull.class), executor);
     }
 
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Map<String, TestOccurrenceFull>> getTestsFull(int buildId,
+        Collection<TestOccurrence> tests) {
+        return supplyAsync(() -> getTestsFullSync(buildId, tests.size()), executor);
+    }
+
+    /**
+     * Requests failed tests of build with details by one locator query.
+     *
+     * @param buildId Build ID.
+     * @param cnt Max occurrences to request.
+     * @return Full occurrences by occurrence ID.
+     */
+    private Map<String, TestOccurrenceFull> getTestsFullSync(int buildId, int cnt) {
+        String url = host + "app/rest/latest/testOccurrences?locator=build:(id:" + buildId + "),status:FAILURE"
+            + ",count:" + cnt;
+
+        List<TestOccurrenceFull> tests = sendGetXmlParseJaxb(FieldsProjection.appendTo(url, TestOccurrencesFull.class),
+            TestOccurrencesFull.class).getTests();
+
+        Map<String, TestOccurrenceFull> res = new HashMap<>();
+
+        for (TestOccurrenceFull test : tests) {
+            if (test.getId() != null)
+                res.put(test.getId(), test);
+        }
+
+        return res;
+    }
+
     public Change getChange(String href) {
         return getJaxbUsingHref(href, Change.class);
     }
@@ -399,7 +630,14 @@ public class IgniteTeamcityHelper implements ITeamcity {
     }
 
     private <T> T getJaxbUsingHref(String href, Class<T> elem) {
-        return sendGetXmlParseJaxb(host + (href.startsWith("/") ? href.substring(1) : href), elem);
+        return sendGetXmlParseJaxb(urlForHref(href), elem);
+    }
+
+    /**
+     * @param href Href without host name.
+     */
+    private String urlForHref(String href) {
+        return host + (href.startsWith("/") ? href.substring(1) : href);
     }
 
     @Override public void close() {
@@ -408,37 +646,61 @@ public class IgniteTeamcityHelper implements ITeamcity {
     /** {@inheritDoc} */
     @Override public List<BuildRef> getFinishedBuilds(String projectId,
         String branch) {
+        return getFinishedBuildsSince(projectId, branch, null);
+    }
+
+    /**
+     * @param projectId Suite ID.
+     * @param branch Branch.
+     * @param sinceBuildId If specified, only builds started after this build are requested.
+     * @return Finished builds, not sorted.
+     */
+    public List<BuildRef> getFinishedBuildsSince(String projectId, String branch, @Nullable Integer sinceBuildId) {
         List<BuildRef> finished = getBuildHistory(projectId,
             UrlUtil.escape(branch),
             true,
-            null);
+            null,
+            sinceBuildId);
 
         return finished.stream().filter(BuildRef::isNotCancelled).collect(Collectors.toList());
     }
 
     /** {@inheritDoc} */
     @Override public List<BuildRef> getFinishedBuildsIncludeSnDepFailed(String projectId, String branch) {
-        return getBuildsInState(projectId, branch, BuildRef.STATE_FINISHED);
+        return getFinishedBuildsIncludeSnDepFailedSince(projectId, branch, null);
+    }
+
+    /**
+     * @param projectId Suite ID.
+     * @param branch Branch.
+     * @param sinceBuildId If specified, only builds started after this build are requested.
+     * @return Finished builds including snapshot dependency failed, not sorted.
+     */
+    public List<BuildRef> getFinishedBuildsIncludeSnDepFailedSince(String projectId, String branch,
+        @Nullable Integer sinceBuildId) {
+        return getBuildsInState(projectId, branch, BuildRef.STATE_FINISHED, sinceBuildId);
     }
 
     /** {@inheritDoc} */
     @Override public CompletableFuture<List<BuildRef>> getRunningBuilds(@Nullable String branch) {
-        return supplyAsync(() -> getBuildsInState(null, branch, BuildRef.STATE_RUNNING), executor);
+        return supplyAsync(() -> getBuildsInState(null, branch, BuildRef.STATE_RUNNING, null), executor);
     }
 
     /** {@inheritDoc} */
     @Override public CompletableFuture<List<BuildRef>> getQueuedBuilds(@Nullable String branch) {
-        return supplyAsync(() -> getBuildsInState(null, branch, BuildRef.STATE_QUEUED), executor);
+        return supplyAsync(() -> getBuildsInState(null, branch, BuildRef.STATE_QUEUED, null), executor);
     }
 
     private List<BuildRef> getBuildsInState(
         @Nullable final String projectId,
         @Nullable final String branch,
-        @Nonnull final String state) {
+        @Nonnull final String state,
+        @Nullable final Integer sinceBuildId) {
         List<BuildRef> finished = getBuildHistory(projectId,
             UrlUtil.escape(branch),
             false,
-            state);
+            state,
+            sinceBuildId);
         return finished.stream().filter(BuildRef::isNotCancelled).collect(Collectors.toList());
     }
 
@@ -447,46 +709,164 @@ public class IgniteTeamcityHelper implements ITeamcity {
     }
 
     private CompletableFuture<LogCheckTask> checkBuildLogNoCache(int buildId, ISuiteResults ctx) {
-        final CompletableFuture<File> zipFut = downloadBuildLogZip(buildId);
         boolean dumpLastTest = ctx.hasSuiteIncompleteFailure();
 
+        if (streamLogAnalysis)
+            return supplyAsync(() -> streamCheckBuildLog(buildId, dumpLastTest), executor);
+
+        final CompletableFuture<File> zipFut = downloadBuildLogZip(buildId);
+
         return zipFut.thenApplyAsync(zipFile -> runCheckForZippedLog(dumpLastTest, zipFile), executor);
     }
 
+    /**
+     * Analyzes build log while it is downloaded: response body is inflated and passed to log checkers as it arrives,
+     * and optionally copied to zip file in logs directory. Unzipped log is never saved. Download failure fails the
+     * task, so result of truncated log is not cached.
+     *
+     * @param buildId Build ID.
+     * @param dumpLastTest Save last started test and thread dump in result.
+     */
+    @NotNull private LogCheckTask streamCheckBuildLog(int buildId, boolean dumpLastTest) {
+        File zipFile = buildLogZipFile(buildId);
+
+        if (isCachedLocally(zipFile))
+            return runCheckForZippedLog(dumpLastTest, zipFile);
+
+        File partFile = new File(zipFile.getParentFile(), zipFile.getName() + ".part");
+
+        LogCheckTask task;
+
+        try {
+            try (InputStream body = transport.sendGet(basicAuthTok, buildLogZipUrl(buildId));
+                 OutputStream copy = keepLogZip ? new BufferedOutputStream(new FileOutputStream(partFile)) : null;
+                 InputStream is = copy == null ? body : new TeeInputStream(body, copy)) {
+                task = checkZippedLog(dumpLastTest, is, zipFile);
+            }
+
+            if (keepLogZip)
+                Files.move(partFile.toPath(), zipFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            partFile.delete();
+        }
+
+        return task;
+    }
+
     @NotNull private LogCheckTask runCheckForZippedLog(boolean dumpLastTest, File zipFile) {
+        try (InputStream is = new FileInputStream(zipFile)) {
+            return checkZippedLog(dumpLastTest, is, zipFile);
+        }
+        catch (IOException e) {
+            logZipFailure(zipFile, e);
+
+            return new LogCheckTask(zipFile);
+        }
+    }
+
+    /**
+     * @param dumpLastTest Save last started test and thread dump in result.
+     * @param zipStream Zipped log stream.
+     * @param zipFile Zip file, its folder is used by log handlers to save extracted data.
+     * @return Result of entries read before format error, if any.
+     * @throws IOException If failed to read stream, e.g. download was interrupted.
+     */
+    @NotNull private LogCheckTask checkZippedLog(boolean dumpLastTest, InputStream zipStream, File zipFile)
+        throws IOException {
         LogCheckTask task = new LogCheckTask(zipFile);
 
         try {
             //get the zip file content
-            try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFile))) {
-                ZipEntry ze = zis.getNextEntry();    //get the zipped file list entry
+            ZipInputStream zis = new ZipInputStream(zipStream);
+            ZipEntry ze = zis.getNextEntry();    //get the zipped file list entry
 
-                while (ze != null) {
-                    BuildLogStreamChecker checker = task.createChecker();
-                    checker.apply(zis, zipFile);
-                    task.finalize(dumpLastTest);
+            while (ze != null) {
+                BuildLogStreamChecker checker = task.createChecker();
+                checker.apply(zis, zipFile);
+                task.finalize(dumpLastTest);
 
-                    ze = zis.getNextEntry();
-                }
-                zis.closeEntry();
+                ze = zis.getNextEntry();
             }
+            zis.closeEntry();
         }
-        catch (IOException | UncheckedIOException e) {
-            final String msg = "Failed to process ZIPed entry " + zipFile;
-
-            System.err.println(msg);
-            e.printStackTrace();
+        catch (ZipException e) {
+            logZipFailure(zipFile, e);
+        }
+        catch (UncheckedIOException e) {
+            // Log lines reader wraps failures of zip stream.
+            if (!(e.getCause() instanceof ZipException))
+                throw e.getCause();
 
-            logger.error(msg, e);
+            logZipFailure(zipFile, e);
         }
 
         return task;
     }
 
+    /**
+     * @param zipFile Zip file.
+     * @param e Failure.
+     */
+    private void logZipFailure(File zipFile, Exception e) {
+        final String msg = "Failed to process ZIPed entry " + zipFile;
+
+        System.err.println(msg);
+        e.printStackTrace();
+
+        logger.error(msg, e);
+    }
+
+    /**
+     * @param buildId Build ID.
+     * @return Local zip file for build log, parent directory is created.
+     */
+    private File buildLogZipFile(int buildId) {
+        File buildDirectory = ensureDirExist(new File(logsDir, "buildId" + buildId));
+
+        return new File(buildDirectory, "build.log.zip");
+    }
+
+    /**
+     * @param buildId Build ID.
+     */
+    private String buildLogZipUrl(int buildId) {
+        return host + "downloadBuildLog.html" + "?buildId=" + buildId + "&archived=true";
+    }
+
+    /**
+     * @param file File.
+     */
+    private static boolean isCachedLocally(File file) {
+        return file.exists() && file.canRead() && file.length() > 0;
+    }
+
     public void setExecutor(ExecutorService executor) {
         this.executor = executor;
     }
 
+    /**
+     * @return {@code True} if persisted build history may be updated by requesting only new builds.
+     */
+    boolean incrementalHistorySync() {
+        return incrementalHistorySync;
+    }
+
+    /**
+     * @return Executor for I/O calls, direct executor if it was not set.
+     */
+    Executor executor() {
+        return executor;
+    }
+
+    /** {@inheritDoc} */
+    @Override public ITeamcityAsync async() {
+        return new TeamcityAsync(this, executor);
+    }
+
     public Users getUsers() {
         return getJaxbUsingHref("app/rest/latest/users", Users.class);
     }
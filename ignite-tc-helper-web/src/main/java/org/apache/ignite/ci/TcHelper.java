@@ -23,6 +23,7 @@ import com.google.common.cache.CacheBuilder;
 import java.util.List;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.ci.conf.BranchesTracked;
+import org.apache.ignite.ci.http.HttpTransports;
 import org.apache.ignite.ci.issue.IssueDetector;
 import org.apache.ignite.ci.issue.IssuesStorage;
 import org.apache.ignite.ci.user.ICredentialsProv;
@@ -30,6 +31,8 @@ import org.apache.ignite.ci.user.UserAndSessionsStorage;
 import org.apache.ignite.ci.util.ExceptionUtil;
 import org.apache.ignite.ci.web.TcUpdatePool;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.concurrent.Callable;
@@ -42,6 +45,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Created by Дмитрий on 25.02.2018
  */
 public class TcHelper implements ITcHelper {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(TcHelper.class);
+
     private AtomicBoolean stop = new AtomicBoolean();
 
     private final Cache<String, IAnalyticsEnabledTeamcity> servers
@@ -128,6 +134,21 @@ public class TcHelper implements ITcHelper {
         return getTrackedBranches().getServerIds();
     }
 
+    /**
+     * Creates tracked servers, so data migrations of these servers are started in background on node start instead of
+     * first request.
+     */
+    public void startServers() {
+        for (String srvId : getServerIds()) {
+            try {
+                server(srvId, null);
+            }
+            catch (Exception e) {
+                logger.error("Failed to start server [" + srvId + "]", e);
+            }
+        }
+    }
+
     private BranchesTracked getTrackedBranches() {
         return HelperConfig.getTrackedBranches();
     }
@@ -150,6 +171,8 @@ public class TcHelper implements ITcHelper {
         tcUpdatePool.stop();
 
         detector.stop();
+
+        HttpTransports.closeAll();
     }
 
     public ExecutorService getService() {
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.apache.ignite.ci.analysis.MultBuildRunCtx;
+import org.apache.ignite.ci.analysis.SingleBuildRunCtx;
+import org.apache.ignite.ci.tcmodel.changes.Change;
+import org.apache.ignite.ci.tcmodel.changes.ChangeRef;
+import org.apache.ignite.ci.tcmodel.changes.ChangesList;
+import org.apache.ignite.ci.tcmodel.hist.BuildRef;
+import org.apache.ignite.ci.tcmodel.result.Build;
+import org.apache.ignite.ci.tcmodel.result.problems.ProblemOccurrences;
+import org.apache.ignite.ci.tcmodel.result.stat.Statistics;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrenceFull;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.apache.ignite.ci.db.DbMigrations.TESTS_COUNT_7700;
+
+/**
+ * Async API running calls of synchronous {@link ITeamcity} (either plain REST helper or persistent cache over it) in
+ * I/O executor. Executor is bounded, HTTP transport limits in-flight requests per host, so fan out of a big chain is
+ * queued in executor instead of blocking common fork-join pool workers.
+ */
+public class TeamcityAsync implements ITeamcityAsync {
+    /** Synchronous API. */
+    private final ITeamcity teamcity;
+
+    /** Executor for blocking calls. */
+    private final Executor executor;
+
+    /**
+     * @param teamcity Synchronous API.
+     * @param executor Executor for blocking calls.
+     */
+    public TeamcityAsync(ITeamcity teamcity, Executor executor) {
+        this.teamcity = teamcity;
+        this.executor = executor;
+    }
+
+    /** {@inheritDoc} */
+    @Override public ITeamcity sync() {
+        return teamcity;
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Build> getBuild(String href) {
+        return supplyAsync(() -> teamcity.getBuild(href));
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Map<String, Build>> getBuilds(Collection<String> hrefs) {
+        // Bulk calls are non blocking: cached values are read by caller, missing ones are requested by executor.
+        return teamcity.getBuilds(hrefs);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<ProblemOccurrences> getProblems(Build build) {
+        return supplyAsync(() -> teamcity.getProblems(build));
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<TestOccurrences> getTests(String href, String normalizedBranch) {
+        return supplyAsync(() -> teamcity.getTests(href, normalizedBranch));
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Statistics> getBuildStat(String href) {
+        return supplyAsync(() -> teamcity.getBuildStat(href));
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Change> getChange(String href) {
+        return supplyAsync(() -> teamcity.getChange(href));
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Map<String, Change>> getChanges(Collection<String> hrefs) {
+        return teamcity.getChanges(hrefs);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<ChangesList> getChangesList(String href) {
+        return supplyAsync(() -> teamcity.getChangesList(href));
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<List<BuildRef>> getFinishedBuilds(String projectId, String branch) {
+        return supplyAsync(() -> teamcity.getFinishedBuilds(projectId, branch));
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<SingleBuildRunCtx> loadTestsAndProblems(@Nonnull Build build,
+        MultBuildRunCtx mCtx) {
+        SingleBuildRunCtx ctx = new SingleBuildRunCtx(build);
+
+        List<CompletableFuture<?>> futs = new ArrayList<>();
+
+        if (build.problemOccurrences != null) {
+            futs.add(getProblems(build).thenAccept(occurrences -> {
+                ctx.setProblems(occurrences.getProblemsNonNull());
+            }));
+        }
+
+        if (build.lastChanges != null && build.lastChanges.changes != null)
+            futs.add(getChanges(changeHrefs(build.lastChanges.changes))); // just to cache these changes
+
+        if (build.changesRef != null)
+            futs.add(getChangesList(build.changesRef.href).thenCompose(changeList -> loadChanges(ctx, changeList)));
+
+        if (build.testOccurrences != null && !build.isComposite()) {
+            String normalizedBranch = BuildChainProcessor.normalizeBranch(build);
+            String testsHref = build.testOccurrences.href + TESTS_COUNT_7700;
+
+            futs.add(getTests(testsHref, normalizedBranch).thenAccept(occurrences -> {
+                List<TestOccurrence> tests = occurrences.getTests();
+
+                mCtx.addTests(tests);
+
+                List<TestOccurrence> failed = tests.stream()
+                    .filter(t -> t.href != null && t.isFailedTest())
+                    .collect(Collectors.toList());
+
+                if (failed.isEmpty())
+                    return;
+
+                CompletableFuture<Map<String, TestOccurrenceFull>> testsFullFut
+                    = teamcity.getTestsFull(build.getId(), failed);
+
+                for (TestOccurrence next : failed) {
+                    String testInBuildId = next.getId();
+
+                    mCtx.addTestInBuildToTestFull(testInBuildId, testsFullFut.thenApply(map -> map.get(testInBuildId)));
+                }
+            }));
+        }
+
+        if (build.statisticsRef != null)
+            futs.add(getBuildStat(build.statisticsRef.href).thenAccept(mCtx::setStat));
+
+        return CompletableFuture.allOf(futs.toArray(new CompletableFuture<?>[0])).thenApply(v -> ctx);
+    }
+
+    /**
+     * Requests all changes of list concurrently, but adds them to context in order of list.
+     *
+     * @param ctx Build context.
+     * @param changeList Changes list.
+     */
+    private CompletableFuture<Void> loadChanges(SingleBuildRunCtx ctx, ChangesList changeList) {
+        if (changeList.changes == null)
+            return CompletableFuture.completedFuture(null);
+
+        List<String> hrefs = changeHrefs(changeList.changes);
+
+        return getChanges(hrefs).thenAccept(changes -> hrefs.forEach(href -> ctx.addChange(changes.get(href))));
+    }
+
+    /**
+     * @param refs Change references.
+     * @return Not empty hrefs.
+     */
+    private static List<String> changeHrefs(List<ChangeRef> refs) {
+        return refs.stream()
+            .map(ref -> ref.href)
+            .filter(href -> !isNullOrEmpty(href))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @param supplier Blocking call.
+     */
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executor);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.cache.processor.MutableEntry;
+import org.apache.ignite.cache.CacheEntryProcessor;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
+
+/**
+ * Adds runs of one test from build to its statistics, so all occurrences of test are applied by one update.
+ */
+public class AddTestRunsProcessor implements CacheEntryProcessor<TestInBranch, RunStat, RunStatIndex.Summary> {
+    /** Serial version uid. */
+    private static final long serialVersionUID = 0L;
+
+    /** Runs. */
+    private final List<TestOccurrence> runs = new ArrayList<>(1);
+
+    /**
+     * @param run Run to add.
+     * @return {@code this} for chaining.
+     */
+    public AddTestRunsProcessor add(TestOccurrence run) {
+        runs.add(run);
+
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override public RunStatIndex.Summary process(MutableEntry<TestInBranch, RunStat> entry, Object... args) {
+        RunStat val = entry.getValue();
+
+        if (val == null)
+            val = new RunStat(entry.getKey().getName());
+
+        for (TestOccurrence run : runs)
+            val.addTestRun(run);
+
+        entry.setValue(val);
+
+        return new RunStatIndex.Summary(val);
+    }
+}
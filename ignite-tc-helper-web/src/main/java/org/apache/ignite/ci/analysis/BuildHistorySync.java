@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import org.apache.ignite.ci.db.Persisted;
+
+/**
+ * State of incremental build history synchronization for suite in branch.
+ */
+@Persisted
+public class BuildHistorySync {
+    /** Max build ID received from TeamCity. */
+    private final int highWaterMark;
+
+    /** Timestamp of last full history reload. */
+    private final long lastFullSyncTs;
+
+    /** Incremental loads since last full reload. */
+    private final int incrementalSyncs;
+
+    /**
+     * @param highWaterMark Max build ID received.
+     * @param lastFullSyncTs Timestamp of last full reload.
+     * @param incrementalSyncs Incremental loads since last full reload.
+     */
+    public BuildHistorySync(int highWaterMark, long lastFullSyncTs, int incrementalSyncs) {
+        this.highWaterMark = highWaterMark;
+        this.lastFullSyncTs = lastFullSyncTs;
+        this.incrementalSyncs = incrementalSyncs;
+    }
+
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public long getLastFullSyncTs() {
+        return lastFullSyncTs;
+    }
+
+    public int getIncrementalSyncs() {
+        return incrementalSyncs;
+    }
+
+    /**
+     * @param ms Interval.
+     * @return {@code True} if full reload was done within interval.
+     */
+    public boolean isFullSyncAgeLessThanMs(long ms) {
+        return System.currentTimeMillis() - lastFullSyncTs < ms;
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import com.google.common.base.Strings;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.ignite.ci.IRunStatProviders;
+import org.apache.ignite.ci.ITcAnalytics;
+
+import static org.apache.ignite.ci.BuildChainProcessor.normalizeBranch;
+
+/**
+ * Run statistics of chain suites and tests in two branches: base branch, source of fail rates (e.g. master), and
+ * branch of chain (e.g. PR branch). Statistics of all failed suites and their failed and long running tests are
+ * loaded by one bulk read per statistics cache and then served to chain status instead of point lookups.
+ *
+ * Failed suites and tests are compared between branches: fail rate delta, failures new in branch and significance
+ * of delta, computed for all entries in one pass over primitive arrays of counters.
+ */
+public class ChainBranchStats implements IRunStatProviders {
+    /** Min base branch runs to consider failure as new in branch. */
+    private static final int NEW_FAILURE_MIN_BASE_RUNS = 10;
+
+    /** Provider of statistics not loaded in advance. */
+    private final IRunStatProviders fallback;
+
+    /** Statistics of suites by key, null value if statistics was requested but not found. */
+    private final Map<SuiteInBranch, RunStat> suites = new HashMap<>();
+
+    /** Statistics of tests by key, null value if statistics was requested but not found. */
+    private final Map<TestInBranch, RunStat> tests = new HashMap<>();
+
+    /** Compared entries names. */
+    private final List<String> names = new ArrayList<>();
+
+    /** Compared entries suite IDs. */
+    private final List<String> suiteIds = new ArrayList<>();
+
+    /** Compared entries keys in base branch, suite or test. */
+    private final List<Object> baseKeys = new ArrayList<>();
+
+    /** Compared entries keys in chain branch. */
+    private final List<Object> keys = new ArrayList<>();
+
+    /**
+     * @param fallback Provider of statistics not loaded in advance.
+     */
+    private ChainBranchStats(IRunStatProviders fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * @param tcAnalytics Analytics.
+     * @param ctx Chain.
+     * @param baseBranch Base branch, source of fail rates.
+     * @return Statistics of failed suites of chain.
+     */
+    public static ChainBranchStats load(ITcAnalytics tcAnalytics, FullChainRunCtx ctx, @Nullable String baseBranch) {
+        ChainBranchStats res = new ChainBranchStats(tcAnalytics);
+
+        String base = normalizeBranch(baseBranch);
+
+        Set<SuiteInBranch> suiteKeys = new HashSet<>();
+        Set<TestInBranch> testKeys = new HashSet<>();
+
+        ctx.failedChildSuites().forEach(suite -> {
+            String suiteId = suite.suiteId();
+
+            if (Strings.isNullOrEmpty(suiteId))
+                return;
+
+            String branch = normalizeBranch(suite.branchName());
+            boolean compare = !branch.equals(base);
+
+            SuiteInBranch suiteKey = new SuiteInBranch(suiteId, branch);
+            SuiteInBranch suiteBaseKey = new SuiteInBranch(suiteId, base);
+
+            suiteKeys.add(suiteKey);
+            suiteKeys.add(suiteBaseKey);
+
+            if (compare)
+                res.addCompared(suite.suiteName(), suiteId, suiteBaseKey, suiteKey);
+
+            suite.getFailedTests().forEach(test -> {
+                TestInBranch testKey = new TestInBranch(test.getName(), branch);
+                TestInBranch testBaseKey = new TestInBranch(test.getName(), base);
+
+                testKeys.add(testKey);
+                testKeys.add(testBaseKey);
+
+                if (compare)
+                    res.addCompared(test.getName(), suiteId, testBaseKey, testKey);
+            });
+
+            suite.getTopLongRunning().forEach(test -> {
+                testKeys.add(new TestInBranch(test.getName(), branch));
+                testKeys.add(new TestInBranch(test.getName(), base));
+            });
+        });
+
+        Map<SuiteInBranch, RunStat> suiteStats = tcAnalytics.getBuildFailureRunStats(suiteKeys);
+        Map<TestInBranch, RunStat> testStats = tcAnalytics.getTestRunStats(testKeys);
+
+        suiteKeys.forEach(key -> res.suites.put(key, suiteStats.get(key)));
+        testKeys.forEach(key -> res.tests.put(key, testStats.get(key)));
+
+        return res;
+    }
+
+    /**
+     * @param name Name.
+     * @param suiteId Suite ID.
+     * @param baseKey Key in base branch.
+     * @param key Key in chain branch.
+     */
+    private void addCompared(String name, String suiteId, Object baseKey, Object key) {
+        names.add(name);
+        suiteIds.add(suiteId);
+        baseKeys.add(baseKey);
+        keys.add(key);
+    }
+
+    /** {@inheritDoc} */
+    @Override public Function<SuiteInBranch, RunStat> getBuildFailureRunStatProvider() {
+        return key -> suites.containsKey(key) ? suites.get(key) : fallback.getBuildFailureRunStatProvider().apply(key);
+    }
+
+    /** {@inheritDoc} */
+    @Override public Function<TestInBranch, RunStat> getTestRunStatProvider() {
+        return key -> tests.containsKey(key) ? tests.get(key) : fallback.getTestRunStatProvider().apply(key);
+    }
+
+    /**
+     * @param key Suite or test key.
+     * @return Loaded statistics.
+     */
+    @Nullable private RunStat stat(Object key) {
+        return key instanceof SuiteInBranch ? suites.get(key) : tests.get(key);
+    }
+
+    /**
+     * @return Comparison of failed suites and tests with base branch, empty if chain is in base branch.
+     */
+    public Comparison compare() {
+        int size = names.size();
+
+        Comparison res = new Comparison(size);
+
+        // Counters are gathered first, so metrics are computed by one loop over arrays.
+        for (int i = 0; i < size; i++) {
+            RunStat baseStat = stat(baseKeys.get(i));
+            RunStat stat = stat(keys.get(i));
+
+            res.names[i] = names.get(i);
+            res.suiteIds[i] = suiteIds.get(i);
+            res.suite[i] = keys.get(i) instanceof SuiteInBranch;
+
+            if (baseStat != null) {
+                res.baseRuns[i] = baseStat.getRunsCount();
+                res.baseFailures[i] = baseStat.getFailuresCount();
+            }
+
+            if (stat != null) {
+                res.runs[i] = stat.getRunsCount();
+                res.failures[i] = stat.getFailuresCount();
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            int n0 = res.baseRuns[i];
+            int f0 = res.baseFailures[i];
+            int n1 = res.runs[i];
+            int f1 = res.failures[i];
+
+            res.baseFailRate[i] = n0 == 0 ? 0 : (float)f0 / n0;
+            res.failRate[i] = n1 == 0 ? 0 : (float)f1 / n1;
+            res.newInBranch[i] = f1 > 0 && f0 == 0 && n0 >= NEW_FAILURE_MIN_BASE_RUNS;
+            res.significance[i] = (float)zScore(f0, n0, f1, n1);
+        }
+
+        return res;
+    }
+
+    /**
+     * Two-proportion z-test of fail rates.
+     *
+     * @param f0 Failures in base branch.
+     * @param n0 Runs in base branch.
+     * @param f1 Failures in chain branch.
+     * @param n1 Runs in chain branch.
+     * @return Z-score, positive if chain branch fails more often, 0 if there are no runs in any branch.
+     */
+    public static double zScore(int f0, int n0, int f1, int n1) {
+        if (n0 == 0 || n1 == 0)
+            return 0;
+
+        double pooled = (double)(f0 + f1) / (n0 + n1);
+
+        double se = Math.sqrt(pooled * (1 - pooled) * (1.0 / n0 + 1.0 / n1));
+
+        if (se == 0)
+            return 0;
+
+        return ((double)f1 / n1 - (double)f0 / n0) / se;
+    }
+
+    /**
+     * Comparison of suites and tests with base branch, entry values are stored by index in arrays.
+     */
+    public static class Comparison {
+        /** Names of suites or tests. */
+        final String[] names;
+
+        /** Suite IDs. */
+        final String[] suiteIds;
+
+        /** Entry is suite, test otherwise. */
+        final boolean[] suite;
+
+        /** Latest runs in base branch. */
+        final int[] baseRuns;
+
+        /** Failures of latest runs in base branch. */
+        final int[] baseFailures;
+
+        /** Latest runs in chain branch. */
+        final int[] runs;
+
+        /** Failures of latest runs in chain branch. */
+        final int[] failures;
+
+        /** Fail rate in base branch. */
+        final float[] baseFailRate;
+
+        /** Fail rate in chain branch. */
+        final float[] failRate;
+
+        /** Fails in chain branch and did not fail in base branch. */
+        final boolean[] newInBranch;
+
+        /** Z-score of fail rate difference. */
+        final float[] significance;
+
+        /**
+         * @param size Entries.
+         */
+        Comparison(int size) {
+            names = new String[size];
+            suiteIds = new String[size];
+            suite = new boolean[size];
+            baseRuns = new int[size];
+            baseFailures = new int[size];
+            runs = new int[size];
+            failures = new int[size];
+            baseFailRate = new float[size];
+            failRate = new float[size];
+            newInBranch = new boolean[size];
+            significance = new float[size];
+        }
+
+        /** @return Entries. */
+        public int size() {
+            return names.length;
+        }
+
+        /** @param i Index. */
+        public String name(int i) {
+            return names[i];
+        }
+
+        /** @param i Index. */
+        public String suiteId(int i) {
+            return suiteIds[i];
+        }
+
+        /** @param i Index. */
+        public boolean isSuite(int i) {
+            return suite[i];
+        }
+
+        /** @param i Index. */
+        public int baseRuns(int i) {
+            return baseRuns[i];
+        }
+
+        /** @param i Index. */
+        public int runs(int i) {
+            return runs[i];
+        }
+
+        /** @param i Index. */
+        public float baseFailRate(int i) {
+            return baseFailRate[i];
+        }
+
+        /** @param i Index. */
+        public float failRate(int i) {
+            return failRate[i];
+        }
+
+        /** @param i Index. */
+        public boolean isNewInBranch(int i) {
+            return newInBranch[i];
+        }
+
+        /** @param i Index. */
+        public float significance(int i) {
+            return significance[i];
+        }
+    }
+}
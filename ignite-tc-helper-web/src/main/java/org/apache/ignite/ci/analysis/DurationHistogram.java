@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import java.util.Arrays;
+import javax.annotation.Nullable;
+
+/**
+ * Mergeable histogram of durations with logarithmic buckets: durations below {@code 2 * SUB_BUCKETS} ms are counted
+ * exactly, greater ones by buckets of {@code 1 / SUB_BUCKETS} relative width, so percentiles have relative error less
+ * than 7%. Only range of buckets between the shortest and the longest duration is stored, durations of one test
+ * usually differ by few orders of magnitude, so histogram takes tens of counters.
+ */
+public class DurationHistogram {
+    /** Bits of sub-bucket index. */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /** Buckets per power of two. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Index of bucket of {@link #counts} first element. */
+    private int base;
+
+    /** Counts by bucket, null if histogram is empty. */
+    @Nullable private int[] counts;
+
+    /** Total count. */
+    private long total;
+
+    /**
+     * @param durationMs Duration.
+     */
+    public void add(long durationMs) {
+        add(bucket(durationMs), 1);
+    }
+
+    /**
+     * @param other Histogram to add counts of.
+     */
+    public void merge(DurationHistogram other) {
+        if (other.counts == null)
+            return;
+
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] != 0)
+                add(other.base + i, other.counts[i]);
+        }
+    }
+
+    /**
+     * @param bucket Bucket.
+     * @param cnt Count to add.
+     */
+    private void add(int bucket, int cnt) {
+        if (counts == null) {
+            base = bucket;
+            counts = new int[1];
+        }
+        else if (bucket < base) {
+            int[] grown = new int[counts.length + base - bucket];
+
+            System.arraycopy(counts, 0, grown, base - bucket, counts.length);
+
+            base = bucket;
+            counts = grown;
+        }
+        else if (bucket >= base + counts.length)
+            counts = Arrays.copyOf(counts, bucket - base + 1);
+
+        counts[bucket - base] += cnt;
+        total += cnt;
+    }
+
+    /**
+     * @return Durations added.
+     */
+    public long count() {
+        return total;
+    }
+
+    /**
+     * @param quantile Quantile, from 0 to 1.
+     * @return Duration at quantile, 0 if histogram is empty.
+     */
+    public long percentile(double quantile) {
+        if (counts == null)
+            return 0;
+
+        long rank = Math.max(1, (long)Math.ceil(quantile * total));
+
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+
+            if (seen >= rank)
+                return middle(base + i);
+        }
+
+        return middle(base + counts.length - 1);
+    }
+
+    /**
+     * @param durationMs Duration.
+     * @return Bucket index.
+     */
+    static int bucket(long durationMs) {
+        if (durationMs < 2 * SUB_BUCKETS)
+            return (int)Math.max(0, durationMs);
+
+        int shift = 63 - Long.numberOfLeadingZeros(durationMs) - SUB_BUCKET_BITS;
+
+        return shift * SUB_BUCKETS + (int)(durationMs >>> shift);
+    }
+
+    /**
+     * @param bucket Bucket index.
+     * @return Middle duration of bucket.
+     */
+    static long middle(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS)
+            return bucket;
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long low = (long)(bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+
+        return low + ((1L << shift) - 1) / 2;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "DurationHistogram{count=" + total + ", p50=" + percentile(0.5) + ", p90=" + percentile(0.9) + '}';
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
@@ -54,9 +55,6 @@ public class MultBuildRunCtx implements ISuiteResults {
 
     private List<SingleBuildRunCtx> builds = new CopyOnWriteArrayList<>();
 
-    @Deprecated
-    private List<ProblemOccurrence> problems = new CopyOnWriteArrayList<>();
-
     /** Tests: Map from full test name to multiple test occurrence. */
     private final Map<String, MultTestFailureOccurrences> tests = new ConcurrentSkipListMap<>();
 
@@ -65,7 +63,7 @@ public class MultBuildRunCtx implements ISuiteResults {
      * Map from "Occurrence in build id" test detailed info.
      * Note: only failed tests are loaded here
      */
-    private Map<String, CompletableFuture<TestOccurrenceFull>> testFullMap = new HashMap<>();
+    private Map<String, CompletableFuture<TestOccurrenceFull>> testFullMap = new ConcurrentHashMap<>();
 
     /** Used for associating build info with contact person */
     @Nullable private String contactPerson;
@@ -105,9 +103,11 @@ public class MultBuildRunCtx implements ISuiteResults {
         return builds.stream().map(SingleBuildRunCtx::getTestLogCheckResult).filter(Objects::nonNull);
     }
 
-    @Deprecated
-    public void addProblems(List<ProblemOccurrence> problems) {
-        this.problems.addAll(problems);
+    /**
+     * @return Problems of all builds of suite.
+     */
+    private Stream<ProblemOccurrence> problems() {
+        return builds.stream().flatMap(SingleBuildRunCtx::getProblemsStream);
     }
 
     public String suiteId() {
@@ -119,7 +119,7 @@ public class MultBuildRunCtx implements ISuiteResults {
     }
 
     public boolean hasNontestBuildProblem() {
-        return problems != null && problems.stream().anyMatch(problem ->
+        return problems().anyMatch(problem ->
             !problem.isFailedTests()
                 && !problem.isShaphotDepProblem()
                 && !ProblemOccurrence.BUILD_FAILURE_ON_MESSAGE.equals(problem.type));
@@ -131,7 +131,7 @@ public class MultBuildRunCtx implements ISuiteResults {
     }
 
     private Optional<ProblemOccurrence> getBuildProblemExceptTestOrSnapshot() {
-        return problems.stream().filter(p -> !p.isFailedTests() && !p.isShaphotDepProblem()).findAny();
+        return problems().filter(p -> !p.isFailedTests() && !p.isShaphotDepProblem()).findAny();
     }
 
     public boolean hasTimeoutProblem() {
@@ -234,7 +234,7 @@ public class MultBuildRunCtx implements ISuiteResults {
 
         {
             Stream<ProblemOccurrence> stream =
-                problems.stream().filter(p ->
+                problems().filter(p ->
                     !p.isFailedTests()
                         && !p.isShaphotDepProblem()
                         && !p.isExecutionTimeout()
@@ -61,9 +61,7 @@ public class MultTestFailureOccurrences implements ITestFailureOccurrences {
     }
 
     public long getAvgDurationMs() {
-        //todo avg
-        Stream<Long> stream = occurrences.stream().map(TestOccurrence::getDuration);
-        return stream.findAny().orElse(0L);
+        return (long)occurrences.stream().mapToLong(TestOccurrence::getDuration).average().orElse(0);
     }
 
     public void add(TestOccurrence next) {
@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Latest runs of test or suite: fixed capacity window of (build ID, test ID, result code) sorted by build and test ID.
+ * When window is full, run with the smallest ID is dropped. Runs are stored in primitive arrays used as ring buffer,
+ * so usual update (run of newer build) does not shift elements, and persisted as plain arrays by Ignite binary
+ * marshaller. Failures, critical failures and status changes are counted on update, so reading them is O(1).
+ */
+public class RunHistory {
+    /** Bits of run result symbol, all result codes fit into them. */
+    public static final int BITS_PER_SYMBOL = 2;
+
+    /** Mask of one symbol. */
+    public static final int SYMBOL_MASK = (1 << BITS_PER_SYMBOL) - 1;
+
+    /** Symbols in one word. */
+    public static final int SYMBOLS_PER_WORD = Long.SIZE / BITS_PER_SYMBOL;
+
+    /** Run keys: build ID in high half and test ID in low half, ring buffer. */
+    private long[] keys;
+
+    /** Result codes, ring buffer. */
+    private byte[] results;
+
+    /** Physical index of the first run. */
+    private int head;
+
+    /** Runs in window. */
+    private int size;
+
+    /** Runs with result other than OK. */
+    private int failures;
+
+    /** Runs with critical failure result. */
+    private int criticalFailures;
+
+    /** Adjacent runs with different results. */
+    private int statusChanges;
+
+    /**
+     * @param capacity Max runs.
+     */
+    public RunHistory(int capacity) {
+        keys = new long[capacity];
+        results = new byte[capacity];
+    }
+
+    /**
+     * Adds run or replaces result of run with the same ID.
+     *
+     * @param buildId Build ID.
+     * @param testId Test ID, 0 for suite run.
+     * @param resCode Result code.
+     */
+    public void put(int buildId, int testId, int resCode) {
+        long key = key(buildId, testId);
+
+        int pos = search(key);
+
+        if (pos >= 0) {
+            account(pos, -1);
+
+            results[phys(pos)] = (byte)resCode;
+
+            account(pos, 1);
+
+            return;
+        }
+
+        int ins = -pos - 1;
+
+        if (size == keys.length) {
+            // Run is older than all runs of full window.
+            if (ins == 0)
+                return;
+
+            account(0, -1);
+
+            head = phys(1);
+            size--;
+            ins--;
+        }
+
+        // Shift newer runs to free position, usually there are no such runs.
+        for (int i = size; i > ins; i--) {
+            keys[phys(i)] = keys[phys(i - 1)];
+            results[phys(i)] = results[phys(i - 1)];
+        }
+
+        keys[phys(ins)] = key;
+        results[phys(ins)] = (byte)resCode;
+
+        size++;
+
+        account(ins, 1);
+    }
+
+    /**
+     * Adds run to counters or removes it, including change of status between the run and its neighbours.
+     *
+     * @param idx Logical index of run.
+     * @param sign 1 if run was added, -1 if run is going to be removed.
+     */
+    private void account(int idx, int sign) {
+        int res = results[phys(idx)];
+
+        if (res != RunStat.RES_OK)
+            failures += sign;
+
+        if (res == RunStat.RES_CRITICAL_FAILURE)
+            criticalFailures += sign;
+
+        statusChanges += sign * (changed(idx - 1, idx) + changed(idx, idx + 1) - changed(idx - 1, idx + 1));
+    }
+
+    /**
+     * @param idx1 Logical index of first run.
+     * @param idx2 Logical index of second run.
+     * @return 1 if both runs exist and have different results, 0 otherwise.
+     */
+    private int changed(int idx1, int idx2) {
+        if (idx1 < 0 || idx2 >= size)
+            return 0;
+
+        return results[phys(idx1)] != results[phys(idx2)] ? 1 : 0;
+    }
+
+    /**
+     * @param buildId Build ID.
+     * @param testId Test ID, 0 for suite run.
+     * @return {@code True} if run is in window.
+     */
+    public boolean contains(int buildId, int testId) {
+        return search(key(buildId, testId)) >= 0;
+    }
+
+    /**
+     * @param key Run key.
+     * @return Logical index of key, or {@code -(insertion index) - 1} if key is absent.
+     */
+    private int search(long key) {
+        // Runs of new builds are expected after the last one.
+        if (size == 0 || keys[phys(size - 1)] < key)
+            return -size - 1;
+
+        int lo = 0;
+        int hi = size - 1;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long midKey = keys[phys(mid)];
+
+            if (midKey < key)
+                lo = mid + 1;
+            else if (midKey > key)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+
+        return -lo - 1;
+    }
+
+    /**
+     * @param idx Logical index.
+     * @return Physical index.
+     */
+    private int phys(int idx) {
+        int res = head + idx;
+
+        return res < keys.length ? res : res - keys.length;
+    }
+
+    /**
+     * @param buildId Build ID.
+     * @param testId Test ID.
+     */
+    private static long key(int buildId, int testId) {
+        return ((long)buildId << 32) | (testId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return Runs in window.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Max runs.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * @param idx Index, from the oldest run.
+     * @return Build ID.
+     */
+    public int buildId(int idx) {
+        return (int)(keys[phys(idx)] >> 32);
+    }
+
+    /**
+     * @param idx Index, from the oldest run.
+     * @return Test ID.
+     */
+    public int testId(int idx) {
+        return (int)keys[phys(idx)];
+    }
+
+    /**
+     * @param idx Index, from the oldest run.
+     * @return Result code.
+     */
+    public int result(int idx) {
+        return results[phys(idx)];
+    }
+
+    /**
+     * @param resCode Result code.
+     * @return Number of runs with result.
+     */
+    public int count(int resCode) {
+        int res = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (results[phys(i)] == resCode)
+                res++;
+        }
+
+        return res;
+    }
+
+    /**
+     * @return Number of runs with result other than OK.
+     */
+    public int failures() {
+        return failures;
+    }
+
+    /**
+     * @return Number of runs with critical failure result.
+     */
+    public int criticalFailures() {
+        return criticalFailures;
+    }
+
+    /**
+     * @return Number of adjacent runs with different results.
+     */
+    public int statusChanges() {
+        return statusChanges;
+    }
+
+    /**
+     * @return Result codes as {@link #BITS_PER_SYMBOL}-bit symbols, from the oldest run in the lowest bits of first
+     * word. Event templates are matched by word operations over these symbols.
+     */
+    public long[] symbols() {
+        long[] res = new long[(size + SYMBOLS_PER_WORD - 1) / SYMBOLS_PER_WORD + 1];
+
+        for (int i = 0; i < size; i++) {
+            int code = results[phys(i)];
+
+            assert code >= 0 && code <= SYMBOL_MASK : code;
+
+            res[i / SYMBOLS_PER_WORD] |= (long)code << (i % SYMBOLS_PER_WORD * BITS_PER_SYMBOL);
+        }
+
+        return res;
+    }
+
+    /**
+     * @param symbols Symbols returned by {@link #symbols()}.
+     * @param idx Index of run.
+     * @return Up to {@link #SYMBOLS_PER_WORD} symbols starting from run, from the lowest bits.
+     */
+    public static long symbolsAt(long[] symbols, int idx) {
+        int bit = idx * BITS_PER_SYMBOL;
+        int word = bit >>> 6;
+        int off = bit & 63;
+
+        long res = symbols[word] >>> off;
+
+        // Last word is always zero, so next word exists for any run in window.
+        if (off != 0)
+            res |= symbols[word + 1] << (Long.SIZE - off);
+
+        return res;
+    }
+
+    /**
+     * @return Result codes, from the oldest run.
+     */
+    public int[] results() {
+        int[] res = new int[size];
+
+        for (int i = 0; i < size; i++)
+            res[i] = results[phys(i)];
+
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "RunHistory{results=" + Arrays.toString(results()) + '}';
+    }
+}
@@ -21,6 +21,7 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
 
 import java.util.*;
+import java.util.stream.IntStream;
 import javax.annotation.Nullable;
 
 import org.apache.ignite.ci.db.Persisted;
@@ -70,19 +71,51 @@ public class RunStat {
     public long totalDurationMs;
     public int runsWithDuration;
 
+    /** Weight of new run duration in decayed mean duration. */
+    private static final double DURATION_DECAY = 0.1;
+
+    /** Min runs with duration to detect duration regression. */
+    private static final int REGRESSION_MIN_RUNS = 20;
+
+    /** Decayed mean to median ratio considered as duration regression. */
+    private static final double REGRESSION_RATIO = 1.5;
+
+    /** Min difference of decayed mean and median considered as duration regression, filters out short tests. */
+    private static final long REGRESSION_MIN_DIFF_MS = 1000;
+
+    /**
+     * Durations histogram, null for statistics without durations, or collected before histograms were added.
+     */
+    @Nullable
+    private DurationHistogram durations;
+
+    /** Exponentially decayed mean of durations, recent runs have greater weight. */
+    private double decayedDurationMs;
+
     /**
      * timestamp of last write to entry
      */
     public long lastUpdatedMs;
 
+    /** Updates of entry, version of statistics for {@link RunStatIndex}. */
+    private long updates;
+
     /**
      * Name: Key in run stat cache
      */
     private String name;
 
+    /**
+     * Latest runs of entries saved by previous versions, converted to {@link #latestRuns} on first update.
+     */
+    @Deprecated
     @Nullable
     SortedMap<TestId, Integer> latestRunResults;
 
+    /** Latest runs. */
+    @Nullable
+    private RunHistory latestRuns;
+
     /**
      * @param name Name of test or suite.
      */
@@ -90,19 +123,29 @@ public class RunStat {
         this.name = name;
     }
 
+    /**
+     * Registers test run, run already present in latest runs window only updates its result, so repeated
+     * registration of the same build does not change counters.
+     *
+     * @param testOccurrence Test occurrence.
+     */
     public void addTestRun(TestOccurrence testOccurrence) {
+        boolean registered = isInLatest(extractFullId(testOccurrence.getId()));
+
         addTestRunToLatest(testOccurrence);
 
+        if (registered)
+            return;
+
         runs++;
 
-        if (testOccurrence.duration != null) {
-            totalDurationMs += testOccurrence.duration;
-            runsWithDuration++;
-        }
+        if (testOccurrence.duration != null)
+            addDuration(testOccurrence.duration);
 
         if (testOccurrence.isFailedTest())
             failures++;
 
+        updates++;
         lastUpdatedMs = System.currentTimeMillis();
     }
 
@@ -117,6 +160,34 @@ public class RunStat {
         addRunToLatest(id, testToResCode(testOccurrence));
     }
 
+    /**
+     * @param durationMs Duration of run.
+     */
+    private void addDuration(long durationMs) {
+        totalDurationMs += durationMs;
+
+        if (durations == null) {
+            durations = new DurationHistogram();
+            decayedDurationMs = durationMs;
+        }
+        else
+            decayedDurationMs += DURATION_DECAY * (durationMs - decayedDurationMs);
+
+        durations.add(durationMs);
+
+        runsWithDuration++;
+    }
+
+    /**
+     * @param id Run ID.
+     * @return {@code True} if run is in latest runs window.
+     */
+    private boolean isInLatest(@Nullable TestId id) {
+        RunHistory hist = history();
+
+        return id != null && hist != null && hist.contains(id.buildId, id.testId);
+    }
+
     private static TestId extractFullId(String id) {
         Integer buildId = extractIdPrefixed(id, "build:(id:", ")");
 
@@ -163,19 +234,88 @@ public class RunStat {
     }
 
     private void addRunToLatest(TestId id, int resCode) {
-        if (latestRunResults == null)
-            latestRunResults = new TreeMap<>();
+        updates++;
+
+        RunHistory hist = history();
+
+        // Converted legacy runs are saved by update, readers convert them without modification of shared value.
+        latestRunResults = null;
+
+        if (hist == null)
+            hist = new RunHistory(MAX_LATEST_RUNS);
+
+        latestRuns = hist;
+
+        hist.put(id.buildId, id.testId, resCode);
+    }
+
+    /**
+     * Adds runs of statistics of the same test or suite collected earlier, e.g. saved with key of previous format.
+     * Runs present in latest runs of both statistics keep result of this statistics.
+     *
+     * @param older Older statistics.
+     */
+    public void merge(RunStat older) {
+        runs += older.runs;
+        failures += older.failures;
+        totalDurationMs += older.totalDurationMs;
+        runsWithDuration += older.runsWithDuration;
+
+        if (older.durations != null) {
+            if (durations == null) {
+                durations = new DurationHistogram();
+                decayedDurationMs = older.decayedDurationMs;
+            }
+
+            durations.merge(older.durations);
+        }
 
-        latestRunResults.put(id, resCode);
+        RunHistory olderHist = older.history();
+
+        if (olderHist != null) {
+            for (int i = 0; i < olderHist.size(); i++) {
+                TestId id = new TestId(olderHist.buildId(i), olderHist.testId(i));
+
+                if (!isInLatest(id))
+                    addRunToLatest(id, olderHist.result(i));
+            }
+        }
 
-        if (latestRunResults.size() > MAX_LATEST_RUNS)
-            latestRunResults.remove(latestRunResults.firstKey());
+        updates++;
+        lastUpdatedMs = Math.max(lastUpdatedMs, older.lastUpdatedMs);
+    }
+
+    /**
+     * Instance may be shared between readers by near cache, so legacy runs are converted to new history, but fields
+     * are not modified.
+     *
+     * @return Latest runs, null if there were no runs.
+     */
+    @SuppressWarnings("deprecation")
+    @Nullable private RunHistory history() {
+        SortedMap<TestId, Integer> legacy = latestRunResults;
+
+        if (legacy == null)
+            return latestRuns;
+
+        RunHistory hist = new RunHistory(MAX_LATEST_RUNS);
+
+        legacy.forEach((id, res) -> hist.put(id.buildId, id.testId, res));
+
+        return hist;
     }
 
     public String name() {
         return name;
     }
 
+    /**
+     * @return Updates of entry, greater value is newer version of statistics.
+     */
+    public long updates() {
+        return updates;
+    }
+
     public float getFailRateAllHist() {
         if (runs == 0)
             return 1.0f;
@@ -224,21 +364,27 @@ public class RunStat {
     }
 
     public int getFailuresCount() {
-        if (latestRunResults == null)
+        RunHistory hist = history();
+
+        if (hist == null)
             return 0;
 
-        return (int) latestRunResults.values().stream().filter(res -> res != RES_OK).count();
+        return hist.failures();
     }
 
     public int getCriticalFailuresCount() {
-        if (latestRunResults == null)
+        RunHistory hist = history();
+
+        if (hist == null)
             return 0;
 
-        return (int) latestRunResults.values().stream().filter(res -> res == RES_CRITICAL_FAILURE).count();
+        return hist.criticalFailures();
     }
 
     public int getRunsCount() {
-        return latestRunResults == null ? 0 : latestRunResults.size();
+        RunHistory hist = history();
+
+        return hist == null ? 0 : hist.size();
     }
 
     public String getFailPercentPrintable() {
@@ -259,26 +405,58 @@ public class RunStat {
         return (long) (1.0 * totalDurationMs / runsWithDuration);
     }
 
+    /**
+     * @param quantile Quantile, from 0 to 1.
+     * @return Duration at quantile, average duration for statistics collected before histograms were added.
+     */
+    public long getDurationPercentileMs(double quantile) {
+        return durations == null ? getAverageDurationMs() : durations.percentile(quantile);
+    }
+
+    /**
+     * @return Exponentially decayed mean of durations, average duration for statistics collected before histograms
+     * were added.
+     */
+    public long getDecayedDurationMs() {
+        return durations == null ? getAverageDurationMs() : (long)decayedDurationMs;
+    }
+
+    /**
+     * @return {@code True} if recent runs are significantly longer than median of all runs.
+     */
+    public boolean isDurationRegression() {
+        if (durations == null || durations.count() < REGRESSION_MIN_RUNS)
+            return false;
+
+        long median = durations.percentile(0.5);
+
+        return decayedDurationMs > median * REGRESSION_RATIO && decayedDurationMs - median >= REGRESSION_MIN_DIFF_MS;
+    }
+
     public void addBuildRun(Build build) {
+        int resCode = build.isSuccess() ? RES_OK : RES_FAILURE;
+
+        if (build.getId() != null && isInLatest(new TestId(build.getId(), 0))) {
+            setBuildResCode(build.getId(), resCode);
+
+            return;
+        }
+
         runs++;
 
-        //todo ? add duration from statistics
-        /*
-        if (build.duration != null) {
-            totalDurationMs += testOccurrence.duration;
-            runsWithDuration++;
-        } */
+        if (build.hasStartDate() && build.hasFinishDate())
+            addDuration(Math.max(0, build.getFinishDate().getTime() - build.getStartDate().getTime()));
 
         if (!build.isSuccess())
             failures++;
 
-        int resCode = build.isSuccess() ? RES_OK : RES_FAILURE;
-
         setBuildResCode(build.getId(), resCode);
     }
 
     private void setBuildResCode(Integer buildId, int resCode) {
         addRunToLatest(new TestId(buildId, 0), resCode);
+
+        lastUpdatedMs = System.currentTimeMillis();
     }
 
     public void setBuildCriticalError(Integer bId) {
@@ -300,104 +478,95 @@ public class RunStat {
      */
     @Nullable
     public List<Integer> getLatestRunResults() {
-        if (latestRunResults == null)
+        RunHistory hist = history();
+
+        if (hist == null)
             return Collections.emptyList();
 
-        return new ArrayList<>(latestRunResults.values());
+        List<Integer> res = new ArrayList<>(hist.size());
+
+        for (int i = 0; i < hist.size(); i++)
+            res.add(hist.result(i));
+
+        return res;
     }
 
-    private int[] concatArr(int[] arr1, int[] arr2) {
-        int[] arr1and2 = new int[arr1.length + arr2.length];
-        System.arraycopy(arr1, 0, arr1and2, 0, arr1.length);
-        System.arraycopy(arr2, 0, arr1and2, arr1.length, arr2.length);
+    /**
+     * @return IDs of builds in latest runs window.
+     */
+    public IntStream latestBuildIds() {
+        RunHistory hist = history();
+
+        if (hist == null)
+            return IntStream.empty();
 
-        return arr1and2;
+        return IntStream.range(0, hist.size()).map(hist::buildId);
     }
 
     @Nullable
     public TestId detectTemplate(EventTemplate t) {
-        if (latestRunResults == null)
-            return null;
-
-        int centralEvtBuild = t.beforeEvent().length;
+        return detectTemplates(t)[0];
+    }
 
-        int[] template = concatArr(t.beforeEvent(), t.eventAndAfter());
+    /**
+     * Finds most recent occurrence of each template in one pass over latest runs. Runs are packed into 2-bit symbols,
+     * so each window position is checked by one mask comparison per template.
+     *
+     * @param templates Templates.
+     * @return ID of central event run for each template, null element if template was not found.
+     */
+    public TestId[] detectTemplates(EventTemplate... templates) {
+        TestId[] res = new TestId[templates.length];
 
-        assert centralEvtBuild < template.length;
-        assert centralEvtBuild >= 0;
+        RunHistory hist = history();
 
-        Set<Map.Entry<TestId, Integer>> entries = latestRunResults.entrySet();
+        if (hist == null)
+            return res;
 
-        if (entries.size() < template.length)
-            return null;
+        long[] symbols = hist.symbols();
 
-        List<Map.Entry<TestId, Integer>> histAsArr = new ArrayList<>(entries);
+        int notFound = templates.length;
 
-        TestId detectedAt = null;
-        if (t.shouldBeFirst()) {
-            if (histAsArr.size() >= runs) // skip if total runs can't fit to latest runs
-                detectedAt = checkTemplateAtPos(template, centralEvtBuild, histAsArr, 0);
-        }
-        else {
-            //start from the end to find most recent
-            for (int idx = histAsArr.size() - template.length; idx >= 0; idx--) {
-                detectedAt = checkTemplateAtPos(template, centralEvtBuild, histAsArr, idx);
+        //start from the end to find most recent
+        for (int idx = hist.size() - 1; idx >= 0 && notFound > 0; idx--) {
+            long window = RunHistory.symbolsAt(symbols, idx);
 
-                if (detectedAt != null)
-                    break;
-            }
-        }
+            for (int i = 0; i < templates.length; i++) {
+                EventTemplate t = templates[i];
 
-        return detectedAt;
-    }
+                if (res[i] != null || idx + t.cntEvents() > hist.size() || !t.matches(window))
+                    continue;
 
-    @Nullable
-    private TestId checkTemplateAtPos(int[] template, int centralEvtBuild, List<Map.Entry<TestId, Integer>> histAsArr,
-        int idx) {
-        for (int tIdx = 0; tIdx < template.length; tIdx++) {
-            Integer curStatus = histAsArr.get(idx + tIdx).getValue();
+                // skip if total runs can't fit to latest runs
+                if (t.shouldBeFirst() && (idx != 0 || hist.size() < runs))
+                    continue;
 
-            if (curStatus == null)
-                break;
+                int detectedAt = idx + t.beforeEvent().length;
 
-            int tmpl = template[tIdx];
+                res[i] = new TestId(hist.buildId(detectedAt), hist.testId(detectedAt));
 
-            if ((tmpl == RES_OK_OR_FAILURE && (curStatus == RES_OK || curStatus == RES_FAILURE))
-                || curStatus == tmpl) {
-                if (tIdx == template.length - 1)
-                    return histAsArr.get(idx + centralEvtBuild).getKey();
+                notFound--;
             }
-            else
-                break;
         }
 
-        return null;
+        return res;
     }
 
     public boolean isFlaky() {
-        return getFlakyComments() != null;
+        RunHistory hist = history();
+
+        return hist != null && hist.statusChanges() > 6;
     }
 
     @Nullable
     public String getFlakyComments() {
-        if (latestRunResults == null)
+        if (!isFlaky())
             return null;
 
-        int statusChange = 0;
-        Integer prev = null;
-        for (Integer next : latestRunResults.values()) {
-            if (prev != null && next != null) {
-                if (!prev.equals(next))
-                    statusChange++;
-            }
-            prev = next;
-        }
-
-        if (statusChange <= 6)
-            return null;
+        RunHistory hist = history();
 
         return "Test seems to be flaky: " +
-                    "change status [" + statusChange + "/" + latestRunResults.size() + "]";
+                    "change status [" + hist.statusChanges() + "/" + hist.size() + "]";
     }
 
     public static class TestId implements Comparable<TestId> {
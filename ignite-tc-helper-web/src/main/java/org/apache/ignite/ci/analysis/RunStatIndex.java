@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import com.google.common.base.Strings;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import javax.annotation.Nullable;
+import javax.cache.Cache;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.query.QueryCursor;
+import org.apache.ignite.cache.query.ScanQuery;
+
+/**
+ * On-heap index of run statistics cache for top queries: keys of each branch sorted by fail rate and by average
+ * duration. Index is built by one scan of cache on first query and then maintained by statistics updates, which
+ * provide {@link Summary} of updated value, so top queries read only matching keys instead of sorting whole cache.
+ * Summaries may be applied out of order, summary of older version of statistics does not replace newer one. Keys
+ * removed from cache should be removed from index by {@link #remove(Object)}.
+ *
+ * One instance is created per statistics cache name.
+ */
+public class RunStatIndex<K> {
+    /** Indexes by statistics cache name. */
+    private static final ConcurrentMap<String, RunStatIndex<?>> indexes = new ConcurrentHashMap<>();
+
+    /** Sort orders of index. */
+    public enum Metric {
+        /** Fail rate of latest runs. */
+        FAIL_RATE(s -> (long)(s.failRate * 1_000_000)),
+
+        /** Average duration of all runs. */
+        AVG_DURATION(s -> s.avgDurationMs),
+
+        /** 90th percentile of duration of all runs. */
+        P90_DURATION(s -> s.p90DurationMs);
+
+        /** Score, greater is higher in top. */
+        private final ToLongFunction<Summary> score;
+
+        /**
+         * @param score Score.
+         */
+        Metric(ToLongFunction<Summary> score) {
+            this.score = score;
+        }
+    }
+
+    /** Key class, entries with keys of other classes (not migrated yet) are not indexed. */
+    private final Class<K> keyCls;
+
+    /** Branch of key. */
+    private final Function<K, String> branchOf;
+
+    /** Entries by key. */
+    private final ConcurrentMap<K, Entry<K>> entries = new ConcurrentHashMap<>();
+
+    /** Sorted entries by branch and metric. */
+    private final ConcurrentMap<String, Map<Metric, NavigableSet<Entry<K>>>> branches = new ConcurrentHashMap<>();
+
+    /** Entries sequence, makes entries with the same score distinct. */
+    private final AtomicLong seq = new AtomicLong();
+
+    /** Index contains all keys of cache. */
+    private volatile boolean built;
+
+    /**
+     * @param keyCls Key class.
+     * @param branchOf Branch of key.
+     */
+    private RunStatIndex(Class<K> keyCls, Function<K, String> branchOf) {
+        this.keyCls = keyCls;
+        this.branchOf = branchOf;
+    }
+
+    /**
+     * @param cacheName Statistics cache name.
+     * @param keyCls Key class, used only if index is created by this call.
+     * @param branchOf Branch of key, used only if index is created by this call.
+     * @return Index shared by all users of statistics cache.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K> RunStatIndex<K> forCache(String cacheName, Class<K> keyCls, Function<K, String> branchOf) {
+        return (RunStatIndex<K>)indexes.computeIfAbsent(cacheName, n -> new RunStatIndex<>(keyCls, branchOf));
+    }
+
+    /**
+     * Updates position of key after statistics update.
+     *
+     * @param key Key.
+     * @param summary Summary of updated statistics.
+     */
+    public void update(K key, Summary summary) {
+        entries.compute(key, (k, old) -> {
+            if (old != null) {
+                if (old.summary.updates > summary.updates)
+                    return old;
+
+                sets(old.branch).forEach((m, set) -> set.remove(old));
+            }
+
+            return add(k, summary);
+        });
+    }
+
+    /**
+     * Removes key after its removal from statistics cache.
+     *
+     * @param key Key.
+     */
+    public void remove(K key) {
+        entries.computeIfPresent(key, (k, old) -> {
+            sets(old.branch).forEach((m, set) -> set.remove(old));
+
+            return null;
+        });
+    }
+
+    /**
+     * @param key Key.
+     * @param summary Summary.
+     * @return Entry added to sorted sets.
+     */
+    private Entry<K> add(K key, Summary summary) {
+        Entry<K> entry = new Entry<>(key, Strings.nullToEmpty(branchOf.apply(key)), summary, seq.incrementAndGet());
+
+        sets(entry.branch).forEach((m, set) -> set.add(entry));
+
+        return entry;
+    }
+
+    /**
+     * @param branch Branch.
+     * @return Sorted sets of branch by metric.
+     */
+    private Map<Metric, NavigableSet<Entry<K>>> sets(String branch) {
+        return branches.computeIfAbsent(branch, b -> {
+            Map<Metric, NavigableSet<Entry<K>>> res = new EnumMap<>(Metric.class);
+
+            for (Metric m : Metric.values()) {
+                ToLongFunction<Summary> score = m.score;
+
+                Comparator<Entry<K>> cmp = Comparator.<Entry<K>>comparingLong(e -> -score.applyAsLong(e.summary))
+                    .thenComparingLong(e -> e.seq);
+
+                res.put(m, new ConcurrentSkipListSet<>(cmp));
+            }
+
+            return res;
+        });
+    }
+
+    /**
+     * @param cache Statistics cache, scanned if index is not built yet.
+     * @param metric Sort order.
+     * @param branch Branch, null for all branches.
+     * @param minUpdatedMs Min timestamp of last statistics update, 0 for all entries.
+     * @param cnt Max keys to return.
+     * @return Keys with highest metric value, in descending order.
+     */
+    public List<K> top(IgniteCache<K, RunStat> cache, Metric metric, @Nullable String branch, long minUpdatedMs,
+        int cnt) {
+        if (!built)
+            build(cache);
+
+        return top(metric, branch, minUpdatedMs, cnt);
+    }
+
+    /**
+     * @param metric Sort order.
+     * @param branch Branch, null for all branches.
+     * @param minUpdatedMs Min timestamp of last statistics update, 0 for all entries.
+     * @param cnt Max keys to return.
+     * @return Keys in index with highest metric value, in descending order.
+     */
+    List<K> top(Metric metric, @Nullable String branch, long minUpdatedMs, int cnt) {
+        List<Entry<K>> res = new ArrayList<>();
+
+        branches.forEach((b, sets) -> {
+            if (branch != null && !branch.equals(b))
+                return;
+
+            int found = 0;
+
+            for (Entry<K> entry : sets.get(metric)) {
+                if (found >= cnt)
+                    break;
+
+                if (entry.summary.lastUpdatedMs >= minUpdatedMs) {
+                    res.add(entry);
+
+                    found++;
+                }
+            }
+        });
+
+        // Top entries of branches are merged.
+        res.sort(Comparator.<Entry<K>>comparingLong(e -> -metric.score.applyAsLong(e.summary))
+            .thenComparingLong(e -> e.seq));
+
+        List<K> keys = new ArrayList<>();
+
+        for (int i = 0; i < Math.min(cnt, res.size()); i++)
+            keys.add(res.get(i).key);
+
+        return keys;
+    }
+
+    /**
+     * Adds all keys of cache to index, keys updated concurrently are not overwritten.
+     *
+     * @param cache Statistics cache.
+     */
+    private synchronized void build(IgniteCache<K, RunStat> cache) {
+        if (built)
+            return;
+
+        try (QueryCursor<Cache.Entry<K, RunStat>> cursor = cache.query(new ScanQuery<K, RunStat>())) {
+            for (Cache.Entry<K, RunStat> e : cursor) {
+                // Keys of legacy format are merged to keys of this class by migration, which updates index.
+                if (!keyCls.isInstance(e.getKey()))
+                    continue;
+
+                Summary summary = new Summary(e.getValue());
+
+                entries.computeIfAbsent(e.getKey(), k -> add(k, summary));
+            }
+        }
+
+        built = true;
+    }
+
+    /**
+     * @return Keys in index.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Indexed fields of run statistics, returned by entry processors updating statistics.
+     */
+    public static class Summary {
+        /** Fail rate of latest runs. */
+        float failRate;
+
+        /** Average duration of all runs. */
+        long avgDurationMs;
+
+        /** 90th percentile of duration of all runs. */
+        long p90DurationMs;
+
+        /** Timestamp of last update. */
+        long lastUpdatedMs;
+
+        /** Version of statistics. */
+        long updates;
+
+        /**
+         * @param stat Statistics.
+         */
+        public Summary(RunStat stat) {
+            failRate = stat.getFailRate();
+            avgDurationMs = stat.getAverageDurationMs();
+            p90DurationMs = stat.getDurationPercentileMs(0.9);
+            lastUpdatedMs = stat.lastUpdatedMs;
+            updates = stat.updates();
+        }
+    }
+
+    /**
+     * Index entry, immutable.
+     */
+    private static class Entry<K> {
+        final K key;
+
+        final String branch;
+
+        final Summary summary;
+
+        final long seq;
+
+        /**
+         * @param key Key.
+         * @param branch Branch.
+         * @param summary Summary.
+         * @param seq Sequence.
+         */
+        Entry(K key, String branch, Summary summary, long seq) {
+            this.key = key;
+            this.branch = branch;
+            this.summary = summary;
+            this.seq = seq;
+        }
+    }
+}
@@ -59,7 +59,10 @@ public class SingleBuildRunCtx implements ISuiteResults {
         return getProblemsStream().filter(ProblemOccurrence::isExecutionTimeout).count();
     }
 
-    private Stream<ProblemOccurrence> getProblemsStream() {
+    /**
+     * @return Not null problems of build.
+     */
+    public Stream<ProblemOccurrence> getProblemsStream() {
         if (problems == null)
             return Stream.empty();
 
@@ -63,4 +63,8 @@ public class TestInBranch implements Comparable<TestInBranch> {
     public String getName() {
         return name;
     }
+
+    public String getBranch() {
+        return branch;
+    }
 }
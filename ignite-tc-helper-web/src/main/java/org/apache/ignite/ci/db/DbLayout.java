@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.db;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.Nullable;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.ci.HelperConfig;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataPageEvictionMode;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.WALMode;
+
+/**
+ * Storage layout defined by {@link HelperConfig#DB_PROPS} file in work directory: data regions, cache to region and
+ * cache group mapping, WAL and checkpoint settings. Without file layout is one 12 GB persistent region, caches without
+ * groups.
+ *
+ * Example:
+ * <pre>
+ * wal.mode=LOG_ONLY
+ * checkpoint.frequencyMs=180000
+ * region.default.maxSizeMb=8192
+ * region.analytics.maxSizeMb=4096
+ * region.transient.maxSizeMb=512
+ * region.transient.persistence=false
+ * region.transient.eviction=RANDOM_2_LRU
+ * cache.testsRunStat.region=analytics
+ * cache.testsRunStat.group=runStat
+ * cache.conditionalResponses.region=transient
+ * </pre>
+ *
+ * Caches are matched by name without server ID prefix. Region and group are applied only when cache is created,
+ * existing persistent caches keep configuration they were created with. Caches of one group should have the same
+ * region and the same number of partitions.
+ */
+public class DbLayout {
+    /** Page size, bytes. */
+    public static final String PAGE_SIZE = "pageSize";
+
+    /** WAL mode, one of {@link WALMode}. */
+    public static final String WAL_MODE = "wal.mode";
+
+    /** Checkpoints to keep WAL for. */
+    public static final String WAL_HISTORY_SIZE = "wal.historySize";
+
+    /** Checkpoint frequency. */
+    public static final String CHECKPOINT_FREQUENCY_MS = "checkpoint.frequencyMs";
+
+    /** Checkpoint threads. */
+    public static final String CHECKPOINT_THREADS = "checkpoint.threads";
+
+    /** Slow down updates if checkpoint is not able to keep up with dirty pages. */
+    public static final String WRITE_THROTTLING = "writeThrottling";
+
+    /** Prefix of region properties: {@code region.<name>.<property>}. */
+    public static final String REGION_PREFIX = "region.";
+
+    /** Prefix of cache properties: {@code cache.<name>.<property>}. */
+    public static final String CACHE_PREFIX = "cache.";
+
+    /** Region property: max size. */
+    public static final String MAX_SIZE_MB = "maxSizeMb";
+
+    /** Region property: initial size. */
+    public static final String INITIAL_SIZE_MB = "initialSizeMb";
+
+    /** Region property: persistence enabled, true by default. */
+    public static final String PERSISTENCE = "persistence";
+
+    /** Region property: page eviction mode, only for in-memory regions. */
+    public static final String EVICTION = "eviction";
+
+    /** Region property: checkpoint page buffer size. */
+    public static final String CHECKPOINT_BUFFER_MB = "checkpointBufferMb";
+
+    /** Cache property: region name. */
+    public static final String REGION = "region";
+
+    /** Cache property: cache group name. */
+    public static final String GROUP = "group";
+
+    /** Default region name. */
+    private static final String DFLT_REGION = DataStorageConfiguration.DFLT_DATA_REG_DEFAULT_NAME;
+
+    /** Default region size. */
+    private static final long DFLT_REGION_SIZE_MB = 12L * 1024;
+
+    /** Megabyte. */
+    private static final long MB = 1024L * 1024;
+
+    /** Layout loaded from work directory. */
+    private static volatile DbLayout current;
+
+    /** Storage properties. */
+    private final Properties props;
+
+    /** Regions by name, default region is first. */
+    private final Map<String, DataRegionConfiguration> regions = new LinkedHashMap<>();
+
+    /** Region name by cache name. */
+    private final Map<String, String> cacheRegions = new HashMap<>();
+
+    /** Group name by cache name. */
+    private final Map<String, String> cacheGroups = new HashMap<>();
+
+    /**
+     * @param props Properties.
+     */
+    public DbLayout(Properties props) {
+        this.props = props;
+
+        regions.put(DFLT_REGION, region(DFLT_REGION));
+
+        for (String key : new TreeSet<>(props.stringPropertyNames())) {
+            if (key.startsWith(REGION_PREFIX))
+                regions.computeIfAbsent(entryName(key, REGION_PREFIX), this::region);
+            else if (key.startsWith(CACHE_PREFIX)) {
+                String name = entryName(key, CACHE_PREFIX);
+                String prop = key.substring(key.lastIndexOf('.') + 1);
+                String val = props.getProperty(key).trim();
+
+                if (REGION.equals(prop))
+                    cacheRegions.put(name, val);
+                else if (GROUP.equals(prop))
+                    cacheGroups.put(name, val);
+                else
+                    throw new IllegalStateException("Unknown cache property in " + HelperConfig.DB_PROPS + ": " + key);
+            }
+        }
+
+        validate();
+    }
+
+    /**
+     * @param key Property key: prefix, region or cache name, dot and property name.
+     * @param prefix Prefix.
+     * @return Region or cache name.
+     */
+    private static String entryName(String key, String prefix) {
+        int end = key.lastIndexOf('.');
+
+        if (end <= prefix.length())
+            throw new IllegalStateException("Invalid property in " + HelperConfig.DB_PROPS + ": " + key);
+
+        return key.substring(prefix.length(), end);
+    }
+
+    /**
+     * @return Layout defined in work directory, loaded on first call.
+     */
+    public static DbLayout current() {
+        DbLayout layout = current;
+
+        if (layout == null) {
+            synchronized (DbLayout.class) {
+                if (current == null)
+                    current = new DbLayout(HelperConfig.loadDbSettings());
+
+                layout = current;
+            }
+        }
+
+        return layout;
+    }
+
+    /**
+     * @param name Region name.
+     */
+    private DataRegionConfiguration region(String name) {
+        boolean persistence = Boolean.parseBoolean(prop(REGION_PREFIX + name + "." + PERSISTENCE, "true"));
+
+        DataRegionConfiguration reg = new DataRegionConfiguration()
+            .setName(name)
+            .setMaxSize(Long.parseLong(prop(REGION_PREFIX + name + "." + MAX_SIZE_MB,
+                Long.toString(DFLT_REGION_SIZE_MB))) * MB)
+            .setPersistenceEnabled(persistence);
+
+        String initialSize = prop(REGION_PREFIX + name + "." + INITIAL_SIZE_MB, null);
+
+        if (initialSize != null)
+            reg.setInitialSize(Long.parseLong(initialSize) * MB);
+
+        String cpBuf = prop(REGION_PREFIX + name + "." + CHECKPOINT_BUFFER_MB, null);
+
+        if (cpBuf != null)
+            reg.setCheckpointPageBufferSize(Long.parseLong(cpBuf) * MB);
+
+        String eviction = prop(REGION_PREFIX + name + "." + EVICTION, null);
+
+        if (eviction != null) {
+            if (persistence) {
+                throw new IllegalStateException("Page eviction can be set only for region with disabled persistence: "
+                    + name + " in " + HelperConfig.DB_PROPS);
+            }
+
+            reg.setPageEvictionMode(DataPageEvictionMode.valueOf(eviction.toUpperCase()));
+        }
+
+        return reg;
+    }
+
+    /**
+     * Checks mapped regions exist and each group is mapped to one region.
+     */
+    private void validate() {
+        cacheRegions.forEach((cache, region) -> {
+            if (!regions.containsKey(region))
+                throw new IllegalStateException("Unknown region " + region + " for cache " + cache);
+        });
+
+        Map<String, String> groupRegions = new HashMap<>();
+
+        cacheGroups.forEach((cache, grp) -> {
+            String region = cacheRegions.getOrDefault(cache, DFLT_REGION);
+            String prev = groupRegions.putIfAbsent(grp, region);
+
+            if (prev != null && !prev.equals(region)) {
+                throw new IllegalStateException("Caches of group " + grp + " are mapped to different regions: "
+                    + prev + ", " + region);
+            }
+        });
+    }
+
+    /**
+     * @param key Key.
+     * @param dflt Default.
+     */
+    private String prop(String key, @Nullable String dflt) {
+        String val = props.getProperty(key);
+
+        return val == null ? dflt : val.trim();
+    }
+
+    /**
+     * @return Storage configuration.
+     */
+    public DataStorageConfiguration storageConfiguration() {
+        DataStorageConfiguration dsCfg = new DataStorageConfiguration()
+            .setWalMode(WALMode.valueOf(prop(WAL_MODE, WALMode.LOG_ONLY.name()).toUpperCase()))
+            .setWalHistorySize(Integer.parseInt(prop(WAL_HISTORY_SIZE, "1")))
+            .setCheckpointFrequency(Long.parseLong(prop(CHECKPOINT_FREQUENCY_MS, "60000")))
+            .setWriteThrottlingEnabled(Boolean.parseBoolean(prop(WRITE_THROTTLING, "true")))
+            .setDefaultDataRegionConfiguration(regions.get(DFLT_REGION));
+
+        String pageSize = prop(PAGE_SIZE, null);
+
+        if (pageSize != null)
+            dsCfg.setPageSize(Integer.parseInt(pageSize));
+
+        String cpThreads = prop(CHECKPOINT_THREADS, null);
+
+        if (cpThreads != null)
+            dsCfg.setCheckpointThreads(Integer.parseInt(cpThreads));
+
+        List<DataRegionConfiguration> other = new ArrayList<>(regions.values());
+
+        other.remove(regions.get(DFLT_REGION));
+
+        if (!other.isEmpty())
+            dsCfg.setDataRegionConfigurations(other.toArray(new DataRegionConfiguration[0]));
+
+        return dsCfg;
+    }
+
+    /**
+     * Sets region and group mapped to cache name.
+     *
+     * @param ccfg Cache configuration.
+     * @return Same configuration.
+     */
+    public <K, V> CacheConfiguration<K, V> apply(CacheConfiguration<K, V> ccfg) {
+        String name = baseName(ccfg.getName());
+
+        String region = cacheRegions.get(name);
+
+        if (region != null && !DFLT_REGION.equals(region))
+            ccfg.setDataRegionName(region);
+
+        String grp = cacheGroups.get(name);
+
+        if (grp != null)
+            ccfg.setGroupName(grp);
+
+        return ccfg;
+    }
+
+    /**
+     * @param cacheName Cache name.
+     * @return Cache name without server ID prefix.
+     */
+    static String baseName(String cacheName) {
+        return cacheName.substring(cacheName.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * @param ignite Started node.
+     * @return Effective layout: storage settings, regions and caches actually placed to regions and groups.
+     */
+    public String describe(Ignite ignite) {
+        DataStorageConfiguration dsCfg = ignite.configuration().getDataStorageConfiguration();
+
+        StringBuilder sb = new StringBuilder("Storage layout: pageSize=").append(dsCfg.getPageSize())
+            .append(", walMode=").append(dsCfg.getWalMode())
+            .append(", walHistorySize=").append(dsCfg.getWalHistorySize())
+            .append(", checkpointFrequencyMs=").append(dsCfg.getCheckpointFrequency())
+            .append(", checkpointThreads=").append(dsCfg.getCheckpointThreads())
+            .append(", writeThrottling=").append(dsCfg.isWriteThrottlingEnabled());
+
+        for (DataRegionConfiguration reg : regions.values()) {
+            sb.append(HelperConfig.ENDL).append("  region ").append(reg.getName())
+                .append(": maxSizeMb=").append(reg.getMaxSize() / MB)
+                .append(", persistence=").append(reg.isPersistenceEnabled())
+                .append(", eviction=").append(reg.getPageEvictionMode());
+        }
+
+        // Region -> group (or cache name, for caches without group) -> [caches, partitions].
+        Map<String, Map<String, int[]>> placement = new TreeMap<>();
+        List<String> mismatches = new ArrayList<>();
+
+        for (String cacheName : new TreeSet<>(ignite.cacheNames())) {
+            // Class literal of generic configuration is raw, but cache returns configuration of its own types.
+            @SuppressWarnings("unchecked")
+            CacheConfiguration<?, ?> ccfg = ignite.cache(cacheName).getConfiguration(CacheConfiguration.class);
+
+            String region = ccfg.getDataRegionName() == null ? DFLT_REGION : ccfg.getDataRegionName();
+            String grp = ccfg.getGroupName();
+            String base = baseName(cacheName);
+
+            int[] cnt = placement.computeIfAbsent(region, r -> new TreeMap<>())
+                .computeIfAbsent(grp == null ? "-" + cacheName : grp, g -> new int[2]);
+
+            cnt[0]++;
+            cnt[1] = ccfg.getAffinity() == null ? 0 : ccfg.getAffinity().partitions();
+
+            String expRegion = cacheRegions.getOrDefault(base, DFLT_REGION);
+
+            if (!expRegion.equals(region) || (cacheGroups.containsKey(base) && !cacheGroups.get(base).equals(grp)))
+                mismatches.add(cacheName);
+        }
+
+        placement.forEach((region, grps) -> {
+            int caches = grps.values().stream().mapToInt(c -> c[0]).sum();
+            int parts = grps.values().stream().mapToInt(c -> c[1]).sum();
+
+            sb.append(HelperConfig.ENDL).append("  caches in region ").append(region).append(": ").append(caches)
+                .append(", partition files: ").append(parts);
+
+            grps.forEach((grp, cnt) -> {
+                if (!grp.startsWith("-"))
+                    sb.append(HelperConfig.ENDL).append("    group ").append(grp).append(": caches=").append(cnt[0])
+                        .append(", partitions=").append(cnt[1]);
+            });
+        });
+
+        if (!mismatches.isEmpty()) {
+            sb.append(HelperConfig.ENDL).append("  caches created before layout change, mapping is not applied: ")
+                .append(mismatches);
+        }
+
+        return sb.toString();
+    }
+}
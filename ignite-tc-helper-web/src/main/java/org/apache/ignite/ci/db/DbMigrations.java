@@ -17,12 +17,36 @@
 
 package org.apache.ignite.ci.db;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import javax.cache.Cache;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
+import org.apache.ignite.binary.BinaryObject;
 import org.apache.ignite.cache.CacheAtomicityMode;
 import org.apache.ignite.cache.CacheMode;
+import org.apache.ignite.cache.query.QueryCursor;
+import org.apache.ignite.cache.query.ScanQuery;
 import org.apache.ignite.ci.ITeamcity;
 import org.apache.ignite.ci.IgnitePersistentTeamcity;
 import org.apache.ignite.ci.analysis.RunStat;
@@ -31,16 +55,29 @@ import org.apache.ignite.ci.analysis.TestInBranch;
 import org.apache.ignite.ci.tcmodel.result.Build;
 import org.apache.ignite.ci.tcmodel.result.stat.Statistics;
 import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrencesCompacted;
+import org.apache.ignite.ci.util.ExceptionUtil;
 import org.apache.ignite.ci.web.rest.tracked.GetTrackedBranchTestResults;
 import org.apache.ignite.ci.web.rest.Metrics;
 import org.apache.ignite.ci.web.rest.build.GetBuildTestFailures;
 import org.apache.ignite.ci.web.rest.pr.GetPrTestFailures;
 import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.internal.binary.BinaryObjectImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Created by Дмитрий on 11.02.2018
+ *
+ * Data migrations of one server. Migrations are started once per node in background, see
+ * {@link #startOnce(Ignite, String, Consumer)}, so server objects are available immediately and work in degraded mode
+ * (some persisted data may be not migrated yet) until migrations are completed. Cache scans are executed in parallel by
+ * partitions, completed partitions are saved, so scan interrupted by node stop is resumed from the same point.
  */
 public class DbMigrations {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(DbMigrations.class);
+
     public static final String DONE_MIGRATIONS = "doneMigrations";
     @Deprecated
     public static final String TESTS = "tests";
@@ -53,182 +90,277 @@ public class DbMigrations {
     @Deprecated
     public static final String RUN_STAT_CACHE = "runStat";
 
+    /** Suffix of key of scan checkpoint: set of completed partitions. */
+    private static final String CHECKPOINT_SUFFIX = ":partitionsDone";
+
+    /** Partitions scanned concurrently. */
+    private static final int SCAN_PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+    /** Progress is logged after each such share of partitions is scanned, percents. */
+    private static final int PROGRESS_STEP_PCT = 10;
+
+    /** Migrations started by server ID. */
+    private static final ConcurrentMap<String, DbMigrations> started = new ConcurrentHashMap<>();
+
+    /** Executor of migrations and partition scans. */
+    private static final ExecutorService executor = Executors.newCachedThreadPool(
+        new ThreadFactoryBuilder().setNameFormat("db-migrations-%d").setDaemon(true).build());
+
     private final Ignite ignite;
     private final String serverId;
     private IgniteCache<String, Object> doneMigrations;
 
+    /** Codes of completed migrations, loaded once. */
+    private Set<String> done;
+
+    /** Migration in progress. */
+    @Nullable private volatile String current;
+
+    /** Completed migrations, run by this node. */
+    private final AtomicInteger applied = new AtomicInteger();
+
+    /** Entries processed by scans of current migration. */
+    private final LongAdder processed = new LongAdder();
+
+    /** Partitions scanned for current migration. */
+    private final AtomicInteger partitionsDone = new AtomicInteger();
+
+    /** Partitions to be scanned for current migration. */
+    private volatile int partitionsTotal;
+
+    /** Completion future. */
+    private volatile CompletableFuture<Void> fut;
+
+    /** Start timestamp. */
+    private final long startTs = System.currentTimeMillis();
+
     public DbMigrations(Ignite ignite, String serverId) {
         this.ignite = ignite;
         this.serverId = serverId;
     }
 
+    /**
+     * Starts migrations of server in background if they were not started by this node yet.
+     *
+     * @param ignite Ignite.
+     * @param serverId Server ID.
+     * @param migrations Migrations of server, e.g. {@link #dataMigration} call.
+     * @return Migrations state.
+     */
+    public static DbMigrations startOnce(Ignite ignite, String serverId, Consumer<DbMigrations> migrations) {
+        return started.computeIfAbsent(serverId, id -> {
+            DbMigrations state = new DbMigrations(ignite, id);
+
+            state.fut = CompletableFuture.runAsync(() -> migrations.accept(state), executor)
+                .whenComplete((r, e) -> {
+                    state.current = null;
+
+                    if (e != null)
+                        logger.error(id + " - Data migrations failed, will be retried after restart", e);
+                    else {
+                        logger.info(id + " - Data migrations completed in "
+                            + (System.currentTimeMillis() - state.startTs) + "ms, applied: " + state.applied.get());
+                    }
+                });
+
+            return state;
+        });
+    }
+
+    /**
+     * @return Migrations started by this node.
+     */
+    public static Collection<DbMigrations> all() {
+        return new TreeMap<>(started).values();
+    }
+
+    /**
+     * @param serverId Server ID.
+     * @return {@code True} if migrations of server are in progress, some persisted data may be not available yet.
+     */
+    public static boolean isDegraded(String serverId) {
+        DbMigrations state = started.get(serverId);
+
+        return state != null && state.inProgress();
+    }
+
     public static String removeCountFromRef(String href) {
         return href.replace(TESTS_COUNT_7700, "")
             .replace(",count:7500", "");
     }
 
     public void dataMigration(
-        IgniteCache<String, TestOccurrences> testOccurrencesCache, Consumer<TestOccurrences> saveTestToStat,
+        IgniteCache<String, TestOccurrencesCompacted> testOccurrencesCache, Consumer<TestOccurrences> saveTestToStat,
         Consumer<TestOccurrences> saveTestToLatest,
         Cache<String, Build> buildCache, Consumer<Build> saveBuildToStat,
-        IgniteCache<SuiteInBranch, RunStat> suiteHistCache,
-        IgniteCache<TestInBranch, RunStat> testHistCache) {
+        IgniteCache<SuiteInBranch, RunStat> suiteHistCache, BiConsumer<SuiteInBranch, RunStat> mergeSuiteStat,
+        IgniteCache<TestInBranch, RunStat> testHistCache, BiConsumer<TestInBranch, RunStat> mergeTestStat) {
 
         doneMigrations = doneMigrationsCache();
+        done = loadDone();
+
+        String legacyTestsCacheNme = ignCacheNme(IgnitePersistentTeamcity.TESTS_OCCURRENCES);
 
         applyMigration("InitialFillLatestRunsV3", () -> {
-            int size = testOccurrencesCache.size();
-            if (size > 0) {
-                int i = 0;
-                int maxFoundBuildId = 0;
-                for (Cache.Entry<String, TestOccurrences> entry : testOccurrencesCache) {
-                    String key = entry.getKey();
-
-                    Integer buildId = RunStat.extractIdPrefixed(key, "locator=build:(id:", ")");
-                    if (buildId != null) {
-                        if (buildId > maxFoundBuildId)
-                            maxFoundBuildId = buildId;
-
-                        if (buildId < maxFoundBuildId - (RunStat.MAX_LATEST_RUNS * 100 * 3))
-                            System.out.println(serverId + " - Skipping entry " + i + " from " + size + ": " + key);
-                        else {
-                            System.out.println(serverId + " - Migrating entry " + i + " from " + size + ": " + key);
-
-                            saveTestToLatest.accept(entry.getValue());
-                        }
-                    }
+            IgniteCache<String, TestOccurrences> legacyTests = existingCache(legacyTestsCacheNme);
 
-                    i++;
-                }
-            }
+            if (legacyTests == null)
+                return;
+
+            // Only recent builds are added to latest runs, so max build ID is found by first scan. This scan is not
+            // resumable, because result is not saved.
+            AtomicInteger maxFoundBuildId = new AtomicInteger();
+
+            scanPartitions("InitialFillLatestRunsV3-maxBuildId", legacyTests.withKeepBinary(), false, (key, val) -> {
+                Integer buildId = RunStat.extractIdPrefixed((String)key, "locator=build:(id:", ")");
+
+                if (buildId != null)
+                    maxFoundBuildId.accumulateAndGet(buildId, Math::max);
+            });
+
+            int minBuildId = maxFoundBuildId.get() - (RunStat.MAX_LATEST_RUNS * 100 * 3);
+
+            scanPartitions("InitialFillLatestRunsV3", legacyTests, (key, val) -> {
+                Integer buildId = RunStat.extractIdPrefixed(key, "locator=build:(id:", ")");
+
+                if (buildId != null && buildId >= minBuildId)
+                    saveTestToLatest.accept(val);
+            });
         });
 
-        applyMigration(TESTS + "-to-" + testOccurrencesCache.getName(), () -> {
-            String cacheNme = ignCacheNme(TESTS);
-            IgniteCache<String, TestOccurrences> tests = ignite.getOrCreateCache(cacheNme);
+        applyMigration(TESTS + "-to-" + legacyTestsCacheNme, () -> {
+            IgniteCache<String, TestOccurrences> tests = existingCache(ignCacheNme(TESTS));
 
-            int size = tests.size();
-            if (size > 0) {
-                int i = 0;
-                for (Cache.Entry<String, TestOccurrences> entry : tests) {
-                    System.out.println("Migrating entry " + i + " from " + size + ": " + entry.getKey());
+            if (tests == null)
+                return;
 
-                    String transformedKey = removeCountFromRef(entry.getKey());
-                    TestOccurrences val = entry.getValue();
+            IgniteCache<String, TestOccurrences> legacyTests = legacyTestOccurrencesCache();
 
-                    if (testOccurrencesCache.putIfAbsent(transformedKey, val))
-                        saveTestToStat.accept(val);
-                    
-                    i++;
-                }
+            scanPartitions(TESTS + "-to-" + legacyTestsCacheNme, tests, (key, val) -> {
+                if (legacyTests.putIfAbsent(removeCountFromRef(key), val))
+                    saveTestToStat.accept(val);
+            });
 
-                tests.clear();
+            tests.clear();
 
-                tests.destroy();
-            }
+            tests.destroy();
         });
+
+        applyMigration(legacyTestsCacheNme + "-to-" + testOccurrencesCache.getName(), () -> {
+            IgniteCache<String, BinaryObject> legacyTests = existingCache(legacyTestsCacheNme);
+
+            if (legacyTests == null)
+                return;
+
+            legacyTests = legacyTests.withKeepBinary();
+
+            LongAdder legacyBytes = new LongAdder();
+            LongAdder compactedBytes = new LongAdder();
+
+            scanPartitions(legacyTestsCacheNme + "-to-" + testOccurrencesCache.getName(), legacyTests, (key, val) -> {
+                TestOccurrencesCompacted compacted = new TestOccurrencesCompacted(val.deserialize());
+
+                testOccurrencesCache.putIfAbsent(key, compacted);
+
+                legacyBytes.add(binarySize(val));
+                compactedBytes.add(binarySize(ignite.binary().toBinary(compacted)));
+            });
+
+            logger.info(serverId + " - Compacted tests lists, binary size of scanned entries "
+                + legacyBytes.sum() + " bytes -> " + compactedBytes.sum() + " bytes"
+                + (legacyBytes.sum() > 0 ? " (" + (100 * compactedBytes.sum() / legacyBytes.sum()) + "%)" : ""));
+
+            legacyTests.clear();
+
+            legacyTests.destroy();
+        });
+
         String newBuildsCache = BUILD_RESULTS + "-to-" + IgnitePersistentTeamcity.BUILDS + "V2";
 
         applyMigration("RemoveStatisticsFromBuildCache", ()->{
-            if(doneMigrations.containsKey(newBuildsCache))
+            if (done.contains(newBuildsCache))
                 return;
 
-            final IgniteCache<Object, Object> cache = ignite.getOrCreateCache(ignCacheNme(BUILD_RESULTS));
-            
-            for (Cache.Entry<Object, Object> next : cache) {
-                if(next.getValue() instanceof Statistics) {
-                    System.err.println("Removed incorrect entity: Statistics from build cache");
-                    
-                    cache.remove(next.getKey());
+            final IgniteCache<Object, Object> cache = existingCache(ignCacheNme(BUILD_RESULTS));
+
+            if (cache == null)
+                return;
+
+            scanPartitions("RemoveStatisticsFromBuildCache", cache, (key, val) -> {
+                if (val instanceof Statistics) {
+                    logger.warn("Removed incorrect entity: Statistics from build cache");
+
+                    cache.remove(key);
                 }
-            }
+            });
         });
 
         applyMigration(newBuildsCache, () -> {
-            IgniteCache<String, Build> oldBuilds = ignite.getOrCreateCache(ignCacheNme(BUILD_RESULTS));
+            IgniteCache<String, Build> oldBuilds = existingCache(ignCacheNme(BUILD_RESULTS));
 
-            int size = oldBuilds.size();
-            if (size > 0) {
-                int i = 0;
-                for (Cache.Entry<String, Build> entry : oldBuilds) {
-                    System.out.println("Migrating build entry " + i + " from " + size + ": " + entry.getKey());
-
-                    Build val = entry.getValue();
+            if (oldBuilds == null)
+                return;
 
-                    if (buildCache.putIfAbsent(entry.getKey(), val))
-                        saveBuildToStat.accept(val);
+            scanPartitions(newBuildsCache, oldBuilds, (key, val) -> {
+                if (buildCache.putIfAbsent(key, val))
+                    saveBuildToStat.accept(val);
+            });
 
-                    i++;
-                }
-
-                oldBuilds.clear();
+            oldBuilds.clear();
 
-                oldBuilds.destroy();
-            }
+            oldBuilds.destroy();
         });
 
         applyMigration("RemoveBuildsWithoutProjectId", () -> {
-            final IgniteCache<Object, Build> cache = ignite.getOrCreateCache(ignCacheNme(BUILD_RESULTS));
+            final IgniteCache<Object, Build> cache = existingCache(ignCacheNme(BUILD_RESULTS));
 
-            for (Cache.Entry<Object, Build> next : cache) {
-                Build results = next.getValue();
+            if (cache == null)
+                return;
+
+            scanPartitions("RemoveBuildsWithoutProjectId", cache, (key, results) -> {
                 //non fake builds but without required data
                 if (results.getId() != null)
                     if (results.getBuildType() == null || results.getBuildType().getProjectId() == null) {
-                        System.err.println("Removed incorrect entity: Build without filled parameters: " + next);
+                        logger.warn("Removed incorrect entity: Build without filled parameters: " + key);
 
-                        cache.remove(next.getKey());
+                        cache.remove(key);
                     }
-            }
+            });
         });
 
         applyMigration("Remove-" + RUN_STAT_CACHE, ()->{
-            IgniteCache<String, Build> oldBuilds = ignite.getOrCreateCache(ignCacheNme(RUN_STAT_CACHE));
+            IgniteCache<String, Build> oldBuilds = existingCache(ignCacheNme(RUN_STAT_CACHE));
+
+            if (oldBuilds == null)
+                return;
 
             oldBuilds.clear();
 
             oldBuilds.destroy();
         });
 
+        // Statistics are updated concurrently with these migrations, so statistics saved with legacy key are merged
+        // to statistics saved with new key since startup.
         applyMigration("ReplaceKeyTypeOf-" + suiteHistCache.getName(), () -> {
-            int i = 0;
-            int size = suiteHistCache.size();
-
-            for (Cache.Entry<?, RunStat> next : suiteHistCache) {
-                Object key = next.getKey();
+            IgniteCache<Object, RunStat> cache = ignite.cache(suiteHistCache.getName());
 
+            scanPartitions("ReplaceKeyTypeOf-" + cache.getName(), cache, (key, val) -> {
                 if (key instanceof String) {
-                    SuiteInBranch suiteKey = new SuiteInBranch((String)key, ITeamcity.DEFAULT);
-
-                    suiteHistCache.put(suiteKey, next.getValue());
-                    ((Cache)suiteHistCache).remove(key);
-
-                    System.out.println("Migrating entry " + i + " from " + size + ": " + suiteKey);
+                    mergeSuiteStat.accept(new SuiteInBranch((String)key, ITeamcity.DEFAULT), val);
+                    cache.remove(key);
                 }
-
-                i++;
-            }
+            });
         });
 
-
         applyMigration("ReplaceKeyTypeOf-" + testHistCache.getName(), () -> {
-            int i = 0;
-            int size = testHistCache.size();
-
-            for (Cache.Entry<?, RunStat> next : testHistCache) {
-                Object key = next.getKey();
+            IgniteCache<Object, RunStat> cache = ignite.cache(testHistCache.getName());
 
+            scanPartitions("ReplaceKeyTypeOf-" + cache.getName(), cache, (key, val) -> {
                 if (key instanceof String) {
-                    TestInBranch testKey = new TestInBranch((String)key, ITeamcity.DEFAULT);
-
-                    testHistCache.put(testKey, next.getValue());
-                    ((Cache)testHistCache).remove(key);
-
-                    System.out.println("Migrating entry " + i + " from " + size + ": " + testKey);
+                    mergeTestStat.accept(new TestInBranch((String)key, ITeamcity.DEFAULT), val);
+                    cache.remove(key);
                 }
-
-                i++;
-            }
+            });
         });
 
         applyRemoveCache(GetTrackedBranchTestResults.ALL_TEST_FAILURES_SUMMARY);
@@ -241,16 +373,153 @@ public class DbMigrations {
 
     public void applyRemoveCache(String summary) {
         applyMigration("remove" + summary, () -> {
-            if (ignite.cacheNames().contains(summary)) {
-                IgniteCache<String, Build> oldBuilds = ignite.getOrCreateCache(summary);
+            // Cache is shared by servers, migrations of which are run concurrently.
+            synchronized (DbMigrations.class) {
+                IgniteCache<String, Build> oldBuilds = existingCache(summary);
 
-                oldBuilds.clear();
+                if (oldBuilds != null) {
+                    oldBuilds.clear();
 
-                oldBuilds.destroy();
+                    oldBuilds.destroy();
+                }
             }
         });
     }
 
+    /**
+     * @param name Cache name.
+     * @return Cache, null if cache does not exist.
+     */
+    @Nullable private <K, V> IgniteCache<K, V> existingCache(String name) {
+        return ignite.cacheNames().contains(name) ? ignite.cache(name) : null;
+    }
+
+    /**
+     * Scans cache by partitions in parallel. Each completed partition is saved as checkpoint, so scan interrupted
+     * by node stop is continued from not scanned partitions. Action should be idempotent, because partition
+     * interrupted in the middle is scanned again.
+     *
+     * @param code Scan code, unique within migrations of server.
+     * @param cache Cache.
+     * @param action Action for each entry.
+     */
+    private <K, V> void scanPartitions(String code, IgniteCache<K, V> cache, BiConsumer<K, V> action) {
+        scanPartitions(code, cache, true, action);
+    }
+
+    /**
+     * @param code Scan code, unique within migrations of server.
+     * @param cache Cache.
+     * @param resumable Save completed partitions, so interrupted scan is continued from not scanned partitions.
+     * @param action Action for each entry.
+     */
+    private <K, V> void scanPartitions(String code, IgniteCache<K, V> cache, boolean resumable,
+        BiConsumer<K, V> action) {
+        int parts = ignite.affinity(cache.getName()).partitions();
+        String cpKey = code + CHECKPOINT_SUFFIX;
+
+        BitSet cp = resumable ? (BitSet)doneMigrations.get(cpKey) : null;
+        BitSet partsDone = cp == null ? new BitSet(parts) : cp;
+
+        Queue<Integer> queue = new ConcurrentLinkedQueue<>();
+
+        for (int p = 0; p < parts; p++) {
+            if (!partsDone.get(p))
+                queue.add(p);
+        }
+
+        processed.reset();
+        partitionsTotal = parts;
+        partitionsDone.set(parts - queue.size());
+
+        logger.info(serverId + " - Scanning " + cache.getName() + " [" + code + "], partitions: " + parts
+            + (cp == null ? "" : ", resumed from checkpoint: " + partitionsDone.get()));
+
+        AtomicInteger lastLoggedPct = new AtomicInteger(100 * partitionsDone.get() / parts);
+
+        List<Future<?>> workers = new ArrayList<>();
+
+        for (int i = 0; i < Math.min(SCAN_PARALLELISM, queue.size()); i++) {
+            workers.add(executor.submit(() -> {
+                Integer part;
+
+                while ((part = queue.poll()) != null) {
+                    try (QueryCursor<Cache.Entry<K, V>> cursor = cache.query(new ScanQuery<K, V>(part))) {
+                        for (Cache.Entry<K, V> entry : cursor) {
+                            action.accept(entry.getKey(), entry.getValue());
+
+                            processed.increment();
+                        }
+                    }
+
+                    if (resumable) {
+                        synchronized (partsDone) {
+                            partsDone.set(part);
+
+                            doneMigrations.put(cpKey, partsDone.clone());
+                        }
+                    }
+
+                    int pct = 100 * partitionsDone.incrementAndGet() / parts;
+                    int logged = lastLoggedPct.get();
+
+                    if (pct >= logged + PROGRESS_STEP_PCT && lastLoggedPct.compareAndSet(logged, pct)) {
+                        logger.info(serverId + " - Scanning " + cache.getName() + " [" + code + "]: " + pct
+                            + "% of partitions, entries processed: " + processed.sum());
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw ExceptionUtil.propagateException(e);
+            }
+            catch (ExecutionException e) {
+                throw ExceptionUtil.propagateException(e);
+            }
+        }
+
+        logger.info(serverId + " - Scan of " + cache.getName() + " [" + code + "] completed, entries processed: "
+            + processed.sum());
+    }
+
+    /**
+     * @return Codes of completed migrations.
+     */
+    private Set<String> loadDone() {
+        Set<String> res = new HashSet<>();
+
+        for (Cache.Entry<String, Object> entry : doneMigrations) {
+            if (Boolean.TRUE.equals(entry.getValue()))
+                res.add(entry.getKey());
+        }
+
+        return res;
+    }
+
+    /**
+     * @return Legacy cache of tests lists, is created by this call if absent.
+     */
+    @SuppressWarnings("deprecation")
+    private IgniteCache<String, TestOccurrences> legacyTestOccurrencesCache() {
+        return ignite.getOrCreateCache(
+            TcHelperDb.getCacheV2Config(ignCacheNme(IgnitePersistentTeamcity.TESTS_OCCURRENCES)));
+    }
+
+    /**
+     * @param obj Binary object.
+     * @return Size of serialized object, approximately equal to size of entry value in data pages.
+     */
+    private static int binarySize(Object obj) {
+        return obj instanceof BinaryObjectImpl ? ((BinaryObjectImpl)obj).length() : 0;
+    }
+
     private IgniteCache<String, Object> doneMigrationsCache() {
         String migrations = ignCacheNme(DONE_MIGRATIONS);
         CacheConfiguration<String, Object> ccfg = new CacheConfiguration<>(migrations);
@@ -261,13 +530,81 @@ public class DbMigrations {
     }
 
     private void applyMigration(String code, Runnable runnable) {
-        if (!doneMigrations.containsKey(code)) {
-            synchronized (DbMigrations.class) {
-                System.err.println("Running migration procedure [" + code + "]");
-                runnable.run();
-                doneMigrations.put(code, true);
-            }
+        if (done.contains(code))
+            return;
+
+        logger.info(serverId + " - Running migration procedure [" + code + "]");
+
+        current = code;
+
+        runnable.run();
+
+        doneMigrations.put(code, true);
+
+        // Checkpoints of completed scans are not needed anymore.
+        Set<String> checkpoints = new HashSet<>();
+
+        for (Cache.Entry<String, Object> entry : doneMigrations) {
+            if (entry.getKey().endsWith(CHECKPOINT_SUFFIX))
+                checkpoints.add(entry.getKey());
         }
+
+        doneMigrations.removeAll(checkpoints);
+
+        done.add(code);
+
+        applied.incrementAndGet();
+    }
+
+    public String serverId() {
+        return serverId;
+    }
+
+    /**
+     * @return {@code True} if migrations are in progress.
+     */
+    public boolean inProgress() {
+        return fut != null && !fut.isDone();
+    }
+
+    /**
+     * @return {@code True} if migrations failed.
+     */
+    public boolean failed() {
+        return fut != null && fut.isCompletedExceptionally();
+    }
+
+    /**
+     * @return Migration in progress, null if there is no such migration.
+     */
+    @Nullable public String current() {
+        return current;
+    }
+
+    /**
+     * @return Migrations completed by this node.
+     */
+    public int applied() {
+        return applied.get();
+    }
+
+    /**
+     * @return Entries processed by scans of current migration.
+     */
+    public long processed() {
+        return processed.sum();
+    }
+
+    public int partitionsDone() {
+        return partitionsDone.get();
+    }
+
+    public int partitionsTotal() {
+        return partitionsTotal;
+    }
+
+    public long startTs() {
+        return startTs;
     }
 
     private String ignCacheNme(String tests) {
@@ -0,0 +1,635 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.db;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import javax.annotation.Nullable;
+import javax.cache.Cache;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.binary.BinaryObject;
+import org.apache.ignite.cache.query.QueryCursor;
+import org.apache.ignite.cache.query.ScanQuery;
+import org.apache.ignite.ci.HelperConfig;
+import org.apache.ignite.ci.IgnitePersistentTeamcity;
+import org.apache.ignite.ci.analysis.RunStat;
+import org.apache.ignite.internal.binary.BinaryObjectImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.ignite.ci.IgnitePersistentTeamcity.BUILDS;
+import static org.apache.ignite.ci.IgnitePersistentTeamcity.CHANGES_LIST;
+import static org.apache.ignite.ci.IgnitePersistentTeamcity.CHANGE_INFO_FULL;
+import static org.apache.ignite.ci.IgnitePersistentTeamcity.CONDITIONAL_RESPONSES;
+import static org.apache.ignite.ci.IgnitePersistentTeamcity.LOG_CHECK_RESULT;
+import static org.apache.ignite.ci.IgnitePersistentTeamcity.PROBLEMS;
+import static org.apache.ignite.ci.IgnitePersistentTeamcity.STAT;
+import static org.apache.ignite.ci.IgnitePersistentTeamcity.STAT_REGISTERED;
+import static org.apache.ignite.ci.IgnitePersistentTeamcity.TESTS_OCCURRENCES_COMPACTED;
+
+/**
+ * Retention of raw TeamCity payloads of one server, policies are defined by {@link HelperConfig#DB_PROPS} file in work
+ * directory:
+ * <pre>
+ * retention.intervalMinutes=1440
+ * retention.builds.maxAgeDays=365
+ * retention.testOccurrencesCompacted.maxAgeDays=180
+ * retention.testOccurrencesCompacted.keepLast=500
+ * retention.changeInfoFull.maxAgeDays=365
+ * </pre>
+ *
+ * Entries are related to builds by build ID in key. Entry is removed if its build finished earlier than max age ago,
+ * or if there are more than 'keep last' newer builds of the same suite and branch. Builds of latest runs window of
+ * tests and suites {@link RunStat} are never removed. Changes are not related to one build, so for
+ * {@link IgnitePersistentTeamcity#CHANGE_INFO_FULL} any policy means changes not referenced by remaining changes
+ * lists are removed.
+ *
+ * Builds are found in {@link IgnitePersistentTeamcity#BUILDS} cache, so builds cache is cleaned last. Entries of
+ * builds not found there are removed by age policy if build ID is less than ID of oldest build known.
+ *
+ * Markers of builds registered in statistics {@link IgnitePersistentTeamcity#STAT_REGISTERED} are never removed if
+ * own policy is not set. Build loaded again after its marker was removed is counted in statistics once more, so only
+ * max age strictly greater than max age of builds is accepted for markers.
+ *
+ * Cached build lists {@link IgnitePersistentTeamcity#CONDITIONAL_RESPONSES} are removed if they were not updated for
+ * max age, {@link #DFLT_RESPONSES_MAX_AGE_DAYS} by default, keep last policy is not applicable to them.
+ */
+public class DbRetention {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(DbRetention.class);
+
+    /** Prefix of retention properties: {@code retention.<cache>.<property>}. */
+    public static final String RETENTION_PREFIX = "retention.";
+
+    /** Interval between retention runs. */
+    public static final String INTERVAL_MINUTES = RETENTION_PREFIX + "intervalMinutes";
+
+    /** Policy property: max age of build by finish date. */
+    public static final String MAX_AGE_DAYS = "maxAgeDays";
+
+    /** Policy property: builds of suite and branch to keep. */
+    public static final String KEEP_LAST = "keepLast";
+
+    /** Caches retention can be configured for, in order of cleaning. */
+    public static final List<String> CACHES = Arrays.asList(TESTS_OCCURRENCES_COMPACTED, PROBLEMS, STAT,
+        LOG_CHECK_RESULT, CHANGES_LIST, CHANGE_INFO_FULL, STAT_REGISTERED, BUILDS, CONDITIONAL_RESPONSES);
+
+    /** Default max age of cached build lists. */
+    public static final int DFLT_RESPONSES_MAX_AGE_DAYS = 7;
+
+    /** Default interval between retention runs. */
+    private static final long DFLT_INTERVAL_MINUTES = TimeUnit.DAYS.toMinutes(1);
+
+    /** First run delay after server start, migrations are usually completed by this time. */
+    private static final long INITIAL_DELAY_MINUTES = 15;
+
+    /** Keys removed by one batch. */
+    private static final int REMOVE_BATCH = 500;
+
+    /** Retention by server ID. */
+    private static final ConcurrentMap<String, DbRetention> started = new ConcurrentHashMap<>();
+
+    /** Retention runs executor. */
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("db-retention-%d").setDaemon(true).build());
+
+    private final Ignite ignite;
+    private final String serverId;
+
+    /** Policies by cache name without server prefix. */
+    private final Map<String, Policy> policies;
+
+    /** Removed entries by cache, all runs. */
+    private final Map<String, LongAdder> removed = new ConcurrentHashMap<>();
+
+    /** Binary size of removed values by cache, all runs. */
+    private final Map<String, LongAdder> reclaimedBytes = new ConcurrentHashMap<>();
+
+    /** Completed runs. */
+    private final LongAdder runs = new LongAdder();
+
+    private volatile long lastRunTs;
+
+    private volatile long lastRunMs;
+
+    /** Builds protected by latest runs windows in last run. */
+    private volatile int lastProtected;
+
+    @Nullable private volatile String lastError;
+
+    /**
+     * @param ignite Ignite.
+     * @param serverId Server ID.
+     * @param policies Policies by cache name.
+     */
+    DbRetention(Ignite ignite, String serverId, Map<String, Policy> policies) {
+        this.ignite = ignite;
+        this.serverId = serverId;
+        this.policies = policies;
+    }
+
+    /**
+     * Schedules periodical retention runs for server if retention is configured and is not scheduled yet.
+     *
+     * @param ignite Ignite.
+     * @param serverId Server ID.
+     */
+    public static void scheduleOnce(Ignite ignite, String serverId) {
+        Properties props = HelperConfig.loadDbSettings();
+        Map<String, Policy> policies = parsePolicies(props);
+
+        if (policies.isEmpty())
+            return;
+
+        started.computeIfAbsent(serverId, id -> {
+            DbRetention retention = new DbRetention(ignite, id, policies);
+
+            long interval = Long.parseLong(props.getProperty(INTERVAL_MINUTES,
+                Long.toString(DFLT_INTERVAL_MINUTES)).trim());
+
+            logger.info(id + " - Retention scheduled every " + interval + " minutes: " + policies);
+
+            executor.scheduleWithFixedDelay(retention::runSafe, INITIAL_DELAY_MINUTES, interval, TimeUnit.MINUTES);
+
+            return retention;
+        });
+    }
+
+    /**
+     * @return Retention of servers.
+     */
+    public static Collection<DbRetention> all() {
+        return new TreeMap<>(started).values();
+    }
+
+    /**
+     * @param props Properties.
+     * @return Policies by cache name.
+     */
+    static Map<String, Policy> parsePolicies(Properties props) {
+        Map<String, Policy> res = new TreeMap<>();
+
+        for (String key : props.stringPropertyNames()) {
+            if (!key.startsWith(RETENTION_PREFIX) || key.equals(INTERVAL_MINUTES))
+                continue;
+
+            int dot = key.lastIndexOf('.');
+            String cache = dot > RETENTION_PREFIX.length() ? key.substring(RETENTION_PREFIX.length(), dot) : "";
+            String prop = key.substring(dot + 1);
+
+            if (!CACHES.contains(cache))
+                throw new IllegalStateException("Retention is not supported for cache: " + key);
+
+            int val = Integer.parseInt(props.getProperty(key).trim());
+
+            Policy plc = res.computeIfAbsent(cache, c -> new Policy());
+
+            if (MAX_AGE_DAYS.equals(prop))
+                plc.maxAgeDays = val;
+            else if (KEEP_LAST.equals(prop))
+                plc.keepLast = val;
+            else
+                throw new IllegalStateException("Unknown retention property in " + HelperConfig.DB_PROPS + ": " + key);
+        }
+
+        Policy markersPlc = res.get(STAT_REGISTERED);
+
+        if (markersPlc != null) {
+            Policy buildsPlc = res.get(BUILDS);
+
+            // Build loaded again after its marker was removed would be counted in statistics twice.
+            if (markersPlc.keepLast > 0 || buildsPlc == null || buildsPlc.maxAgeDays <= 0
+                || markersPlc.maxAgeDays <= buildsPlc.maxAgeDays) {
+                throw new IllegalStateException("Retention of " + STAT_REGISTERED + " requires only " + MAX_AGE_DAYS +
+                    " greater than " + MAX_AGE_DAYS + " of " + BUILDS + ": " + res);
+            }
+        }
+
+        res.computeIfAbsent(CONDITIONAL_RESPONSES, c -> {
+            Policy plc = new Policy();
+
+            plc.maxAgeDays = DFLT_RESPONSES_MAX_AGE_DAYS;
+
+            return plc;
+        });
+
+        return res;
+    }
+
+    /**
+     * Runs retention, logs failure.
+     */
+    private void runSafe() {
+        try {
+            if (DbMigrations.isDegraded(serverId)) {
+                logger.info(serverId + " - Retention is postponed until data migrations are completed");
+
+                return;
+            }
+
+            run();
+
+            lastError = null;
+        }
+        catch (Throwable e) {
+            lastError = e.toString();
+
+            logger.error(serverId + " - Retention failed", e);
+        }
+    }
+
+    /**
+     * Removes expired entries of all caches with policies.
+     */
+    void run() {
+        long start = System.currentTimeMillis();
+
+        // Builds are scanned only if there are policies for build related caches.
+        BitSet protectedIds = null;
+        BuildsIndex idx = null;
+
+        for (String cacheName : CACHES) {
+            Policy plc = policies.get(cacheName);
+
+            if (plc == null)
+                continue;
+
+            if (CHANGE_INFO_FULL.equals(cacheName))
+                removeUnreferencedChanges();
+            else if (CONDITIONAL_RESPONSES.equals(cacheName)) {
+                long minTs = start - TimeUnit.DAYS.toMillis(plc.maxAgeDays);
+
+                removeIf(cacheName, (key, val) -> {
+                    Long ts = val instanceof BinaryObject ? ((BinaryObject)val).field("ts") : null;
+
+                    return plc.maxAgeDays > 0 && (ts == null || ts < minTs);
+                });
+            }
+            else {
+                if (idx == null) {
+                    protectedIds = latestRunsBuilds();
+                    idx = buildsIndex();
+                }
+
+                IntPredicate expired = idx.expired(plc, protectedIds, start);
+
+                removeIf(cacheName, (key, val) -> {
+                    Integer buildId = buildIdOf(key);
+
+                    return buildId != null && expired.test(buildId);
+                });
+            }
+        }
+
+        runs.increment();
+        lastProtected = protectedIds == null ? 0 : protectedIds.cardinality();
+        lastRunTs = start;
+        lastRunMs = System.currentTimeMillis() - start;
+
+        logger.info(serverId + " - Retention completed in " + lastRunMs + "ms, builds protected by latest runs: "
+            + lastProtected + ", removed entries: " + removed + ", reclaimed bytes: " + reclaimedBytes);
+    }
+
+    /**
+     * @return Finish dates and suites of builds in builds cache.
+     */
+    private BuildsIndex buildsIndex() {
+        BuildsIndex idx = new BuildsIndex();
+
+        IgniteCache<String, BinaryObject> builds = cache(BUILDS);
+
+        if (builds != null) {
+            scan(builds, (key, val) -> idx.add(val.field("id"), val.field("buildTypeId"), val.field("branchName"),
+                val.field("finishDate")));
+        }
+
+        return idx;
+    }
+
+    /**
+     * @return IDs of builds in latest runs windows of tests and suites statistics.
+     */
+    private BitSet latestRunsBuilds() {
+        BitSet res = new BitSet();
+
+        for (String name : new String[] {IgnitePersistentTeamcity.TESTS_RUN_STAT,
+            IgnitePersistentTeamcity.BUILDS_FAILURE_RUN_STAT}) {
+            IgniteCache<Object, RunStat> stat = ignite.cacheNames().contains(ignCacheNme(name))
+                ? ignite.cache(ignCacheNme(name)) : null;
+
+            if (stat != null)
+                scan(stat, (key, val) -> val.latestBuildIds().forEach(res::set));
+        }
+
+        return res;
+    }
+
+    /**
+     * Removes changes not referenced by changes lists and last changes of builds.
+     */
+    private void removeUnreferencedChanges() {
+        Set<String> referenced = new HashSet<>();
+
+        Consumer<BinaryObject> collect = list -> {
+            Collection<BinaryObject> changes = list == null ? null : list.field("changes");
+
+            if (changes != null)
+                changes.forEach(ref -> referenced.add(ref.field("href")));
+        };
+
+        IgniteCache<String, BinaryObject> lists = cache(CHANGES_LIST);
+
+        if (lists != null)
+            scan(lists, (key, val) -> collect.accept(val));
+
+        IgniteCache<String, BinaryObject> builds = cache(BUILDS);
+
+        if (builds != null)
+            scan(builds, (key, val) -> collect.accept(val.field("lastChanges")));
+
+        removeIf(CHANGE_INFO_FULL, (key, val) -> !referenced.contains(key));
+    }
+
+    /**
+     * @param cacheName Cache name without server prefix.
+     * @param filter Filter of entries to remove, value is binary object.
+     */
+    private void removeIf(String cacheName, BiPredicate<Object, Object> filter) {
+        IgniteCache<Object, Object> cache = cache(cacheName);
+
+        if (cache == null)
+            return;
+
+        NearCache<Object, ?> near = NearCache.existing(cache.getName());
+        LongAdder cnt = removed.computeIfAbsent(cacheName, c -> new LongAdder());
+        LongAdder bytes = reclaimedBytes.computeIfAbsent(cacheName, c -> new LongAdder());
+
+        Set<Object> batch = new HashSet<>();
+
+        Consumer<Set<Object>> flush = keys -> {
+            cache.removeAll(keys);
+
+            if (near != null)
+                keys.forEach(near::invalidate);
+
+            cnt.add(keys.size());
+
+            keys.clear();
+        };
+
+        scan(cache, (key, val) -> {
+            if (!filter.test(key, val))
+                return;
+
+            batch.add(key);
+
+            if (val instanceof BinaryObjectImpl)
+                bytes.add(((BinaryObjectImpl)val).length());
+
+            if (batch.size() >= REMOVE_BATCH)
+                flush.accept(batch);
+        });
+
+        if (!batch.isEmpty())
+            flush.accept(batch);
+    }
+
+    /**
+     * @param cacheName Cache name without server prefix.
+     * @return Cache in binary mode, null if cache does not exist.
+     */
+    @Nullable private <K, V> IgniteCache<K, V> cache(String cacheName) {
+        String name = ignCacheNme(cacheName);
+
+        if (!ignite.cacheNames().contains(name))
+            return null;
+
+        return ignite.cache(name).withKeepBinary();
+    }
+
+    /**
+     * @param cache Cache.
+     * @param consumer Entries consumer.
+     */
+    private static <K, V> void scan(IgniteCache<K, V> cache, BiConsumer<K, V> consumer) {
+        try (QueryCursor<Cache.Entry<K, V>> cursor = cache.query(new ScanQuery<K, V>())) {
+            for (Cache.Entry<K, V> entry : cursor)
+                consumer.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * @param cache Cache name.
+     */
+    private String ignCacheNme(String cache) {
+        return IgnitePersistentTeamcity.ignCacheNme(cache, serverId);
+    }
+
+    /**
+     * @param key Cache key: build ID, or href of build, or href of build related entity.
+     * @return Build ID, null if key is not related to build.
+     */
+    @Nullable static Integer buildIdOf(Object key) {
+        if (key instanceof Integer)
+            return (Integer)key;
+
+        if (!(key instanceof String))
+            return null;
+
+        String href = (String)key;
+
+        Integer id = RunStat.extractIdPrefixed(href, "build:(id:", ")");
+
+        if (id != null)
+            return id;
+
+        id = RunStat.extractIdPrefixed(href, "builds/id:", "/");
+
+        if (id != null)
+            return id;
+
+        return RunStat.extractIdPrefixed(href + "/", "builds/id:", "/");
+    }
+
+    public String serverId() {
+        return serverId;
+    }
+
+    public long runs() {
+        return runs.sum();
+    }
+
+    public long lastRunTs() {
+        return lastRunTs;
+    }
+
+    public long lastRunMs() {
+        return lastRunMs;
+    }
+
+    public int lastProtected() {
+        return lastProtected;
+    }
+
+    @Nullable public String lastError() {
+        return lastError;
+    }
+
+    /**
+     * @return Removed entries by cache.
+     */
+    public Map<String, Long> removed() {
+        return sums(removed);
+    }
+
+    /**
+     * @return Binary size of removed values by cache.
+     */
+    public Map<String, Long> reclaimedBytes() {
+        return sums(reclaimedBytes);
+    }
+
+    /**
+     * @param counters Counters.
+     */
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> res = new TreeMap<>();
+
+        counters.forEach((k, v) -> res.put(k, v.sum()));
+
+        return res;
+    }
+
+    /**
+     * Retention policy of cache.
+     */
+    static class Policy {
+        /** Max age of build, 0 if not limited. */
+        int maxAgeDays;
+
+        /** Builds of suite and branch to keep, 0 if not limited. */
+        int keepLast;
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return "{maxAgeDays=" + maxAgeDays + ", keepLast=" + keepLast + "}";
+        }
+    }
+
+    /**
+     * Finish dates and suites of known builds.
+     */
+    static class BuildsIndex {
+        /** Known builds. */
+        private final BitSet known = new BitSet();
+
+        /** Finish timestamp by build ID. */
+        private final Map<Integer, Long> finishTs = new HashMap<>();
+
+        /** Build IDs by suite and branch. */
+        private final Map<String, List<Integer>> suites = new HashMap<>();
+
+        /** Min known build ID. */
+        private int minId = Integer.MAX_VALUE;
+
+        /**
+         * @param id Build ID, null for fake builds.
+         * @param suite Suite ID.
+         * @param branch Branch.
+         * @param finishDate Finish date in TeamCity format.
+         */
+        void add(@Nullable Integer id, @Nullable String suite, @Nullable String branch, @Nullable String finishDate) {
+            if (id == null || id < 0)
+                return;
+
+            known.set(id);
+            minId = Math.min(minId, id);
+
+            if (finishDate != null) {
+                try {
+                    finishTs.put(id, new SimpleDateFormat("yyyyMMdd'T'HHmmssZ").parse(finishDate).getTime());
+                }
+                catch (ParseException e) {
+                    logger.warn("Unable to parse finish date of build " + id + ": " + finishDate);
+                }
+            }
+
+            if (suite != null)
+                suites.computeIfAbsent(suite + ":" + branch, k -> new ArrayList<>()).add(id);
+        }
+
+        /**
+         * @param plc Policy.
+         * @param protectedIds Builds not to be removed.
+         * @param now Current time.
+         * @return Predicate for build IDs to be removed.
+         */
+        IntPredicate expired(Policy plc, BitSet protectedIds, long now) {
+            BitSet res = new BitSet();
+
+            if (plc.maxAgeDays > 0) {
+                long minTs = now - TimeUnit.DAYS.toMillis(plc.maxAgeDays);
+
+                finishTs.forEach((id, ts) -> {
+                    if (ts < minTs)
+                        res.set(id);
+                });
+            }
+
+            if (plc.keepLast > 0) {
+                for (List<Integer> ids : suites.values()) {
+                    if (ids.size() <= plc.keepLast)
+                        continue;
+
+                    ids.sort(null);
+
+                    for (int i = 0; i < ids.size() - plc.keepLast; i++)
+                        res.set(ids.get(i));
+                }
+            }
+
+            boolean byAge = plc.maxAgeDays > 0;
+
+            return id -> !protectedIds.get(id)
+                && (res.get(id) || (byAge && id < minId && !known.get(id)));
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.db;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorResult;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.CacheEntryProcessor;
+import org.apache.ignite.ci.util.ObjectInterner;
+
+/**
+ * Bounded on-heap tier in front of persistent cache. Keeps deserialized (and interned) values, so repeated reads of
+ * the same entries do not pay binary deserialization. Size is limited by total weight of values, least recently used
+ * entries are evicted first.
+ *
+ * Values are shared between readers and should not be modified. All updates of persistent cache should be done using
+ * this class, so on-heap copy is invalidated. One instance is created per persistent cache name.
+ */
+public class NearCache<K, V> {
+    /** Near caches by persistent cache name. */
+    private static final ConcurrentMap<String, NearCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    /** Persistent cache name. */
+    private final String name;
+
+    /** Max total weight. */
+    private final long maxWeight;
+
+    /** On-heap values. */
+    private final Cache<K, V> heap;
+
+    /**
+     * Incremented after each update of persistent cache. Value read from persistent cache is not kept on heap if
+     * update happened concurrently, because it may be outdated.
+     */
+    private final AtomicLong updates = new AtomicLong();
+
+    /**
+     * @param name Persistent cache name.
+     * @param maxWeight Max total weight.
+     * @param weigher Value weight, e.g. number of nested elements.
+     */
+    private NearCache(String name, long maxWeight, ToIntFunction<V> weigher) {
+        this.name = name;
+        this.maxWeight = maxWeight;
+
+        heap = CacheBuilder.newBuilder()
+            .maximumWeight(maxWeight)
+            .<K, V>weigher((k, v) -> Math.max(1, weigher.applyAsInt(v)))
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * @param name Persistent cache name.
+     * @param maxWeight Max total weight, used only if near cache is created by this call.
+     * @param weigher Value weight, used only if near cache is created by this call.
+     * @return Near cache shared by all users of persistent cache.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> NearCache<K, V> forCache(String name, long maxWeight, ToIntFunction<V> weigher) {
+        return (NearCache<K, V>)caches.computeIfAbsent(name, n -> new NearCache<>(n, maxWeight, weigher));
+    }
+
+    /**
+     * @param name Persistent cache name.
+     * @return Near cache, null if it was not created.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable public static <K, V> NearCache<K, V> existing(String name) {
+        return (NearCache<K, V>)caches.get(name);
+    }
+
+    /**
+     * @return All near caches, sorted by name.
+     */
+    public static Collection<NearCache<?, ?>> all() {
+        return new TreeMap<>(caches).values();
+    }
+
+    /**
+     * @param cache Persistent cache.
+     * @param key Key.
+     * @param admit Filter of values allowed to be kept on heap (e.g. only immutable ones), null to keep all.
+     * @return Value, null if absent in persistent cache.
+     */
+    @Nullable public V get(IgniteCache<K, V> cache, K key, @Nullable Predicate<V> admit) {
+        return get(cache, key, val -> {
+            ObjectInterner.internFields(val);
+
+            return val;
+        }, admit);
+    }
+
+    /**
+     * @param cache Persistent cache keeping values in storage format.
+     * @param key Key.
+     * @param decoder Converts persisted value to value kept on heap, result should have interned fields.
+     * @param admit Filter of values allowed to be kept on heap (e.g. only immutable ones), null to keep all.
+     * @return Value, null if absent in persistent cache.
+     */
+    @Nullable public <P> V get(IgniteCache<K, P> cache, K key, Function<P, V> decoder, @Nullable Predicate<V> admit) {
+        V val = heap.getIfPresent(key);
+
+        if (val != null)
+            return val;
+
+        long updatesBefore = updates.get();
+
+        P persisted = cache.get(key);
+
+        if (persisted == null)
+            return null;
+
+        val = decoder.apply(persisted);
+
+        if ((admit == null || admit.test(val)) && updates.get() == updatesBefore) {
+            heap.put(key, val);
+
+            // Update may happen between check and put.
+            if (updates.get() != updatesBefore)
+                heap.invalidate(key);
+        }
+
+        return val;
+    }
+
+    /**
+     * Bulk variant of {@link #get(IgniteCache, Object, Predicate)}: values absent on heap are read from persistent
+     * cache by one operation.
+     *
+     * @param cache Persistent cache.
+     * @param keys Keys.
+     * @param admit Filter of values allowed to be kept on heap, null to keep all.
+     * @return Values found, by key.
+     */
+    public Map<K, V> getAll(IgniteCache<K, V> cache, Set<K> keys, @Nullable Predicate<V> admit) {
+        Map<K, V> res = new HashMap<>(heap.getAllPresent(keys));
+
+        if (res.size() == keys.size())
+            return res;
+
+        Set<K> misses = keys.stream().filter(k -> !res.containsKey(k)).collect(Collectors.toSet());
+
+        long updatesBefore = updates.get();
+
+        Map<K, V> persisted = cache.getAll(misses);
+
+        List<K> admitted = new ArrayList<>();
+
+        persisted.forEach((key, val) -> {
+            ObjectInterner.internFields(val);
+
+            res.put(key, val);
+
+            if (admit == null || admit.test(val))
+                admitted.add(key);
+        });
+
+        if (updates.get() == updatesBefore) {
+            admitted.forEach(key -> heap.put(key, persisted.get(key)));
+
+            // Update may happen between check and put.
+            if (updates.get() != updatesBefore)
+                heap.invalidateAll(admitted);
+        }
+
+        return res;
+    }
+
+    /**
+     * @param cache Persistent cache.
+     * @param key Key.
+     * @param val Value in storage format of persistent cache.
+     */
+    public <P> void put(IgniteCache<K, P> cache, K key, P val) {
+        try {
+            cache.put(key, val);
+        }
+        finally {
+            invalidate(key);
+        }
+    }
+
+    /**
+     * @param cache Persistent cache.
+     * @param vals Values by key, should be sorted map to avoid deadlocks between concurrent bulk updates.
+     */
+    public void putAll(IgniteCache<K, V> cache, Map<K, V> vals) {
+        try {
+            cache.putAll(vals);
+        }
+        finally {
+            updates.incrementAndGet();
+
+            heap.invalidateAll(vals.keySet());
+        }
+    }
+
+    /**
+     * @param cache Persistent cache.
+     * @param key Key.
+     * @param proc Entry processor.
+     * @param args Processor arguments.
+     * @return Processor result.
+     */
+    public <T> T invoke(IgniteCache<K, V> cache, K key, CacheEntryProcessor<K, V, T> proc, Object... args) {
+        try {
+            return cache.invoke(key, proc, args);
+        }
+        finally {
+            invalidate(key);
+        }
+    }
+
+    /**
+     * @param cache Persistent cache.
+     * @param procs Entry processors by key, keys should be ordered to avoid deadlocks between concurrent bulk updates.
+     * @return Processor results by key.
+     */
+    public <T> Map<K, EntryProcessorResult<T>> invokeAll(IgniteCache<K, V> cache,
+        Map<K, ? extends EntryProcessor<K, V, T>> procs) {
+        try {
+            return cache.invokeAll(procs);
+        }
+        finally {
+            updates.incrementAndGet();
+
+            heap.invalidateAll(procs.keySet());
+        }
+    }
+
+    /**
+     * Removes on-heap copy, should be called after update of persistent cache.
+     *
+     * @param key Key.
+     */
+    public void invalidate(K key) {
+        updates.incrementAndGet();
+
+        heap.invalidate(key);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    public long size() {
+        return heap.size();
+    }
+
+    /**
+     * @return Hits, misses and evictions counters.
+     */
+    public CacheStats stats() {
+        return heap.stats();
+    }
+}
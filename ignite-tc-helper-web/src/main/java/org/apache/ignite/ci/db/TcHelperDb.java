@@ -90,18 +90,9 @@ public class TcHelperDb {
         cfg.setGridLogger(new Slf4jLogger());
 
 
-        final DataRegionConfiguration regConf = new DataRegionConfiguration()
-            .setMaxSize(12L * 1024 * 1024 * 1024)
-            .setPersistenceEnabled(true);
+        final DbLayout layout = DbLayout.current();
 
-        final DataStorageConfiguration dsCfg = new DataStorageConfiguration()
-            .setWalMode(WALMode.LOG_ONLY)
-            .setWalHistorySize(1)
-            .setCheckpointFrequency(60 * 1000)
-            .setWriteThrottlingEnabled(true)
-            .setDefaultDataRegionConfiguration(regConf);
-
-        cfg.setDataStorageConfiguration(dsCfg);
+        cfg.setDataStorageConfiguration(layout.storageConfiguration());
 
         System.out.println("Starting Ignite Server Node");
 
@@ -114,6 +105,8 @@ public class TcHelperDb {
 
         System.out.println("Activate completed");
 
+        System.out.println(layout.describe(ignite));
+
         return ignite;
     }
 
@@ -192,6 +185,15 @@ public class TcHelperDb {
         Ignition.stop(ignite.name(), false);
     }
 
+    /**
+     * @param name Cache name.
+     * @return Configuration of V1 cache (default affinity, 1024 partitions) with region and group from storage layout.
+     */
+    @NotNull
+    public static <K, V> CacheConfiguration<K, V> getCacheV1Config(String name) {
+        return DbLayout.current().apply(new CacheConfiguration<>(name));
+    }
+
     @NotNull
     public static <K, V> CacheConfiguration<K, V> getCacheV2Config(String name) {
         CacheConfiguration<K, V> ccfg = new CacheConfiguration<>(name);
@@ -212,7 +214,7 @@ public class TcHelperDb {
             }
         });*/
 
-        return ccfg;
+        return DbLayout.current().apply(ccfg);
     }
 
     private static class LocalOnlyTcpDiscoveryIpFinder implements TcpDiscoveryIpFinder {
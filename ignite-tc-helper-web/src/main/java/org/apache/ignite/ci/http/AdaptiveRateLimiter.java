@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket limiting request rate to one TeamCity server. Rate is adjusted by AIMD: each successful fast response
+ * increases rate additively (by about one request per second each second), while overload responses (429, 503) or
+ * responses slower than latency target halve it. Decreases are applied not more often than once per
+ * {@link #DECREASE_COOLDOWN_MS}, because all in-flight requests of one burst observe the same overload.
+ */
+public class AdaptiveRateLimiter {
+    /** Multiplicative decrease factor. */
+    private static final double DECREASE_FACTOR = 0.5;
+
+    /** Min interval between rate decreases. */
+    private static final long DECREASE_COOLDOWN_MS = 1000;
+
+    /** Max pause requested by server which is respected. */
+    private static final long MAX_PAUSE_MS = TimeUnit.MINUTES.toMillis(1);
+
+    /** Max rate, requests per second. */
+    private final double maxRate;
+
+    /** Min rate, requests per second. */
+    private final double minRate;
+
+    /** Responses slower than this are considered as overload signal. */
+    private final long latencyTargetNanos;
+
+    /** Current rate, requests per second. */
+    private double rate;
+
+    /** Tokens available. */
+    private double tokens;
+
+    /** Last tokens refill. */
+    private long refillNanos = System.nanoTime();
+
+    /** Requests are not allowed until this time, set if server requested pause. */
+    private long pausedUntilNanos = refillNanos;
+
+    /** Last rate decrease. */
+    private long decreaseNanos = refillNanos - TimeUnit.MILLISECONDS.toNanos(DECREASE_COOLDOWN_MS);
+
+    /** Permits acquired. */
+    private final LongAdder acquired = new LongAdder();
+
+    /** Permits acquired after waiting. */
+    private final LongAdder throttled = new LongAdder();
+
+    /** Total wait time. */
+    private final LongAdder waitNanos = new LongAdder();
+
+    /** Overload responses. */
+    private final LongAdder overloads = new LongAdder();
+
+    /** Slow responses. */
+    private final LongAdder slowResponses = new LongAdder();
+
+    /** Rate decreases applied. */
+    private final LongAdder decreases = new LongAdder();
+
+    /**
+     * @param maxRate Max rate, requests per second.
+     * @param minRate Min rate, requests per second.
+     * @param latencyTargetMs Responses slower than this decrease rate.
+     */
+    public AdaptiveRateLimiter(double maxRate, double minRate, long latencyTargetMs) {
+        this.maxRate = maxRate;
+        this.minRate = Math.min(minRate, maxRate);
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+
+        rate = maxRate;
+        tokens = bucketSize();
+    }
+
+    /**
+     * Waits until request is allowed.
+     *
+     * @return Wait time in nanoseconds.
+     */
+    public long acquire() throws InterruptedIOException {
+        long startNanos = System.nanoTime();
+
+        while (true) {
+            long parkNanos;
+
+            synchronized (this) {
+                long now = System.nanoTime();
+
+                refill(now);
+
+                if (now - pausedUntilNanos >= 0 && tokens >= 1) {
+                    tokens -= 1;
+
+                    break;
+                }
+
+                parkNanos = Math.max(pausedUntilNanos - now, (long)((1 - tokens) / rate * 1e9));
+            }
+
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.max(parkNanos, 1));
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException("Interrupted while waiting for rate limiter");
+            }
+        }
+
+        long waited = System.nanoTime() - startNanos;
+
+        acquired.increment();
+
+        if (waited >= TimeUnit.MILLISECONDS.toNanos(1)) {
+            throttled.increment();
+            waitNanos.add(waited);
+        }
+
+        return waited;
+    }
+
+    /**
+     * @param latencyNanos Time until response headers were received.
+     */
+    public void onSuccess(long latencyNanos) {
+        if (latencyNanos > latencyTargetNanos) {
+            slowResponses.increment();
+
+            decrease();
+
+            return;
+        }
+
+        synchronized (this) {
+            if (rate < maxRate)
+                rate = Math.min(maxRate, rate + 1.0 / rate);
+        }
+    }
+
+    /**
+     * Registers 429 or 503 response.
+     *
+     * @param retryAfterMs Pause requested by server, -1 if not specified.
+     */
+    public void onOverload(long retryAfterMs) {
+        overloads.increment();
+
+        decrease();
+
+        if (retryAfterMs > 0) {
+            synchronized (this) {
+                long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(retryAfterMs, MAX_PAUSE_MS));
+
+                if (until - pausedUntilNanos > 0)
+                    pausedUntilNanos = until;
+            }
+        }
+    }
+
+    /**
+     * Multiplicative decrease, ignored during cooldown after previous decrease.
+     */
+    private synchronized void decrease() {
+        long now = System.nanoTime();
+
+        if (now - decreaseNanos < TimeUnit.MILLISECONDS.toNanos(DECREASE_COOLDOWN_MS))
+            return;
+
+        refill(now);
+
+        decreaseNanos = now;
+        rate = Math.max(minRate, rate * DECREASE_FACTOR);
+        tokens = Math.min(tokens, bucketSize());
+
+        decreases.increment();
+    }
+
+    /**
+     * @param now Current time.
+     */
+    private void refill(long now) {
+        long elapsed = now - refillNanos;
+
+        if (elapsed <= 0)
+            return;
+
+        tokens = Math.min(bucketSize(), tokens + elapsed * rate / 1e9);
+        refillNanos = now;
+    }
+
+    /**
+     * @return Max tokens: one second of requests at current rate.
+     */
+    private double bucketSize() {
+        return Math.max(1, rate);
+    }
+
+    /**
+     * @return Current rate, requests per second.
+     */
+    public synchronized double rate() {
+        return rate;
+    }
+
+    public double maxRate() {
+        return maxRate;
+    }
+
+    public double minRate() {
+        return minRate;
+    }
+
+    public long latencyTargetMs() {
+        return TimeUnit.NANOSECONDS.toMillis(latencyTargetNanos);
+    }
+
+    /**
+     * @return Tokens available now.
+     */
+    public synchronized double tokens() {
+        refill(System.nanoTime());
+
+        return tokens;
+    }
+
+    /**
+     * @return Remaining pause requested by server, 0 if requests are allowed.
+     */
+    public synchronized long pausedForMs() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntilNanos - System.nanoTime()));
+    }
+
+    public long acquired() {
+        return acquired.sum();
+    }
+
+    public long throttled() {
+        return throttled.sum();
+    }
+
+    public long waitMs() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+    }
+
+    public long overloads() {
+        return overloads.sum();
+    }
+
+    public long slowResponses() {
+        return slowResponses.sum();
+    }
+
+    public long decreases() {
+        return decreases.sum();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import javax.annotation.Nullable;
+import org.apache.ignite.ci.db.Persisted;
+
+/**
+ * Parsed response saved with its validators, returned again if server answers 'Not Modified' to conditional request.
+ */
+@Persisted
+public class CachedResponse<T> {
+    /** Request URL, validators are sent only for the same URL. */
+    private final String url;
+
+    /** Entity tag. */
+    @Nullable private final String etag;
+
+    /** Last modified date, in HTTP date format. */
+    @Nullable private final String lastModified;
+
+    /** Response body size, used to estimate bytes saved by 'Not Modified' answers. */
+    private final long bytes;
+
+    /** Parsed response. */
+    private final T data;
+
+    /** Timestamp of response, used by retention. */
+    private final long ts = System.currentTimeMillis();
+
+    /**
+     * @param url Request URL.
+     * @param etag Entity tag.
+     * @param lastModified Last modified date.
+     * @param bytes Response body size.
+     * @param data Parsed response.
+     */
+    public CachedResponse(String url, @Nullable String etag, @Nullable String lastModified, long bytes, T data) {
+        this.url = url;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.bytes = bytes;
+        this.data = data;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    @Nullable public String etag() {
+        return etag;
+    }
+
+    @Nullable public String lastModified() {
+        return lastModified;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    public T data() {
+        return data;
+    }
+
+    public long ts() {
+        return ts;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.io.InputStream;
+import javax.annotation.Nullable;
+
+/**
+ * Response to GET request with validators ({@code If-None-Match}/{@code If-Modified-Since}): either body of modified
+ * resource with its new validators, or 'not modified' answer without body.
+ */
+public class ConditionalResponse {
+    /** Body, null if resource was not modified. */
+    @Nullable private final InputStream body;
+
+    /** Entity tag of returned body. */
+    @Nullable private final String etag;
+
+    /** Last modified date of returned body, in HTTP date format. */
+    @Nullable private final String lastModified;
+
+    /**
+     * @param body Body, null if resource was not modified.
+     * @param etag Entity tag.
+     * @param lastModified Last modified date.
+     */
+    private ConditionalResponse(@Nullable InputStream body, @Nullable String etag, @Nullable String lastModified) {
+        this.body = body;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @param body Body stream, should be closed by caller.
+     * @param etag Entity tag from 'ETag' header.
+     * @param lastModified Date from 'Last-Modified' header.
+     */
+    public static ConditionalResponse modified(InputStream body, @Nullable String etag,
+        @Nullable String lastModified) {
+        return new ConditionalResponse(body, etag, lastModified);
+    }
+
+    /**
+     * @return Response for 304 'Not Modified'.
+     */
+    public static ConditionalResponse notModified() {
+        return new ConditionalResponse(null, null, null);
+    }
+
+    /**
+     * @return {@code True} if server confirmed cached representation is still valid.
+     */
+    public boolean isNotModified() {
+        return body == null;
+    }
+
+    /**
+     * @return Body, null if resource was not modified.
+     */
+    @Nullable public InputStream body() {
+        return body;
+    }
+
+    @Nullable public String etag() {
+        return etag;
+    }
+
+    @Nullable public String lastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return {@code True} if server returned at least one validator, so next request can be conditional.
+     */
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+}
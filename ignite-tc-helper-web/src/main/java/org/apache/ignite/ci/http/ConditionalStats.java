@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of conditional requests. Misses and responses without validators in a long run mean that TeamCity
+ * (or proxy in front of it) does not support validators for the resource.
+ */
+public class ConditionalStats {
+    /** Conditional requests answered 'Not Modified'. */
+    private final LongAdder hits = new LongAdder();
+
+    /** Conditional requests answered with new body. */
+    private final LongAdder misses = new LongAdder();
+
+    /** Responses without 'ETag' and 'Last-Modified', they can't be requested conditionally next time. */
+    private final LongAdder noValidators = new LongAdder();
+
+    /** Body bytes not transferred because of 'Not Modified' answers, estimated by size of cached response. */
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * @param cachedBytes Size of cached response reused.
+     */
+    public void onHit(long cachedBytes) {
+        hits.increment();
+        bytesSaved.add(cachedBytes);
+    }
+
+    /**
+     * Registers new body returned for conditional request.
+     */
+    public void onMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Registers response without validators.
+     */
+    public void onNoValidators() {
+        noValidators.increment();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long noValidators() {
+        return noValidators.sum();
+    }
+
+    public long bytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * @return Share of conditional requests answered 'Not Modified', -1 if no conditional requests were sent.
+     */
+    public double hitRatio() {
+        long hits = hits();
+        long total = hits + misses();
+
+        return total == 0 ? -1 : (double)hits / total;
+    }
+}
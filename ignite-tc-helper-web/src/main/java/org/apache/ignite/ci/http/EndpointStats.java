@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Response size counters for one REST endpoint requested with {@code fields=} projection. Responses of different
+ * requests of the same endpoint are not comparable (e.g. lists of different length), so to estimate savings each
+ * {@link #FULL_SAMPLE_EVERY}-th projected request is repeated for the same URL without projection.
+ */
+public class EndpointStats {
+    /** One of this number of requests is sampled with full representation. */
+    public static final int FULL_SAMPLE_EVERY = 100;
+
+    /** Requests planned. */
+    private final AtomicLong planned = new AtomicLong();
+
+    /** Requests with projection completed. */
+    private final LongAdder projectedRequests = new LongAdder();
+
+    /** Response bytes of requests with projection. */
+    private final LongAdder projectedBytes = new LongAdder();
+
+    /** Requests for full representation completed. */
+    private final LongAdder fullRequests = new LongAdder();
+
+    /** Response bytes of requests for full representation. */
+    private final LongAdder fullBytes = new LongAdder();
+
+    /** Requests sent both with and without projection. */
+    private final LongAdder samples = new LongAdder();
+
+    /** Response bytes of sampled requests with projection. */
+    private final LongAdder sampledProjectedBytes = new LongAdder();
+
+    /** Response bytes of sampled requests without projection. */
+    private final LongAdder sampledFullBytes = new LongAdder();
+
+    /**
+     * @return {@code True} if request should be repeated without projection to sample full response size.
+     */
+    public boolean sampleFull() {
+        return planned.getAndIncrement() % FULL_SAMPLE_EVERY == 0;
+    }
+
+    /**
+     * @param projected Projection was requested.
+     * @param bytes Response bytes read.
+     */
+    public void onResponse(boolean projected, long bytes) {
+        if (projected) {
+            projectedRequests.increment();
+            projectedBytes.add(bytes);
+        }
+        else {
+            fullRequests.increment();
+            fullBytes.add(bytes);
+        }
+    }
+
+    /**
+     * Registers full response for the same URL as projected one already registered by {@link #onResponse}.
+     *
+     * @param projectedBytes Response bytes of request with projection.
+     * @param fullBytes Response bytes of request without projection.
+     */
+    public void onSample(long projectedBytes, long fullBytes) {
+        onResponse(false, fullBytes);
+
+        samples.increment();
+        sampledProjectedBytes.add(projectedBytes);
+        sampledFullBytes.add(fullBytes);
+    }
+
+    public long projectedRequests() {
+        return projectedRequests.sum();
+    }
+
+    public long projectedBytes() {
+        return projectedBytes.sum();
+    }
+
+    public long fullRequests() {
+        return fullRequests.sum();
+    }
+
+    public long fullBytes() {
+        return fullBytes.sum();
+    }
+
+    public long samples() {
+        return samples.sum();
+    }
+
+    /**
+     * @return Estimated share of bytes saved by projection, -1 if there is not enough data for estimation.
+     */
+    public double savingsRatio() {
+        long full = sampledFullBytes.sum();
+
+        if (full == 0)
+            return -1;
+
+        return 1.0 - (double)sampledProjectedBytes.sum() / full;
+    }
+
+    /**
+     * @return Estimated bytes saved by projection for all projected requests, -1 if unknown.
+     */
+    public long bytesSaved() {
+        long sampledProjected = sampledProjectedBytes.sum();
+        long sampledFull = sampledFullBytes.sum();
+
+        if (sampledProjected == 0 || sampledFull == 0)
+            return -1;
+
+        long projected = projectedBytes();
+
+        return Math.max(0, (long)((double)projected * sampledFull / sampledProjected) - projected);
+    }
+}
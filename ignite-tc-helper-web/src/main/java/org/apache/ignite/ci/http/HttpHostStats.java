@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per host HTTP counters: requests, connections opened, bytes and timings.
+ * Connections reuse may be estimated as {@code 1 - connectionsOpened / requests}.
+ */
+public class HttpHostStats {
+    /** Requests sent. */
+    private final LongAdder requests = new LongAdder();
+
+    /** Requests failed: IO error or unexpected response code. */
+    private final LongAdder failures = new LongAdder();
+
+    /** New TCP connections established. */
+    private final LongAdder connectionsOpened = new LongAdder();
+
+    /** Response body bytes read by callers (after decompression). */
+    private final LongAdder bytesReceived = new LongAdder();
+
+    /** Time spent waiting for in-flight limit permit. */
+    private final LongAdder permitWaitNanos = new LongAdder();
+
+    /** Time from request start to response headers. */
+    private final LongAdder responseNanos = new LongAdder();
+
+    /** Time from request start to close of response body. */
+    private final LongAdder totalNanos = new LongAdder();
+
+    /** Requests being executed now. */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /** Max in-flight requests observed. */
+    private final AtomicInteger inFlightMax = new AtomicInteger();
+
+    /** Statistics collection start. */
+    private final long sinceTs = System.currentTimeMillis();
+
+    /** Transport is able to detect new connections. */
+    private final boolean connectionsTracked;
+
+    /** Response size counters by endpoint. */
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    /** Conditional requests counters. */
+    private final ConditionalStats conditional = new ConditionalStats();
+
+    /**
+     * @param connectionsTracked Transport is able to detect new connections.
+     */
+    public HttpHostStats(boolean connectionsTracked) {
+        this.connectionsTracked = connectionsTracked;
+    }
+
+    /**
+     * Registers request start.
+     */
+    public void onRequestStart() {
+        requests.increment();
+
+        int cur = inFlight.incrementAndGet();
+
+        inFlightMax.accumulateAndGet(cur, Math::max);
+    }
+
+    /**
+     * @param nanos Time from start to response headers.
+     */
+    public void onResponse(long nanos) {
+        responseNanos.add(nanos);
+    }
+
+    /**
+     * @param nanos Time from start to body close.
+     * @param bytes Body bytes read.
+     */
+    public void onRequestDone(long nanos, long bytes) {
+        inFlight.decrementAndGet();
+        totalNanos.add(nanos);
+        bytesReceived.add(bytes);
+    }
+
+    /**
+     * Registers request failure, should be called instead of {@link #onRequestDone(long, long)}.
+     */
+    public void onRequestFailed() {
+        inFlight.decrementAndGet();
+        failures.increment();
+    }
+
+    /**
+     * Registers new TCP connection.
+     */
+    public void onConnectionOpened() {
+        connectionsOpened.increment();
+    }
+
+    /**
+     * @param nanos Time spent waiting for permit.
+     */
+    public void onPermitWait(long nanos) {
+        permitWaitNanos.add(nanos);
+    }
+
+    /**
+     * @param name Endpoint name.
+     * @return Counters for endpoint.
+     */
+    public EndpointStats endpoint(String name) {
+        return endpoints.computeIfAbsent(name, k -> new EndpointStats());
+    }
+
+    /**
+     * @return Counters by endpoint, sorted by name.
+     */
+    public Map<String, EndpointStats> endpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    /**
+     * @return Conditional requests counters.
+     */
+    public ConditionalStats conditional() {
+        return conditional;
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    public long connectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    public long bytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int inFlightMax() {
+        return inFlightMax.get();
+    }
+
+    public boolean connectionsTracked() {
+        return connectionsTracked;
+    }
+
+    public long sinceTs() {
+        return sinceTs;
+    }
+
+    public long permitWaitMs() {
+        return TimeUnit.NANOSECONDS.toMillis(permitWaitNanos.sum());
+    }
+
+    public long responseMs() {
+        return TimeUnit.NANOSECONDS.toMillis(responseNanos.sum());
+    }
+
+    public long totalMs() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+    }
+
+    /**
+     * @return Share of requests served using already opened connection.
+     */
+    public double reuseRatio() {
+        long req = requests();
+
+        if (req == 0 || !connectionsTracked)
+            return 0;
+
+        return Math.max(0, 1.0 - (double)connectionsOpened() / req);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.io.IOException;
+import javax.annotation.Nullable;
+
+/**
+ * Unexpected HTTP response code. Not found responses are reported as {@link java.io.FileNotFoundException} instead,
+ * same as by {@link java.net.HttpURLConnection}, because callers treat missing entities specially.
+ */
+public class HttpStatusException extends IOException {
+    /** Serial version uid. */
+    private static final long serialVersionUID = 0L;
+
+    /** Too many requests. */
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    /** Service unavailable. */
+    public static final int SERVICE_UNAVAILABLE = 503;
+
+    /** Response code. */
+    private final int statusCode;
+
+    /** Delay requested by server in 'Retry-After' header, -1 if not specified. */
+    private final long retryAfterMs;
+
+    /**
+     * @param statusCode Response code.
+     * @param url Url.
+     * @param retryAfter Value of 'Retry-After' header.
+     * @param body Response body.
+     */
+    public HttpStatusException(int statusCode, String url, @Nullable String retryAfter, @Nullable String body) {
+        super("Invalid Response Code : " + statusCode + " for " + url + (body == null ? "" : ":\n" + body));
+
+        this.statusCode = statusCode;
+        this.retryAfterMs = parseRetryAfterMs(retryAfter);
+    }
+
+    /**
+     * @return Response code.
+     */
+    public int statusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return Delay requested by server, -1 if not specified.
+     */
+    public long retryAfterMs() {
+        return retryAfterMs;
+    }
+
+    /**
+     * @return {@code True} if server reports it is overloaded, so request rate should be decreased.
+     */
+    public boolean isOverload() {
+        return statusCode == TOO_MANY_REQUESTS || statusCode == SERVICE_UNAVAILABLE;
+    }
+
+    /**
+     * @return {@code True} if same request may succeed later.
+     */
+    public boolean isRetryable() {
+        return isOverload() || statusCode == 500 || statusCode == 502 || statusCode == 504;
+    }
+
+    /**
+     * @param retryAfter Header value, only delay in seconds is supported.
+     */
+    private static long parseRetryAfterMs(@Nullable String retryAfter) {
+        if (retryAfter == null)
+            return -1;
+
+        try {
+            return Long.parseLong(retryAfter.trim()) * 1000;
+        }
+        catch (NumberFormatException ignored) {
+            return -1; // HTTP date format is not expected from TeamCity.
+        }
+    }
+}
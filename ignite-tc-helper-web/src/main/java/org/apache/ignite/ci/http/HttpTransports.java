@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.ci.HelperConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of transports, one per TeamCity host. Helper instances are created per user and per server, so transport
+ * (and its connection pool) is shared and configured by the first server config referring to host.
+ */
+public class HttpTransports {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(HttpTransports.class);
+
+    /** Transport type: Apache HTTP client with connection pool. */
+    public static final String POOLED = "pooled";
+
+    /** Transport type: legacy {@link java.net.HttpURLConnection} per request. */
+    public static final String URL_CONNECTION = "urlconnection";
+
+    /** Default max connections, same as JDK keep-alive cache size set for launcher. */
+    private static final int DFLT_MAX_CONNECTIONS = Integer.getInteger("http.maxConnections", 30);
+
+    /** Default socket timeout: max inactivity while waiting for response data. */
+    private static final int DFLT_SOCKET_TIMEOUT_MS = (int)TimeUnit.MINUTES.toMillis(5);
+
+    /** Default timeout of waiting for connection from pool. */
+    private static final int DFLT_CONN_REQUEST_TIMEOUT_MS = (int)TimeUnit.MINUTES.toMillis(1);
+
+    /** Default max requests per second to one server. */
+    private static final int DFLT_RATE_LIMIT = 100;
+
+    /** Min requests per second, rate limiter never goes below. */
+    private static final double MIN_RATE = 1;
+
+    /** Default latency target. */
+    private static final int DFLT_LATENCY_TARGET_MS = 10_000;
+
+    /** Default max retries. */
+    private static final int DFLT_RETRIES = 3;
+
+    /** Transports by host. */
+    private static final ConcurrentMap<String, IHttpTransport> transports = new ConcurrentHashMap<>();
+
+    /** Rate limited transports by server ID. */
+    private static final ConcurrentMap<String, RateLimitedTransport> servers = new ConcurrentHashMap<>();
+
+    /**
+     * @param srvId Server ID.
+     * @param host Normalized host.
+     * @param props Server config properties.
+     * @return Rate limited transport for server, using shared transport for host.
+     */
+    public static RateLimitedTransport forServer(String srvId, String host, Properties props) {
+        return servers.computeIfAbsent(srvId, id -> {
+            int rateLimit = intProperty(props, HelperConfig.HTTP_RATE_LIMIT, DFLT_RATE_LIMIT);
+            int latencyTargetMs = intProperty(props, HelperConfig.HTTP_LATENCY_TARGET_MS, DFLT_LATENCY_TARGET_MS);
+            int retries = intProperty(props, HelperConfig.HTTP_RETRIES, DFLT_RETRIES);
+
+            AdaptiveRateLimiter limiter = rateLimit > 0
+                ? new AdaptiveRateLimiter(rateLimit, MIN_RATE, latencyTargetMs)
+                : null;
+
+            logger.info("Requests policy for server " + id + ": rateLimit=" + rateLimit
+                + ", latencyTargetMs=" + latencyTargetMs + ", retries=" + retries);
+
+            return new RateLimitedTransport(id, forHost(host, props), limiter, new RetryPolicy(retries));
+        });
+    }
+
+    /**
+     * @param host Normalized host.
+     * @param props Server config properties.
+     * @return Transport for host.
+     */
+    public static IHttpTransport forHost(String host, Properties props) {
+        return transports.computeIfAbsent(host, h -> create(h, props));
+    }
+
+    /**
+     * @param host Host.
+     * @param props Server config properties.
+     */
+    private static IHttpTransport create(String host, Properties props) {
+        String type = props.getProperty(HelperConfig.HTTP_TRANSPORT, POOLED).trim();
+
+        if (URL_CONNECTION.equalsIgnoreCase(type)) {
+            logger.info("Using legacy URL connection transport for " + host);
+
+            return new UrlConnectionTransport(host);
+        }
+
+        int maxConns = intProperty(props, HelperConfig.HTTP_MAX_CONNECTIONS, DFLT_MAX_CONNECTIONS);
+
+        int maxInFlight = intProperty(props, HelperConfig.HTTP_MAX_IN_FLIGHT, maxConns);
+
+        int socketTimeoutMs = intProperty(props, HelperConfig.HTTP_SOCKET_TIMEOUT_MS, DFLT_SOCKET_TIMEOUT_MS);
+
+        int connReqTimeoutMs = intProperty(props, HelperConfig.HTTP_CONN_REQUEST_TIMEOUT_MS,
+            DFLT_CONN_REQUEST_TIMEOUT_MS);
+
+        logger.info("Using pooled transport for " + host + ": maxConnections=" + maxConns
+            + ", maxInFlight=" + maxInFlight + ", socketTimeoutMs=" + socketTimeoutMs
+            + ", connectionRequestTimeoutMs=" + connReqTimeoutMs);
+
+        return new PooledHttpTransport(host, maxConns, maxInFlight, socketTimeoutMs, connReqTimeoutMs);
+    }
+
+    /**
+     * @param props Properties.
+     * @param key Key.
+     * @param dflt Default value.
+     */
+    private static int intProperty(Properties props, String key, int dflt) {
+        return Integer.parseInt(props.getProperty(key, Integer.toString(dflt)).trim());
+    }
+
+    /**
+     * @return All transports created.
+     */
+    public static Collection<IHttpTransport> all() {
+        return new ArrayList<>(transports.values());
+    }
+
+    /**
+     * @return All server transports created.
+     */
+    public static Collection<RateLimitedTransport> allServers() {
+        return new ArrayList<>(servers.values());
+    }
+
+    /**
+     * Closes all transports.
+     */
+    public static void closeAll() {
+        servers.clear();
+
+        transports.values().forEach(IHttpTransport::close);
+
+        transports.clear();
+    }
+}
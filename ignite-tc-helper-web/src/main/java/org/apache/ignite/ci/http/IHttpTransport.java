@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import javax.annotation.Nullable;
+
+/**
+ * Transport used to send requests to one TeamCity host. Implementations are shared between all
+ * {@link org.apache.ignite.ci.IgniteTeamcityHelper} instances connected to the same host, see {@link HttpTransports}.
+ */
+public interface IHttpTransport extends AutoCloseable {
+    /**
+     * @param basicAuthTok Basic auth token, may be null for guest access.
+     * @param url Full URL.
+     * @return Response body stream. Stream should be closed by caller, closing releases connection back to pool.
+     */
+    public InputStream sendGet(@Nullable String basicAuthTok, String url) throws IOException;
+
+    /**
+     * Sends GET request with 'If-None-Match' and 'If-Modified-Since' headers if validators are provided. Default
+     * implementation ignores validators and always returns body.
+     *
+     * @param basicAuthTok Basic auth token, may be null for guest access.
+     * @param url Full URL.
+     * @param etag Entity tag of cached representation.
+     * @param lastModified Last modified date of cached representation.
+     * @return Response with body and new validators, or 'not modified' response.
+     */
+    public default ConditionalResponse sendConditionalGet(@Nullable String basicAuthTok, String url,
+        @Nullable String etag, @Nullable String lastModified) throws IOException {
+        return ConditionalResponse.modified(sendGet(basicAuthTok, url), null, null);
+    }
+
+    /**
+     * @param basicAuthTok Basic auth token.
+     * @param url Full URL.
+     * @param body XML body.
+     * @return Response body.
+     */
+    public String sendPost(@Nullable String basicAuthTok, String url, String body) throws IOException;
+
+    /**
+     * Downloads response into temporary file near destination, which is renamed after download is completed. So
+     * destination file never contains partially downloaded data.
+     *
+     * @param basicAuthTok Basic auth token.
+     * @param url Full URL.
+     * @param file Destination file.
+     */
+    public default void sendGetCopyToFile(@Nullable String basicAuthTok, String url, File file) throws IOException {
+        File partFile = new File(file.getParentFile(), file.getName() + ".part");
+
+        try {
+            try (InputStream inputStream = sendGet(basicAuthTok, url)) {
+                Files.copy(inputStream, partFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            Files.move(partFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally {
+            Files.deleteIfExists(partFile.toPath());
+        }
+    }
+
+    /**
+     * @return Host this transport is connected to.
+     */
+    public String host();
+
+    /**
+     * @return Timing and connection reuse counters.
+     */
+    public HttpHostStats stats();
+
+    /** {@inheritDoc} */
+    @Override public void close();
+}
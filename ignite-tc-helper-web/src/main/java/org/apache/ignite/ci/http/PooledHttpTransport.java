@@ -0,0 +1,375 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.apache.ignite.ci.web.rest.login.ServiceUnauthorizedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transport based on Apache HTTP client with explicit connection pool for one TeamCity host. Connections are kept alive
+ * and reused between requests, responses are requested gzipped. Number of concurrently executed requests is limited
+ * by in-flight permits, so callers are queued here instead of overloading the server.
+ */
+public class PooledHttpTransport implements IHttpTransport {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(PooledHttpTransport.class);
+
+    /** Idle connections are closed after this timeout. */
+    private static final int IDLE_TIMEOUT_SECS = 60;
+
+    /** Pooled connection is checked before reuse if it was idle longer. */
+    private static final int VALIDATE_AFTER_INACTIVITY_MS = 2000;
+
+    /** Connect timeout. */
+    private static final int CONNECT_TIMEOUT_MS = (int)TimeUnit.SECONDS.toMillis(30);
+
+    /** Host. */
+    private final String host;
+
+    /** Stats. */
+    private final HttpHostStats stats = new HttpHostStats(true);
+
+    /** Connection manager. */
+    private final PoolingHttpClientConnectionManager connMgr;
+
+    /** Client. */
+    private final CloseableHttpClient client;
+
+    /** In-flight requests permits. */
+    private final Semaphore inFlightPermits;
+
+    /**
+     * @param host Host.
+     * @param maxConnections Max connections in pool.
+     * @param maxInFlight Max requests executed concurrently.
+     * @param socketTimeoutMs Max inactivity between data packets of response, stalled request fails after it.
+     * @param connReqTimeoutMs Max wait of connection from pool.
+     */
+    public PooledHttpTransport(String host, int maxConnections, int maxInFlight, int socketTimeoutMs,
+        int connReqTimeoutMs) {
+        this.host = host;
+
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", new CountingSocketFactory(PlainConnectionSocketFactory.getSocketFactory()))
+            .register("https", new CountingSocketFactory(SSLConnectionSocketFactory.getSystemSocketFactory()))
+            .build();
+
+        connMgr = new PoolingHttpClientConnectionManager(registry);
+        connMgr.setMaxTotal(maxConnections);
+        connMgr.setDefaultMaxPerRoute(maxConnections);
+        connMgr.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MS);
+
+        RequestConfig reqCfg = RequestConfig.custom()
+            .setConnectTimeout(CONNECT_TIMEOUT_MS)
+            .setSocketTimeout(socketTimeoutMs)
+            .setConnectionRequestTimeout(connReqTimeoutMs)
+            .build();
+
+        // Default client builder adds 'Accept-Encoding: gzip,deflate' and decompresses response transparently.
+        client = HttpClients.custom()
+            .useSystemProperties()
+            .setConnectionManager(connMgr)
+            .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+            .evictExpiredConnections()
+            .evictIdleConnections(IDLE_TIMEOUT_SECS, TimeUnit.SECONDS)
+            .setDefaultRequestConfig(reqCfg)
+            .build();
+
+        inFlightPermits = new Semaphore(maxInFlight, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public InputStream sendGet(@Nullable String basicAuthTok, String url) throws IOException {
+        HttpGet get = new HttpGet(url);
+
+        return execute(basicAuthTok, get, false).body();
+    }
+
+    /** {@inheritDoc} */
+    @Override public ConditionalResponse sendConditionalGet(@Nullable String basicAuthTok, String url,
+        @Nullable String etag, @Nullable String lastModified) throws IOException {
+        HttpGet get = new HttpGet(url);
+
+        if (etag != null)
+            get.setHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        if (lastModified != null)
+            get.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+
+        return execute(basicAuthTok, get, etag != null || lastModified != null);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String sendPost(@Nullable String basicAuthTok, String url, String body) throws IOException {
+        HttpPost post = new HttpPost(url);
+
+        post.setEntity(new StringEntity(body, ContentType.create("application/xml", StandardCharsets.UTF_8)));
+
+        logger.info("\nSending 'POST' request to URL : " + url + "\n" + body);
+
+        try (InputStream is = execute(basicAuthTok, post, false).body()) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+            byte[] buf = new byte[4096];
+            int read;
+
+            while ((read = is.read(buf)) >= 0)
+                bos.write(buf, 0, read);
+
+            return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * @param basicAuthTok Basic auth token.
+     * @param req Request.
+     * @param conditional Request has validators, so 'Not Modified' response is expected.
+     * @return Response with body stream if request was successful, or 'not modified' response.
+     */
+    private ConditionalResponse execute(@Nullable String basicAuthTok, HttpRequestBase req,
+        boolean conditional) throws IOException {
+        if (basicAuthTok != null)
+            req.setHeader("Authorization", "Basic " + basicAuthTok);
+
+        req.setHeader("accept-charset", StandardCharsets.UTF_8.toString());
+
+        acquirePermit();
+
+        long startNanos = System.nanoTime();
+
+        stats.onRequestStart();
+
+        CloseableHttpResponse res = null;
+        boolean success = false;
+
+        try {
+            res = client.execute(req);
+
+            long resNanos = System.nanoTime() - startNanos;
+
+            stats.onResponse(resNanos);
+
+            logger.info(Thread.currentThread().getName() + ": Required: " + TimeUnit.NANOSECONDS.toMillis(resNanos)
+                + "ms : Sending '" + req.getMethod() + "' request to : " + req.getURI());
+
+            int resCode = res.getStatusLine().getStatusCode();
+            HttpEntity entity = res.getEntity();
+
+            if (resCode == 200 && entity != null) {
+                CloseableHttpResponse resToClose = res;
+
+                InputStream is = new ResponseStream(entity.getContent(), (bytes, fullyRead) -> {
+                    try {
+                        resToClose.close();
+                    }
+                    catch (IOException e) {
+                        logger.warn("Failed to close response: " + req.getURI(), e);
+                    }
+                    finally {
+                        stats.onRequestDone(System.nanoTime() - startNanos, bytes);
+
+                        inFlightPermits.release();
+                    }
+                });
+
+                success = true;
+
+                return ConditionalResponse.modified(is, headerValue(res, HttpHeaders.ETAG),
+                    headerValue(res, HttpHeaders.LAST_MODIFIED));
+            }
+
+            if (resCode == 304 && conditional) {
+                res.close();
+
+                stats.onRequestDone(System.nanoTime() - startNanos, 0);
+
+                inFlightPermits.release();
+
+                success = true;
+
+                return ConditionalResponse.notModified();
+            }
+
+            if (resCode == 401)
+                throw new ServiceUnauthorizedException("Service " + req.getURI() + " returned forbidden error");
+
+            if (resCode == 404 || resCode == 410)
+                throw new FileNotFoundException(req.getURI().toString());
+
+            throw new HttpStatusException(resCode, req.getURI().toString(), headerValue(res, "Retry-After"),
+                entity == null ? null : EntityUtils.toString(entity));
+        }
+        finally {
+            if (!success) {
+                stats.onRequestFailed();
+
+                if (res != null) {
+                    try {
+                        res.close();
+                    }
+                    catch (IOException e) {
+                        logger.warn("Failed to close response: " + req.getURI(), e);
+                    }
+                }
+
+                inFlightPermits.release();
+            }
+        }
+    }
+
+    /**
+     * @param res Response.
+     * @param name Header name.
+     * @return Value of first header with this name, null if header is absent.
+     */
+    @Nullable private static String headerValue(HttpResponse res, String name) {
+        Header hdr = res.getFirstHeader(name);
+
+        return hdr == null ? null : hdr.getValue();
+    }
+
+    /**
+     * Waits for in-flight limit permit.
+     */
+    private void acquirePermit() throws InterruptedIOException {
+        if (inFlightPermits.tryAcquire())
+            return;
+
+        long startNanos = System.nanoTime();
+
+        try {
+            inFlightPermits.acquire();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while waiting for request permit: " + host);
+        }
+
+        stats.onPermitWait(System.nanoTime() - startNanos);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String host() {
+        return host;
+    }
+
+    /** {@inheritDoc} */
+    @Override public HttpHostStats stats() {
+        return stats;
+    }
+
+    /**
+     * @return Connections pool state: leased, available and max connections.
+     */
+    public String poolState() {
+        return connMgr.getTotalStats().toString();
+    }
+
+    /**
+     * @return Available in-flight permits.
+     */
+    public int availablePermits() {
+        return inFlightPermits.availablePermits();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() {
+        try {
+            client.close();
+        }
+        catch (IOException e) {
+            logger.warn("Failed to close HTTP client for " + host, e);
+        }
+    }
+
+    /**
+     * Socket factory registering each established connection in host stats.
+     */
+    private class CountingSocketFactory implements LayeredConnectionSocketFactory {
+        /** Delegate. */
+        private final ConnectionSocketFactory delegate;
+
+        /**
+         * @param delegate Delegate.
+         */
+        CountingSocketFactory(ConnectionSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Socket createSocket(HttpContext ctx) throws IOException {
+            return delegate.createSocket(ctx);
+        }
+
+        /** {@inheritDoc} */
+        @Override public Socket connectSocket(int connectTimeout, Socket sock, HttpHost httpHost,
+            InetSocketAddress remoteAddr, InetSocketAddress locAddr, HttpContext ctx) throws IOException {
+            Socket connected = delegate.connectSocket(connectTimeout, sock, httpHost, remoteAddr, locAddr, ctx);
+
+            stats.onConnectionOpened();
+
+            return connected;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Socket createLayeredSocket(Socket sock, String target, int port,
+            HttpContext ctx) throws IOException {
+            if (!(delegate instanceof LayeredConnectionSocketFactory))
+                throw new UnsupportedOperationException("Layered socket is not supported for " + target);
+
+            return ((LayeredConnectionSocketFactory)delegate).createLayeredSocket(sock, target, port, ctx);
+        }
+    }
+}
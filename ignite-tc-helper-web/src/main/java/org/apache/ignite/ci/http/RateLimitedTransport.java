@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transport for one TeamCity server: requests are passed to shared host transport after rate limiter permit,
+ * failed GET requests are retried according to retry policy. POST requests are not retried, because they are not
+ * idempotent (e.g. build triggering).
+ */
+public class RateLimitedTransport implements IHttpTransport {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitedTransport.class);
+
+    /** Server ID. */
+    private final String serverId;
+
+    /** Host transport. */
+    private final IHttpTransport delegate;
+
+    /** Rate limiter, null if disabled. */
+    @Nullable private final AdaptiveRateLimiter limiter;
+
+    /** Retry policy. */
+    private final RetryPolicy retryPolicy;
+
+    /** Retries done. */
+    private final LongAdder retries = new LongAdder();
+
+    /** Requests failed after all retries. */
+    private final LongAdder giveUps = new LongAdder();
+
+    /**
+     * @param serverId Server ID.
+     * @param delegate Host transport.
+     * @param limiter Rate limiter, null if disabled.
+     * @param retryPolicy Retry policy.
+     */
+    public RateLimitedTransport(String serverId, IHttpTransport delegate, @Nullable AdaptiveRateLimiter limiter,
+        RetryPolicy retryPolicy) {
+        this.serverId = serverId;
+        this.delegate = delegate;
+        this.limiter = limiter;
+        this.retryPolicy = retryPolicy;
+    }
+
+    /** {@inheritDoc} */
+    @Override public InputStream sendGet(@Nullable String basicAuthTok, String url) throws IOException {
+        return withRetries(url, () -> delegate.sendGet(basicAuthTok, url));
+    }
+
+    /** {@inheritDoc} */
+    @Override public ConditionalResponse sendConditionalGet(@Nullable String basicAuthTok, String url,
+        @Nullable String etag, @Nullable String lastModified) throws IOException {
+        return withRetries(url, () -> delegate.sendConditionalGet(basicAuthTok, url, etag, lastModified));
+    }
+
+    /**
+     * Executes idempotent request after rate limiter permit, retries it according to retry policy.
+     *
+     * @param url Full URL.
+     * @param req Request to host transport.
+     * @return Request result.
+     */
+    private <T> T withRetries(String url, Request<T> req) throws IOException {
+        for (int retry = 0; ; retry++) {
+            acquire();
+
+            long startNanos = System.nanoTime();
+
+            try {
+                T res = req.send();
+
+                if (limiter != null)
+                    limiter.onSuccess(System.nanoTime() - startNanos);
+
+                return res;
+            }
+            catch (IOException e) {
+                onFailure(e);
+
+                if (!RetryPolicy.isRetryable(e))
+                    throw e;
+
+                if (retry >= retryPolicy.maxRetries()) {
+                    giveUps.increment();
+
+                    throw e;
+                }
+
+                long backoffMs = retryPolicy.backoffMs(retry, e);
+
+                logger.warn("Request to " + url + " failed (" + e.getClass().getSimpleName() + ": "
+                    + e.getMessage() + "), retry " + (retry + 1) + " of " + retryPolicy.maxRetries()
+                    + " in " + backoffMs + "ms");
+
+                retries.increment();
+
+                sleep(backoffMs);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String sendPost(@Nullable String basicAuthTok, String url, String body) throws IOException {
+        acquire();
+
+        try {
+            return delegate.sendPost(basicAuthTok, url, body);
+        }
+        catch (IOException e) {
+            onFailure(e);
+
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for rate limiter permit.
+     */
+    private void acquire() throws InterruptedIOException {
+        if (limiter != null)
+            limiter.acquire();
+    }
+
+    /**
+     * @param e Request failure.
+     */
+    private void onFailure(IOException e) {
+        if (limiter != null && e instanceof HttpStatusException && ((HttpStatusException)e).isOverload())
+            limiter.onOverload(((HttpStatusException)e).retryAfterMs());
+    }
+
+    /**
+     * @param ms Delay.
+     */
+    private static void sleep(long ms) throws InterruptedIOException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(ms);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while waiting for retry");
+        }
+    }
+
+    /**
+     * @return Server ID.
+     */
+    public String serverId() {
+        return serverId;
+    }
+
+    /**
+     * @return Rate limiter, null if disabled.
+     */
+    @Nullable public AdaptiveRateLimiter limiter() {
+        return limiter;
+    }
+
+    public int maxRetries() {
+        return retryPolicy.maxRetries();
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    public long giveUps() {
+        return giveUps.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String host() {
+        return delegate.host();
+    }
+
+    /** {@inheritDoc} */
+    @Override public HttpHostStats stats() {
+        return delegate.stats();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() {
+        // Host transport is shared and closed by registry.
+    }
+
+    /** Request to host transport. */
+    private interface Request<T> {
+        T send() throws IOException;
+    }
+}
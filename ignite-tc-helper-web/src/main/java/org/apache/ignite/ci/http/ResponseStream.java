@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Response body stream counting bytes read. Notifies listener once on close.
+ */
+class ResponseStream extends FilterInputStream {
+    /** Close listener. */
+    interface CloseListener {
+        /**
+         * @param bytes Bytes read from stream.
+         * @param fullyRead {@code True} if end of stream was reached.
+         */
+        void onClose(long bytes, boolean fullyRead);
+    }
+
+    /** Bytes read. */
+    private long bytes;
+
+    /** End of stream reached. */
+    private boolean eof;
+
+    /** Closed flag. */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /** Listener. */
+    private final CloseListener lsnr;
+
+    /**
+     * @param in Delegate.
+     * @param lsnr Listener.
+     */
+    ResponseStream(InputStream in, CloseListener lsnr) {
+        super(in);
+        this.lsnr = lsnr;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read() throws IOException {
+        int b = super.read();
+
+        if (b >= 0)
+            bytes++;
+        else
+            eof = true;
+
+        return b;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(byte[] b, int off, int len) throws IOException {
+        int cnt = super.read(b, off, len);
+
+        if (cnt > 0)
+            bytes += cnt;
+        else if (cnt < 0)
+            eof = true;
+
+        return cnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+
+        bytes += skipped;
+
+        return skipped;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() throws IOException {
+        if (!closed.compareAndSet(false, true))
+            return;
+
+        try {
+            super.close();
+        }
+        finally {
+            lsnr.onClose(bytes, eof);
+        }
+    }
+}
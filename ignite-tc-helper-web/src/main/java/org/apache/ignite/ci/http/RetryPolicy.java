@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded retries with exponential backoff and jitter: delay before retry N is random in
+ * {@code [d/2, d]}, where {@code d = min(maxDelay, baseDelay * 2^N)}. Delay requested by server is respected.
+ */
+public class RetryPolicy {
+    /** Base delay. */
+    private static final long BASE_DELAY_MS = 500;
+
+    /** Max delay. */
+    private static final long MAX_DELAY_MS = 30_000;
+
+    /** Max retries after first attempt. */
+    private final int maxRetries;
+
+    /**
+     * @param maxRetries Max retries after first attempt.
+     */
+    public RetryPolicy(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public int maxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @param e Failure.
+     * @return {@code True} if request may succeed if repeated: transient server error or IO error.
+     */
+    public static boolean isRetryable(IOException e) {
+        if (e instanceof HttpStatusException)
+            return ((HttpStatusException)e).isRetryable();
+
+        if (e instanceof FileNotFoundException)
+            return false;
+
+        // Socket timeout is the only interrupted IO exception not caused by thread interrupt.
+        return !(e instanceof InterruptedIOException) || e instanceof SocketTimeoutException;
+    }
+
+    /**
+     * @param retry Retry number, from 0.
+     * @param e Failure.
+     * @return Delay before retry.
+     */
+    public long backoffMs(int retry, IOException e) {
+        long exp = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << Math.min(retry, 16));
+        long delay = exp / 2 + ThreadLocalRandom.current().nextLong(exp / 2 + 1);
+
+        if (e instanceof HttpStatusException) {
+            long retryAfter = ((HttpStatusException)e).retryAfterMs();
+
+            if (retryAfter > delay)
+                return Math.min(retryAfter, MAX_DELAY_MS);
+        }
+
+        return delay;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import javax.annotation.Nullable;
+import org.apache.ignite.ci.util.HttpUtil;
+
+/**
+ * Legacy transport: new {@link java.net.HttpURLConnection} per call, connection reuse is up to JDK keep-alive cache.
+ */
+public class UrlConnectionTransport implements IHttpTransport {
+    /** Host. */
+    private final String host;
+
+    /** Stats, connections are not visible for this transport. */
+    private final HttpHostStats stats = new HttpHostStats(false);
+
+    /**
+     * @param host Host.
+     */
+    public UrlConnectionTransport(String host) {
+        this.host = host;
+    }
+
+    /** {@inheritDoc} */
+    @Override public InputStream sendGet(@Nullable String basicAuthTok, String url) throws IOException {
+        long startNanos = System.nanoTime();
+
+        stats.onRequestStart();
+
+        InputStream is;
+
+        try {
+            is = HttpUtil.sendGetWithBasicAuth(basicAuthTok, url);
+        }
+        catch (IOException | RuntimeException e) {
+            stats.onRequestFailed();
+
+            throw e;
+        }
+
+        stats.onResponse(System.nanoTime() - startNanos);
+
+        return new ResponseStream(is,
+            (bytes, fullyRead) -> stats.onRequestDone(System.nanoTime() - startNanos, bytes));
+    }
+
+    /** {@inheritDoc} */
+    @Override public ConditionalResponse sendConditionalGet(@Nullable String basicAuthTok, String url,
+        @Nullable String etag, @Nullable String lastModified) throws IOException {
+        long startNanos = System.nanoTime();
+
+        stats.onRequestStart();
+
+        ConditionalResponse res;
+
+        try {
+            res = HttpUtil.sendConditionalGetWithBasicAuth(basicAuthTok, url, etag, lastModified);
+        }
+        catch (IOException | RuntimeException e) {
+            stats.onRequestFailed();
+
+            throw e;
+        }
+
+        stats.onResponse(System.nanoTime() - startNanos);
+
+        if (res.isNotModified()) {
+            stats.onRequestDone(System.nanoTime() - startNanos, 0);
+
+            return res;
+        }
+
+        InputStream is = new ResponseStream(res.body(),
+            (bytes, fullyRead) -> stats.onRequestDone(System.nanoTime() - startNanos, bytes));
+
+        return ConditionalResponse.modified(is, res.etag(), res.lastModified());
+    }
+
+    /** {@inheritDoc} */
+    @Override public String sendPost(@Nullable String basicAuthTok, String url, String body) throws IOException {
+        return HttpUtil.sendPostAsString(basicAuthTok, url, body);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String host() {
+        return host;
+    }
+
+    /** {@inheritDoc} */
+    @Override public HttpHostStats stats() {
+        return stats;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() {
+    }
+}
@@ -17,14 +17,64 @@
 
 package org.apache.ignite.ci.issue;
 
+import org.apache.ignite.ci.analysis.RunHistory;
+import org.apache.ignite.ci.analysis.RunStat;
+
 public class EventTemplate {
     private final int[] beforeEvent;
     private final int[] eventAndAfter;
     private boolean shouldBeFirst;
 
+    /** Bits of runs symbols checked by template, see {@link RunHistory#symbols()}. */
+    private final long symbolsMask;
+
+    /** Expected value of checked bits. */
+    private final long symbolsVal;
+
+    /** Runs in template. */
+    private final int len;
+
     public EventTemplate(int[] beforeEvent, int[] eventAndAfter) {
         this.beforeEvent = beforeEvent;
         this.eventAndAfter = eventAndAfter;
+
+        len = beforeEvent.length + eventAndAfter.length;
+
+        if (len > RunHistory.SYMBOLS_PER_WORD)
+            throw new IllegalArgumentException("Template is too long: " + len);
+
+        long mask = 0;
+        long val = 0;
+
+        for (int i = 0; i < len; i++) {
+            int res = i < beforeEvent.length ? beforeEvent[i] : eventAndAfter[i - beforeEvent.length];
+            int shift = i * RunHistory.BITS_PER_SYMBOL;
+
+            if (res == RunStat.RES_OK_OR_FAILURE) {
+                // OK and failure codes differ only in the low bit.
+                assert (RunStat.RES_OK | RunStat.RES_FAILURE) == 1;
+
+                mask |= 2L << shift;
+            }
+            else {
+                if (res < 0 || res > RunHistory.SYMBOL_MASK)
+                    throw new IllegalArgumentException("Unexpected result code in template: " + res);
+
+                mask |= (long)RunHistory.SYMBOL_MASK << shift;
+                val |= (long)res << shift;
+            }
+        }
+
+        symbolsMask = mask;
+        symbolsVal = val;
+    }
+
+    /**
+     * @param symbols Symbols of runs starting from the first run of window, see {@link RunHistory#symbolsAt}.
+     * @return {@code True} if runs match template.
+     */
+    public boolean matches(long symbols) {
+        return (symbols & symbolsMask) == symbolsVal;
     }
 
     public int[] beforeEvent() {
@@ -36,7 +86,7 @@ public class EventTemplate {
     }
 
     public int cntEvents() {
-        return beforeEvent.length + eventAndAfter.length;
+        return len;
     }
 
     public EventTemplate setShouldBeFirst(boolean shouldBeFirst) {
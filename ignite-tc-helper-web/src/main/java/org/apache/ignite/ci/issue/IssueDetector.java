@@ -284,23 +284,26 @@ public class IssueDetector {
         if (runStat == null)
             return false;
 
+        RunStat.TestId[] detected = runStat.detectTemplates(EventTemplates.newContributedTestFailure,
+            EventTemplates.newFailure, EventTemplates.newFailureForFlakyTest);
+
         RunStat.TestId firstFailedTestId  = null;
         String displayType = null;
 
         if (firstFailedTestId == null) {
-            firstFailedTestId = runStat.detectTemplate(EventTemplates.newContributedTestFailure);
+            firstFailedTestId = detected[0];
             displayType = "Recently contributed test failed";
         }
 
         if (firstFailedTestId == null) {
-            firstFailedTestId = runStat.detectTemplate(EventTemplates.newFailure);
+            firstFailedTestId = detected[1];
             displayType = "New test failure";
 
             if (firstFailedTestId != null) {
                 final String flakyComments = runStat.getFlakyComments();
 
                 if (!Strings.isNullOrEmpty(flakyComments)) {
-                    if (runStat.detectTemplate(EventTemplates.newFailureForFlakyTest) == null) {
+                    if (detected[2] == null) {
                         logger.info("Skipping registering new issue for test fail:" +
                             " Test seems to be flaky " + name + ": " + flakyComments);
 
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.tcmodel.agent;
+
+import java.util.Collections;
+import java.util.List;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Agents list with full agent details, returned for agents request with {@code fields} expanding agent.
+ */
+@XmlRootElement(name = "agents")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class Agents {
+    @XmlAttribute(name = "count")
+    protected Integer count;
+
+    @XmlElement(name = "agent")
+    protected List<Agent> agent;
+
+    /**
+     * @return Agents, empty list if there are no agents.
+     */
+    public List<Agent> getAgents() {
+        return agent == null ? Collections.emptyList() : agent;
+    }
+}
@@ -92,6 +92,20 @@ public class BuildRef extends AbstractRef {
         this.id = id;
     }
 
+    /**
+     * @return Build state: queued, running or finished.
+     */
+    public String getState() {
+        return state;
+    }
+
+    /**
+     * @param state Build state.
+     */
+    public void setState(String state) {
+        this.state = state;
+    }
+
     /**
      * @return true if build is composite.
      */
@@ -35,4 +35,11 @@ public class Builds {
         return builds == null ? Collections.emptyList() : builds;
     }
 
+    /**
+     * @param builds Builds.
+     */
+    public void setBuilds(List<BuildRef> builds) {
+        this.builds = builds;
+    }
+
 }
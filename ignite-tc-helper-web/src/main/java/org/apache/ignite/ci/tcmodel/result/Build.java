@@ -28,6 +28,7 @@ import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
 import org.apache.ignite.ci.analysis.IVersionedEntity;
 import org.apache.ignite.ci.tcmodel.changes.ChangesList;
 import org.apache.ignite.ci.tcmodel.changes.ChangesListRef;
@@ -67,7 +68,8 @@ public class Build extends BuildRef implements IVersionedEntity {
     /** Information about build triggering. */
     @XmlElement(name = "triggered") private Triggered triggered;
 
-    @SuppressWarnings("FieldCanBeLocal") public Integer _version = LATEST_VERSION;
+    /** Entity version, not received from TeamCity. */
+    @XmlTransient @SuppressWarnings("FieldCanBeLocal") public Integer _version = LATEST_VERSION;
 
     @NotNull public static Build createFakeStub() {
         return new Build();
@@ -102,6 +104,22 @@ public class Build extends BuildRef implements IVersionedEntity {
         return !Strings.isNullOrEmpty(finishDate);
     }
 
+    public Date getStartDate() {
+        try {
+            if (startDate == null)
+                return null;
+            SimpleDateFormat f = new SimpleDateFormat("yyyyMMdd'T'HHmmssZ");
+            return f.parse(startDate);
+        }
+        catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public boolean hasStartDate() {
+        return !Strings.isNullOrEmpty(startDate);
+    }
+
     public BuildType getBuildType() {
         return buildType;
     }
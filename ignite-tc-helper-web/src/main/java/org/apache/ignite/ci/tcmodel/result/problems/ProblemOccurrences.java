@@ -34,4 +34,11 @@ public class ProblemOccurrences extends ProblemOccurrencesRef {
     public List<ProblemOccurrence> getProblemsNonNull() {
         return problemOccurrences == null ? Collections.emptyList() : problemOccurrences;
     }
+
+    /**
+     * @param problems Problems.
+     */
+    public void setProblems(List<ProblemOccurrence> problems) {
+        this.problemOccurrences = problems;
+    }
 }
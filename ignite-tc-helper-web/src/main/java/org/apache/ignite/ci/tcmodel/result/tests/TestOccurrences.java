@@ -37,4 +37,25 @@ public class TestOccurrences extends TestOccurrencesRef {
     public List<TestOccurrence> getTests() {
         return testOccurrences == null ? Collections.emptyList() : testOccurrences;
     }
+
+    /**
+     * @param tests Tests.
+     */
+    public void setTests(List<TestOccurrence> tests) {
+        this.testOccurrences = tests;
+    }
+
+    /**
+     * @return Reference to next page.
+     */
+    public String nextHref() {
+        return nextHref;
+    }
+
+    /**
+     * @param nextHref Reference to next page.
+     */
+    public void setNextHref(String nextHref) {
+        this.nextHref = nextHref;
+    }
 }
@@ -0,0 +1,426 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.tcmodel.result.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.apache.ignite.ci.db.Persisted;
+import org.apache.ignite.ci.util.ObjectInterner;
+
+/**
+ * Columnar representation of {@link TestOccurrences} saved to persistent cache. Test names are front-coded against
+ * previous name (names of one suite share long prefixes), statuses are replaced by index in small per-list dictionary,
+ * boolean flags are packed to one byte per test, ids and durations are kept in primitive arrays. Occurrence ID and
+ * href are restored from test run id, build id and common href prefix.
+ *
+ * Instance is decoded to {@link TestOccurrences} on read from persistent cache, decoded object is kept by on-heap
+ * tier.
+ */
+@Persisted
+public class TestOccurrencesCompacted {
+    /** Prefix of occurrence ID before test run id. */
+    private static final String ID_PREFIX = "id:";
+
+    /** Separator of test run id and build id in occurrence ID. */
+    private static final String BUILD_PREFIX = ",build:(id:";
+
+    /** Suffix of occurrence ID. */
+    private static final String ID_SUFFIX = ")";
+
+    /** Flag value: null. */
+    private static final int FLAG_NULL = 0;
+
+    /** Flag value: false. */
+    private static final int FLAG_FALSE = 1;
+
+    /** Flag value: true. */
+    private static final int FLAG_TRUE = 2;
+
+    /** Bits per flag. */
+    private static final int FLAG_BITS = 2;
+
+    /** Duration value for absent attribute. */
+    private static final int NO_DURATION = -1;
+
+    /** Href of full tests list. */
+    @Nullable private String href;
+
+    @Nullable private Integer count;
+    @Nullable private Integer passed;
+    @Nullable private Integer failed;
+    @Nullable private Integer muted;
+    @Nullable private String nextHref;
+
+    /** Tests count. */
+    private int size;
+
+    /** Build id common for all tests, used only if {@link #rawIds} is null. */
+    private int buildId;
+
+    /** Href prefix common for all tests, used only if {@link #rawIds} is null. */
+    @Nullable private String hrefPrefix;
+
+    /** Test run ids, unique in build. */
+    @Nullable private int[] testRunIds;
+
+    /** Occurrence IDs and hrefs, only for lists which can't be encoded by common build and href prefix. */
+    @Nullable private String[] rawIds;
+
+    /** Raw hrefs. */
+    @Nullable private String[] rawHrefs;
+
+    /** Front-coded UTF-8 names. */
+    @Nullable private byte[] names;
+
+    /** Distinct statuses. */
+    @Nullable private String[] statusDict;
+
+    /** Index of status in dictionary, -1 for null status. */
+    @Nullable private byte[] statuses;
+
+    /** Packed flags: muted, currentlyMuted, currentlyInvestigated, ignored; 2 bits each. */
+    @Nullable private byte[] flags;
+
+    /** Durations, {@link #NO_DURATION} if absent. */
+    @Nullable private int[] durations;
+
+    /**
+     * Default constructor.
+     */
+    public TestOccurrencesCompacted() {
+    }
+
+    /**
+     * @param tests Tests to encode.
+     */
+    public TestOccurrencesCompacted(TestOccurrences tests) {
+        href = tests.href;
+        count = tests.count;
+        passed = tests.passed;
+        failed = tests.failed;
+        muted = tests.muted;
+        nextHref = tests.nextHref();
+
+        List<TestOccurrence> list = tests.getTests();
+
+        size = list.size();
+
+        if (size == 0)
+            return;
+
+        encodeIds(list);
+
+        names = encodeNames(list);
+        statuses = new byte[size];
+        flags = new byte[size];
+        durations = new int[size];
+
+        List<String> statusList = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            TestOccurrence occurrence = list.get(i);
+
+            if (occurrence.status == null)
+                statuses[i] = -1;
+            else {
+                int idx = statusList.indexOf(occurrence.status);
+
+                if (idx < 0) {
+                    idx = statusList.size();
+
+                    statusList.add(occurrence.status);
+                }
+
+                statuses[i] = (byte)idx;
+            }
+
+            flags[i] = (byte)(flag(occurrence.muted)
+                | flag(occurrence.currentlyMuted) << FLAG_BITS
+                | flag(occurrence.currentlyInvestigated) << 2 * FLAG_BITS
+                | flag(occurrence.ignored) << 3 * FLAG_BITS);
+
+            durations[i] = occurrence.duration == null ? NO_DURATION : occurrence.duration;
+        }
+
+        statusDict = statusList.toArray(new String[0]);
+    }
+
+    /**
+     * Tries to encode IDs as test run id and common build id, saves raw IDs and hrefs otherwise.
+     *
+     * @param list Tests.
+     */
+    private void encodeIds(List<TestOccurrence> list) {
+        int[] runIds = new int[size];
+        Integer commonBuildId = null;
+        String commonPrefix = null;
+
+        for (int i = 0; i < size; i++) {
+            TestOccurrence occurrence = list.get(i);
+            String id = occurrence.getId();
+
+            int sep = id == null || !id.startsWith(ID_PREFIX) || !id.endsWith(ID_SUFFIX) ? -1
+                : id.indexOf(BUILD_PREFIX);
+
+            Integer runId = sep < 0 ? null : parseInt(id, ID_PREFIX.length(), sep);
+            Integer testBuildId = sep < 0 ? null
+                : parseInt(id, sep + BUILD_PREFIX.length(), id.length() - ID_SUFFIX.length());
+
+            String prefix = sep >= 0 && occurrence.href != null && occurrence.href.endsWith(id)
+                ? occurrence.href.substring(0, occurrence.href.length() - id.length())
+                : null;
+
+            boolean encodable = runId != null && testBuildId != null && prefix != null
+                && (commonBuildId == null || commonBuildId.equals(testBuildId))
+                && (commonPrefix == null || commonPrefix.equals(prefix))
+                && formatId(runId, testBuildId).equals(id);
+
+            if (!encodable) {
+                rawIds = new String[size];
+                rawHrefs = new String[size];
+
+                for (int j = 0; j < size; j++) {
+                    rawIds[j] = list.get(j).getId();
+                    rawHrefs[j] = list.get(j).href;
+                }
+
+                return;
+            }
+
+            runIds[i] = runId;
+            commonBuildId = testBuildId;
+            commonPrefix = prefix;
+        }
+
+        testRunIds = runIds;
+        buildId = commonBuildId;
+        hrefPrefix = commonPrefix;
+    }
+
+    /**
+     * @return Decoded tests list.
+     */
+    public TestOccurrences toTestOccurrences() {
+        TestOccurrences res = new TestOccurrences();
+
+        res.href = href;
+        res.count = count;
+        res.passed = passed;
+        res.failed = failed;
+        res.muted = muted;
+        res.setNextHref(nextHref);
+
+        if (size == 0)
+            return res;
+
+        List<TestOccurrence> list = new ArrayList<>(size);
+
+        String[] decodedNames = decodeNames();
+
+        for (int i = 0; i < size; i++) {
+            TestOccurrence occurrence = new TestOccurrence();
+
+            if (rawIds != null) {
+                occurrence.setId(rawIds[i]);
+                occurrence.href = rawHrefs[i];
+            }
+            else {
+                String id = formatId(testRunIds[i], buildId);
+
+                occurrence.setId(id);
+                occurrence.href = hrefPrefix + id;
+            }
+
+            occurrence.name = decodedNames[i];
+            occurrence.status = statuses[i] < 0 ? null : statusDict[statuses[i]];
+
+            int f = flags[i];
+
+            occurrence.muted = bool(f);
+            occurrence.currentlyMuted = bool(f >> FLAG_BITS);
+            occurrence.currentlyInvestigated = bool(f >> 2 * FLAG_BITS);
+            occurrence.ignored = bool(f >> 3 * FLAG_BITS);
+            occurrence.duration = durations[i] == NO_DURATION ? null : durations[i];
+
+            list.add(occurrence);
+        }
+
+        res.setTests(list);
+
+        return res;
+    }
+
+    /**
+     * @return Tests count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param list Tests.
+     * @return Names, each one is saved as length of prefix shared with previous name plus one (zero for null name),
+     * length of remaining suffix and UTF-8 bytes of suffix.
+     */
+    private static byte[] encodeNames(List<TestOccurrence> list) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(list.size() * 16);
+
+        String prev = "";
+
+        for (TestOccurrence occurrence : list) {
+            String name = occurrence.name;
+
+            if (name == null) {
+                writeVarInt(out, 0);
+
+                continue;
+            }
+
+            int shared = 0;
+            int max = Math.min(prev.length(), name.length());
+
+            while (shared < max && prev.charAt(shared) == name.charAt(shared))
+                shared++;
+
+            // Do not split surrogate pair, suffix should be valid string.
+            if (shared > 0 && Character.isHighSurrogate(name.charAt(shared - 1)))
+                shared--;
+
+            byte[] suffix = name.substring(shared).getBytes(StandardCharsets.UTF_8);
+
+            writeVarInt(out, shared + 1);
+            writeVarInt(out, suffix.length);
+            out.write(suffix, 0, suffix.length);
+
+            prev = name;
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * @return Decoded and interned names.
+     */
+    private String[] decodeNames() {
+        String[] res = new String[size];
+
+        int[] pos = {0};
+        String prev = "";
+
+        for (int i = 0; i < size; i++) {
+            int shared = readVarInt(names, pos) - 1;
+
+            if (shared < 0)
+                continue;
+
+            int len = readVarInt(names, pos);
+
+            String name = prev.substring(0, shared) + new String(names, pos[0], len, StandardCharsets.UTF_8);
+
+            pos[0] += len;
+
+            res[i] = ObjectInterner.internString(name);
+
+            prev = name;
+        }
+
+        return res;
+    }
+
+    /**
+     * @param out Output.
+     * @param val Non-negative value.
+     */
+    private static void writeVarInt(ByteArrayOutputStream out, int val) {
+        while ((val & ~0x7F) != 0) {
+            out.write((val & 0x7F) | 0x80);
+
+            val >>>= 7;
+        }
+
+        out.write(val);
+    }
+
+    /**
+     * @param buf Buffer.
+     * @param pos Position holder, advanced by this method.
+     */
+    private static int readVarInt(byte[] buf, int[] pos) {
+        int res = 0;
+
+        for (int shift = 0; ; shift += 7) {
+            byte b = buf[pos[0]++];
+
+            res |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)
+                return res;
+        }
+    }
+
+    /**
+     * @param runId Test run id.
+     * @param buildId Build id.
+     */
+    private static String formatId(int runId, int buildId) {
+        return ID_PREFIX + runId + BUILD_PREFIX + buildId + ID_SUFFIX;
+    }
+
+    /**
+     * @param s String.
+     * @param from Start index.
+     * @param to End index, exclusive.
+     * @return Parsed value or null if substring is not a non-negative int.
+     */
+    @Nullable private static Integer parseInt(String s, int from, int to) {
+        if (from >= to || to - from > 9)
+            return null;
+
+        int res = 0;
+
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+
+            if (c < '0' || c > '9')
+                return null;
+
+            res = res * 10 + (c - '0');
+        }
+
+        return res;
+    }
+
+    /**
+     * @param val Value.
+     */
+    private static int flag(@Nullable Boolean val) {
+        return val == null ? FLAG_NULL : val ? FLAG_TRUE : FLAG_FALSE;
+    }
+
+    /**
+     * @param bits Flag in lowest bits.
+     */
+    @Nullable private static Boolean bool(int bits) {
+        int flag = bits & ((1 << FLAG_BITS) - 1);
+
+        return flag == FLAG_NULL ? null : flag == FLAG_TRUE;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.tcmodel.result.tests;
+
+import java.util.Collections;
+import java.util.List;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Test occurrences list with failure details, returned by
+ * https://ci.ignite.apache.org/app/rest/latest/testOccurrences?locator=build:(id:931136),status:FAILURE
+ * with {@code fields} including details.
+ */
+@XmlRootElement(name = "testOccurrences")
+public class TestOccurrencesFull {
+    @XmlAttribute public Integer count;
+
+    @XmlAttribute public String nextHref;
+
+    @XmlElement(name = "testOccurrence")
+    private List<TestOccurrenceFull> testOccurrences;
+
+    public List<TestOccurrenceFull> getTests() {
+        return testOccurrences == null ? Collections.emptyList() : testOccurrences;
+    }
+}
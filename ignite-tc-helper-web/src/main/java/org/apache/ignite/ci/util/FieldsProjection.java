@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlTransient;
+
+/**
+ * Builds TeamCity REST {@code fields=} projection from JAXB model class, so server returns only attributes and
+ * elements which are bound to model. Field bindings are resolved the same way as by JAXB: explicitly annotated fields
+ * plus implicitly bound fields according to {@link XmlAccessorType}; properties bound by getters are not supported.
+ */
+public class FieldsProjection {
+    /** JAXB default name marker. */
+    private static final String DEFAULT_NAME = "##default";
+
+    /** Projections by model class. */
+    private static final ConcurrentMap<Class<?>, String> projections = new ConcurrentHashMap<>();
+
+    /**
+     * @param cls Model class of response root element.
+     * @return Fields specification, e.g. {@code href,count,testOccurrence(id,name,status)}.
+     */
+    public static String of(Class<?> cls) {
+        return projections.computeIfAbsent(cls, c -> fields(c, new HashSet<>()));
+    }
+
+    /**
+     * @param url URL, with or without query.
+     * @param cls Model class of response root element.
+     * @return URL with fields parameter added.
+     */
+    public static String appendTo(String url, Class<?> cls) {
+        return url + (url.contains("?") ? "&" : "?") + "fields=" + of(cls);
+    }
+
+    /**
+     * @param cls Class.
+     * @param path Classes being processed, to detect recursive model.
+     */
+    private static String fields(Class<?> cls, Set<Class<?>> path) {
+        if (!path.add(cls))
+            throw new IllegalStateException("Projection for recursive model is not supported: " + cls.getName());
+
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+
+        for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass())
+            hierarchy.addFirst(c);
+
+        Set<String> res = new LinkedHashSet<>();
+
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                String spec = fieldSpec(c, field, path);
+
+                if (spec != null)
+                    res.add(spec);
+            }
+        }
+
+        path.remove(cls);
+
+        return String.join(",", res);
+    }
+
+    /**
+     * @param declaringCls Class declaring field.
+     * @param field Field.
+     * @param path Classes being processed.
+     * @return Field specification or {@code null} if field is not bound to XML.
+     */
+    private static String fieldSpec(Class<?> declaringCls, Field field, Set<Class<?>> path) {
+        int mod = field.getModifiers();
+
+        if (Modifier.isStatic(mod) || Modifier.isTransient(mod) || field.isSynthetic()
+            || field.isAnnotationPresent(XmlTransient.class))
+            return null;
+
+        XmlAttribute attr = field.getAnnotation(XmlAttribute.class);
+
+        if (attr != null)
+            return name(attr.name(), field);
+
+        XmlElement el = field.getAnnotation(XmlElement.class);
+
+        if (el == null && !isBoundImplicitly(declaringCls, field))
+            return null;
+
+        String elName = name(el == null ? DEFAULT_NAME : el.name(), field);
+        Class<?> type = elementType(field);
+        String elSpec = isSimple(type) ? elName : elName + "(" + fields(type, path) + ")";
+
+        XmlElementWrapper wrapper = field.getAnnotation(XmlElementWrapper.class);
+
+        return wrapper == null ? elSpec : name(wrapper.name(), field) + "(" + elSpec + ")";
+    }
+
+    /**
+     * @param cls Class declaring field.
+     * @param field Field without binding annotation.
+     */
+    private static boolean isBoundImplicitly(Class<?> cls, Field field) {
+        XmlAccessorType accessorType = cls.getAnnotation(XmlAccessorType.class);
+        XmlAccessType type = accessorType == null ? XmlAccessType.PUBLIC_MEMBER : accessorType.value();
+
+        if (type == XmlAccessType.FIELD)
+            return true;
+
+        return type == XmlAccessType.PUBLIC_MEMBER && Modifier.isPublic(field.getModifiers());
+    }
+
+    /**
+     * @param field Field.
+     * @return Field type or collection element type.
+     */
+    private static Class<?> elementType(Field field) {
+        if (!Collection.class.isAssignableFrom(field.getType()))
+            return field.getType();
+
+        Type generic = field.getGenericType();
+
+        if (generic instanceof ParameterizedType) {
+            Type arg = ((ParameterizedType)generic).getActualTypeArguments()[0];
+
+            if (arg instanceof Class)
+                return (Class<?>)arg;
+        }
+
+        throw new IllegalStateException("Collection element type is not resolved for " + field);
+    }
+
+    /**
+     * @param type Type.
+     * @return {@code True} if value is represented by text, not by nested fields.
+     */
+    private static boolean isSimple(Class<?> type) {
+        return type.isPrimitive() || type.isEnum() || type == String.class || type == Boolean.class
+            || Number.class.isAssignableFrom(type);
+    }
+
+    /**
+     * @param annotated Name from annotation.
+     * @param field Field.
+     */
+    private static String name(String annotated, Field field) {
+        return DEFAULT_NAME.equals(annotated) ? field.getName() : annotated;
+    }
+}
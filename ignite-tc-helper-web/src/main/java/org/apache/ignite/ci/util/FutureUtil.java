@@ -17,8 +17,17 @@
 
 package org.apache.ignite.ci.util;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.apache.ignite.ci.BuildChainProcessor;
 import org.jetbrains.annotations.Nullable;
@@ -55,4 +64,58 @@ public class FutureUtil {
 
         return logCheckRes;
     }
+
+    /**
+     * Waits for future in non-executor thread. Unchecked exception of computation is rethrown as is, without
+     * {@link CompletionException} wrapper, so callers observe same exceptions as for synchronous call.
+     *
+     * @param fut Future.
+     * @return Result.
+     */
+    public static <V> V getResult(CompletableFuture<V> fut) {
+        try {
+            return fut.join();
+        }
+        catch (CompletionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+
+            if (cause instanceof Error)
+                throw (Error)cause;
+
+            throw e;
+        }
+    }
+
+    /**
+     * @param futs Futures.
+     * @return Future completed when all futures are completed, with results in order of futures.
+     */
+    public static <V> CompletableFuture<List<V>> allOf(List<CompletableFuture<V>> futs) {
+        return CompletableFuture.allOf(futs.toArray(new CompletableFuture<?>[0]))
+            .thenApply(v -> futs.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    /**
+     * @param keys Keys, duplicates are requested once.
+     * @param loader Loader of value for key.
+     * @return Future completed when all values are loaded, with values by key in order of keys.
+     */
+    public static <K, V> CompletableFuture<Map<K, V>> allOf(Collection<K> keys,
+        Function<K, CompletableFuture<V>> loader) {
+        List<K> uniqueKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+
+        List<CompletableFuture<V>> futs = uniqueKeys.stream().map(loader).collect(Collectors.toList());
+
+        return allOf(futs).thenApply(vals -> {
+            Map<K, V> res = new LinkedHashMap<>();
+
+            for (int i = 0; i < uniqueKeys.size(); i++)
+                res.put(uniqueKeys.get(i), vals.get(i));
+
+            return res;
+        });
+    }
 }
@@ -18,13 +18,17 @@
 package org.apache.ignite.ci.util;
 
 import com.google.common.base.Stopwatch;
+import javax.annotation.Nullable;
 import org.apache.ignite.ci.BuildChainProcessor;
+import org.apache.ignite.ci.http.ConditionalResponse;
+import org.apache.ignite.ci.http.HttpStatusException;
 import org.apache.ignite.ci.web.rest.login.ServiceUnauthorizedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -58,6 +62,53 @@ public class HttpUtil {
 
     public static InputStream sendGetWithBasicAuth(String basicAuthToken, String url) throws IOException {
         final Stopwatch started = Stopwatch.createStarted();
+        HttpURLConnection con = openGetConnection(basicAuthToken, url);
+
+        int resCode = con.getResponseCode();
+
+        logger.info(Thread.currentThread().getName() + ": Required: " + started.elapsed(TimeUnit.MILLISECONDS)
+            + "ms : Sending 'GET' request to : " + url);
+
+        return getInputStream(url, con, resCode);
+    }
+
+    /**
+     * Sends GET with validators of cached representation.
+     *
+     * @param basicAuthToken Basic auth token.
+     * @param url URL.
+     * @param etag Entity tag for 'If-None-Match', may be null.
+     * @param lastModified Date for 'If-Modified-Since', may be null.
+     * @return Response with body and its validators, or 'not modified' response.
+     */
+    public static ConditionalResponse sendConditionalGetWithBasicAuth(String basicAuthToken, String url,
+        @Nullable String etag, @Nullable String lastModified) throws IOException {
+        final Stopwatch started = Stopwatch.createStarted();
+        HttpURLConnection con = openGetConnection(basicAuthToken, url);
+
+        if (etag != null)
+            con.setRequestProperty("If-None-Match", etag);
+
+        if (lastModified != null)
+            con.setRequestProperty("If-Modified-Since", lastModified);
+
+        int resCode = con.getResponseCode();
+
+        logger.info(Thread.currentThread().getName() + ": Required: " + started.elapsed(TimeUnit.MILLISECONDS)
+            + "ms : Sending conditional 'GET' request to : " + url + (resCode == 304 ? " (not modified)" : ""));
+
+        if (resCode == 304 && (etag != null || lastModified != null)) {
+            con.getInputStream().close(); // Returns connection to keep-alive cache.
+
+            return ConditionalResponse.notModified();
+        }
+
+        InputStream is = getInputStream(url, con, resCode);
+
+        return ConditionalResponse.modified(is, con.getHeaderField("ETag"), con.getHeaderField("Last-Modified"));
+    }
+
+    private static HttpURLConnection openGetConnection(String basicAuthToken, String url) throws IOException {
         URL obj = new URL(url);
         HttpURLConnection con = (HttpURLConnection)obj.openConnection();
 
@@ -66,12 +117,7 @@ public class HttpUtil {
         con.setRequestProperty("Keep-Alive", "header");
         con.setRequestProperty("accept-charset", StandardCharsets.UTF_8.toString());
 
-        int resCode = con.getResponseCode();
-
-        logger.info(Thread.currentThread().getName() + ": Required: " + started.elapsed(TimeUnit.MILLISECONDS)
-            + "ms : Sending 'GET' request to : " + url);
-
-        return getInputStream(url, con, resCode);
+        return con;
     }
 
     public static void sendGetCopyToFile(String tok, String url, File file) throws IOException {
@@ -122,7 +168,12 @@ public class HttpUtil {
             throw new ServiceUnauthorizedException("Service " + url + " returned forbidden error");
         }
 
-        throw new IllegalStateException("Invalid Response Code : " + resCode + ":\n"
-                + readIsToString(con.getInputStream()));
+        if (resCode == 404 || resCode == 410)
+            throw new FileNotFoundException(url);
+
+        InputStream errStream = con.getErrorStream();
+
+        throw new HttpStatusException(resCode, url, con.getHeaderField("Retry-After"),
+            errStream == null ? null : readIsToString(errStream));
     }
 }
@@ -17,109 +17,239 @@
 
 package org.apache.ignite.ci.util;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Replaces string fields of model objects by pooled instances, so equal strings (test names, build types, statuses)
+ * loaded from TeamCity or persistence share one instance on heap.
+ *
+ * Fields to be processed are found once per class: interning plan keeps method handles for non-final string fields
+ * and for fields which may refer to nested model objects, collections and maps. Fields of superclasses from this
+ * project are included.
+ */
 public class ObjectInterner {
-    private static final LoadingCache<String, String> stringCache
-        = CacheBuilder
-        .<String, String>newBuilder()
-        .maximumSize(67537)
-        .initialCapacity(67537)
-        .build(
-            new CacheLoader<String, String>() {
-                @Override public String load(String key) throws Exception {
-                    return key;
-                }
-            }
-        );
+    /** Package of model classes, nested objects of other classes are not processed. */
+    private static final String MODEL_PACKAGE_PREFIX = "org.apache.ignite.ci.";
 
-    private static String internString(String str) {
-        if (str == null)
-            return null;
+    /** System property: max strings in pool. */
+    public static final String POOL_SIZE = "teamcity.helper.intern.poolSize";
 
-        if (str.length() > 300)
-            return str;
+    /** Longer strings are not pooled. */
+    private static final int MAX_POOLED_LEN = 300;
 
-        try {
-            return stringCache.get(str);
-        }
-        catch (ExecutionException e) {
-            throw ExceptionUtil.propagateException(e);
+    /** Pool stripes. */
+    private static final int POOL_STRIPES = 64;
+
+    /** Strings pool. */
+    private static final StringPool pool = new StringPool(Integer.getInteger(POOL_SIZE, 67537), POOL_STRIPES,
+        MAX_POOLED_LEN);
+
+    /** Interning plans by class. */
+    private static final ClassValue<InternPlan> plans = new ClassValue<InternPlan>() {
+        @Override protected InternPlan computeValue(Class<?> cls) {
+            return new InternPlan(cls);
         }
+    };
+
+    /**
+     * @param str String to intern.
+     * @return Cached instance of equal string, or parameter itself for long strings.
+     */
+    public static String internString(String str) {
+        return pool.intern(str);
     }
 
+    /**
+     * @return Strings pool.
+     */
+    public static StringPool pool() {
+        return pool;
+    }
+
+    /**
+     * Interns string fields of object and all nested model objects, including ones in collections and map values.
+     *
+     * @param obj Object.
+     * @return Number of strings replaced by pooled instances.
+     */
     public static int internFields(Object obj) {
         if (obj == null)
             return 0;
 
-        Field[] fields = obj.getClass().getDeclaredFields();
-        AtomicInteger compressed = new AtomicInteger();
+        return plans.get(obj.getClass()).intern(obj, true);
+    }
+
+    /**
+     * Interns string fields of object itself, nested objects are not processed. Used while parsing, when nested
+     * objects are already processed.
+     *
+     * @param obj Object.
+     * @return Number of strings replaced by pooled instances.
+     */
+    public static int internOwnFields(Object obj) {
+        if (obj == null)
+            return 0;
+
+        return plans.get(obj.getClass()).intern(obj, false);
+    }
 
-        for (Field field : fields) {
-            if(Modifier.isStatic(field.getModifiers()))
-                continue;
+    /**
+     * @param cls Class.
+     */
+    private static boolean isModelClass(Class<?> cls) {
+        return cls.getName().startsWith(MODEL_PACKAGE_PREFIX);
+    }
 
-            field.setAccessible(true);
+    /**
+     * @param val Value of reference field.
+     * @return Number of strings replaced in nested model objects.
+     */
+    private static int internNested(Object val) {
+        if (isModelClass(val.getClass()))
+            return internFields(val);
 
+        int cnt = 0;
 
-            try {
-                Object fldVal = field.get(obj);
-                if (fldVal == null)
-                    continue;
+        if (val instanceof Collection) {
+            for (Object next : (Collection<?>)val) {
+                if (next != null && isModelClass(next.getClass()))
+                    cnt += internFields(next);
+            }
+        }
+        else if (val instanceof Map) {
+            for (Object next : ((Map<?, ?>)val).values()) {
+                if (next != null && isModelClass(next.getClass()))
+                    cnt += internFields(next);
+            }
+        }
 
-                if(!Modifier.isFinal(field.getModifiers())) {
-                    if (fldVal instanceof String) {
-                        String exist = (String)fldVal;
-                        String intern = internString(exist);
+        return cnt;
+    }
 
-                        //noinspection StringEquality
-                        if (intern != exist) {
-                            compressed.incrementAndGet();
+    /**
+     * Fields of one class to be processed.
+     */
+    private static class InternPlan {
+        /** Getter type. */
+        private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
 
-                            field.set(obj, intern);
-                        }
+        /** Setter type. */
+        private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+        /** Getters of string fields. */
+        private final MethodHandle[] strGetters;
+
+        /** Setters of string fields. */
+        private final MethodHandle[] strSetters;
+
+        /** Getters of fields which may refer to model objects. */
+        private final MethodHandle[] refGetters;
 
+        /**
+         * @param cls Class.
+         */
+        InternPlan(Class<?> cls) {
+            List<MethodHandle> strGetters = new ArrayList<>();
+            List<MethodHandle> strSetters = new ArrayList<>();
+            List<MethodHandle> refGetters = new ArrayList<>();
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            for (Class<?> c = cls; c != null && (c == cls || isModelClass(c)); c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int mod = field.getModifiers();
+                    Class<?> type = field.getType();
+
+                    if (Modifier.isStatic(mod) || type.isPrimitive())
                         continue;
+
+                    boolean str = type == String.class;
+
+                    if (str ? Modifier.isFinal(mod) : !mayReferModel(type))
+                        continue;
+
+                    try {
+                        field.setAccessible(true);
+
+                        MethodHandle getter = lookup.unreflectGetter(field).asType(GETTER);
+
+                        if (str) {
+                            strGetters.add(getter);
+                            strSetters.add(lookup.unreflectSetter(field).asType(SETTER));
+                        }
+                        else
+                            refGetters.add(getter);
+                    }
+                    catch (IllegalAccessException | RuntimeException e) {
+                        // Field is not accessible, e.g. in JDK class, skip it as reflective implementation did.
                     }
                 }
+            }
+
+            this.strGetters = strGetters.toArray(new MethodHandle[0]);
+            this.strSetters = strSetters.toArray(new MethodHandle[0]);
+            this.refGetters = refGetters.toArray(new MethodHandle[0]);
+        }
+
+        /**
+         * @param type Declared field type.
+         * @return {@code False} if value of this type can't be model object, collection or map.
+         */
+        private static boolean mayReferModel(Class<?> type) {
+            if (type.isArray())
+                return false;
+
+            return !Modifier.isFinal(type.getModifiers()) || isModelClass(type)
+                || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type);
+        }
 
-                if (fldVal.getClass().getPackage().getName().startsWith("org.apache.ignite.ci"))
-                    compressed.addAndGet(internFields(fldVal));
-                else if (fldVal instanceof Collection) {
-                    Collection collection = (Collection)fldVal;
+        /**
+         * @param obj Object of planned class.
+         * @param nested Process nested objects.
+         * @return Number of strings replaced by pooled instances.
+         */
+        int intern(Object obj, boolean nested) {
+            int cnt = 0;
 
-                    for (Object next : collection) {
-                        if (next.getClass().getPackage().getName().startsWith("org.apache.ignite.ci"))
-                            compressed.addAndGet(internFields(next));
+            try {
+                for (int i = 0; i < strGetters.length; i++) {
+                    String exist = (String)(Object)strGetters[i].invokeExact(obj);
+
+                    if (exist == null)
+                        continue;
+
+                    String intern = pool.intern(exist);
+
+                    //noinspection StringEquality
+                    if (intern != exist) {
+                        strSetters[i].invokeExact(obj, (Object)intern);
+
+                        cnt++;
                     }
                 }
-                else if(fldVal instanceof Map) {
-                    Map map = (Map)fldVal;
 
-                    Set<Map.Entry> set = map.entrySet();
+                if (nested) {
+                    for (MethodHandle getter : refGetters) {
+                        Object val = (Object)getter.invokeExact(obj);
 
-                    for (Map.Entry  nextEntry : set) {
-                        Object val = nextEntry.getValue();
-
-                        if (val.getClass().getPackage().getName().startsWith("org.apache.ignite.ci"))
-                            compressed.addAndGet(internFields(val));
+                        if (val != null)
+                            cnt += internNested(val);
                     }
                 }
             }
-            catch (IllegalAccessException e) {
-                e.printStackTrace();
+            catch (Throwable e) {
+                throw new IllegalStateException("Failed to intern fields of " + obj.getClass().getName(), e);
             }
-        }
 
-        return compressed.get();
+            return cnt;
+        }
     }
 }
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent synchronous loads: first caller of key executes load, callers arriving while load is in
+ * progress wait for its result instead of starting their own load. Result is not kept after load completion.
+ */
+public class SingleFlight {
+    /** Loads in progress by key. */
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param key Key, e.g. cache name and cache key.
+     * @param loader Load.
+     * @return Loaded value, unchecked exception of load is rethrown to all waiting callers.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V load(Object key, Supplier<V> loader) {
+        CompletableFuture<Object> fut = new CompletableFuture<>();
+
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, fut);
+
+        if (existing != null)
+            return (V)FutureUtil.getResult(existing);
+
+        try {
+            V res = loader.get();
+
+            fut.complete(res);
+
+            return res;
+        }
+        catch (RuntimeException | Error e) {
+            fut.completeExceptionally(e);
+
+            throw e;
+        }
+        finally {
+            inFlight.remove(key, fut);
+        }
+    }
+}
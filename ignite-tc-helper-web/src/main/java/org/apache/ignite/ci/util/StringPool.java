@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of canonical string instances. Pool is split to stripes by string hash, each stripe is LRU map guarded
+ * by its own lock, so concurrent threads interning different strings rarely contend.
+ */
+public class StringPool {
+    /** Stripes. */
+    private final Stripe[] stripes;
+
+    /** Mask to select stripe by hash. */
+    private final int mask;
+
+    /** Max length of string to be pooled, longer strings are returned as is. */
+    private final int maxLen;
+
+    /** Max pooled strings. */
+    private final int capacity;
+
+    /** Hits. */
+    private final LongAdder hits = new LongAdder();
+
+    /** Misses. */
+    private final LongAdder misses = new LongAdder();
+
+    /** Evictions. */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity Max pooled strings.
+     * @param concurrency Min number of stripes, rounded up to power of two.
+     * @param maxLen Max length of string to be pooled.
+     */
+    public StringPool(int capacity, int concurrency, int maxLen) {
+        int cnt = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+
+        this.capacity = capacity;
+        this.maxLen = maxLen;
+
+        mask = cnt - 1;
+        stripes = new Stripe[cnt];
+
+        for (int i = 0; i < cnt; i++)
+            stripes[i] = new Stripe(Math.max(1, capacity / cnt));
+    }
+
+    /**
+     * @param str String to intern.
+     * @return Pooled instance of equal string, or parameter itself for long strings.
+     */
+    public String intern(String str) {
+        if (str == null || str.length() > maxLen)
+            return str;
+
+        int h = str.hashCode();
+
+        Stripe stripe = stripes[(h ^ (h >>> 16)) & mask];
+
+        synchronized (stripe) {
+            String exist = stripe.get(str);
+
+            if (exist != null) {
+                hits.increment();
+
+                return exist;
+            }
+
+            stripe.put(str, str);
+        }
+
+        misses.increment();
+
+        return str;
+    }
+
+    /**
+     * @return Pooled strings.
+     */
+    public long size() {
+        long size = 0;
+
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int stripes() {
+        return stripes.length;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Share of interned strings found in pool, 0 if there were no requests.
+     */
+    public double hitRatio() {
+        long h = hits();
+        long total = h + misses();
+
+        return total == 0 ? 0 : (double)h / total;
+    }
+
+    /**
+     * Access ordered map evicting least recently used string.
+     */
+    private class Stripe extends LinkedHashMap<String, String> {
+        /** Serial version uid. */
+        private static final long serialVersionUID = 0L;
+
+        /** Max size. */
+        private final int maxSize;
+
+        /**
+         * @param maxSize Max size.
+         */
+        Stripe(int maxSize) {
+            super(16, 0.75f, true);
+
+            this.maxSize = maxSize;
+        }
+
+        /** {@inheritDoc} */
+        @Override protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            if (size() <= maxSize)
+                return false;
+
+            evictions.increment();
+
+            return true;
+        }
+    }
+}
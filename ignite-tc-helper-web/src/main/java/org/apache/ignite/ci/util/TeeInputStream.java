@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Input stream copying all bytes read to branch output stream. On close remaining bytes are read and copied as well,
+ * so branch always receives complete source even if consumer stops reading earlier (e.g. {@link
+ * java.util.zip.ZipInputStream} does not read zip central directory). Branch stream is not closed by this stream.
+ */
+public class TeeInputStream extends FilterInputStream {
+    /** Branch. */
+    private final OutputStream branch;
+
+    /** Closed flag. */
+    private boolean closed;
+
+    /**
+     * @param in Source.
+     * @param branch Branch to copy bytes to.
+     */
+    public TeeInputStream(InputStream in, OutputStream branch) {
+        super(in);
+
+        this.branch = branch;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read() throws IOException {
+        int b = in.read();
+
+        if (b >= 0)
+            branch.write(b);
+
+        return b;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(byte[] b, int off, int len) throws IOException {
+        int read = in.read(b, off, len);
+
+        if (read > 0)
+            branch.write(b, off, read);
+
+        return read;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long skip(long n) throws IOException {
+        byte[] buf = new byte[(int)Math.min(n, 8192)];
+        long skipped = 0;
+
+        while (skipped < n) {
+            int read = read(buf, 0, (int)Math.min(buf.length, n - skipped));
+
+            if (read < 0)
+                break;
+
+            skipped += read;
+        }
+
+        return skipped;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean markSupported() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() throws IOException {
+        if (closed)
+            return;
+
+        closed = true;
+
+        try {
+            byte[] buf = new byte[8192];
+
+            while (read(buf, 0, buf.length) >= 0) {
+                // Copy remaining bytes to branch.
+            }
+
+            branch.flush();
+        }
+        finally {
+            in.close();
+        }
+    }
+}
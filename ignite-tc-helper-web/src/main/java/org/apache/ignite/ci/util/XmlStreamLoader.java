@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.ignite.ci.tcmodel.hist.BuildRef;
+import org.apache.ignite.ci.tcmodel.hist.Builds;
+import org.apache.ignite.ci.tcmodel.result.problems.ProblemOccurrence;
+import org.apache.ignite.ci.tcmodel.result.problems.ProblemOccurrences;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
+
+import static org.apache.ignite.ci.util.ObjectInterner.internString;
+
+/**
+ * Streaming (StAX) loader for the biggest TeamCity responses: builds history, test and problem occurrences lists.
+ * Model objects are created directly from reader events, so document is never kept in memory. Strings which are
+ * repeated between occurrences (names, statuses, types) are interned during parsing, unique IDs and hrefs are not.
+ */
+public class XmlStreamLoader {
+    /** Factory, thread safe after configuration. */
+    private static final XMLInputFactory factory = createFactory();
+
+    /** Root element parsers by model class. */
+    private static final Map<Class<?>, RootParser<?>> parsers = new HashMap<>();
+
+    static {
+        parsers.put(TestOccurrences.class, XmlStreamLoader::parseTestOccurrences);
+        parsers.put(Builds.class, XmlStreamLoader::parseBuilds);
+        parsers.put(ProblemOccurrences.class, XmlStreamLoader::parseProblemOccurrences);
+    }
+
+    /**
+     * @param cls Model class.
+     * @return {@code True} if streaming parser is available for this class.
+     */
+    public static boolean supports(Class<?> cls) {
+        return parsers.containsKey(cls);
+    }
+
+    /**
+     * @param cls Model class, should be {@link #supports(Class) supported}.
+     * @param reader Reader.
+     * @return Parsed model object.
+     */
+    public static <T> T load(Class<T> cls, Reader reader) throws XMLStreamException {
+        RootParser<?> parser = parsers.get(cls);
+
+        if (parser == null)
+            throw new IllegalArgumentException("Streaming parser is not available for " + cls.getName());
+
+        XMLStreamReader xml = factory.createXMLStreamReader(reader);
+
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT)
+                    return cls.cast(parser.parse(xml));
+            }
+
+            throw new XMLStreamException("Root element is not found in response for " + cls.getSimpleName());
+        }
+        finally {
+            xml.close();
+        }
+    }
+
+    /**
+     * @param xml Reader positioned at root element.
+     */
+    private static TestOccurrences parseTestOccurrences(XMLStreamReader xml) throws XMLStreamException {
+        TestOccurrences res = new TestOccurrences();
+
+        res.href = attr(xml, "href");
+        res.count = intAttr(xml, "count");
+        res.passed = intAttr(xml, "passed");
+        res.failed = intAttr(xml, "failed");
+        res.muted = intAttr(xml, "muted");
+        res.setNextHref(attr(xml, "nextHref"));
+
+        List<TestOccurrence> tests = new ArrayList<>();
+
+        readChildren(xml, "testOccurrence", () -> {
+            TestOccurrence occurrence = new TestOccurrence();
+
+            occurrence.setId(attr(xml, "id"));
+            occurrence.name = internString(attr(xml, "name"));
+            occurrence.status = internString(attr(xml, "status"));
+            occurrence.duration = intAttr(xml, "duration");
+            occurrence.href = attr(xml, "href");
+            occurrence.muted = boolAttr(xml, "muted");
+            occurrence.currentlyMuted = boolAttr(xml, "currentlyMuted");
+            occurrence.currentlyInvestigated = boolAttr(xml, "currentlyInvestigated");
+            occurrence.ignored = boolAttr(xml, "ignored");
+
+            tests.add(occurrence);
+        });
+
+        res.setTests(tests.isEmpty() ? null : tests);
+
+        return res;
+    }
+
+    /**
+     * @param xml Reader positioned at root element.
+     */
+    private static Builds parseBuilds(XMLStreamReader xml) throws XMLStreamException {
+        Builds res = new Builds();
+
+        List<BuildRef> builds = new ArrayList<>();
+
+        readChildren(xml, "build", () -> {
+            BuildRef ref = new BuildRef();
+
+            ref.setId(intAttr(xml, "id"));
+            ref.buildTypeId = internString(attr(xml, "buildTypeId"));
+            ref.branchName = internString(attr(xml, "branchName"));
+            ref.status = internString(attr(xml, "status"));
+            ref.setState(internString(attr(xml, "state")));
+            ref.buildNumber = attr(xml, "number");
+            ref.defaultBranch = boolAttr(xml, "defaultBranch");
+            ref.composite = boolAttr(xml, "composite");
+            ref.href = attr(xml, "href");
+
+            builds.add(ref);
+        });
+
+        res.setBuilds(builds.isEmpty() ? null : builds);
+
+        return res;
+    }
+
+    /**
+     * @param xml Reader positioned at root element.
+     */
+    private static ProblemOccurrences parseProblemOccurrences(XMLStreamReader xml) throws XMLStreamException {
+        ProblemOccurrences res = new ProblemOccurrences();
+
+        res.href = attr(xml, "href");
+
+        List<ProblemOccurrence> problems = new ArrayList<>();
+
+        readChildren(xml, "problemOccurrence", () -> {
+            ProblemOccurrence problem = new ProblemOccurrence();
+
+            problem.id = attr(xml, "id");
+            problem.identity = internString(attr(xml, "identity"));
+            problem.type = internString(attr(xml, "type"));
+            problem.href = attr(xml, "href");
+
+            problems.add(problem);
+        });
+
+        res.setProblems(problems.isEmpty() ? null : problems);
+
+        return res;
+    }
+
+    /**
+     * Reads direct children of current element, nested elements are skipped. After return reader is positioned at
+     * end of current element.
+     *
+     * @param xml Reader positioned at start of parent element.
+     * @param childName Child element name to be processed.
+     * @param childParser Parser for child attributes.
+     */
+    private static void readChildren(XMLStreamReader xml, String childName,
+        ChildParser childParser) throws XMLStreamException {
+        while (xml.hasNext()) {
+            int evt = xml.next();
+
+            if (evt == XMLStreamConstants.START_ELEMENT) {
+                if (childName.equals(xml.getLocalName()))
+                    childParser.parse();
+
+                skipElement(xml);
+            }
+            else if (evt == XMLStreamConstants.END_ELEMENT)
+                return;
+        }
+    }
+
+    /**
+     * @param xml Reader positioned at start of element, after return positioned at its end.
+     */
+    private static void skipElement(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+
+        while (depth > 0) {
+            int evt = xml.next();
+
+            if (evt == XMLStreamConstants.START_ELEMENT)
+                depth++;
+            else if (evt == XMLStreamConstants.END_ELEMENT)
+                depth--;
+        }
+    }
+
+    @Nullable private static String attr(XMLStreamReader xml, String name) {
+        return xml.getAttributeValue(null, name);
+    }
+
+    @Nullable private static Integer intAttr(XMLStreamReader xml, String name) {
+        String val = attr(xml, name);
+
+        return val == null ? null : Integer.valueOf(val.trim());
+    }
+
+    @Nullable private static Boolean boolAttr(XMLStreamReader xml, String name) {
+        String val = attr(xml, name);
+
+        if (val == null)
+            return null;
+
+        String trimmed = val.trim();
+
+        return "true".equals(trimmed) || "1".equals(trimmed);
+    }
+
+    /**
+     * @return Factory not resolving external entities.
+     */
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory f = XMLInputFactory.newFactory();
+
+        f.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        f.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        return f;
+    }
+
+    /** Parser of root element. */
+    private interface RootParser<T> {
+        /**
+         * @param xml Reader positioned at root element.
+         */
+        T parse(XMLStreamReader xml) throws XMLStreamException;
+    }
+
+    /** Parser of child element, reader is positioned at start of child. */
+    private interface ChildParser {
+        void parse() throws XMLStreamException;
+    }
+}
@@ -22,6 +22,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamException;
 
 /**
  * Created by dpavlov on 27.07.2017
@@ -30,7 +31,54 @@ public class XmlUtil {
     /** Cached context to save time on creation ctx each time. */
     private static ConcurrentHashMap<Class, JAXBContext> cachedCtx = new ConcurrentHashMap<>();
 
+    /** System property to disable streaming parser, all responses will be unmarshalled by JAXB. */
+    public static final String STREAM_PARSER_DISABLED = "teamcity.helper.xml.stream.disabled";
+
+    /** Streaming parser is disabled. */
+    private static final boolean streamParserDisabled = Boolean.getBoolean(STREAM_PARSER_DISABLED);
+
+    /**
+     * System property to intern strings by traversing whole object after unmarshalling by JAXB, instead of interning
+     * fields of each object when it is unmarshalled.
+     */
+    public static final String INTERN_AFTER_PARSE = "teamcity.helper.xml.intern.afterParse";
+
+    /** Intern strings after unmarshalling. */
+    private static final boolean internAfterParse = Boolean.getBoolean(INTERN_AFTER_PARSE);
+
+    /** Interns fields of each unmarshalled object, children are unmarshalled (and interned) before parent. */
+    private static final Unmarshaller.Listener internListener = new Unmarshaller.Listener() {
+        @Override public void afterUnmarshal(Object target, Object parent) {
+            ObjectInterner.internOwnFields(target);
+        }
+    };
+
+    /**
+     * Loads model object, using streaming parser if it is available for class.
+     *
+     * @param tCls Root element class.
+     * @param reader Reader.
+     */
     public static <T> T load(Class<T> tCls, Reader reader) throws JAXBException {
+        if (!streamParserDisabled && XmlStreamLoader.supports(tCls)) {
+            try {
+                return XmlStreamLoader.load(tCls, reader);
+            }
+            catch (XMLStreamException e) {
+                throw new JAXBException("Failed to parse " + tCls.getSimpleName(), e);
+            }
+        }
+
+        return loadJaxb(tCls, reader);
+    }
+
+    /**
+     * Loads model object using JAXB and interns its string fields.
+     *
+     * @param tCls Root element class.
+     * @param reader Reader.
+     */
+    public static <T> T loadJaxb(Class<T> tCls, Reader reader) throws JAXBException {
         final JAXBContext ctx = cachedCtx.computeIfAbsent(tCls, c -> {
             try {
                 return JAXBContext.newInstance(tCls);
@@ -40,11 +88,14 @@ public class XmlUtil {
             }
         });
         Unmarshaller unmarshaller = ctx.createUnmarshaller();
+
+        if (!internAfterParse)
+            unmarshaller.setListener(internListener);
+
         T unmarshal = (T)unmarshaller.unmarshal(reader);
 
-        int interned = ObjectInterner.internFields(unmarshal);
-       // if (interned > 0)
-       //     System.out.println("Strings saved: " + interned);
+        if (internAfterParse)
+            ObjectInterner.internFields(unmarshal);
 
         return unmarshal;
     }
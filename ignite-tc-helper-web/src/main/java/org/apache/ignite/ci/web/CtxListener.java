@@ -63,6 +63,8 @@ public class CtxListener implements ServletContextListener {
 
         ctx.setAttribute(TC_HELPER, tcHelper);
         ctx.setAttribute(POOL, tcHelper.getService());
+
+        tcHelper.startServers();
     }
 
     public static ExecutorService getPool(ServletContext context) {
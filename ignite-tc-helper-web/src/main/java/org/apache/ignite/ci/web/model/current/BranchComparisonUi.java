@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.model.current;
+
+import com.google.common.base.Objects;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.ignite.ci.analysis.ChainBranchStats;
+
+/**
+ * Failed suites and tests of chain compared with base branch, most significant fail rate increase first.
+ */
+@SuppressWarnings("PublicField") public class BranchComparisonUi {
+    /** Base branch, source of fail rates. */
+    public String baseBranch;
+
+    /** Compared suites and tests. */
+    public List<StatComparisonUi> entries = new ArrayList<>();
+
+    public BranchComparisonUi() {
+    }
+
+    /**
+     * @param baseBranch Base branch.
+     * @param cmp Comparison.
+     */
+    public BranchComparisonUi(String baseBranch, ChainBranchStats.Comparison cmp) {
+        this.baseBranch = baseBranch;
+
+        for (int i = 0; i < cmp.size(); i++)
+            entries.add(new StatComparisonUi(cmp, i));
+
+        entries.sort(Comparator.comparingDouble((StatComparisonUi e) -> e.significance).reversed());
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        BranchComparisonUi ui = (BranchComparisonUi)o;
+        return Objects.equal(baseBranch, ui.baseBranch) &&
+            Objects.equal(entries, ui.entries);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        return Objects.hashCode(baseBranch, entries);
+    }
+}
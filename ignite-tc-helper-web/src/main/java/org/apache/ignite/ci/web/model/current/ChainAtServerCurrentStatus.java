@@ -26,12 +26,14 @@ import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.apache.ignite.ci.ITcAnalytics;
 import org.apache.ignite.ci.ITeamcity;
+import org.apache.ignite.ci.analysis.ChainBranchStats;
 import org.apache.ignite.ci.analysis.FullChainRunCtx;
 import org.apache.ignite.ci.analysis.ITestFailureOccurrences;
 import org.apache.ignite.ci.analysis.MultBuildRunCtx;
 import org.apache.ignite.ci.util.CollectionUtil;
 import org.apache.ignite.internal.util.typedef.T2;
 
+import static org.apache.ignite.ci.BuildChainProcessor.normalizeBranch;
 import static org.apache.ignite.ci.util.UrlUtil.escape;
 import static org.apache.ignite.ci.web.model.current.SuiteCurrentStatus.branchForLink;
 import static org.apache.ignite.ci.web.model.current.SuiteCurrentStatus.createOccurForLogConsumer;
@@ -78,6 +80,9 @@ public class ChainAtServerCurrentStatus {
     /** Special flag if chain entry point not found */
     public boolean buildNotFound;
 
+    /** Failed suites and tests compared with fail rate branch, null if chain is in this branch. */
+    @Nullable public BranchComparisonUi branchComparison;
+
     public ChainAtServerCurrentStatus(String serverId, String branchTc) {
         this.serverId = serverId;
         this.branchName = branchTc;
@@ -89,13 +94,23 @@ public class ChainAtServerCurrentStatus {
         @Nullable String failRateBranch) {
         failedTests = 0;
         failedToFinish = 0;
+
+        ChainBranchStats stats = tcAnalytics == null ? null : ChainBranchStats.load(tcAnalytics, ctx, failRateBranch);
+
+        if (stats != null) {
+            ChainBranchStats.Comparison cmp = stats.compare();
+
+            if (cmp.size() > 0)
+                branchComparison = new BranchComparisonUi(normalizeBranch(failRateBranch), cmp);
+        }
+
         //todo mode with not failed
         Stream<MultBuildRunCtx> stream = ctx.failedChildSuites();
 
         stream.forEach(
             suite -> {
                 final SuiteCurrentStatus suiteCurStatus = new SuiteCurrentStatus();
-                suiteCurStatus.initFromContext(teamcity, suite, tcAnalytics, failRateBranch);
+                suiteCurStatus.initFromContext(teamcity, suite, stats, failRateBranch);
 
                 failedTests += suiteCurStatus.failedTests;
                 if (suite.hasAnyBuildProblemExceptTestOrSnapshot())
@@ -119,7 +134,7 @@ public class ChainAtServerCurrentStatus {
                 MultBuildRunCtx suite = pairCtxAndOccur.get1();
                 ITestFailureOccurrences longRunningOccur = pairCtxAndOccur.get2();
 
-                TestFailure failure = createOrrucForLongRun(teamcity, suite, tcAnalytics, longRunningOccur, failRateBranch);
+                TestFailure failure = createOrrucForLongRun(teamcity, suite, stats, longRunningOccur, failRateBranch);
 
                 failure.testName = "[" + suite.suiteName() + "] " + failure.testName; //may be separate field
 
@@ -183,14 +198,15 @@ public class ChainAtServerCurrentStatus {
             Objects.equal(durationPrintable, status.durationPrintable) &&
             Objects.equal(logConsumers, status.logConsumers) &&
             Objects.equal(topLongRunning, status.topLongRunning) &&
-            Objects.equal(buildNotFound, status.buildNotFound);
+            Objects.equal(buildNotFound, status.buildNotFound) &&
+            Objects.equal(branchComparison, status.branchComparison);
     }
 
     /** {@inheritDoc} */
     @Override public int hashCode() {
         return Objects.hashCode(chainName, serverId, branchName, webToHist, webToBuild, suites,
             failedTests, failedToFinish, durationPrintable,
-            logConsumers, topLongRunning, buildNotFound);
+            logConsumers, topLongRunning, buildNotFound, branchComparison);
     }
 
     public void setBuildNotFound(boolean buildNotFound) {
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.model.current;
+
+import com.google.common.base.Objects;
+import org.apache.ignite.ci.analysis.ChainBranchStats;
+
+/**
+ * Fail rate of suite or test in chain branch compared with base branch.
+ */
+@SuppressWarnings("PublicField") public class StatComparisonUi {
+    /** Suite or test name. */
+    public String name;
+
+    /** Suite ID. */
+    public String suiteId;
+
+    /** Entry is suite, test otherwise. */
+    public boolean suite;
+
+    /** Latest runs in base branch. */
+    public int baseRuns;
+
+    /** Latest runs in chain branch. */
+    public int runs;
+
+    /** Fail rate in base branch, from 0 to 1. */
+    public float baseFailRate;
+
+    /** Fail rate in chain branch, from 0 to 1. */
+    public float failRate;
+
+    /** Fail rate in chain branch minus fail rate in base branch. */
+    public float failRateDelta;
+
+    /** Fails in chain branch, but did not fail in latest runs of base branch. */
+    public boolean newInBranch;
+
+    /** Z-score of fail rate difference, values greater than 2 are unlikely to be random. */
+    public float significance;
+
+    public StatComparisonUi() {
+    }
+
+    /**
+     * @param cmp Comparison.
+     * @param i Entry index.
+     */
+    public StatComparisonUi(ChainBranchStats.Comparison cmp, int i) {
+        name = cmp.name(i);
+        suiteId = cmp.suiteId(i);
+        suite = cmp.isSuite(i);
+        baseRuns = cmp.baseRuns(i);
+        runs = cmp.runs(i);
+        baseFailRate = cmp.baseFailRate(i);
+        failRate = cmp.failRate(i);
+        failRateDelta = failRate - baseFailRate;
+        newInBranch = cmp.isNewInBranch(i);
+        significance = cmp.significance(i);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        StatComparisonUi ui = (StatComparisonUi)o;
+        return suite == ui.suite &&
+            baseRuns == ui.baseRuns &&
+            runs == ui.runs &&
+            Float.compare(ui.baseFailRate, baseFailRate) == 0 &&
+            Float.compare(ui.failRate, failRate) == 0 &&
+            newInBranch == ui.newInBranch &&
+            Float.compare(ui.significance, significance) == 0 &&
+            Objects.equal(name, ui.name) &&
+            Objects.equal(suiteId, ui.suiteId);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        return Objects.hashCode(name, suiteId, suite, baseRuns, runs, baseFailRate, failRate, newInBranch,
+            significance);
+    }
+}
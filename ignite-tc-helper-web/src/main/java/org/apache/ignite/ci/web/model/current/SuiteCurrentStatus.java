@@ -29,7 +29,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import org.apache.ignite.ci.ITcAnalytics;
+import org.apache.ignite.ci.IRunStatProviders;
 import org.apache.ignite.ci.ITeamcity;
 import org.apache.ignite.ci.analysis.ITestFailureOccurrences;
 import org.apache.ignite.ci.analysis.MultBuildRunCtx;
@@ -110,7 +110,7 @@ import static org.apache.ignite.ci.util.UrlUtil.escape;
 
     public void initFromContext(@Nonnull final ITeamcity teamcity,
         @Nonnull final MultBuildRunCtx suite,
-        @Nullable final ITcAnalytics tcAnalytics,
+        @Nullable final IRunStatProviders tcAnalytics,
         @Nullable final String failRateBranch) {
 
         name = suite.suiteName();
@@ -205,7 +205,8 @@ import static org.apache.ignite.ci.util.UrlUtil.escape;
         branchName = branchForLink(suite.branchName());
     }
 
-    private void initStat(@Nullable ITcAnalytics tcAnalytics, String failRateNormalizedBranch, String curBranchNormalized, String suiteId) {
+    private void initStat(@Nullable IRunStatProviders tcAnalytics, String failRateNormalizedBranch,
+        String curBranchNormalized, String suiteId) {
         if (Strings.isNullOrEmpty(suiteId) || tcAnalytics == null)
             return;
 
@@ -241,14 +242,13 @@ import static org.apache.ignite.ci.util.UrlUtil.escape;
             latestRunsSrc = stat;
 
         if (latestRunsSrc != null) {
-            RunStat.TestId testId = latestRunsSrc.detectTemplate(EventTemplates.newFailure);
+            RunStat.TestId[] detected = latestRunsSrc.detectTemplates(EventTemplates.newFailure,
+                EventTemplates.newCriticalFailure);
 
-            if (testId != null)
+            if (detected[0] != null)
                 problemRef = new IssueRef("New Failure");
 
-            RunStat.TestId buildIdCritical  = latestRunsSrc.detectTemplate(EventTemplates.newCriticalFailure);
-
-            if (buildIdCritical != null)
+            if (detected[1] != null)
                 problemRef = new IssueRef("New Critical Failure");
         }
     }
@@ -262,7 +262,7 @@ import static org.apache.ignite.ci.util.UrlUtil.escape;
 
     @NotNull public static TestFailure createOrrucForLongRun(@Nonnull ITeamcity teamcity,
         @Nonnull MultBuildRunCtx suite,
-        @Nullable final ITcAnalytics tcAnalytics,
+        @Nullable final IRunStatProviders tcAnalytics,
         final ITestFailureOccurrences occurrence,
         @Nullable final String failRateBranch) {
         final TestFailure failure = new TestFailure();
@@ -198,14 +198,13 @@ import static org.apache.ignite.ci.web.model.current.SuiteCurrentStatus.branchFo
         latestRuns = latestRunsSrc != null ? latestRunsSrc.getLatestRunResults() : null;
 
         if (latestRunsSrc != null) {
-            RunStat.TestId testId = latestRunsSrc.detectTemplate(EventTemplates.newFailure);
+            RunStat.TestId[] detected = latestRunsSrc.detectTemplates(EventTemplates.newFailure,
+                EventTemplates.newContributedTestFailure);
 
-            if (testId != null)
+            if (detected[0] != null)
                 problemRef = new IssueRef("New Failure");
 
-            RunStat.TestId recentContributedTestId = latestRunsSrc.detectTemplate(EventTemplates.newContributedTestFailure);
-
-            if (recentContributedTestId != null)
+            if (detected[1] != null)
                 problemRef = new IssueRef("Recently contributed test failure");
 
             flakyComments = latestRunsSrc.getFlakyComments();
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.model.monitoring;
+
+import org.apache.ignite.ci.http.EndpointStats;
+
+/**
+ * Response sizes of REST endpoint with and without fields projection.
+ */
+@SuppressWarnings("PublicField") public class EndpointStatsUi {
+    /** Endpoint: response root element. */
+    public String name;
+
+    public long projectedRequests;
+
+    public long projectedBytes;
+
+    public long avgProjectedBytes;
+
+    /** Requests for full representation: samples or all requests if projection is disabled. */
+    public long fullRequests;
+
+    public long fullBytes;
+
+    public long avgFullBytes;
+
+    /** Requests sent both with and without projection to estimate savings. */
+    public long samples;
+
+    /** Estimated share of bytes saved by projection, -1 if unknown. */
+    public double savingsRatio;
+
+    /** Estimated bytes saved by projection, -1 if unknown. */
+    public long bytesSaved;
+
+    public EndpointStatsUi() {
+    }
+
+    /**
+     * @param name Endpoint name.
+     * @param stats Stats.
+     */
+    public EndpointStatsUi(String name, EndpointStats stats) {
+        this.name = name;
+        projectedRequests = stats.projectedRequests();
+        projectedBytes = stats.projectedBytes();
+        avgProjectedBytes = projectedRequests == 0 ? 0 : projectedBytes / projectedRequests;
+        fullRequests = stats.fullRequests();
+        fullBytes = stats.fullBytes();
+        avgFullBytes = fullRequests == 0 ? 0 : fullBytes / fullRequests;
+        samples = stats.samples();
+        savingsRatio = stats.savingsRatio();
+        bytesSaved = stats.bytesSaved();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.model.monitoring;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.ignite.ci.http.ConditionalStats;
+import org.apache.ignite.ci.http.HttpHostStats;
+import org.apache.ignite.ci.http.IHttpTransport;
+import org.apache.ignite.ci.http.PooledHttpTransport;
+
+/**
+ * HTTP transport counters for one TeamCity host.
+ */
+@SuppressWarnings("PublicField") public class HttpHostStatsUi {
+    /** Host. */
+    public String host;
+
+    /** Transport class. */
+    public String transport;
+
+    /** Counters collection start timestamp. */
+    public long sinceTs;
+
+    public long requests;
+
+    public long failures;
+
+    /** New connections opened, -1 if transport is not able to track connections. */
+    public long connectionsOpened;
+
+    /** Share of requests served by reused connection. */
+    public double reuseRatio;
+
+    /** Response bytes, after decompression. */
+    public long bytesReceived;
+
+    public int inFlight;
+
+    public int inFlightMax;
+
+    /** Total time of waiting for in-flight permit. */
+    public long permitWaitMs;
+
+    /** Total time until response headers received. */
+    public long responseMs;
+
+    /** Total time until response body closed. */
+    public long totalMs;
+
+    /** Average time per request. */
+    public long avgRequestMs;
+
+    /** Connection pool state, for pooled transport. */
+    public String pool;
+
+    /** Response sizes by endpoint requested with fields projection. */
+    public List<EndpointStatsUi> endpoints;
+
+    /** Conditional requests answered 'Not Modified'. */
+    public long conditionalHits;
+
+    /** Conditional requests answered with new body. */
+    public long conditionalMisses;
+
+    /** Share of conditional requests answered 'Not Modified', -1 if there were no such requests. */
+    public double conditionalHitRatio;
+
+    /** Responses without validators, non-zero value means server does not support conditional requests. */
+    public long noValidators;
+
+    /** Estimated bytes not transferred because of 'Not Modified' answers. */
+    public long conditionalBytesSaved;
+
+    public HttpHostStatsUi() {
+    }
+
+    /**
+     * @param transport Transport.
+     */
+    public HttpHostStatsUi(IHttpTransport transport) {
+        HttpHostStats stats = transport.stats();
+
+        host = transport.host();
+        this.transport = transport.getClass().getSimpleName();
+        sinceTs = stats.sinceTs();
+        requests = stats.requests();
+        failures = stats.failures();
+        connectionsOpened = stats.connectionsTracked() ? stats.connectionsOpened() : -1;
+        reuseRatio = stats.reuseRatio();
+        bytesReceived = stats.bytesReceived();
+        inFlight = stats.inFlight();
+        inFlightMax = stats.inFlightMax();
+        permitWaitMs = stats.permitWaitMs();
+        responseMs = stats.responseMs();
+        totalMs = stats.totalMs();
+        avgRequestMs = requests == 0 ? 0 : totalMs / requests;
+
+        if (transport instanceof PooledHttpTransport)
+            pool = ((PooledHttpTransport)transport).poolState();
+
+        endpoints = stats.endpoints().entrySet().stream()
+            .map(e -> new EndpointStatsUi(e.getKey(), e.getValue()))
+            .collect(Collectors.toList());
+
+        ConditionalStats conditional = stats.conditional();
+
+        conditionalHits = conditional.hits();
+        conditionalMisses = conditional.misses();
+        conditionalHitRatio = conditional.hitRatio();
+        noValidators = conditional.noValidators();
+        conditionalBytesSaved = conditional.bytesSaved();
+    }
+}
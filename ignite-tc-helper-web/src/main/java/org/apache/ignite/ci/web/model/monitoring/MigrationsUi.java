@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.model.monitoring;
+
+import org.apache.ignite.ci.db.DbMigrations;
+
+/**
+ * Data migrations state of one server.
+ */
+@SuppressWarnings("PublicField") public class MigrationsUi {
+    /** Server ID. */
+    public String serverId;
+
+    /** Migrations are in progress, server works in degraded mode. */
+    public boolean inProgress;
+
+    public boolean failed;
+
+    /** Migration in progress. */
+    public String current;
+
+    /** Migrations completed by this node. */
+    public int applied;
+
+    /** Entries processed by current scan. */
+    public long processed;
+
+    public int partitionsDone;
+
+    public int partitionsTotal;
+
+    /** Migrations start timestamp. */
+    public long startTs;
+
+    public MigrationsUi() {
+    }
+
+    /**
+     * @param migrations Migrations.
+     */
+    public MigrationsUi(DbMigrations migrations) {
+        serverId = migrations.serverId();
+        inProgress = migrations.inProgress();
+        failed = migrations.failed();
+        current = migrations.current();
+        applied = migrations.applied();
+        processed = migrations.processed();
+        partitionsDone = migrations.partitionsDone();
+        partitionsTotal = migrations.partitionsTotal();
+        startTs = migrations.startTs();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.model.monitoring;
+
+import com.google.common.cache.CacheStats;
+import org.apache.ignite.ci.db.NearCache;
+
+/**
+ * On-heap tier counters of one persistent cache.
+ */
+@SuppressWarnings("PublicField") public class NearCacheUi {
+    /** Persistent cache name. */
+    public String name;
+
+    /** Entries kept on heap. */
+    public long size;
+
+    /** Max total weight of entries. */
+    public long maxWeight;
+
+    public long hits;
+
+    public long misses;
+
+    /** Share of reads served from heap. */
+    public double hitRatio;
+
+    public long evictions;
+
+    public NearCacheUi() {
+    }
+
+    /**
+     * @param cache Near cache.
+     */
+    public NearCacheUi(NearCache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+
+        name = cache.name();
+        size = cache.size();
+        maxWeight = cache.maxWeight();
+        hits = stats.hitCount();
+        misses = stats.missCount();
+        hitRatio = stats.hitRate();
+        evictions = stats.evictionCount();
+    }
+}
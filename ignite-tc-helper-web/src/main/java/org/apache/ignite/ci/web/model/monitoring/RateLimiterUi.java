@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.model.monitoring;
+
+import org.apache.ignite.ci.http.AdaptiveRateLimiter;
+import org.apache.ignite.ci.http.RateLimitedTransport;
+
+/**
+ * Rate limiter and retries state for one TeamCity server.
+ */
+@SuppressWarnings("PublicField") public class RateLimiterUi {
+    public String serverId;
+
+    public String host;
+
+    /** Rate limiter is enabled. */
+    public boolean enabled;
+
+    /** Current allowed rate, requests per second. */
+    public double rate;
+
+    public double maxRate;
+
+    public double minRate;
+
+    public long latencyTargetMs;
+
+    /** Tokens available now. */
+    public double tokens;
+
+    /** Remaining pause requested by server with 'Retry-After'. */
+    public long pausedForMs;
+
+    public long acquired;
+
+    /** Requests which had to wait for permit. */
+    public long throttled;
+
+    /** Total wait for permits. */
+    public long waitMs;
+
+    /** 429 and 503 responses. */
+    public long overloads;
+
+    /** Responses slower than latency target. */
+    public long slowResponses;
+
+    /** Rate decreases applied. */
+    public long decreases;
+
+    public int maxRetries;
+
+    public long retries;
+
+    /** Requests failed after all retries. */
+    public long giveUps;
+
+    public RateLimiterUi() {
+    }
+
+    /**
+     * @param transport Server transport.
+     */
+    public RateLimiterUi(RateLimitedTransport transport) {
+        serverId = transport.serverId();
+        host = transport.host();
+        maxRetries = transport.maxRetries();
+        retries = transport.retries();
+        giveUps = transport.giveUps();
+
+        AdaptiveRateLimiter limiter = transport.limiter();
+
+        enabled = limiter != null;
+
+        if (limiter == null)
+            return;
+
+        rate = limiter.rate();
+        maxRate = limiter.maxRate();
+        minRate = limiter.minRate();
+        latencyTargetMs = limiter.latencyTargetMs();
+        tokens = limiter.tokens();
+        pausedForMs = limiter.pausedForMs();
+        acquired = limiter.acquired();
+        throttled = limiter.throttled();
+        waitMs = limiter.waitMs();
+        overloads = limiter.overloads();
+        slowResponses = limiter.slowResponses();
+        decreases = limiter.decreases();
+    }
+}
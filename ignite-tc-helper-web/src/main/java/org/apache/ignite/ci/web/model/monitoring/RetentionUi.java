@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.model.monitoring;
+
+import java.util.Map;
+import org.apache.ignite.ci.db.DbRetention;
+
+/**
+ * Retention state of one server.
+ */
+@SuppressWarnings("PublicField") public class RetentionUi {
+    /** Server ID. */
+    public String serverId;
+
+    /** Completed runs. */
+    public long runs;
+
+    /** Last run start timestamp. */
+    public long lastRunTs;
+
+    public long lastRunMs;
+
+    /** Builds protected by latest runs windows in last run. */
+    public int protectedBuilds;
+
+    /** Last run error, null if run was successful. */
+    public String error;
+
+    /** Removed entries by cache, all runs. */
+    public Map<String, Long> removed;
+
+    /** Binary size of removed values by cache, all runs. */
+    public Map<String, Long> reclaimedBytes;
+
+    public RetentionUi() {
+    }
+
+    /**
+     * @param retention Retention.
+     */
+    public RetentionUi(DbRetention retention) {
+        serverId = retention.serverId();
+        runs = retention.runs();
+        lastRunTs = retention.lastRunTs();
+        lastRunMs = retention.lastRunMs();
+        protectedBuilds = retention.lastProtected();
+        error = retention.lastError();
+        removed = retention.removed();
+        reclaimedBytes = retention.reclaimedBytes();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.model.monitoring;
+
+import org.apache.ignite.ci.util.StringPool;
+
+/**
+ * Counters of strings pool used for interning model fields.
+ */
+@SuppressWarnings("PublicField") public class StringPoolUi {
+    /** Pooled strings. */
+    public long size;
+
+    /** Max pooled strings. */
+    public int capacity;
+
+    /** Lock stripes. */
+    public int stripes;
+
+    public long hits;
+
+    public long misses;
+
+    /** Share of interned strings found in pool. */
+    public double hitRatio;
+
+    public long evictions;
+
+    public StringPoolUi() {
+    }
+
+    /**
+     * @param pool Pool.
+     */
+    public StringPoolUi(StringPool pool) {
+        size = pool.size();
+        capacity = pool.capacity();
+        stripes = pool.stripes();
+        hits = pool.hits();
+        misses = pool.misses();
+        hitRatio = pool.hitRatio();
+        evictions = pool.evictions();
+    }
+}
@@ -24,4 +24,19 @@ public class FailingTest {
     public String name;
     public String failureRate;
     public String averageDuration;
+
+    /** Median duration. */
+    public String p50Duration;
+
+    /** 90th percentile of duration. */
+    public String p90Duration;
+
+    /** 99th percentile of duration. */
+    public String p99Duration;
+
+    /** Exponentially decayed mean duration, reflects recent runs. */
+    public String recentDuration;
+
+    /** Recent runs are significantly longer than median. */
+    public boolean durationRegression;
 }
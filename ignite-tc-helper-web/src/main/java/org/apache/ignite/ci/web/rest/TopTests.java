@@ -19,6 +19,7 @@ package org.apache.ignite.ci.web.rest;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.security.PermitAll;
 import javax.servlet.ServletContext;
 import javax.ws.rs.GET;
@@ -41,6 +42,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.apache.ignite.ci.BuildChainProcessor.normalizeBranch;
 
 @Path(TopTests.TOP_TESTS)
 @Produces(MediaType.APPLICATION_JSON)
@@ -53,13 +55,16 @@ public class TopTests {
     @Path("failing")
     @PermitAll
     public List<FailingTest> getTopFailingTests(@Nullable @QueryParam("branch") String branchOrNull,
-        @Nullable @QueryParam("count") Integer count) {
+        @Nullable @QueryParam("count") Integer count,
+        @Nullable @QueryParam("days") Integer days,
+        @Nullable @QueryParam("sameBranch") Boolean sameBranch) {
         final List<FailingTest> res = new ArrayList<>();
         for (ChainAtServerTracked chainTracked : branchMandatory(branchOrNull).chains) {
             try (ITcAnalytics teamcity = CtxListener.getTcHelper(context).tcAnalytics( chainTracked.serverId)) {
 
                 int cnt = count == null ? 10 : count;
-                teamcity.topTestFailing(cnt).stream().map(this::converToUiModel).forEach(res::add);
+                teamcity.topTestFailing(cnt, statBranch(chainTracked, sameBranch), minUpdatedMs(days)).stream()
+                    .map(this::converToUiModel).forEach(res::add);
             }
         }
         return res;
@@ -69,12 +74,15 @@ public class TopTests {
     @Path("failingSuite")
     @PermitAll
     public List<FailingTest> getTopFailingSuite(@Nullable @QueryParam("branch") String branchOrNull,
-        @Nullable @QueryParam("count") Integer count) {
+        @Nullable @QueryParam("count") Integer count,
+        @Nullable @QueryParam("days") Integer days,
+        @Nullable @QueryParam("sameBranch") Boolean sameBranch) {
         final List<FailingTest> res = new ArrayList<>();
         for (ChainAtServerTracked chainTracked : branchMandatory(branchOrNull).chains) {
             try (ITcAnalytics teamcity = CtxListener.getTcHelper(context).tcAnalytics(chainTracked.serverId)) {
                 int cnt = count == null ? 10 : count;
-                teamcity.topFailingSuite(cnt).stream().map(this::converToUiModel).forEach(res::add);
+                teamcity.topFailingSuite(cnt, statBranch(chainTracked, sameBranch), minUpdatedMs(days)).stream()
+                    .map(this::converToUiModel).forEach(res::add);
             }
         }
         return res;
@@ -84,19 +92,41 @@ public class TopTests {
     @Path("longRunning")
     @PermitAll
     public List<FailingTest> getMostLongRunningTests(@Nullable @QueryParam("branch") String branchOrNull,
-        @Nullable @QueryParam("count") Integer count) {
+        @Nullable @QueryParam("count") Integer count,
+        @Nullable @QueryParam("days") Integer days,
+        @Nullable @QueryParam("sameBranch") Boolean sameBranch,
+        @Nullable @QueryParam("rank") String rank) {
         final BranchTracked tracked = branchMandatory(branchOrNull);
+        final boolean byP90 = "p90".equalsIgnoreCase(rank);
 
         final List<FailingTest> res = new ArrayList<>();
         for (ChainAtServerTracked chainTracked : tracked.chains) {
             try (ITcAnalytics teamcity = CtxListener.getTcHelper(context).tcAnalytics(chainTracked.serverId)) {
                 int cnt = count == null ? 10 : count;
-                teamcity.topTestsLongRunning(cnt).stream().map(this::converToUiModel).forEach(res::add);
+                teamcity.topTestsLongRunning(cnt, statBranch(chainTracked, sameBranch), minUpdatedMs(days), byP90)
+                    .stream().map(this::converToUiModel).forEach(res::add);
             }
         }
         return res;
     }
 
+    /**
+     * @param chainTracked Tracked chain.
+     * @param sameBranch Only statistics of branch of tracked chain is requested.
+     * @return Normalized branch of statistics, null for all branches.
+     */
+    @Nullable private static String statBranch(ChainAtServerTracked chainTracked, @Nullable Boolean sameBranch) {
+        return Boolean.TRUE.equals(sameBranch) ? normalizeBranch(chainTracked.getBranchForRestMandatory()) : null;
+    }
+
+    /**
+     * @param days Max days since last statistics update, null for all entries.
+     * @return Min timestamp of last update.
+     */
+    private static long minUpdatedMs(@Nullable Integer days) {
+        return days == null ? 0 : System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days);
+    }
+
     private BranchTracked branchMandatory(@Nullable @QueryParam("branch") String branchOrNull) {
         final String branch = isNullOrEmpty(branchOrNull) ? "master" : branchOrNull;
         return HelperConfig.getTrackedBranches().getBranchMandatory(branch);
@@ -107,6 +137,11 @@ public class TopTests {
         e.name = stat.name();
         e.failureRate = stat.getFailPercentPrintable();
         e.averageDuration = TimeUtil.getDurationPrintable(stat.getAverageDurationMs());
+        e.p50Duration = TimeUtil.getDurationPrintable(stat.getDurationPercentileMs(0.5));
+        e.p90Duration = TimeUtil.getDurationPrintable(stat.getDurationPercentileMs(0.9));
+        e.p99Duration = TimeUtil.getDurationPrintable(stat.getDurationPercentileMs(0.99));
+        e.recentDuration = TimeUtil.getDurationPrintable(stat.getDecayedDurationMs());
+        e.durationRegression = stat.isDurationRegression();
         return e;
     }
 
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.rest.monitoring;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.servlet.ServletContext;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import org.apache.ignite.ci.db.DbMigrations;
+import org.apache.ignite.ci.db.DbRetention;
+import org.apache.ignite.ci.db.NearCache;
+import org.apache.ignite.ci.http.HttpTransports;
+import org.apache.ignite.ci.util.ObjectInterner;
+import org.apache.ignite.ci.web.model.monitoring.HttpHostStatsUi;
+import org.apache.ignite.ci.web.model.monitoring.MigrationsUi;
+import org.apache.ignite.ci.web.model.monitoring.NearCacheUi;
+import org.apache.ignite.ci.web.model.monitoring.RateLimiterUi;
+import org.apache.ignite.ci.web.model.monitoring.RetentionUi;
+import org.apache.ignite.ci.web.model.monitoring.StringPoolUi;
+
+/**
+ * Internal counters of TC Helper.
+ */
+@Path("monitoring")
+@Produces(MediaType.APPLICATION_JSON)
+public class MonitoringService {
+    @Context
+    private ServletContext context;
+
+    /**
+     * @return Counters of HTTP transports to TeamCity hosts.
+     */
+    @GET
+    @Path("http")
+    public List<HttpHostStatsUi> getHttpStats() {
+        return HttpTransports.all().stream()
+            .map(HttpHostStatsUi::new)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return Rate limiters and retries state of TeamCity servers.
+     */
+    @GET
+    @Path("limiters")
+    public List<RateLimiterUi> getRateLimiters() {
+        return HttpTransports.allServers().stream()
+            .map(RateLimiterUi::new)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return Counters of on-heap tiers of persistent caches.
+     */
+    @GET
+    @Path("caches")
+    public List<NearCacheUi> getNearCaches() {
+        return NearCache.all().stream()
+            .map(NearCacheUi::new)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return Counters of strings pool.
+     */
+    @GET
+    @Path("strings")
+    public StringPoolUi getStringPool() {
+        return new StringPoolUi(ObjectInterner.pool());
+    }
+
+    /**
+     * @return Data migrations state of servers, started by this node.
+     */
+    @GET
+    @Path("migrations")
+    public List<MigrationsUi> getMigrations() {
+        return DbMigrations.all().stream()
+            .map(MigrationsUi::new)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return Retention counters of servers.
+     */
+    @GET
+    @Path("retention")
+    public List<RetentionUi> getRetention() {
+        return DbRetention.all().stream()
+            .map(RetentionUi::new)
+            .collect(Collectors.toList());
+    }
+}
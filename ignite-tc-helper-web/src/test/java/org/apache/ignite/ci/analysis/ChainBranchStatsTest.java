@@ -0,0 +1,348 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.ignite.ci.ITcAnalytics;
+import org.apache.ignite.ci.ITeamcity;
+import org.apache.ignite.ci.tcmodel.result.Build;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks bulk loading of chain statistics and comparison of branches.
+ */
+public class ChainBranchStatsTest {
+    /** Branch of chain. */
+    private static final String BRANCH = "pull/1/head";
+
+    /** */
+    @Test
+    public void testZScore() {
+        assertEquals(4.364, ChainBranchStats.zScore(5, 50, 25, 50), 0.001);
+        assertEquals(-4.364, ChainBranchStats.zScore(25, 50, 5, 50), 0.001);
+
+        // The same fail rate, no runs, or no failures at all are not significant.
+        assertEquals(0, ChainBranchStats.zScore(10, 50, 1, 5), 1e-9);
+        assertEquals(0, ChainBranchStats.zScore(0, 0, 3, 3), 1e-9);
+        assertEquals(0, ChainBranchStats.zScore(0, 50, 0, 3), 1e-9);
+
+        // Single failure in PR is less significant than the same fail rate with more runs.
+        assertTrue(ChainBranchStats.zScore(0, 50, 1, 1) < ChainBranchStats.zScore(0, 50, 5, 5));
+    }
+
+    /** */
+    @Test
+    public void testLoadAndCompare() {
+        String base = ITeamcity.DEFAULT;
+
+        StubAnalytics analytics = new StubAnalytics();
+
+        analytics.suites.put(new SuiteInBranch("Suite1", base), stat(20, 0));
+        analytics.suites.put(new SuiteInBranch("Suite1", BRANCH), stat(2, 2));
+
+        analytics.tests.put(new TestInBranch("Suite1: T.failing", base), stat(20, 10));
+        analytics.tests.put(new TestInBranch("Suite1: T.failing", BRANCH), stat(2, 1));
+        analytics.tests.put(new TestInBranch("Suite1: T.newFailure", base), stat(20, 0));
+        analytics.tests.put(new TestInBranch("Suite1: T.newFailure", BRANCH), stat(1, 1));
+        analytics.tests.put(new TestInBranch("Suite1: T.rare", base), stat(5, 0));
+        analytics.tests.put(new TestInBranch("Suite1: T.rare", BRANCH), stat(1, 1));
+        analytics.tests.put(new TestInBranch("Suite2: T.ok", BRANCH), stat(3, 0));
+
+        ChainBranchStats stats = ChainBranchStats.load(analytics, chain(), null);
+
+        // Failed suite, its failed and long running tests in both branches, passed suite is not loaded.
+        assertEquals(1, analytics.suitesBulkReads);
+        assertEquals(1, analytics.testsBulkReads);
+        assertEquals(new HashSet<>(Arrays.asList(new SuiteInBranch("Suite1", base),
+            new SuiteInBranch("Suite1", BRANCH))), analytics.suitesRequested);
+
+        Set<TestInBranch> expTests = new HashSet<>();
+
+        for (String test : Arrays.asList("T.failing", "T.newFailure", "T.rare", "T.slow")) {
+            expTests.add(new TestInBranch("Suite1: " + test, base));
+            expTests.add(new TestInBranch("Suite1: " + test, BRANCH));
+        }
+
+        assertEquals(expTests, analytics.testsRequested);
+
+        ChainBranchStats.Comparison cmp = stats.compare();
+
+        assertEquals(4, cmp.size());
+
+        Map<String, Integer> idx = new HashMap<>();
+
+        for (int i = 0; i < cmp.size(); i++) {
+            assertEquals("Suite1", cmp.suiteId(i));
+
+            idx.put(cmp.isSuite(i) ? "Suite1" : cmp.name(i), i);
+        }
+
+        int suite = idx.get("Suite1");
+
+        assertTrue(cmp.isSuite(suite));
+        assertEquals(0f, cmp.baseFailRate(suite), 1e-6);
+        assertEquals(1f, cmp.failRate(suite), 1e-6);
+        assertTrue(cmp.isNewInBranch(suite));
+
+        int failing = idx.get("Suite1: T.failing");
+
+        assertEquals(20, cmp.baseRuns(failing));
+        assertEquals(2, cmp.runs(failing));
+        assertEquals(0.5f, cmp.baseFailRate(failing), 1e-6);
+        assertEquals(0.5f, cmp.failRate(failing), 1e-6);
+        assertFalse(cmp.isNewInBranch(failing));
+        assertEquals(0f, cmp.significance(failing), 1e-6);
+
+        int newFailure = idx.get("Suite1: T.newFailure");
+
+        assertTrue(cmp.isNewInBranch(newFailure));
+        assertTrue(cmp.significance(newFailure) > 0);
+
+        // Too few runs in base branch to consider failure as new.
+        assertFalse(cmp.isNewInBranch(idx.get("Suite1: T.rare")));
+
+        // Preloaded statistics are served without point lookups, including absent ones.
+        Function<TestInBranch, RunStat> testsProvider = stats.getTestRunStatProvider();
+
+        assertSame(analytics.tests.get(new TestInBranch("Suite1: T.failing", BRANCH)),
+            testsProvider.apply(new TestInBranch("Suite1: T.failing", BRANCH)));
+        assertNull(testsProvider.apply(new TestInBranch("Suite1: T.slow", BRANCH)));
+        assertSame(analytics.suites.get(new SuiteInBranch("Suite1", base)),
+            stats.getBuildFailureRunStatProvider().apply(new SuiteInBranch("Suite1", base)));
+        assertEquals(0, analytics.pointLookups);
+
+        // Keys not loaded in advance are requested by point lookup.
+        assertSame(analytics.tests.get(new TestInBranch("Suite2: T.ok", BRANCH)),
+            testsProvider.apply(new TestInBranch("Suite2: T.ok", BRANCH)));
+        assertNull(stats.getBuildFailureRunStatProvider().apply(new SuiteInBranch("Suite2", BRANCH)));
+        assertEquals(2, analytics.pointLookups);
+    }
+
+    /** */
+    @Test
+    public void testChainInBaseBranchIsNotCompared() {
+        StubAnalytics analytics = new StubAnalytics();
+
+        ChainBranchStats stats = ChainBranchStats.load(analytics, chain(), BRANCH);
+
+        assertEquals(0, stats.compare().size());
+
+        // Statistics are still loaded for chain status, keys of both branches are the same.
+        assertEquals(Collections.singleton(new SuiteInBranch("Suite1", BRANCH)), analytics.suitesRequested);
+        assertEquals(4, analytics.testsRequested.size());
+    }
+
+    /**
+     * @return Chain in {@link #BRANCH} with failed suite 'Suite1' and passed suite 'Suite2'.
+     */
+    private static FullChainRunCtx chain() {
+        MultBuildRunCtx failed = new MultBuildRunCtx(build(11, "Suite1"));
+
+        failed.addTests(Arrays.asList(
+            test("Suite1: T.failing", 1, 11, "FAILURE", 100),
+            test("Suite1: T.newFailure", 2, 11, "FAILURE", 100),
+            test("Suite1: T.rare", 3, 11, "FAILURE", 100),
+            test("Suite1: T.slow", 4, 11, "SUCCESS", 60_000),
+            test("Suite1: T.fast", 5, 11, "SUCCESS", 1)));
+
+        MultBuildRunCtx passed = new MultBuildRunCtx(build(12, "Suite2"));
+
+        passed.addTests(Collections.singletonList(test("Suite2: T.ok", 1, 12, "SUCCESS", 100)));
+
+        FullChainRunCtx ctx = new FullChainRunCtx(build(10, "RunAll"));
+
+        ctx.addAllSuites(new ArrayList<>(Arrays.asList(failed, passed)));
+
+        return ctx;
+    }
+
+    /**
+     * @param id Build ID.
+     * @param suiteId Suite ID.
+     */
+    private static Build build(int id, String suiteId) {
+        Build build = new Build();
+
+        build.setId(id);
+        build.buildTypeId = suiteId;
+        build.branchName = BRANCH;
+
+        return build;
+    }
+
+    /**
+     * @param name Test name.
+     * @param testId Test ID.
+     * @param buildId Build ID.
+     * @param status Status.
+     * @param duration Duration.
+     */
+    private static TestOccurrence test(String name, int testId, int buildId, String status, int duration) {
+        TestOccurrence occurrence = new TestOccurrence()
+            .setId("id:" + testId + ",build:(id:" + buildId + ")")
+            .setStatus(status);
+
+        occurrence.name = name;
+        occurrence.duration = duration;
+
+        return occurrence;
+    }
+
+    /**
+     * @param runs Runs.
+     * @param failures Failures, first runs.
+     */
+    private static RunStat stat(int runs, int failures) {
+        RunStat stat = new RunStat("");
+
+        for (int i = 0; i < runs; i++)
+            stat.addTestRun(new TestOccurrence().setId("id:1,build:(id:" + (1000 + i) + ")")
+                .setStatus(i < failures ? "FAILURE" : "SUCCESS"));
+
+        return stat;
+    }
+
+    /**
+     * Analytics counting bulk reads and point lookups of statistics.
+     */
+    private static class StubAnalytics implements ITcAnalytics {
+        /** Suites statistics. */
+        final Map<SuiteInBranch, RunStat> suites = new HashMap<>();
+
+        /** Tests statistics. */
+        final Map<TestInBranch, RunStat> tests = new HashMap<>();
+
+        /** Suites keys requested by bulk reads. */
+        final Set<SuiteInBranch> suitesRequested = new HashSet<>();
+
+        /** Tests keys requested by bulk reads. */
+        final Set<TestInBranch> testsRequested = new HashSet<>();
+
+        /** */
+        int suitesBulkReads;
+
+        /** */
+        int testsBulkReads;
+
+        /** */
+        int pointLookups;
+
+        /** {@inheritDoc} */
+        @Override public Map<SuiteInBranch, RunStat> getBuildFailureRunStats(Set<SuiteInBranch> keys) {
+            suitesBulkReads++;
+            suitesRequested.addAll(keys);
+
+            return found(suites, keys);
+        }
+
+        /** {@inheritDoc} */
+        @Override public Map<TestInBranch, RunStat> getTestRunStats(Set<TestInBranch> keys) {
+            testsBulkReads++;
+            testsRequested.addAll(keys);
+
+            return found(tests, keys);
+        }
+
+        /**
+         * @param stats Statistics.
+         * @param keys Keys.
+         */
+        private static <K> Map<K, RunStat> found(Map<K, RunStat> stats, Set<K> keys) {
+            Map<K, RunStat> res = new HashMap<>();
+
+            keys.stream().filter(stats::containsKey).forEach(key -> res.put(key, stats.get(key)));
+
+            return res;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Function<SuiteInBranch, RunStat> getBuildFailureRunStatProvider() {
+            return key -> {
+                pointLookups++;
+
+                return suites.get(key);
+            };
+        }
+
+        /** {@inheritDoc} */
+        @Override public Function<TestInBranch, RunStat> getTestRunStatProvider() {
+            return key -> {
+                pointLookups++;
+
+                return tests.get(key);
+            };
+        }
+
+        /** {@inheritDoc} */
+        @Override public List<RunStat> topTestFailing(int cnt) {
+            return Collections.emptyList();
+        }
+
+        /** {@inheritDoc} */
+        @Override public List<RunStat> topTestFailing(int cnt, @Nullable String branch, long minUpdatedMs) {
+            return Collections.emptyList();
+        }
+
+        /** {@inheritDoc} */
+        @Override public List<RunStat> topTestsLongRunning(int cnt) {
+            return Collections.emptyList();
+        }
+
+        /** {@inheritDoc} */
+        @Override public List<RunStat> topTestsLongRunning(int cnt, @Nullable String branch, long minUpdatedMs,
+            boolean byP90) {
+            return Collections.emptyList();
+        }
+
+        /** {@inheritDoc} */
+        @Override public List<RunStat> topFailingSuite(int cnt) {
+            return Collections.emptyList();
+        }
+
+        /** {@inheritDoc} */
+        @Override public List<RunStat> topFailingSuite(int cnt, @Nullable String branch, long minUpdatedMs) {
+            return Collections.emptyList();
+        }
+
+        /** {@inheritDoc} */
+        @Override public String getThreadDumpCached(Integer buildId) {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void close() {
+            // No-op.
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.ci.issue.EventTemplate;
+import org.apache.ignite.ci.issue.EventTemplates;
+import org.apache.ignite.ci.tcmodel.result.Build;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares detection of all event templates by one pass over packed runs with previous matching of each template
+ * run by run over boxed results. Each operation checks given number of synthetic histories of full window, taken
+ * from a pool, so whole pool fits into cache and results do not depend on memory bandwidth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DetectTemplateBenchmark {
+    /** Histories checked by one operation. */
+    @Param({"1000000"})
+    public int histories;
+
+    /** Distinct histories. */
+    private static final int POOL_SIZE = 1024;
+
+    /** Templates. */
+    private EventTemplate[] templates;
+
+    /** Statistics pool. */
+    private RunStat[] stats;
+
+    /** */
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+
+        templates = EventTemplates.templates.toArray(new EventTemplate[0]);
+        stats = new RunStat[POOL_SIZE];
+
+        Build build = new Build();
+
+        for (int i = 0; i < POOL_SIZE; i++) {
+            RunStat stat = new RunStat("suite" + i);
+
+            int res = RunStat.RES_OK;
+
+            for (int buildId = 0; buildId < RunStat.MAX_LATEST_RUNS; buildId++) {
+                if (rnd.nextInt(8) == 0)
+                    res = rnd.nextInt(3) == 0 ? RunStat.RES_CRITICAL_FAILURE : rnd.nextInt(2);
+
+                if (res == RunStat.RES_CRITICAL_FAILURE)
+                    stat.setBuildCriticalError(buildId);
+                else {
+                    build.setId(buildId);
+                    build.status = res == RunStat.RES_OK ? Build.STATUS_SUCCESS : "FAILURE";
+
+                    stat.addBuildRun(build);
+                }
+            }
+
+            stats[i] = stat;
+        }
+    }
+
+    /** */
+    @Benchmark
+    public int detectTemplates() {
+        int found = 0;
+
+        for (int i = 0; i < histories; i++) {
+            for (RunStat.TestId id : stats[i & (POOL_SIZE - 1)].detectTemplates(templates)) {
+                if (id != null)
+                    found++;
+            }
+        }
+
+        return found;
+    }
+
+    /** */
+    @Benchmark
+    public int scalarMatch() {
+        int found = 0;
+
+        for (int i = 0; i < histories; i++) {
+            RunStat stat = stats[i & (POOL_SIZE - 1)];
+
+            for (EventTemplate t : templates) {
+                if (scalarMatch(stat.getLatestRunResults(), t) >= 0)
+                    found++;
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Previous implementation of template matching.
+     *
+     * @param results Results.
+     * @param t Template.
+     * @return Index of central event, -1 if template was not found.
+     */
+    private static int scalarMatch(List<Integer> results, EventTemplate t) {
+        for (int idx = results.size() - t.cntEvents(); idx >= 0; idx--) {
+            if (t.shouldBeFirst() && idx != 0)
+                continue;
+
+            boolean match = true;
+
+            for (int tIdx = 0; tIdx < t.cntEvents() && match; tIdx++) {
+                Integer cur = results.get(idx + tIdx);
+                int before = t.beforeEvent().length;
+                int tmpl = tIdx < before ? t.beforeEvent()[tIdx] : t.eventAndAfter()[tIdx - before];
+
+                match = cur == tmpl
+                    || (tmpl == RunStat.RES_OK_OR_FAILURE && (cur == RunStat.RES_OK || cur == RunStat.RES_FAILURE));
+            }
+
+            if (match)
+                return idx + t.beforeEvent().length;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param args Args.
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+            .include(DetectTemplateBenchmark.class.getSimpleName())
+            .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks percentiles of durations histogram are close to exact ones, and duration regression detection.
+ */
+public class DurationHistogramTest {
+    /** */
+    @Test
+    public void testPercentilesCloseToExact() {
+        Random rnd = new Random(42);
+
+        long[] durations = new long[10_000];
+
+        DurationHistogram first = new DurationHistogram();
+        DurationHistogram second = new DurationHistogram();
+
+        for (int i = 0; i < durations.length; i++) {
+            // Log-normal like distribution, from milliseconds to minutes.
+            durations[i] = (long)Math.exp(6 + 2 * rnd.nextGaussian());
+
+            (i % 2 == 0 ? first : second).add(durations[i]);
+        }
+
+        first.merge(second);
+
+        assertEquals(durations.length, first.count());
+
+        Arrays.sort(durations);
+
+        for (double q : new double[] {0.01, 0.5, 0.9, 0.99, 1}) {
+            long exact = durations[(int)Math.ceil(q * durations.length) - 1];
+
+            long approx = first.percentile(q);
+
+            assertTrue(q + ": " + exact + " vs " + approx, Math.abs(approx - exact) <= exact * 0.07);
+        }
+    }
+
+    /** */
+    @Test
+    public void testBucketsAreContiguous() {
+        for (long d = 0; d < 100_000; d++) {
+            int bucket = DurationHistogram.bucket(d);
+
+            assertTrue(d + 1 == 100_000 || DurationHistogram.bucket(d + 1) - bucket <= 1);
+            assertEquals(bucket, DurationHistogram.bucket(DurationHistogram.middle(bucket)));
+        }
+    }
+
+    /** */
+    @Test
+    public void testDurationRegression() {
+        RunStat stat = new RunStat("test");
+
+        for (int i = 0; i < 100; i++)
+            stat.addTestRun(run(i, 2000));
+
+        assertFalse(stat.isDurationRegression());
+        assertEquals(2000, stat.getDecayedDurationMs());
+
+        for (int i = 100; i < 110; i++)
+            stat.addTestRun(run(i, 8000));
+
+        assertTrue(stat.isDurationRegression());
+        assertEquals(2000, stat.getDurationPercentileMs(0.5), 2000 * 0.07);
+    }
+
+    /**
+     * @param buildId Build ID.
+     * @param durationMs Duration.
+     */
+    private static TestOccurrence run(int buildId, int durationMs) {
+        TestOccurrence occurrence = new TestOccurrence().setId("id:1,build:(id:" + buildId + ")").setStatus("SUCCESS");
+
+        occurrence.duration = durationMs;
+
+        return occurrence;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks latest runs window keeps the same runs as sorted map limited by size, and its counters match runs.
+ */
+public class RunHistoryTest {
+    /** */
+    @Test
+    public void testSameAsSortedMap() {
+        Random rnd = new Random(42);
+
+        RunHistory hist = new RunHistory(RunStat.MAX_LATEST_RUNS);
+        TreeMap<RunStat.TestId, Integer> exp = new TreeMap<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            // Mostly new builds, sometimes older ones and repeated runs.
+            int buildId = rnd.nextInt(10) == 0 ? rnd.nextInt(i + 1) : i;
+            int testId = rnd.nextInt(3);
+            int res = rnd.nextInt(4);
+
+            hist.put(buildId, testId, res);
+
+            exp.put(new RunStat.TestId(buildId, testId), res);
+
+            if (exp.size() > RunStat.MAX_LATEST_RUNS)
+                exp.remove(exp.firstKey());
+
+            assertEquals(exp.size(), hist.size());
+            assertCounters(hist);
+        }
+
+        int idx = 0;
+
+        for (Map.Entry<RunStat.TestId, Integer> e : exp.entrySet()) {
+            assertEquals(e.getKey().getBuildId(), hist.buildId(idx));
+            assertEquals(e.getKey().getTestId(), hist.testId(idx));
+            assertEquals((int)e.getValue(), hist.result(idx));
+
+            idx++;
+        }
+    }
+
+    /** */
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testLegacyRunsConverted() {
+        RunStat stat = new RunStat("test");
+
+        stat.latestRunResults = new TreeMap<>();
+        stat.latestRunResults.put(new RunStat.TestId(20, 1), RunStat.RES_FAILURE);
+        stat.latestRunResults.put(new RunStat.TestId(10, 1), RunStat.RES_OK);
+
+        assertEquals(new ArrayList<>(stat.latestRunResults.values()), stat.getLatestRunResults());
+        assertEquals(1, stat.getFailuresCount());
+        assertEquals(2, stat.getRunsCount());
+
+        // Reads do not modify value shared by near cache.
+        assertNotNull(stat.latestRunResults);
+
+        stat.addTestRun(new TestOccurrence().setId("id:1,build:(id:30)").setStatus(TestOccurrence.STATUS_SUCCESS));
+
+        assertNull(stat.latestRunResults);
+        assertEquals(Arrays.asList(RunStat.RES_OK, RunStat.RES_FAILURE, RunStat.RES_OK), stat.getLatestRunResults());
+    }
+
+    /**
+     * @param hist History.
+     */
+    private static void assertCounters(RunHistory hist) {
+        int[] res = hist.results();
+
+        int changes = 0;
+
+        for (int i = 1; i < res.length; i++) {
+            if (res[i] != res[i - 1])
+                changes++;
+        }
+
+        assertEquals(res.length - hist.count(RunStat.RES_OK), hist.failures());
+        assertEquals(hist.count(RunStat.RES_CRITICAL_FAILURE), hist.criticalFailures());
+        assertEquals(changes, hist.statusChanges());
+    }
+}
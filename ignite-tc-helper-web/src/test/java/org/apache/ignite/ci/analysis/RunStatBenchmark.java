@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares accessors used for each test on page render: counters maintained by latest runs window with previous
+ * implementation streaming over sorted map of runs. Run with GC profiler to check allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunStatBenchmark {
+    /** Statistics with full window of runs. */
+    private RunStat stat;
+
+    /** Runs as stored by previous implementation. */
+    private SortedMap<RunStat.TestId, Integer> legacyRuns;
+
+    /** */
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+
+        stat = new RunStat("test");
+        legacyRuns = new TreeMap<>();
+
+        for (int i = 0; i < RunStat.MAX_LATEST_RUNS; i++) {
+            int res = rnd.nextInt(5) == 0 ? RunStat.RES_FAILURE : RunStat.RES_OK;
+
+            stat.addTestRunToLatest(occurrence(i, res));
+
+            legacyRuns.put(new RunStat.TestId(i, 1), res);
+        }
+    }
+
+    /**
+     * @param buildId Build ID.
+     * @param res Result.
+     */
+    private static TestOccurrence occurrence(int buildId, int res) {
+        return new TestOccurrence()
+            .setId("id:1,build:(id:" + buildId + ")")
+            .setStatus(res == RunStat.RES_OK ? TestOccurrence.STATUS_SUCCESS : "FAILURE");
+    }
+
+    /** */
+    @Benchmark
+    public int counters() {
+        return stat.getFailuresCount() + stat.getCriticalFailuresCount() + stat.getRunsCount();
+    }
+
+    /** */
+    @Benchmark
+    public int legacyCounters() {
+        int failures = (int)legacyRuns.values().stream().filter(res -> res != RunStat.RES_OK).count();
+        int critical = (int)legacyRuns.values().stream().filter(res -> res == RunStat.RES_CRITICAL_FAILURE).count();
+
+        return failures + critical + legacyRuns.size();
+    }
+
+    /** */
+    @Benchmark
+    public boolean flaky() {
+        return stat.isFlaky();
+    }
+
+    /** */
+    @Benchmark
+    public boolean legacyFlaky() {
+        int statusChange = 0;
+        Integer prev = null;
+
+        for (Integer res : legacyRuns.values()) {
+            if (prev != null && !prev.equals(res))
+                statusChange++;
+
+            prev = res;
+        }
+
+        return statusChange > 6;
+    }
+
+    /**
+     * @param args Args.
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+            .include(RunStatBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.analysis;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
+import org.junit.Test;
+
+import static org.apache.ignite.ci.analysis.RunStatIndex.Metric.AVG_DURATION;
+import static org.apache.ignite.ci.analysis.RunStatIndex.Metric.FAIL_RATE;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks order of top queries, branch and update time filters, and maintenance of index by updates and removals.
+ */
+public class RunStatIndexTest {
+    /** */
+    @Test
+    public void testTopOrderAndFilters() {
+        RunStatIndex<TestInBranch> idx = RunStatIndex.forCache("testTopOrderAndFilters", TestInBranch.class,
+            TestInBranch::getBranch);
+
+        idx.update(key("A", "master"), summary(stat(10, 5, 100), 1000));
+        idx.update(key("B", "master"), summary(stat(10, 1, 300), 2000));
+        idx.update(key("C", "master"), summary(stat(10, 9, 200), 3000));
+        idx.update(key("D", "pull/1"), summary(stat(10, 7, 50), 4000));
+
+        assertEquals(Arrays.asList(key("C", "master"), key("D", "pull/1"), key("A", "master")),
+            idx.top(FAIL_RATE, null, 0, 3));
+
+        assertEquals(Arrays.asList(key("B", "master"), key("C", "master")), idx.top(AVG_DURATION, "master", 0, 2));
+
+        assertEquals(Collections.singletonList(key("D", "pull/1")), idx.top(FAIL_RATE, "pull/1", 0, 10));
+
+        // Entries updated earlier are skipped, next entries of branch fill the top.
+        assertEquals(Arrays.asList(key("C", "master"), key("D", "pull/1"), key("B", "master")),
+            idx.top(FAIL_RATE, null, 2000, 3));
+    }
+
+    /** */
+    @Test
+    public void testOlderSummaryDoesNotReplaceNewer() {
+        RunStatIndex<TestInBranch> idx = RunStatIndex.forCache("testOlderSummary", TestInBranch.class,
+            TestInBranch::getBranch);
+
+        RunStat stat = stat(10, 0, 100);
+
+        RunStatIndex.Summary older = summary(stat, 1000);
+
+        stat.addTestRun(new TestOccurrence().setId("id:1,build:(id:5000)").setStatus("FAILURE"));
+
+        RunStatIndex.Summary newer = summary(stat, 2000);
+
+        idx.update(key("A", "master"), newer);
+        idx.update(key("A", "master"), older);
+
+        assertEquals(1, idx.size());
+        assertEquals(Collections.singletonList(key("A", "master")), idx.top(FAIL_RATE, null, 2000, 10));
+
+        idx.update(key("B", "master"), summary(stat(10, 0, 100), 3000));
+
+        assertEquals(Arrays.asList(key("A", "master"), key("B", "master")), idx.top(FAIL_RATE, null, 0, 10));
+    }
+
+    /** */
+    @Test
+    public void testRemove() {
+        RunStatIndex<TestInBranch> idx = RunStatIndex.forCache("testRemove", TestInBranch.class,
+            TestInBranch::getBranch);
+
+        idx.update(key("A", "master"), summary(stat(10, 5, 100), 1000));
+        idx.update(key("B", "master"), summary(stat(10, 1, 100), 1000));
+
+        idx.remove(key("A", "master"));
+        idx.remove(key("C", "master"));
+
+        assertEquals(1, idx.size());
+        assertEquals(Collections.singletonList(key("B", "master")), idx.top(FAIL_RATE, null, 0, 10));
+        assertEquals(Collections.singletonList(key("B", "master")), idx.top(AVG_DURATION, "master", 0, 10));
+    }
+
+    /**
+     * @param name Test name.
+     * @param branch Branch.
+     */
+    private static TestInBranch key(String name, String branch) {
+        return new TestInBranch(name, branch);
+    }
+
+    /**
+     * @param stat Statistics.
+     * @param lastUpdatedMs Timestamp of last update.
+     */
+    private static RunStatIndex.Summary summary(RunStat stat, long lastUpdatedMs) {
+        stat.lastUpdatedMs = lastUpdatedMs;
+
+        return new RunStatIndex.Summary(stat);
+    }
+
+    /**
+     * @param runs Runs.
+     * @param failures Failures, first runs.
+     * @param duration Duration of each run.
+     */
+    private static RunStat stat(int runs, int failures, int duration) {
+        RunStat stat = new RunStat("");
+
+        for (int i = 0; i < runs; i++) {
+            TestOccurrence occurrence = new TestOccurrence().setId("id:1,build:(id:" + (1000 + i) + ")")
+                .setStatus(i < failures ? "FAILURE" : "SUCCESS");
+
+            occurrence.duration = duration;
+
+            stat.addTestRun(occurrence);
+        }
+
+        return stat;
+    }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.ignite.ci.analysis;
 
+import java.util.Arrays;
 import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
 import org.junit.Test;
 
@@ -59,4 +60,34 @@ public class RunStatTest {
 
         System.out.println(stat.getLatestRunResults());
     }
+
+    @Test
+    public void testRepeatedRunIsNotCounted() {
+        RunStat stat = new RunStat("");
+
+        for (int i = 0; i < 2; i++) {
+            stat.addTestRun(new TestOccurrence().setId("id:10231,build:(id:1103529)").setStatus("FAILED"));
+            stat.addTestRun(new TestOccurrence().setId("id:10232,build:(id:1103529)").setStatus("SUCCESS"));
+        }
+
+        assert stat.getRunsAllHist() == 2 : stat.getRunsAllHist();
+        assert stat.getFailuresAllHist() == 1 : stat.getFailuresAllHist();
+        assert stat.getRunsCount() == 2 : stat.getRunsCount();
+    }
+
+    @Test
+    public void testMergeOfLegacyStat() {
+        RunStat legacy = new RunStat("");
+        legacy.addTestRun(new TestOccurrence().setId("id:10231,build:(id:100)").setStatus("FAILED"));
+        legacy.addTestRun(new TestOccurrence().setId("id:10231,build:(id:200)").setStatus("SUCCESS"));
+
+        RunStat stat = new RunStat("");
+        stat.addTestRun(new TestOccurrence().setId("id:10231,build:(id:300)").setStatus("SUCCESS"));
+
+        stat.merge(legacy);
+
+        assert stat.getRunsAllHist() == 3 : stat.getRunsAllHist();
+        assert stat.getFailuresAllHist() == 1 : stat.getFailuresAllHist();
+        assert stat.getLatestRunResults().equals(Arrays.asList(1, 0, 0)) : stat.getLatestRunResults();
+    }
 }
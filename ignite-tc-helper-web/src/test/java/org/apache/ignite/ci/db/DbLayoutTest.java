@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.db;
+
+import java.util.Properties;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataPageEvictionMode;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.WALMode;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks storage layout parsing and mapping of caches.
+ */
+public class DbLayoutTest {
+    /** */
+    @Test
+    public void testDefaultLayout() {
+        DataStorageConfiguration dsCfg = new DbLayout(new Properties()).storageConfiguration();
+
+        assertEquals(WALMode.LOG_ONLY, dsCfg.getWalMode());
+        assertEquals(60_000, dsCfg.getCheckpointFrequency());
+        assertEquals(12L << 30, dsCfg.getDefaultDataRegionConfiguration().getMaxSize());
+        assertNull(dsCfg.getDataRegionConfigurations());
+    }
+
+    /** */
+    @Test
+    public void testRegionsAndGroups() {
+        Properties props = new Properties();
+
+        props.setProperty(DbLayout.WAL_MODE, "background");
+        props.setProperty("region.default.maxSizeMb", "1024");
+        props.setProperty("region.transient.maxSizeMb", "256");
+        props.setProperty("region.transient.persistence", "false");
+        props.setProperty("region.transient.eviction", "RANDOM_2_LRU");
+        props.setProperty("cache.conditionalResponses.region", "transient");
+        props.setProperty("cache.testsRunStat.group", "runStat");
+
+        DbLayout layout = new DbLayout(props);
+        DataStorageConfiguration dsCfg = layout.storageConfiguration();
+
+        assertEquals(WALMode.BACKGROUND, dsCfg.getWalMode());
+        assertEquals(1L << 30, dsCfg.getDefaultDataRegionConfiguration().getMaxSize());
+
+        DataRegionConfiguration transient0 = dsCfg.getDataRegionConfigurations()[0];
+
+        assertEquals("transient", transient0.getName());
+        assertEquals(DataPageEvictionMode.RANDOM_2_LRU, transient0.getPageEvictionMode());
+
+        CacheConfiguration<Object, Object> responses =
+            layout.apply(new CacheConfiguration<>("apache.conditionalResponses"));
+
+        assertEquals("transient", responses.getDataRegionName());
+        assertNull(responses.getGroupName());
+
+        CacheConfiguration<Object, Object> stat = layout.apply(new CacheConfiguration<>("public.testsRunStat"));
+
+        assertNull(stat.getDataRegionName());
+        assertEquals("runStat", stat.getGroupName());
+    }
+
+    /** */
+    @Test(expected = IllegalStateException.class)
+    public void testEvictionOfPersistentRegion() {
+        Properties props = new Properties();
+
+        props.setProperty("region.default.eviction", "RANDOM_LRU");
+
+        new DbLayout(props);
+    }
+
+    /** */
+    @Test(expected = IllegalStateException.class)
+    public void testGroupInDifferentRegions() {
+        Properties props = new Properties();
+
+        props.setProperty("region.analytics.maxSizeMb", "256");
+        props.setProperty("cache.testsRunStat.region", "analytics");
+        props.setProperty("cache.testsRunStat.group", "stat");
+        props.setProperty("cache.buildsFailureRunStat.group", "stat");
+
+        new DbLayout(props);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.db;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.IntPredicate;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks retention policies parsing and selection of expired builds.
+ */
+public class DbRetentionTest {
+    /** */
+    @Test
+    public void testPolicies() {
+        Properties props = new Properties();
+
+        props.setProperty(DbRetention.INTERVAL_MINUTES, "60");
+        props.setProperty("retention.builds.maxAgeDays", "365");
+        props.setProperty("retention.testOccurrencesCompacted.keepLast", "100");
+        props.setProperty("region.default.maxSizeMb", "1024");
+
+        Map<String, DbRetention.Policy> policies = DbRetention.parsePolicies(props);
+
+        assertEquals(3, policies.size());
+        assertEquals(365, policies.get("builds").maxAgeDays);
+        assertEquals(100, policies.get("testOccurrencesCompacted").keepLast);
+        assertNull(policies.get("statRegistered"));
+        assertEquals(DbRetention.DFLT_RESPONSES_MAX_AGE_DAYS, policies.get("conditionalResponses").maxAgeDays);
+
+        props.setProperty("retention.statRegistered.maxAgeDays", "730");
+
+        assertEquals(730, DbRetention.parsePolicies(props).get("statRegistered").maxAgeDays);
+    }
+
+    /** */
+    @Test(expected = IllegalStateException.class)
+    public void testMarkersNotLongerThanBuilds() {
+        Properties props = new Properties();
+
+        props.setProperty("retention.builds.maxAgeDays", "365");
+        props.setProperty("retention.statRegistered.maxAgeDays", "365");
+
+        DbRetention.parsePolicies(props);
+    }
+
+    /** */
+    @Test(expected = IllegalStateException.class)
+    public void testNotSupportedCache() {
+        Properties props = new Properties();
+
+        props.setProperty("retention.testsRunStat.maxAgeDays", "1");
+
+        DbRetention.parsePolicies(props);
+    }
+
+    /** */
+    @Test
+    public void testBuildIdOfKey() {
+        assertEquals(Integer.valueOf(42), DbRetention.buildIdOf(42));
+        assertEquals(Integer.valueOf(1234), DbRetention.buildIdOf("/app/rest/latest/builds/id:1234"));
+        assertEquals(Integer.valueOf(1234), DbRetention.buildIdOf("/app/rest/latest/builds/id:1234/statistics"));
+        assertEquals(Integer.valueOf(1234),
+            DbRetention.buildIdOf("/app/rest/latest/testOccurrences?locator=build:(id:1234),count:7700"));
+        assertEquals(Integer.valueOf(1234),
+            DbRetention.buildIdOf("/app/rest/latest/changes?locator=build:(id:1234)"));
+        assertNull(DbRetention.buildIdOf("/app/rest/latest/changes/id:77"));
+    }
+
+    /** */
+    @Test
+    public void testExpiredBuilds() {
+        long now = System.currentTimeMillis();
+
+        DbRetention.BuildsIndex idx = new DbRetention.BuildsIndex();
+
+        idx.add(10, "Suite", "master", "20170101T120000+0000");
+        idx.add(11, "Suite", "master", "20170102T120000+0000");
+
+        for (int id = 20; id < 25; id++)
+            idx.add(id, "Suite", "master", null);
+
+        idx.add(30, "Other", "master", null);
+
+        BitSet protectedIds = new BitSet();
+
+        protectedIds.set(11);
+
+        DbRetention.Policy byAge = new DbRetention.Policy();
+
+        byAge.maxAgeDays = 1;
+
+        IntPredicate expired = idx.expired(byAge, protectedIds, now);
+
+        assertTrue(expired.test(10));
+        assertFalse("Build of latest runs window", expired.test(11));
+        assertFalse(expired.test(20));
+        assertTrue("Unknown build older than known ones", expired.test(5));
+        assertFalse(expired.test(26));
+
+        DbRetention.Policy keepLast = new DbRetention.Policy();
+
+        keepLast.keepLast = 3;
+
+        expired = idx.expired(keepLast, protectedIds, now);
+
+        assertTrue(expired.test(10));
+        assertFalse(expired.test(11));
+        assertTrue(expired.test(21));
+        assertFalse(expired.test(22));
+        assertFalse(expired.test(30));
+        assertFalse("Age is not limited", expired.test(5));
+    }
+}
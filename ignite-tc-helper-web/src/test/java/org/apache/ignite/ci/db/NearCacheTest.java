@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.db;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ignite.IgniteCache;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks on-heap tier reads and invalidation.
+ */
+public class NearCacheTest {
+    /** Persistent cache reads. */
+    private final AtomicInteger reads = new AtomicInteger();
+
+    /** Persistent cache data. */
+    private final Map<String, StringBuilder> data = new HashMap<>();
+
+    /** Persistent cache backed by map, copies values like binary marshalling does. */
+    @SuppressWarnings("unchecked")
+    private final IgniteCache<String, StringBuilder> cache = (IgniteCache<String, StringBuilder>)Proxy.newProxyInstance(
+        getClass().getClassLoader(), new Class[] {IgniteCache.class}, (proxy, mtd, args) -> {
+            switch (mtd.getName()) {
+                case "get":
+                    reads.incrementAndGet();
+
+                    StringBuilder val = data.get(args[0]);
+
+                    return val == null ? null : new StringBuilder(val);
+
+                case "put":
+                    data.put((String)args[0], new StringBuilder((StringBuilder)args[1]));
+
+                    return null;
+
+                default:
+                    throw new UnsupportedOperationException(mtd.getName());
+            }
+        });
+
+    /** */
+    @Test
+    public void testReadFromHeapAndInvalidateOnPut() {
+        NearCache<String, StringBuilder> near = NearCache.forCache("test.put", 100, StringBuilder::length);
+
+        near.put(cache, "k", new StringBuilder("v1"));
+
+        StringBuilder first = near.get(cache, "k", null);
+
+        assertSame(first, near.get(cache, "k", null));
+        assertEquals(1, reads.get());
+        assertEquals(1, near.stats().hitCount());
+
+        near.put(cache, "k", new StringBuilder("v2"));
+
+        StringBuilder updated = near.get(cache, "k", null);
+
+        assertNotSame(first, updated);
+        assertEquals("v2", updated.toString());
+        assertEquals(2, reads.get());
+    }
+
+    /** */
+    @Test
+    public void testNotAdmittedValueIsReadFromPersistentCache() {
+        NearCache<String, StringBuilder> near = NearCache.forCache("test.admit", 100, StringBuilder::length);
+
+        near.put(cache, "running", new StringBuilder("r"));
+
+        near.get(cache, "running", v -> false);
+        near.get(cache, "running", v -> false);
+
+        assertEquals(2, reads.get());
+        assertEquals(0, near.size());
+    }
+}
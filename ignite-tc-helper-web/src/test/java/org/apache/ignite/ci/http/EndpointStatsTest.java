@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that savings are estimated only by responses for the same URL.
+ */
+public class EndpointStatsTest {
+    /** */
+    @Test
+    public void testSavingsBySamples() {
+        EndpointStats stats = new EndpointStats();
+
+        assertEquals(-1, stats.savingsRatio(), 0);
+        assertEquals(-1, stats.bytesSaved());
+
+        // Short list with projection is not compared with long list without it.
+        stats.onResponse(true, 1000);
+        stats.onResponse(false, 100);
+
+        assertEquals(-1, stats.savingsRatio(), 0);
+
+        stats.onResponse(true, 250);
+        stats.onSample(250, 1000);
+
+        assertEquals(0.75, stats.savingsRatio(), 1e-9);
+        assertEquals(1250 * 4 - 1250, stats.bytesSaved());
+        assertEquals(1, stats.samples());
+        assertEquals(2, stats.fullRequests());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks retries and rate adaptation of server transport.
+ */
+public class RateLimitedTransportTest {
+    /** */
+    @Test
+    public void testRetryAfterOverload() throws Exception {
+        FailingTransport host = new FailingTransport(1, HttpStatusException.SERVICE_UNAVAILABLE);
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(100, 1, 10_000);
+        RateLimitedTransport transport = new RateLimitedTransport("srv", host, limiter, new RetryPolicy(2));
+
+        try (InputStream is = transport.sendGet(null, "http://tc/app/rest/builds")) {
+            assertEquals('<', is.read());
+        }
+
+        assertEquals(2, host.calls.get());
+        assertEquals(1, transport.retries());
+        assertEquals(1, limiter.overloads());
+        assertEquals(1, limiter.decreases());
+        assertTrue(String.valueOf(limiter.rate()), limiter.rate() < 100);
+    }
+
+    /** */
+    @Test
+    public void testNoRetryForNotFound() throws Exception {
+        FailingTransport host = new FailingTransport(Integer.MAX_VALUE, 404);
+        RateLimitedTransport transport = new RateLimitedTransport("srv", host, null, new RetryPolicy(3));
+
+        try {
+            transport.sendGet(null, "http://tc/app/rest/builds/id:1");
+
+            fail();
+        }
+        catch (FileNotFoundException ignored) {
+            // Expected, missing entities are handled by caller.
+        }
+
+        assertEquals(1, host.calls.get());
+        assertEquals(0, transport.retries());
+    }
+
+    /** */
+    @Test
+    public void testAimd() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(10, 1, 100);
+
+        limiter.onSuccess(1_000_000_000L); // slower than target
+
+        assertEquals(5, limiter.rate(), 0.001);
+
+        limiter.onOverload(-1); // ignored during cooldown
+
+        assertEquals(5, limiter.rate(), 0.001);
+
+        for (int i = 0; i < 5; i++)
+            limiter.onSuccess(1_000_000L);
+
+        assertEquals(6, limiter.rate(), 0.1);
+    }
+
+    /**
+     * Host transport failing first requests.
+     */
+    private static class FailingTransport implements IHttpTransport {
+        /** Failures before success. */
+        private final int failures;
+
+        /** Response code for failures. */
+        private final int code;
+
+        /** Calls. */
+        private final AtomicInteger calls = new AtomicInteger();
+
+        /** Stats. */
+        private final HttpHostStats stats = new HttpHostStats(false);
+
+        /**
+         * @param failures Failures before success.
+         * @param code Response code for failures.
+         */
+        FailingTransport(int failures, int code) {
+            this.failures = failures;
+            this.code = code;
+        }
+
+        /** {@inheritDoc} */
+        @Override public InputStream sendGet(@Nullable String basicAuthTok, String url) throws IOException {
+            if (calls.incrementAndGet() <= failures) {
+                if (code == 404)
+                    throw new FileNotFoundException(url);
+
+                throw new HttpStatusException(code, url, null, null);
+            }
+
+            return new ByteArrayInputStream("<builds/>".getBytes());
+        }
+
+        /** {@inheritDoc} */
+        @Override public String sendPost(@Nullable String basicAuthTok, String url, String body) {
+            throw new UnsupportedOperationException();
+        }
+
+        /** {@inheritDoc} */
+        @Override public String host() {
+            return "http://tc/";
+        }
+
+        /** {@inheritDoc} */
+        @Override public HttpHostStats stats() {
+            return stats;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void close() {
+        }
+    }
+}
@@ -17,6 +17,8 @@
 
 package org.apache.ignite.ci.issue;
 
+import java.util.List;
+import java.util.Random;
 import org.apache.ignite.ci.analysis.RunStat;
 import org.apache.ignite.ci.tcmodel.result.Build;
 import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
@@ -143,4 +145,84 @@ public class DetectingFailureTest {
         assertNotNull(testId);
         assertEquals(firstFailedBuildId, testId.getBuildId());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void detectTemplatesSameAsScalarMatch() {
+        Random rnd = new Random(42);
+
+        for (int i = 0; i < 1000; i++) {
+            RunStat stat = new RunStat("");
+
+            Build build = new Build();
+            TestOccurrence mutedRun = new TestOccurrence().setStatus("FAILURE");
+            mutedRun.muted = true;
+
+            int runs = rnd.nextInt(70);
+
+            // Long series of the same result make templates match.
+            int res = 0;
+
+            for (int buildId = 100; buildId < 100 + runs; buildId++) {
+                if (rnd.nextInt(4) == 0)
+                    res = rnd.nextInt(4);
+
+                if (res == RunStat.RES_CRITICAL_FAILURE)
+                    stat.setBuildCriticalError(buildId);
+                else if (res == 2)
+                    stat.addTestRunToLatest(mutedRun.setId("id:0,build:(id:" + buildId + ")"));
+                else {
+                    build.setId(buildId);
+                    build.status = res == RunStat.RES_OK ? Build.STATUS_SUCCESS : "FAILURE";
+
+                    stat.addBuildRun(build);
+                }
+            }
+
+            EventTemplate[] templates = EventTemplates.templates.toArray(new EventTemplate[0]);
+
+            RunStat.TestId[] detected = stat.detectTemplates(templates);
+
+            for (int t = 0; t < templates.length; t++) {
+                Integer exp = scalarMatch(stat, templates[t]);
+
+                assertEquals(stat.getLatestRunResults().toString(), exp,
+                    detected[t] == null ? null : detected[t].getBuildId());
+                assertEquals(detected[t], stat.detectTemplate(templates[t]));
+            }
+        }
+    }
+
+    /**
+     * Previous implementation of template matching, checks each window position run by run.
+     *
+     * @return Build ID of central event.
+     */
+    private static Integer scalarMatch(RunStat stat, EventTemplate t) {
+        List<Integer> results = stat.getLatestRunResults();
+        int[] buildIds = stat.latestBuildIds().toArray();
+
+        int[] template = new int[t.cntEvents()];
+        System.arraycopy(t.beforeEvent(), 0, template, 0, t.beforeEvent().length);
+        System.arraycopy(t.eventAndAfter(), 0, template, t.beforeEvent().length, t.eventAndAfter().length);
+
+        for (int idx = results.size() - template.length; idx >= 0; idx--) {
+            if (t.shouldBeFirst() && (idx != 0 || results.size() < stat.getRunsAllHist()))
+                continue;
+
+            boolean match = true;
+
+            for (int tIdx = 0; tIdx < template.length && match; tIdx++) {
+                int cur = results.get(idx + tIdx);
+                int tmpl = template[tIdx];
+
+                match = cur == tmpl
+                    || (tmpl == RunStat.RES_OK_OR_FAILURE && (cur == RunStat.RES_OK || cur == RunStat.RES_FAILURE));
+            }
+
+            if (match)
+                return buildIds[idx + t.beforeEvent().length];
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.tcmodel.result.tests;
+
+import com.google.gson.Gson;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.ignite.ci.util.XmlStreamLoader;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks compacted tests list is decoded to the same model.
+ */
+public class TestOccurrencesCompactedTest {
+    /** */
+    @Test
+    public void testRecordedResponse() throws Exception {
+        TestOccurrences tests;
+
+        try (Reader reader = new InputStreamReader(
+            getClass().getResourceAsStream("/org/apache/ignite/ci/util/testOccurrences.xml"), StandardCharsets.UTF_8)) {
+            tests = XmlStreamLoader.load(TestOccurrences.class, reader);
+        }
+
+        TestOccurrencesCompacted compacted = new TestOccurrencesCompacted(tests);
+
+        assertEquals(8, compacted.size());
+        assertSame(tests, compacted.toTestOccurrences());
+    }
+
+    /** */
+    @Test
+    public void testIrregularOccurrences() {
+        TestOccurrence other = new TestOccurrence().setId("id:7,build:(id:11)").setStatus("UNKNOWN");
+        other.href = "/app/rest/testOccurrences/id:7,build:(id:11)";
+        other.name = "Suite: 😀.test";
+        other.muted = false;
+
+        TestOccurrence noName = new TestOccurrence().setId("id:8,build:(id:12)");
+        noName.href = "/app/rest/testOccurrences/id:8,build:(id:12)";
+        noName.duration = 0;
+
+        TestOccurrence similar = new TestOccurrence().setId("id:9,build:(id:12)").setStatus("SUCCESS");
+        similar.href = "/app/rest/testOccurrences/id:9,build:(id:12)";
+        similar.name = "Suite: 😁.test";
+        similar.ignored = true;
+
+        TestOccurrences tests = new TestOccurrences();
+        tests.setTests(Arrays.asList(other, noName, similar));
+        tests.setNextHref("/app/rest/testOccurrences?locator=build:(id:12),start:3");
+
+        TestOccurrences decoded = new TestOccurrencesCompacted(tests).toTestOccurrences();
+
+        assertSame(tests, decoded);
+        assertNull(decoded.getTests().get(1).name);
+        assertEquals(Boolean.FALSE, decoded.getTests().get(0).muted);
+    }
+
+    /**
+     * @param exp Expected.
+     * @param actual Actual.
+     */
+    private static void assertSame(TestOccurrences exp, TestOccurrences actual) {
+        Gson gson = new Gson();
+
+        assertEquals(gson.toJson(exp), gson.toJson(actual));
+    }
+}
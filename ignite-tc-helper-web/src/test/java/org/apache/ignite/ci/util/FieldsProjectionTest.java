@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import org.apache.ignite.ci.tcmodel.hist.Builds;
+import org.apache.ignite.ci.tcmodel.result.Build;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks fields projection derived from JAXB model.
+ */
+public class FieldsProjectionTest {
+    /** */
+    @Test
+    public void testTestOccurrences() {
+        assertEquals("href,count,passed,failed,muted,"
+                + "testOccurrence(id,name,status,duration,href,muted,currentlyMuted,currentlyInvestigated,ignored),"
+                + "nextHref",
+            FieldsProjection.of(TestOccurrences.class));
+    }
+
+    /** */
+    @Test
+    public void testBuilds() {
+        assertEquals("build(href,id,buildTypeId,branchName,status,state,number,defaultBranch,composite)",
+            FieldsProjection.of(Builds.class));
+    }
+
+    /** */
+    @Test
+    public void testBuild() {
+        String fields = FieldsProjection.of(Build.class);
+
+        assertTrue(fields, fields.startsWith("href,id,buildTypeId,"));
+        assertTrue(fields, fields.contains(",snapshot-dependencies(build(href,id,"));
+        assertTrue(fields, fields.contains(",testOccurrences(href,count,passed,failed,muted),"));
+        assertTrue(fields, fields.contains(",triggered(user(")); // bound implicitly
+        assertFalse(fields, fields.contains("_version"));
+    }
+
+    /** */
+    @Test
+    public void testAppendTo() {
+        assertEquals("http://tc/app/rest/latest/builds/id:1?fields=" + FieldsProjection.of(Build.class),
+            FieldsProjection.appendTo("http://tc/app/rest/latest/builds/id:1", Build.class));
+
+        assertTrue(FieldsProjection.appendTo("http://tc/app/rest/latest/testOccurrences?locator=build:(id:1)",
+            TestOccurrences.class).contains("?locator=build:(id:1)&fields=href,"));
+    }
+}
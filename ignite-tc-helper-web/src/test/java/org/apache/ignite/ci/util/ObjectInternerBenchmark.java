@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+import org.apache.ignite.ci.tcmodel.hist.Builds;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares interning by per-class plans with previous reflective implementation on graphs of real response sizes:
+ * 7700 test occurrences and 1000 builds. Graphs are unmarshalled before each invocation, so strings are not yet
+ * pooled instances, as after reading from persistence. Also compares interning during and after JAXB unmarshalling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectInternerBenchmark {
+    /** Occurrences in response. */
+    @Param({"7700"})
+    public int tests;
+
+    /** Builds in response. */
+    @Param({"1000"})
+    public int builds;
+
+    /** Test occurrences XML. */
+    private String testsXml;
+
+    /** Builds XML. */
+    private String buildsXml;
+
+    /** Tests context. */
+    private JAXBContext testsCtx;
+
+    /** Builds context. */
+    private JAXBContext buildsCtx;
+
+    /** Tests graph to be interned. */
+    private TestOccurrences testsGraph;
+
+    /** Builds graph to be interned. */
+    private Builds buildsGraph;
+
+    /** */
+    @Setup
+    public void setup() throws Exception {
+        testsXml = XmlLoadBenchmark.replicate("testOccurrences.xml", "<testOccurrence ", tests);
+        buildsXml = XmlLoadBenchmark.replicate("builds.xml", "<build ", builds);
+
+        testsCtx = JAXBContext.newInstance(TestOccurrences.class);
+        buildsCtx = JAXBContext.newInstance(Builds.class);
+    }
+
+    /** */
+    @Setup(Level.Invocation)
+    public void unmarshal() throws Exception {
+        testsGraph = (TestOccurrences)testsCtx.createUnmarshaller().unmarshal(new StringReader(testsXml));
+        buildsGraph = (Builds)buildsCtx.createUnmarshaller().unmarshal(new StringReader(buildsXml));
+    }
+
+    /** */
+    @Benchmark
+    public int reflective() {
+        return ReflectiveInterner.internFields(testsGraph) + ReflectiveInterner.internFields(buildsGraph);
+    }
+
+    /** */
+    @Benchmark
+    public int planned() {
+        return ObjectInterner.internFields(testsGraph) + ObjectInterner.internFields(buildsGraph);
+    }
+
+    /** */
+    @Benchmark
+    public TestOccurrences testsInternAfterParse() throws Exception {
+        TestOccurrences res = (TestOccurrences)testsCtx.createUnmarshaller().unmarshal(new StringReader(testsXml));
+
+        ObjectInterner.internFields(res);
+
+        return res;
+    }
+
+    /** */
+    @Benchmark
+    public TestOccurrences testsInternOnParse() throws Exception {
+        Unmarshaller unmarshaller = testsCtx.createUnmarshaller();
+
+        unmarshaller.setListener(new Unmarshaller.Listener() {
+            @Override public void afterUnmarshal(Object target, Object parent) {
+                ObjectInterner.internOwnFields(target);
+            }
+        });
+
+        return (TestOccurrences)unmarshaller.unmarshal(new StringReader(testsXml));
+    }
+
+    /**
+     * @param args Args.
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+            .include(ObjectInternerBenchmark.class.getSimpleName())
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * Previous implementation: fields are found by reflection for each object, strings are pooled in Guava cache.
+     */
+    private static class ReflectiveInterner {
+        /** */
+        private static final LoadingCache<String, String> stringCache = CacheBuilder.newBuilder()
+            .maximumSize(67537)
+            .initialCapacity(67537)
+            .build(new CacheLoader<String, String>() {
+                @Override public String load(String key) {
+                    return key;
+                }
+            });
+
+        /**
+         * @param str String.
+         */
+        static String internString(String str) {
+            if (str == null || str.length() > 300)
+                return str;
+
+            return stringCache.getUnchecked(str);
+        }
+
+        /**
+         * @param obj Object.
+         */
+        static int internFields(Object obj) {
+            if (obj == null)
+                return 0;
+
+            int compressed = 0;
+
+            for (Field field : obj.getClass().getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()))
+                    continue;
+
+                field.setAccessible(true);
+
+                try {
+                    Object fldVal = field.get(obj);
+
+                    if (fldVal == null)
+                        continue;
+
+                    if (!Modifier.isFinal(field.getModifiers()) && fldVal instanceof String) {
+                        String intern = internString((String)fldVal);
+
+                        //noinspection StringEquality
+                        if (intern != fldVal) {
+                            compressed++;
+
+                            field.set(obj, intern);
+                        }
+
+                        continue;
+                    }
+
+                    if (isModel(fldVal))
+                        compressed += internFields(fldVal);
+                    else if (fldVal instanceof Collection) {
+                        for (Object next : (Collection<?>)fldVal) {
+                            if (isModel(next))
+                                compressed += internFields(next);
+                        }
+                    }
+                    else if (fldVal instanceof Map) {
+                        for (Object next : ((Map<?, ?>)fldVal).values()) {
+                            if (isModel(next))
+                                compressed += internFields(next);
+                        }
+                    }
+                }
+                catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            return compressed;
+        }
+
+        /**
+         * @param obj Object.
+         */
+        private static boolean isModel(Object obj) {
+            Package pkg = obj.getClass().getPackage();
+
+            return pkg != null && pkg.getName().startsWith("org.apache.ignite.ci");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.ignite.ci.tcmodel.hist.BuildRef;
+import org.apache.ignite.ci.tcmodel.result.Build;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks strings are interned in nested objects, collections and inherited fields.
+ */
+public class ObjectInternerTest {
+    /** */
+    @Test
+    public void testNestedAndInheritedFields() {
+        TestOccurrences first = tests("Suite: Test.testA");
+        TestOccurrences second = tests("Suite: Test.testA");
+
+        assertEquals(0, ObjectInterner.internFields(first));
+        assertTrue(ObjectInterner.internFields(second) >= 2);
+
+        assertSame(first.getTests().get(0).name, second.getTests().get(0).name);
+        assertSame(first.href, second.href);
+
+        Build build = new Build();
+        build.buildTypeId = new String("IgniteTests24Java8_RunAll");
+
+        BuildRef ref = new BuildRef();
+        ref.buildTypeId = new String("IgniteTests24Java8_RunAll");
+
+        ObjectInterner.internFields(build);
+        ObjectInterner.internFields(Collections.singletonList(ref));
+        ObjectInterner.internFields(ref);
+
+        assertSame(build.buildTypeId, ref.buildTypeId);
+    }
+
+    /** */
+    @Test
+    public void testPoolEviction() {
+        StringPool pool = new StringPool(4, 1, 10);
+
+        for (int i = 0; i < 100; i++)
+            pool.intern("str" + i);
+
+        assertTrue(pool.size() <= 4);
+        assertEquals(100, pool.misses());
+        assertTrue(pool.evictions() >= 96);
+
+        String longStr = "0123456789_";
+
+        assertSame(longStr, pool.intern(longStr));
+        assertSame(pool.intern("str99"), pool.intern(new String("str99")));
+        assertEquals(2, pool.hits());
+    }
+
+    /**
+     * @param name Test name.
+     */
+    private static TestOccurrences tests(String name) {
+        TestOccurrence occurrence = new TestOccurrence().setId(new String("id:1,build:(id:2)"));
+        occurrence.name = new String(name);
+
+        TestOccurrences res = new TestOccurrences();
+        res.href = new String("/app/rest/testOccurrences?locator=build:(id:2)");
+        res.setTests(Arrays.asList(occurrence));
+
+        return res;
+    }
+}
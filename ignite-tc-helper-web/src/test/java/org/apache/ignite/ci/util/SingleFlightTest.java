@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks concurrent loads of the same key are executed once.
+ */
+public class SingleFlightTest {
+    /** */
+    @Test
+    public void testConcurrentLoadsExecutedOnce() throws Exception {
+        SingleFlight flight = new SingleFlight();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> flight.load("key", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+
+            return "val";
+        }));
+
+        started.await();
+
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> flight.load("key", () -> {
+            loads.incrementAndGet();
+
+            return "other";
+        }));
+
+        // Second caller should be waiting for first load.
+        Thread.sleep(100);
+
+        release.countDown();
+
+        assertEquals("val", first.get());
+        assertEquals("val", second.get());
+        assertEquals(1, loads.get());
+
+        assertEquals("new", flight.load("key", () -> "new"));
+    }
+
+    /** */
+    @Test
+    public void testFailureIsNotCached() {
+        SingleFlight flight = new SingleFlight();
+
+        try {
+            flight.load("key", () -> {
+                throw new IllegalStateException("failed");
+            });
+
+            fail();
+        }
+        catch (IllegalStateException ignored) {
+            // Expected.
+        }
+
+        assertEquals("val", flight.load("key", () -> "val"));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that branch receives complete source when consumer stops reading early.
+ */
+public class TeeInputStreamTest {
+    /** */
+    @Test
+    public void testRemainingBytesCopiedOnClose() throws IOException {
+        byte[] zip = zip("build.log", "line1\nline2\n");
+
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        try (InputStream is = new TeeInputStream(new ChunkedInputStream(zip), copy)) {
+            ZipInputStream zis = new ZipInputStream(is);
+
+            assertNotNull(zis.getNextEntry());
+
+            while (zis.read() >= 0) {
+                // Read entry only.
+            }
+
+            assertNull(zis.getNextEntry());
+
+            // Zip central directory is not read by zip stream.
+            assertTrue(copy.size() < zip.length);
+        }
+
+        assertArrayEquals(zip, copy.toByteArray());
+    }
+
+    /** */
+    @Test
+    public void testEarlyStop() throws IOException {
+        byte[] src = new byte[100_000];
+
+        for (int i = 0; i < src.length; i++)
+            src[i] = (byte)i;
+
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        try (InputStream is = new TeeInputStream(new ByteArrayInputStream(src), copy)) {
+            assertEquals(0, is.read());
+            assertEquals(10, is.skip(10));
+            assertEquals(11, is.read());
+        }
+
+        assertArrayEquals(src, copy.toByteArray());
+    }
+
+    /**
+     * Returns one byte per read like slow network stream, so zip stream does not read ahead.
+     */
+    private static class ChunkedInputStream extends FilterInputStream {
+        /**
+         * @param src Source bytes.
+         */
+        ChunkedInputStream(byte[] src) {
+            super(new ByteArrayInputStream(src));
+        }
+
+        /** {@inheritDoc} */
+        @Override public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, 1));
+        }
+    }
+
+    /**
+     * @param name Entry name.
+     * @param text Entry text.
+     */
+    private static byte[] zip(String name, String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ZipOutputStream zos = new ZipOutputStream(bytes)) {
+            zos.putNextEntry(new ZipEntry(name));
+            zos.write(text.getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+
+        return bytes.toByteArray();
+    }
+}
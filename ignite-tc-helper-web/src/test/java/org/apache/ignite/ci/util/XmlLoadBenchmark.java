@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.ignite.ci.tcmodel.hist.Builds;
+import org.apache.ignite.ci.tcmodel.result.problems.ProblemOccurrences;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares JAXB and streaming parsing of recorded TeamCity responses. Fixture entries are replicated to reach sizes of
+ * real requests: 7700 test occurrences, 1000 builds in history. Run with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlLoadBenchmark {
+    /** Occurrences in response. */
+    @Param({"7700"})
+    public int tests;
+
+    /** Builds in response. */
+    @Param({"1000"})
+    public int builds;
+
+    /** Test occurrences XML. */
+    private String testsXml;
+
+    /** Builds XML. */
+    private String buildsXml;
+
+    /** Problems XML. */
+    private String problemsXml;
+
+    /** */
+    @Setup
+    public void setup() throws Exception {
+        testsXml = replicate("testOccurrences.xml", "<testOccurrence ", tests);
+        buildsXml = replicate("builds.xml", "<build ", builds);
+        problemsXml = String.join("\n", lines("problemOccurrences.xml"));
+    }
+
+    /** */
+    @Benchmark
+    public TestOccurrences testsJaxb() throws Exception {
+        return XmlUtil.loadJaxb(TestOccurrences.class, new StringReader(testsXml));
+    }
+
+    /** */
+    @Benchmark
+    public TestOccurrences testsStream() throws Exception {
+        return XmlStreamLoader.load(TestOccurrences.class, new StringReader(testsXml));
+    }
+
+    /** */
+    @Benchmark
+    public Builds buildsJaxb() throws Exception {
+        return XmlUtil.loadJaxb(Builds.class, new StringReader(buildsXml));
+    }
+
+    /** */
+    @Benchmark
+    public Builds buildsStream() throws Exception {
+        return XmlStreamLoader.load(Builds.class, new StringReader(buildsXml));
+    }
+
+    /** */
+    @Benchmark
+    public ProblemOccurrences problemsJaxb() throws Exception {
+        return XmlUtil.loadJaxb(ProblemOccurrences.class, new StringReader(problemsXml));
+    }
+
+    /** */
+    @Benchmark
+    public ProblemOccurrences problemsStream() throws Exception {
+        return XmlStreamLoader.load(ProblemOccurrences.class, new StringReader(problemsXml));
+    }
+
+    /**
+     * @param rsrc Fixture.
+     * @param elemPrefix Prefix of single-line element to replicate.
+     * @param cnt Required count of elements.
+     */
+    static String replicate(String rsrc, String elemPrefix, int cnt) throws Exception {
+        List<String> lines = lines(rsrc);
+
+        List<String> elems = lines.stream().filter(l -> l.startsWith(elemPrefix) && l.endsWith("/>"))
+            .collect(Collectors.toList());
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(lines.get(0)).append('\n').append(lines.get(1)).append('\n');
+
+        for (int i = 0; i < cnt; i++) {
+            String elem = elems.get(i % elems.size());
+
+            // Make IDs unique as in real responses, names are kept repeating.
+            sb.append(elem.replace("id:", "id:" + i + "0")).append('\n');
+        }
+
+        sb.append(lines.get(lines.size() - 1)).append('\n');
+
+        return sb.toString();
+    }
+
+    /**
+     * @param rsrc Fixture.
+     */
+    static List<String> lines(String rsrc) throws Exception {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(XmlLoadBenchmark.class.getResourceAsStream(rsrc), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @param args Args.
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+            .include(XmlLoadBenchmark.class.getSimpleName())
+            .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.util;
+
+import com.google.gson.Gson;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import org.apache.ignite.ci.tcmodel.hist.BuildRef;
+import org.apache.ignite.ci.tcmodel.hist.Builds;
+import org.apache.ignite.ci.tcmodel.result.problems.ProblemOccurrences;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrence;
+import org.apache.ignite.ci.tcmodel.result.tests.TestOccurrences;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks streaming parser produces the same model as JAXB for recorded responses.
+ */
+public class XmlStreamLoaderTest {
+    /** */
+    @Test
+    public void testTestOccurrences() throws Exception {
+        TestOccurrences stax = loadStax("testOccurrences.xml", TestOccurrences.class);
+
+        assertSameAsJaxb("testOccurrences.xml", TestOccurrences.class, stax);
+
+        assertEquals(8, stax.getTests().size());
+        assertEquals(Integer.valueOf(8), stax.count);
+
+        TestOccurrence muted = stax.getTests().get(4);
+
+        assertTrue(muted.isMutedTest());
+        assertTrue(muted.isFailedTest());
+        assertEquals("id:6,build:(id:1595147)", muted.getId());
+        assertTrue(stax.getTests().get(7).isIgnoredTest());
+        assertNull(stax.getTests().get(7).duration);
+
+        TestOccurrences other = loadStax("testOccurrences.xml", TestOccurrences.class);
+
+        assertSame(stax.getTests().get(0).name, other.getTests().get(0).name);
+    }
+
+    /** */
+    @Test
+    public void testBuilds() throws Exception {
+        Builds stax = loadStax("builds.xml", Builds.class);
+
+        assertSameAsJaxb("builds.xml", Builds.class, stax);
+
+        assertEquals(5, stax.getBuildsNonNull().size());
+
+        BuildRef runAll = stax.getBuildsNonNull().get(3);
+
+        assertEquals(Integer.valueOf(1592001), runAll.getId());
+        assertEquals("<default>", runAll.branchName);
+        assertTrue(runAll.isComposite());
+        assertEquals(BuildRef.STATE_RUNNING, stax.getBuildsNonNull().get(4).getState());
+    }
+
+    /** */
+    @Test
+    public void testProblemOccurrences() throws Exception {
+        ProblemOccurrences stax = loadStax("problemOccurrences.xml", ProblemOccurrences.class);
+
+        assertSameAsJaxb("problemOccurrences.xml", ProblemOccurrences.class, stax);
+
+        assertEquals(3, stax.getProblemsNonNull().size());
+        assertTrue(stax.getProblemsNonNull().get(1).isExecutionTimeout());
+    }
+
+    /**
+     * @param rsrc Resource name.
+     * @param cls Class.
+     * @param stax Object loaded by streaming parser.
+     */
+    private <T> void assertSameAsJaxb(String rsrc, Class<T> cls, T stax) throws Exception {
+        T jaxb;
+
+        try (Reader reader = reader(rsrc)) {
+            jaxb = XmlUtil.loadJaxb(cls, reader);
+        }
+
+        Gson gson = new Gson();
+
+        assertEquals(gson.toJson(jaxb), gson.toJson(stax));
+    }
+
+    /**
+     * @param rsrc Resource name.
+     * @param cls Class.
+     */
+    private <T> T loadStax(String rsrc, Class<T> cls) throws Exception {
+        try (Reader reader = reader(rsrc)) {
+            return XmlStreamLoader.load(cls, reader);
+        }
+    }
+
+    /**
+     * @param rsrc Resource name.
+     */
+    private Reader reader(String rsrc) {
+        return new InputStreamReader(getClass().getResourceAsStream(rsrc), StandardCharsets.UTF_8);
+    }
+}